@@ -1,8 +1,9 @@
 package jumpingalien.model;
 
-import java.util.HashSet;
 import java.util.Set;
 
+import be.kuleuven.cs.som.annotate.Immutable;
+
 import jumpingalien.model.exceptions.IllegalHeightException;
 import jumpingalien.model.exceptions.IllegalPositionXException;
 import jumpingalien.model.exceptions.IllegalPositionYException;
@@ -127,6 +128,16 @@ public class Buzam extends Mazub implements IProgrammable{
 	
 	/******************************************************** WORLD ****************************************************/
 	
+	/**
+	 * Return the kind bit of a Buzam.
+	 * 
+	 * @return	| result == World.BUZAM_BIT
+	 */
+	@Override @Immutable
+	public int getKindBit(){
+		return World.BUZAM_BIT;
+	}
+	
 	/**
 	 * Add a Buzam to the given World.
 	 * 
@@ -134,7 +145,7 @@ public class Buzam extends Mazub implements IProgrammable{
 	 */
 	@Override
 	protected void addToWorld(){
-		this.getWorld().buzams.add(this);
+		this.getWorld().buzams.register(this);
 	}
 	
 	/**
@@ -151,7 +162,7 @@ public class Buzam extends Mazub implements IProgrammable{
 		assert this != null && !this.hasWorld();
 		assert world.hasAsGameObject(this);
 		
-		world.buzams.remove(this);
+		world.buzams.unregister(this);
 	}
 	
 	/**
@@ -160,10 +171,11 @@ public class Buzam extends Mazub implements IProgrammable{
 	 * @param	world
 	 * 				The World to check.
 	 * @return	| result == ( Buzam.getAllInWorld(world).contains(this) )
+	 * @note	This method runs in constant time.
 	 */
 	@Override
 	protected boolean hasAsWorld(World world){
-		return Buzam.getAllInWorld(world).contains(this);
+		return world.buzams.contains(this);
 	}
 	
 	/**
@@ -174,7 +186,7 @@ public class Buzam extends Mazub implements IProgrammable{
 	 * @return	| result == ( Buzam.getAllInWorld(world).size() )
 	 */
 	public static int getNbInWorld(World world){
-		return Buzam.getAllInWorld(world).size();
+		return world.buzams.size();
 	}
 	
 	/**
@@ -182,11 +194,10 @@ public class Buzam extends Mazub implements IProgrammable{
 	 * 
 	 * @param 	world
 	 * 				The World to check.
-	 * @return	A Hashset containing all Buzams in the given World.
+	 * @return	A read-only, live view on all Buzams in the given World.
 	 */
 	public static Set<Buzam> getAllInWorld(World world){
-		HashSet<Buzam> buzamsClone =  new HashSet<Buzam>(world.buzams);
-		return buzamsClone;
+		return world.buzams;
 	}
 	
 	/******************************************************* MOVEMENT **************************************************/
@@ -0,0 +1,561 @@
+package jumpingalien.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import jumpingalien.model.helper.Collision;
+import jumpingalien.model.helper.Orientation;
+import jumpingalien.model.terrain.TerrainInteraction;
+
+/**
+ * A class of caches that remember what a Game object touches, so that consecutive questions about its contacts
+ * within one time step do not query the terrain and the broadphase of its World over and over again.
+ *
+ * The contacts with terrain are remembered together with the tiles that contain the outer pixels of the Game
+ * object and the pixels right within them. Every interaction of the Game object with terrain only depends on
+ * those tiles, so the contacts stay valid until one of those pixels crosses a tile border or the terrain of the
+ * World changes.
+ *
+ * The contacts with other Game objects are remembered together with the bounding box they were computed for. The
+ * Game objects near the Game object are remembered for the tiles around that bounding box, together with the
+ * stamps of their last changes. They are only looked up again when the bounding box crosses the border of those
+ * tiles, when one of the remembered neighbours has changed since, or when another Game object has entered one of
+ * those tiles since. Changes of Game objects elsewhere in the World leave the neighbours valid.
+ *
+ * Every question counts as a hit or a miss in the World of the Game object. Other Game objects are always taken at
+ * the bounding boxes they last reported to the World, so a cache gives the same answers while the other Game objects
+ * of the World plan their motion in parallel.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+class ContactCache {
+
+	/**
+	 * Constant reflecting the initial capacity of the arrays of neighbours of a cache.
+	 */
+	private static final int INITIAL_CAPACITY = 8;
+
+	/**
+	 * Return the index of the contact for the given interaction in the given orientation.
+	 *
+	 * @param 	interaction
+	 * 				The interaction.
+	 * @param 	orientation
+	 * 				The orientation.
+	 * @return	| result == interaction.ordinal() * Orientation.values().length + orientation.ordinal()
+	 */
+	static int getContactIndex(TerrainInteraction interaction, Orientation orientation){
+		return interaction.ordinal() * NB_ORIENTATIONS + orientation.ordinal();
+	}
+
+	/**
+	 * Constant reflecting the number of orientations.
+	 */
+	private static final int NB_ORIENTATIONS = Orientation.values().length;
+
+	/**
+	 * Register that the given World has reported a change of the bounding box of the given Game object of this
+	 * cache, with the given stamp.
+	 *
+	 * @param 	world
+	 * 				The World that reports the change.
+	 * @param 	gameObject
+	 * 				The Game object of this cache.
+	 * @param 	inWorld
+	 * 				Whether the given Game object is still an active Game object of the given World.
+	 * @param 	stamp
+	 * 				The stamp of the change, larger than the stamps of all earlier changes in the given World.
+	 * @post	| new.getChangeStamp() == stamp
+	 * @post	| if ( inWorld )
+	 * 			|	then new.getReportedX() == gameObject.getRoundedPositionX() && 
+	 * 			|		 new.getReportedY() == gameObject.getRoundedPositionY() &&
+	 * 			|		 new.getReportedWidth() == gameObject.getWidth() && new.getReportedHeight() == gameObject.getHeight()
+	 * @post	If the given World is not the World for which this cache holds contacts, this cache holds no
+	 * 			contacts anymore.
+	 * @effect	If the given Game object is in the given World and covers other tiles than at its previous change,
+	 * 			the tiles it covers now are stamped in the given World.
+	 * 			| world.stampTiles(..., stamp)
+	 * @note	The neighbours of this cache stay valid if they were valid before this change, since the change 
+	 * 			of its own Game object does not change them.
+	 */
+	void boundsChanged(World world, GameObject gameObject, boolean inWorld, long stamp){
+		this.changeStamp = stamp;
+		if(world != this.world)
+			this.world = null;
+		if(!inWorld){
+			this.hasOwnTiles = false;
+			return;
+		}
+
+		int tileLength = world.getTileLength();
+		int x = gameObject.getRoundedPositionX(), y = gameObject.getRoundedPositionY();
+		this.reportedX = x;
+		this.reportedY = y;
+		this.reportedWidth = gameObject.getWidth();
+		this.reportedHeight = gameObject.getHeight();
+		int tileLeft = Math.floorDiv(x, tileLength), tileBottom = Math.floorDiv(y, tileLength);
+		int tileRight = Math.floorDiv(x + this.reportedWidth - 1, tileLength);
+		int tileTop = Math.floorDiv(y + this.reportedHeight - 1, tileLength);
+		if(this.hasOwnTiles && tileLeft == this.ownTileLeft && tileBottom == this.ownTileBottom &&
+				tileRight == this.ownTileRight && tileTop == this.ownTileTop)
+			return;
+
+		boolean neighboursValid = this.world == world && this.hasValidNeighbours(world);
+		world.stampTiles(tileLeft, tileBottom, tileRight, tileTop, stamp);
+		if(neighboursValid)
+			this.neighboursVersion = stamp;
+		this.hasOwnTiles = true;
+		this.ownTileLeft = tileLeft;
+		this.ownTileBottom = tileBottom;
+		this.ownTileRight = tileRight;
+		this.ownTileTop = tileTop;
+	}
+
+	/**
+	 * Return the stamp of the last change of the Game object of this cache reported by its World.
+	 */
+	@Basic
+	long getChangeStamp(){
+		return this.changeStamp;
+	}
+
+	/**
+	 * Variable registering the stamp of the last change of the Game object of this cache.
+	 */
+	private long changeStamp = 0;
+
+	/**
+	 * Return the horizontal position of the bounding box of the Game object of this cache at its last change 
+	 * reported in its World.
+	 */
+	@Basic
+	int getReportedX(){
+		return this.reportedX;
+	}
+
+	/**
+	 * Return the vertical position of the bounding box of the Game object of this cache at its last change 
+	 * reported in its World.
+	 */
+	@Basic
+	int getReportedY(){
+		return this.reportedY;
+	}
+
+	/**
+	 * Return the width of the bounding box of the Game object of this cache at its last change reported in its 
+	 * World.
+	 */
+	@Basic
+	int getReportedWidth(){
+		return this.reportedWidth;
+	}
+
+	/**
+	 * Return the height of the bounding box of the Game object of this cache at its last change reported in its 
+	 * World.
+	 */
+	@Basic
+	int getReportedHeight(){
+		return this.reportedHeight;
+	}
+
+	/**
+	 * Variables registering the bounding box of the Game object of this cache at its last change reported in its
+	 * World, which is the bounding box the broadphase of that World holds for it.
+	 */
+	private int reportedX, reportedY, reportedWidth, reportedHeight;
+
+	/**
+	 * Variable registering whether the tiles covered by the Game object of this cache at its last change were
+	 * stamped in its World.
+	 */
+	private boolean hasOwnTiles = false;
+
+	/**
+	 * Variables registering the tiles covered by the Game object of this cache at its last change.
+	 */
+	private int ownTileLeft, ownTileBottom, ownTileRight, ownTileTop;
+
+	/**
+	 * Make this cache hold contacts for the given World, forgetting all contacts it holds for another World.
+	 *
+	 * @param 	world
+	 * 				The World of the Game object of this cache.
+	 */
+	private void setWorld(World world){
+		if(world == this.world)
+			return;
+		this.world = world;
+		this.hasTerrainKey = false;
+		this.hasNeighbours = false;
+		this.knownTerrainContacts = 0;
+		this.knownGameObjectContacts = 0;
+		Arrays.fill(this.neighbours, 0, this.nbNeighbours, null);
+		this.nbNeighbours = 0;
+	}
+
+	/**
+	 * Variable registering the World for which this cache holds contacts, or null if it holds none.
+	 */
+	private World world = null;
+
+	/******************************************************** TERRAIN **************************************************/
+
+	/**
+	 * Check whether this cache holds the contact with terrain at the given index for the current bounding box of
+	 * the given Game object, and count the question as a hit or a miss in its World.
+	 *
+	 * @param 	gameObject
+	 * 				The Game object of this cache.
+	 * @param 	contactIndex
+	 * 				The index of the contact.
+	 * @pre		| gameObject.hasProperWorld()
+	 * @return	| result == holdsTerrainContact(gameObject, contactIndex)
+	 */
+	boolean hasTerrainContact(GameObject gameObject, int contactIndex){
+		boolean hit = this.holdsTerrainContact(gameObject, contactIndex);
+		gameObject.getWorld().countContactCacheLookup(gameObject, hit);
+		return hit;
+	}
+
+	/**
+	 * Check whether this cache holds the contact with terrain at the given index for the current bounding box of
+	 * the given Game object, without counting the question.
+	 *
+	 * @param 	gameObject
+	 * 				The Game object of this cache.
+	 * @param 	contactIndex
+	 * 				The index of the contact.
+	 * @pre		| gameObject.hasProperWorld()
+	 * @return	False if the given Game object is two pixels wide or high or less. Its inner box is empty then,
+	 * 			and its contacts with terrain depend on more than the tiles of its outer pixels.
+	 * @note	This method only reads the World of the given Game object, so the caches of different Game objects
+	 * 			can be consulted in parallel.
+	 */
+	boolean holdsTerrainContact(GameObject gameObject, int contactIndex){
+		World world = gameObject.getWorld();
+		int x = gameObject.getRoundedPositionX(), y = gameObject.getRoundedPositionY();
+		int width = gameObject.getWidth(), height = gameObject.getHeight();
+		if(width <= 2 || height <= 2){
+			this.hasTerrainKey = false;
+			return false;
+		}
+
+		this.setWorld(world);
+		if(!this.hasTerrainKey || this.terrainVersion != world.getNbTerrainChanges()){
+			this.setTerrainKey(world.getTileLength(), x, y, width, height);
+			this.terrainVersion = world.getNbTerrainChanges();
+			this.knownTerrainContacts = 0;
+		}
+		else if(x != this.terrainX || y != this.terrainY || width != this.terrainWidth || height != this.terrainHeight){
+			if(!this.setTerrainKey(world.getTileLength(), x, y, width, height))
+				this.knownTerrainContacts = 0;
+		}
+
+		return (this.knownTerrainContacts & (1 << contactIndex)) != 0;
+	}
+
+	/**
+	 * Return the contact with terrain at the given index, as held by this cache.
+	 *
+	 * @param 	contactIndex
+	 * 				The index of the contact.
+	 */
+	boolean getTerrainContact(int contactIndex){
+		return (this.terrainContacts & (1 << contactIndex)) != 0;
+	}
+
+	/**
+	 * Remember the given contact with terrain at the given index for the current tiles of this cache.
+	 *
+	 * @param 	contactIndex
+	 * 				The index of the contact.
+	 * @param 	contact
+	 * 				Whether or not the Game object of this cache has the contact.
+	 */
+	void putTerrainContact(int contactIndex, boolean contact){
+		this.knownTerrainContacts |= 1 << contactIndex;
+		if(contact)
+			this.terrainContacts |= 1 << contactIndex;
+		else
+			this.terrainContacts &= ~(1 << contactIndex);
+	}
+
+	/**
+	 * Remember the tiles of the outer pixels of the given bounding box, and the pixels right within them.
+	 *
+	 * @return	True if and only if those tiles are the same as the tiles this cache remembered before.
+	 */
+	private boolean setTerrainKey(int tileLength, int x, int y, int width, int height){
+		int[] tiles = this.terrainTiles;
+		boolean same = this.hasTerrainKey;
+		same &= setTile(tiles, 0, Math.floorDiv(x, tileLength));
+		same &= setTile(tiles, 1, Math.floorDiv(x + 1, tileLength));
+		same &= setTile(tiles, 2, Math.floorDiv(x + width - 2, tileLength));
+		same &= setTile(tiles, 3, Math.floorDiv(x + width - 1, tileLength));
+		same &= setTile(tiles, 4, Math.floorDiv(y, tileLength));
+		same &= setTile(tiles, 5, Math.floorDiv(y + 1, tileLength));
+		same &= setTile(tiles, 6, Math.floorDiv(y + height - 2, tileLength));
+		same &= setTile(tiles, 7, Math.floorDiv(y + height - 1, tileLength));
+
+		this.hasTerrainKey = true;
+		this.terrainX = x;
+		this.terrainY = y;
+		this.terrainWidth = width;
+		this.terrainHeight = height;
+		return same;
+	}
+
+	/**
+	 * Store the given tile at the given index of the given array.
+	 *
+	 * @return	| result == ( tiles[index] == tile )
+	 */
+	private static boolean setTile(int[] tiles, int index, int tile){
+		boolean same = tiles[index] == tile;
+		tiles[index] = tile;
+		return same;
+	}
+
+	/**
+	 * Variable registering whether this cache remembers the tiles of the outer pixels of its Game object.
+	 */
+	private boolean hasTerrainKey = false;
+
+	/**
+	 * Array registering the tile columns of the left pixel, the pixel right of it, the pixel left of the right
+	 * pixel and the right pixel of the Game object of this cache, followed by the tile rows of the same pixels
+	 * from bottom to top.
+	 */
+	private final int[] terrainTiles = new int[8];
+
+	/**
+	 * Variables registering the bounding box for which the tiles were last checked.
+	 */
+	private int terrainX, terrainY, terrainWidth, terrainHeight;
+
+	/**
+	 * Variable registering the number of terrain changes of the World when the tiles were remembered.
+	 */
+	private long terrainVersion;
+
+	/**
+	 * Variables registering, one bit per contact index, which contacts with terrain this cache holds and whether
+	 * the Game object of this cache has them.
+	 */
+	private int knownTerrainContacts = 0, terrainContacts = 0;
+
+	/****************************************************** GAME OBJECTS ***********************************************/
+
+	/**
+	 * Check whether this cache holds the contact with other Game objects at the given index for the current bounding
+	 * box of the given Game object, and count the question as a hit or a miss in its World.
+	 *
+	 * @param 	gameObject
+	 * 				The Game object of this cache.
+	 * @param 	contactIndex
+	 * 				The index of the contact.
+	 * @pre		| gameObject.hasProperWorld()
+	 * @post	If this cache does not hold the contact, its neighbours are the impassable Game objects in the tiles
+	 * 			around the given Game object. They are looked up in the broadphase of the World only if the
+	 * 			remembered ones may be outdated.
+	 * @note	Only a contact that is answered from this cache counts as a hit. Reusing the remembered neighbours
+	 * 			to compute a contact still counts as a miss.
+	 */
+	boolean hasGameObjectContact(GameObject gameObject, int contactIndex){
+		World world = gameObject.getWorld();
+		int x = gameObject.getRoundedPositionX(), y = gameObject.getRoundedPositionY();
+		int width = gameObject.getWidth(), height = gameObject.getHeight();
+
+		this.setWorld(world);
+		if(x - 1 >= this.left && y - 1 >= this.bottom && x + width <= this.right && y + height <= this.top &&
+				this.hasValidNeighbours(world)){
+			if(x == this.contactX && y == this.contactY && width == this.contactWidth && height == this.contactHeight &&
+					(this.knownGameObjectContacts & (1 << contactIndex)) != 0){
+				world.countContactCacheLookup(gameObject, true);
+				return true;
+			}
+		}
+		else
+			this.queryNeighbours(gameObject, world, x, y, width, height);
+		world.countContactCacheLookup(gameObject, false);
+
+		if(x != this.contactX || y != this.contactY || width != this.contactWidth || height != this.contactHeight){
+			this.contactX = x;
+			this.contactY = y;
+			this.contactWidth = width;
+			this.contactHeight = height;
+			this.knownGameObjectContacts = 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Look up the impassable Game objects within the tiles around the given bounding box of the given Game object,
+	 * extended by one pixel, in the broadphase of the given World.
+	 * 
+	 * @note	The neighbours are remembered with the bounding boxes they last reported to the World, so the 
+	 * 			neighbours do not depend on Game objects that are planning their motion at the same time.
+	 */
+	private void queryNeighbours(GameObject gameObject, World world, int x, int y, int width, int height){
+		int tileLength = world.getTileLength();
+		this.left = Math.floorDiv(x - 1, tileLength) * tileLength;
+		this.bottom = Math.floorDiv(y - 1, tileLength) * tileLength;
+		this.right = ( Math.floorDiv(x + width, tileLength) + 1 ) * tileLength - 1;
+		this.top = ( Math.floorDiv(y + height, tileLength) + 1 ) * tileLength - 1;
+
+		int nbNearby = world.queryGameObjects(this.left, this.bottom, this.right, this.top,
+											  gameObject.getImpassableGameObjectMask(), gameObject);
+		Arrays.fill(this.neighbours, 0, this.nbNeighbours, null);
+		if(nbNearby > this.neighboursX.length){
+			int capacity = Math.max(nbNearby, 2 * this.neighboursX.length);
+			this.neighbours = new GameObject[capacity];
+			this.neighboursX = new int[capacity];
+			this.neighboursY = new int[capacity];
+			this.neighbourWidths = new int[capacity];
+			this.neighbourHeights = new int[capacity];
+			this.hits = new int[capacity];
+		}
+		GameObject[] nearby = world.getQueryResult();
+		for(int i = 0; i < nbNearby; i++){
+			this.neighbours[i] = nearby[i];
+			this.neighboursX[i] = nearby[i].contactCache.getReportedX();
+			this.neighboursY[i] = nearby[i].contactCache.getReportedY();
+			this.neighbourWidths[i] = nearby[i].contactCache.getReportedWidth();
+			this.neighbourHeights[i] = nearby[i].contactCache.getReportedHeight();
+		}
+		this.nbNeighbours = nbNearby;
+
+		this.hasNeighbours = true;
+		this.neighboursVersion = world.getNbGameObjectChanges();
+		this.knownGameObjectContacts = 0;
+	}
+
+	/**
+	 * Check whether the remembered neighbours of this cache are still the impassable Game objects within the tiles
+	 * in which they were looked up.
+	 *
+	 * @param 	world
+	 * 				The World of the Game object of this cache.
+	 * @return	False if this cache remembers no neighbours. Otherwise, true if and only if none of the remembered
+	 * 			neighbours has changed since they were looked up, and no Game object has entered one of the tiles
+	 * 			in which they were looked up since.
+	 * 			| result == ( hasNeighbours && world.getTileStamp(...) <= neighboursVersion &&
+	 * 			|	for each neighbour in neighbours: neighbour.contactCache.getChangeStamp() <= neighboursVersion )
+	 */
+	private boolean hasValidNeighbours(World world){
+		if(!this.hasNeighbours)
+			return false;
+		int tileLength = world.getTileLength();
+		if(world.getTileStamp(Math.floorDiv(this.left, tileLength), Math.floorDiv(this.bottom, tileLength),
+							  Math.floorDiv(this.right, tileLength), Math.floorDiv(this.top, tileLength)) > this.neighboursVersion)
+			return false;
+		for(int i = 0; i < this.nbNeighbours; i++)
+			if(this.neighbours[i].contactCache.getChangeStamp() > this.neighboursVersion)
+				return false;
+		return true;
+	}
+
+	/**
+	 * Return the contact with other Game objects at the given index, as held by this cache.
+	 *
+	 * @param 	contactIndex
+	 * 				The index of the contact.
+	 */
+	boolean getGameObjectContact(int contactIndex){
+		return (this.gameObjectContacts & (1 << contactIndex)) != 0;
+	}
+
+	/**
+	 * Remember the given contact with other Game objects at the given index for the current bounding box of this
+	 * cache.
+	 *
+	 * @param 	contactIndex
+	 * 				The index of the contact.
+	 * @param 	contact
+	 * 				Whether or not the Game object of this cache has the contact.
+	 */
+	void putGameObjectContact(int contactIndex, boolean contact){
+		this.knownGameObjectContacts |= 1 << contactIndex;
+		if(contact)
+			this.gameObjectContacts |= 1 << contactIndex;
+		else
+			this.gameObjectContacts &= ~(1 << contactIndex);
+	}
+
+	/**
+	 * Check whether the given region overlaps with the bounding box of any remembered neighbour of the Game object 
+	 * of this cache, in the given direction.
+	 *
+	 * @param 	x
+	 * 				The horizontal position of the left bottom corner of the region.
+	 * @param 	y
+	 * 				The vertical position of the left bottom corner of the region.
+	 * @param 	width
+	 * 				The width of the region.
+	 * @param 	height
+	 * 				The height of the region.
+	 * @param 	orientation
+	 * 				The orientation to check overlap in.
+	 * @return	| result == ( Collision.findOverlappingRegions(x, y, width, height, orientation, ...) > 0 )
+	 * @note	The neighbours are all tested at once on the packed bounding boxes.
+	 */
+	boolean hasNeighbourOverlappingWith(int x, int y, int width, int height, Orientation orientation){
+		return Collision.findOverlappingRegions(x, y, width, height, orientation, this.neighboursX, this.neighboursY,
+												this.neighbourWidths, this.neighbourHeights, this.nbNeighbours,
+												this.hits) > 0;
+	}
+
+	/**
+	 * Variable registering whether this cache remembers the neighbours of its Game object.
+	 */
+	private boolean hasNeighbours = false;
+
+	/**
+	 * Array registering the remembered neighbours at its first nbNeighbours indices.
+	 */
+	private GameObject[] neighbours = new GameObject[INITIAL_CAPACITY];
+
+	/**
+	 * Arrays registering the bounding boxes of the remembered neighbours at their first nbNeighbours indices. The
+	 * neighbours may be further away than one pixel.
+	 */
+	private int[] neighboursX = new int[INITIAL_CAPACITY], neighboursY = new int[INITIAL_CAPACITY],
+				  neighbourWidths = new int[INITIAL_CAPACITY], neighbourHeights = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Array in which the neighbours that overlap with a region are found.
+	 */
+	private int[] hits = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Variable registering the number of remembered neighbours.
+	 */
+	private int nbNeighbours = 0;
+
+	/**
+	 * Variables registering the pixel region, aligned to tiles, in which the neighbours were looked up.
+	 */
+	private int left, bottom, right, top;
+
+	/**
+	 * Variable registering the stamp of the last change in the World when the neighbours were looked up, or when
+	 * they were last found valid for a change of the Game object of this cache.
+	 */
+	private long neighboursVersion;
+
+	/**
+	 * Variables registering the bounding box for which the contacts with other Game objects are held.
+	 */
+	private int contactX, contactY, contactWidth, contactHeight;
+
+	/**
+	 * Variables registering, one bit per contact index, which contacts with other Game objects this cache holds
+	 * and whether the Game object of this cache has them.
+	 */
+	private int knownGameObjectContacts = 0, gameObjectContacts = 0;
+}
@@ -1,10 +1,12 @@
 package jumpingalien.model;
 
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 import jumpingalien.model.terrain.Terrain;
 import jumpingalien.model.exceptions.CollisionException;
@@ -14,11 +16,13 @@ import jumpingalien.model.exceptions.IllegalPositionYException;
 import jumpingalien.model.exceptions.IllegalWidthException;
 import jumpingalien.model.helper.Animation;
 import jumpingalien.model.helper.Collision;
+import jumpingalien.model.helper.DetailLevel;
 import jumpingalien.model.helper.Timer;
 import jumpingalien.model.helper.Orientation;
 import jumpingalien.model.interfaces.IKind;
 import jumpingalien.model.interfaces.IMovable;
 import jumpingalien.model.interfaces.IProgrammable;
+import jumpingalien.model.terrain.ImpassableTileSet;
 import jumpingalien.model.terrain.TerrainInteraction;
 import jumpingalien.model.terrain.TerrainProperties;
 import jumpingalien.program.Program;
@@ -75,6 +79,14 @@ public abstract class GameObject implements IKind, IMovable{
 	 * 			| result == 0.6
 	 */
 	private static final double IMMUNE_TIME = 0.6;
+	
+	/**
+	 * Constant reflecting the time by which a step that is not limited to one pixel of motion ends before the next 
+	 * timed event, so the event happens in a step of one pixel, as it did before.
+	 * 
+	 * @return	| result == 0.001
+	 */
+	private static final double EVENT_MARGIN = 0.001;
 
 	/**
 	 * Constant reflecting the vertical acceleration for Game objects.
@@ -168,8 +180,8 @@ public abstract class GameObject implements IKind, IMovable{
 		if(!canHaveAsPositionY(pixelBottomY))
 			throw new IllegalPositionYException(pixelBottomY);
 		
-		this.positionX = pixelLeftX;
-		this.positionY = pixelBottomY;
+		this.physics.setPositionX(this.physicsSlot, pixelLeftX);
+		this.physics.setPositionY(this.physicsSlot, pixelBottomY);
 
 		this.velocityXInit = velocityXInit;
 		this.velocityYInit = velocityYInit;
@@ -289,8 +301,9 @@ public abstract class GameObject implements IKind, IMovable{
 	 * 			| getTimer().increaseSinceLastTerrainDamage(dt)
 	 * @effect	Increase the time since the last period.
 	 * 			| getTimer().increaseSinceLastPeriod(dt)
-	 * @effect	Increase the time since the last Program execution.
-	 * 			| getTimer().increaseSinceLastProgram(dt)
+	 * @effect	Increase the time since the last Program execution, at the Program rate of the level of detail of the
+	 * 			Game object.
+	 * 			| getTimer().increaseSinceLastProgram(dt * getDetailLevel().getProgramRate())
 	 * @effect	Reset the terrain overlap duration.
 	 * 			| resetTerrainOverlapDuration()
 	 */
@@ -305,7 +318,7 @@ public abstract class GameObject implements IKind, IMovable{
 		this.getTimer().increaseSinceLastTerrainDamage(dt);
 		this.getTimer().increaseSinceEnemyCollision(dt);
 		this.getTimer().increaseSinceLastPeriod(dt);
-		this.getTimer().increaseSinceLastProgram(dt);
+		this.getTimer().increaseSinceLastProgram(dt * this.getDetailLevel().getProgramRate());
 		
 		this.resetTerrainOverlapDuration();
 	}
@@ -373,6 +386,11 @@ public abstract class GameObject implements IKind, IMovable{
 	@Basic
 	protected void setTerrainPropertiesOf(Terrain terrain, TerrainProperties terrainProperties){
 		this.allTerrainProperties.put(terrain, terrainProperties);
+		
+		if(terrainProperties.isPassable())
+			this.impassableTerrainMask &= ~( 1 << terrain.getId() );
+		else
+			this.impassableTerrainMask |= 1 << terrain.getId();
 	}
 	
 	/**
@@ -393,6 +411,25 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	private Map<Terrain, TerrainProperties> allTerrainProperties = new HashMap<Terrain, TerrainProperties>();
 	
+	/**
+	 * Return the bitmask of the terrain types that are impassable for this Game object.
+	 * 
+	 * @return	A bitmask in which bit i is set if and only if the terrain type with ID i is configured as
+	 * 			impassable for this Game object.
+	 * 			| for each terrain in Terrain.values():
+	 * 			|	( (result & (1 << terrain.getId())) != 0 ) == 
+	 * 			|		( hasTerrainPropertiesOf(terrain) && !getTerrainPropertiesOf(terrain).isPassable() )
+	 */
+	@Basic
+	public int getImpassableTerrainMask(){
+		return this.impassableTerrainMask;
+	}
+	
+	/**
+	 * Variable registering the bitmask of the terrain types that are impassable for this Game object.
+	 */
+	private int impassableTerrainMask = 0;
+	
 	/**
 	 * Set the terrain properties for each terrain type. As this is an abstract method, this must
 	 * be implemented in the subclasses of this class, according to their specifications.
@@ -438,22 +475,47 @@ public abstract class GameObject implements IKind, IMovable{
 	public boolean isSubmergedIn(Terrain terrain){		
 		World world = this.getWorld();
 		
-		int[][] tiles = world.getTilePositionsIn(	this.getRoundedPositionX() + 1, 						// overlap left
-													this.getRoundedPositionY() + 1,							// overlap bottom
-													this.getRoundedPositionX() + (this.getWidth() - 1) - 1, // overlap right
-													this.getRoundedPositionY() + (this.getHeight() - 1) );	// may not overlap top (otherwise sharks take damage while submerged in water)
-		
-		for(int[] tile : tiles){
-			if( world.getGeologicalFeature(world.getPositionXOfTile(tile[0]), world.getPositionYOfTile(tile[1])) != terrain){
-				return false;	
-			}
-		}
-		
-		return true;	
+		return !world.forEachTileIn(this.getRoundedPositionX() + 1, 						// overlap left
+									this.getRoundedPositionY() + 1,							// overlap bottom
+									this.getRoundedPositionX() + (this.getWidth() - 1) - 1, // overlap right
+									this.getRoundedPositionY() + (this.getHeight() - 1),	// may not overlap top (otherwise sharks take damage while submerged in water)
+									(tileX, tileY, tileTerrain) -> tileTerrain != terrain );
 	}
 	
 	/******************************************************** WORLD ****************************************************/
 	
+	/**
+	 * Let the World of this Game object know that the position or the size of this Game object has changed.
+	 * 
+	 * @effect	| if ( this.hasWorld() && !this.getWorld().isPlanningLockstep() )
+	 * 			|	then this.getWorld().gameObjectChanged(this)
+	 * @effect	While its World plans a fixed time step, the change is only remembered, and reported to the World
+	 * 			once all Game objects have planned the step.
+	 * 			| if ( this.hasWorld() && this.getWorld().isPlanningLockstep() )
+	 * 			|	then this.lockstep.boundsChanged()
+	 */
+	@Model
+	protected void boundsChanged(){
+		if(!this.hasWorld())
+			return;
+		if(this.getWorld().isPlanningLockstep())
+			this.lockstep.boundsChanged();
+		else
+			this.getWorld().gameObjectChanged(this);
+	}
+	
+	/**
+	 * Update the active sprite of this Game object, which may change its size.
+	 * 
+	 * @effect	| this.getAnimation().updateSpriteIndex()
+	 * @effect	| boundsChanged()
+	 */
+	@Model
+	protected void updateSpriteIndex(){
+		this.getAnimation().updateSpriteIndex();
+		this.boundsChanged();
+	}
+	
 	/**
 	 * Return the world of this Game object.
 	 * 
@@ -504,10 +566,14 @@ public abstract class GameObject implements IKind, IMovable{
 	 * 				The world to which the Game object must be set.
 	 * @effect	The world of the Game object is set to the given world.
 	 * 			| setWorld(world)
+	 * @effect	The Game object draws the seed of its own source of random numbers from the given World.
+	 * 			| world.getRandom().nextLong()
 	 * @effect  The Game object is added to the given World.
 	 * 			| addToWorld();
 	 * @throws	IllegalArgumentException
 	 * 				| ( ! canHaveAsWorld(world) ) || ( ! world.canHaveAsGameObject(this) )
+	 * @note	While the given World is advancing time, the Game object is only added at the end of the current
+	 * 			time step.
 	 */
 	public void setWorldTo(World world) throws IllegalArgumentException{
 		
@@ -516,8 +582,16 @@ public abstract class GameObject implements IKind, IMovable{
 		if(!world.canHaveAsGameObject(this))
 			throw new IllegalArgumentException("Given world cannot have this Game object as Game object!");
 		
+		if(world.isDeferringStructuralChanges()){
+			world.deferStructuralChange(StructuralChangeBuffer.Change.ADD, this, world);
+			return;
+		}
+		
 		this.setWorld(world);
+		this.random = new Random(world.getRandom().nextLong());
+		this.movePhysicsTo(world.getPhysicsStore());
 		this.addToWorld();
+		world.gameObjectAddedOrRemoved(this);
 		
 	}
 	
@@ -536,6 +610,8 @@ public abstract class GameObject implements IKind, IMovable{
 			World formerWorld = this.getWorld();
 			this.setWorld(null);
 			formerWorld.removeAsGameObject(this);
+			formerWorld.gameObjectAddedOrRemoved(this);
+			this.movePhysicsTo(new PhysicsStore(1));
 		}
 	}
 	
@@ -575,6 +651,12 @@ public abstract class GameObject implements IKind, IMovable{
 	 * Variable registering the World of a Game object.
 	 */
 	private World world;
+	
+	/**
+	 * Variable registering the index of this Game object in the registry of its World that keeps the Game
+	 * objects of its kind, or -1 if it is not registered.
+	 */
+	int registryIndex = -1;
 
 	/******************************************************** SIZE *****************************************************/
 	
@@ -624,6 +706,46 @@ public abstract class GameObject implements IKind, IMovable{
 	
 	/*************************************************** CHARACTERISTICS ***********************************************/
 	
+	/* Physical state */
+	
+	/**
+	 * Variable registering the store that keeps the position, velocity and acceleration of this Game object: 
+	 * the store of its World if it has one, and a store of its own otherwise.
+	 */
+	PhysicsStore physics = new PhysicsStore(1);
+	
+	/**
+	 * Variable registering the slot of this Game object in its physics store.
+	 */
+	int physicsSlot = this.physics.allocate();
+	
+	/**
+	 * Variable registering the cache that remembers the contacts of this Game object with terrain and with other 
+	 * Game objects.
+	 */
+	final ContactCache contactCache = new ContactCache();
+	
+	/**
+	 * Variable registering the buffer that holds what this Game object intends to do in the fixed time step its 
+	 * World is planning.
+	 */
+	final LockstepBuffer lockstep = new LockstepBuffer();
+	
+	/**
+	 * Move the physical state of this Game object to the given store.
+	 * 
+	 * @param 	store
+	 * 				The store to move the physical state to.
+	 * @post	The position, velocity and acceleration of this Game object are unchanged.
+	 */
+	@Model
+	private void movePhysicsTo(PhysicsStore store){
+		if(store != this.physics){
+			this.physicsSlot = store.moveFrom(this.physics, this.physicsSlot);
+			this.physics = store;
+		}
+	}
+	
 	/* Horizontal position */
 
 	/**
@@ -634,7 +756,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	@Basic
 	public double getPositionX() {
-		return this.positionX;
+		return this.physics.getPositionX(this.physicsSlot);
 	}
 
 	/**
@@ -709,22 +831,19 @@ public abstract class GameObject implements IKind, IMovable{
 		if( this.doesCollide())
 			throw new IllegalStateException("Collision before updating x position!");
 			
-		double oldPositionX = this.positionX;
-		this.positionX = positionX;
+		double oldPositionX = this.getPositionX();
+		this.physics.setPositionX(this.physicsSlot, positionX);
+		this.boundsChanged();
 		
 		processOverlap();
-		this.getAnimation().updateSpriteIndex();
+		this.updateSpriteIndex();
 		if(this.doesCollide()){
-			this.positionX = oldPositionX;
+			this.physics.setPositionX(this.physicsSlot, oldPositionX);
+			this.boundsChanged();
 			throw new CollisionException();
 		}	
 	}
 	
-	/**
-	 * Variable registering the horizontal position of this Game object.
-	 */
-	private double positionX;
-	
 	/* Vertical position*/
 	
 	/**
@@ -735,7 +854,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	@Basic @Raw
 	public double getPositionY() {
-		return this.positionY;
+		return this.physics.getPositionY(this.physicsSlot);
 	}
 	
 	/**
@@ -810,21 +929,19 @@ public abstract class GameObject implements IKind, IMovable{
 		if( this.doesCollide())
 			throw new IllegalStateException("Collision before updating y position!");
 		
-		double oldPositionY = this.positionY;
-		this.positionY = positionY;
+		double oldPositionY = this.getPositionY();
+		this.physics.setPositionY(this.physicsSlot, positionY);
+		this.boundsChanged();
 		
 		processOverlap();
-		this.getAnimation().updateSpriteIndex();
+		this.updateSpriteIndex();
 		if(this.doesCollide()){
-			this.positionY = oldPositionY;
+			this.physics.setPositionY(this.physicsSlot, oldPositionY);
+			this.boundsChanged();
 			throw new CollisionException();
 		}
 	}
 	
-	/**
-	 * Variable registering the vertical position of this Game object.
-	 */
-	private double positionY;
 
 	/* Horizontal velocity */
 	
@@ -835,7 +952,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	@Basic
 	public double getVelocityX() {
-		return this.velocityX;
+		return this.physics.getVelocityX(this.physicsSlot);
 	}
 	
 	/**
@@ -875,14 +992,9 @@ public abstract class GameObject implements IKind, IMovable{
 			this.setAccelerationX(0);
 		}
 			
-		this.velocityX = Math.max( Math.min( velocityX , this.getVelocityXMax()), -this.getVelocityXMax());
+		this.physics.setVelocityX(this.physicsSlot, Math.max( Math.min( velocityX , this.getVelocityXMax()), -this.getVelocityXMax()));
 	}
 	
-	/**
-	 * Variable registering the horizontal velocity of this Game object.
-	 */
-	private double velocityX;
-	
 	/* Vertical velocity */
 	
 	/**
@@ -892,7 +1004,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	@Basic @Raw
 	public double getVelocityY() {
-		return this.velocityY;
+		return this.physics.getVelocityY(this.physicsSlot);
 	}
 
 	/**
@@ -905,14 +1017,9 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	@Basic	@Raw
 	protected void setVelocityY(double velocityY) {
-		this.velocityY = velocityY;
+		this.physics.setVelocityY(this.physicsSlot, velocityY);
 	}
 	
-	/**
-	 * Variable registering the vertical velocity of this Game object.
-	 */
-	private double velocityY;
-	
 	/* Velocity magnitude */
 	
 	/**
@@ -1014,7 +1121,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	@Basic @Raw
 	public double getAccelerationX() {
-		return this.accelerationX;
+		return this.physics.getAccelerationX(this.physicsSlot);
 	}
 
 	/**
@@ -1033,16 +1140,11 @@ public abstract class GameObject implements IKind, IMovable{
 	@Basic @Model
 	protected void setAccelerationX(double accelerationX) {
 		if (Double.isNaN(accelerationX)){
-			this.accelerationX = 0;
+			this.physics.setAccelerationX(this.physicsSlot, 0);
 		} else
-			this.accelerationX = accelerationX;
+			this.physics.setAccelerationX(this.physicsSlot, accelerationX);
 	}
 	
-	/**
-	 * Variable registering the horizontal acceleration of this Game object.
-	 */
-	private double accelerationX;
-	
 	/* Vertical acceleration */
 	
 	/**
@@ -1125,12 +1227,33 @@ public abstract class GameObject implements IKind, IMovable{
 	/**
 	 * Return a random, valid Orientation for this Game object.
 	 * 
-	 * @return	A random, valid Orientation for this Game object. 
+	 * @return	A random, valid Orientation for this Game object, drawn from the source of random numbers of this 
+	 * 			Game object.
+	 * 			| result == ( getRandom().nextBoolean() ? Orientation.RIGHT : Orientation.LEFT )
 	 */
 	public Orientation getRandomOrientation(){
-		Random random = new Random();
-		return (random.nextBoolean()) ? Orientation.RIGHT : Orientation.LEFT;
+		return (getRandom().nextBoolean()) ? Orientation.RIGHT : Orientation.LEFT;
+	}
+	
+	/**
+	 * Return the source of random numbers of this Game object and its Program.
+	 * 
+	 * @return	If this Game object has a World, its own source of random numbers, seeded from the source of random 
+	 * 			numbers of that World when it joined it.
+	 * @note	A Game object without a World draws from the source of random numbers of the current thread. Slimes 
+	 * 			and Sharks only draw their first period once they are added to a World, so all numbers drawn for a 
+	 * 			Game object in a World are determined by the seed of that World and the order in which Game objects 
+	 * 			joined it. As every Game object draws from a source of its own, Game objects can draw numbers in 
+	 * 			parallel.
+	 */
+	public Random getRandom(){
+		return this.hasWorld() ? this.random : ThreadLocalRandom.current();
 	}
+	
+	/**
+	 * Variable registering the source of random numbers of this Game object in its World.
+	 */
+	private Random random = null;
 
 	/**
 	 * Variable registering the orientation of this Game object.
@@ -1170,6 +1293,10 @@ public abstract class GameObject implements IKind, IMovable{
 	@Model
 	protected void setNbHitPoints(int nbHitPoints) {
 		this.nbHitPoints = Math.max( Math.min(nbHitPoints, this.getMaxNbHitPoints()), 0);
+		
+		// A killed Game object is simulated in full detail, even if its World does not visit it when frozen
+		if(this.isKilled() && this.getDetailLevel() == DetailLevel.FAR && this.hasWorld())
+			this.getWorld().detailLevelMayHaveChanged(this);
 	}
 	
 	/**
@@ -1275,10 +1402,31 @@ public abstract class GameObject implements IKind, IMovable{
 	protected boolean immune;
 	
 	/**
-	 * Get all impassable Game objects for this Game object. As this is an abstract method, this must
+	 * Return the kinds of Game objects that are impassable for this Game object, as a bitmask of the kind bits 
+	 * defined in World. As this is an abstract method, this must be implemented in the subclasses of this class, 
+	 * according to their specifications.
+	 */
+	public abstract int getImpassableGameObjectMask();
+	
+	/**
+	 * Return the kind bit of this Game object, as defined in World. As this is an abstract method, this must
 	 * be implemented in the subclasses of this class, according to their specifications.
 	 */
-	public abstract Set<GameObject> getAllImpassableGameObjects();
+	public abstract int getKindBit();
+	
+	/**
+	 * Return all impassable Game objects for this Game object.
+	 * 
+	 * @pre		| hasWorld()
+	 * @return	| result == this.getWorld().getImpassableGameObjectSet(this.getImpassableGameObjectMask())
+	 * @note	The returned set is an unmodifiable, live view shared by all Game objects with the same impassable 
+	 * 			Game objects. Paths that run in every substep use the array of World.getImpassableGameObjects instead.
+	 */
+	public Set<GameObject> getAllImpassableGameObjects(){
+		assert hasWorld();
+		
+		return this.getWorld().getImpassableGameObjectSet(this.getImpassableGameObjectMask());
+	}
 	
 	/******************************************************* RUNNING ***************************************************/
 
@@ -1387,6 +1535,157 @@ public abstract class GameObject implements IKind, IMovable{
 		this.setVelocityY( 0 );
 	}
 	
+	/*************************************************** LEVEL OF DETAIL ***********************************************/
+	
+	/**
+	 * Return the level of detail at which this Game object is simulated.
+	 */
+	@Basic
+	public DetailLevel getDetailLevel(){
+		return this.detailLevel;
+	}
+	
+	/**
+	 * Set the level of detail at which this Game object is simulated.
+	 * 
+	 * @param 	detailLevel
+	 * 				The new level of detail.
+	 * @pre		| detailLevel != null
+	 * @post	| new.getDetailLevel() == detailLevel
+	 * @effect	If this Game object is no longer frozen, the time it was frozen is added to its timers.
+	 * 			| if ( getDetailLevel() == DetailLevel.FAR && detailLevel != DetailLevel.FAR )
+	 * 			|	then thaw()
+	 * @effect	If this Game object gets frozen, the time it has not been simulated yet is frozen as well.
+	 * 			| if ( getDetailLevel() != DetailLevel.FAR && detailLevel == DetailLevel.FAR )
+	 * 			|	then new.getFrozenTime() == getFrozenTime() + getCoarseTime() && new.getCoarseTime() == 0
+	 * @pre		| hasWorld()
+	 */
+	void setDetailLevel(DetailLevel detailLevel){
+		assert detailLevel != null && this.hasWorld();
+		
+		if(this.detailLevel == DetailLevel.FAR && detailLevel != DetailLevel.FAR){
+			this.frozenTime = this.getFrozenTime();
+			this.thaw();
+		}else if(this.detailLevel != DetailLevel.FAR && detailLevel == DetailLevel.FAR){
+			this.frozenTime += this.coarseTime;
+			this.coarseTime = 0;
+			this.frozenSince = this.getWorld().getSimulatedTime();
+		}
+		this.detailLevel = detailLevel;
+	}
+	
+	/**
+	 * Variable registering the level of detail of this Game object.
+	 */
+	private DetailLevel detailLevel = DetailLevel.NEAR;
+	
+	/**
+	 * Advance time for this Game object at its level of detail.
+	 * 
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	A frozen Game object does not move. The elapsed time is remembered for its timers by the simulated 
+	 * 			time of its World, so a frozen Game object does not need to be visited at all.
+	 * 			| if ( getDetailLevel() == DetailLevel.FAR )
+	 * 			|	then new.getFrozenTime() == getFrozenTime()
+	 * @effect	Any other Game object advances the time it has not been simulated yet, in steps of at most 0.2 s. A
+	 * 			Game object at a mid-range distance only does so once that time reaches COARSE_TIME_STEP.
+	 * 			| if ( getDetailLevel() == DetailLevel.NEAR || getCoarseTime() + dt >= COARSE_TIME_STEP )
+	 * 			|	then advanceTime(...) && new.getCoarseTime() == 0
+	 * 			| else
+	 * 			|	new.getCoarseTime() == getCoarseTime() + dt
+	 */
+	void advanceTimeInDetail(double dt){
+		if(this.getDetailLevel() == DetailLevel.FAR)
+			return;
+		if(this.getDetailLevel() == DetailLevel.NEAR && this.coarseTime == 0){
+			this.advanceTime(dt);
+			return;
+		}
+		
+		this.coarseTime += dt;
+		if(this.getDetailLevel() == DetailLevel.MID && this.coarseTime < COARSE_TIME_STEP)
+			return;
+		
+		while(this.coarseTime > 0 && !this.isTerminated()){
+			double step = Math.min(this.coarseTime, 0.2);
+			this.advanceTime(step);
+			this.coarseTime -= step;
+		}
+		this.coarseTime = 0;
+	}
+	
+	/**
+	 * Constant reflecting the time a Game object at a mid-range distance of the visible window waits before it
+	 * advances the time it has not been simulated yet in one call.
+	 */
+	static final double COARSE_TIME_STEP = 0.05;
+	
+	/**
+	 * Return the in-game time that has passed since this Game object was last simulated at a mid-range distance.
+	 */
+	@Basic
+	double getCoarseTime(){
+		return this.coarseTime;
+	}
+	
+	/**
+	 * Variable registering the in-game time that has not been simulated yet for this Game object.
+	 */
+	private double coarseTime = 0;
+	
+	/**
+	 * Return the in-game time that has passed while this Game object was frozen, and that has not been added to its
+	 * timers yet.
+	 * 
+	 * @return	The time frozen before this Game object was last frozen, plus the time its World has simulated since.
+	 */
+	public double getFrozenTime(){
+		if(this.getDetailLevel() == DetailLevel.FAR && this.hasWorld())
+			return this.frozenTime + ( this.getWorld().getSimulatedTime() - this.frozenSince );
+		return this.frozenTime;
+	}
+	
+	/**
+	 * Add the time this Game object was frozen to its timers, in steps of at most 0.2 s, without executing any of
+	 * its Program.
+	 * 
+	 * @effect	| if ( !isKilled() )
+	 * 			|	then for each step in steps of at most 0.2 s summing to getFrozenTime():
+	 * 			|		updateTimers(step)
+	 * @post	| new.getFrozenTime() == 0
+	 * @note	This Game object is still frozen while its timers are updated, so its Program does not catch up 
+	 * 			with the time it was frozen.
+	 */
+	@Model
+	private void thaw(){
+		if(!this.isKilled()){
+			while(this.frozenTime > 0){
+				double step = Math.min(this.frozenTime, 0.2);
+				this.updateTimers(step);
+				this.frozenTime -= step;
+			}
+		}
+		this.frozenTime = 0;
+	}
+	
+	/**
+	 * Variable registering the in-game time that has passed while this Game object was frozen, up to the moment 
+	 * it was last frozen.
+	 */
+	private double frozenTime = 0;
+	
+	/**
+	 * Variable registering the simulated time of the World of this Game object at the moment it was last frozen.
+	 */
+	private double frozenSince = 0;
+	
+	/**
+	 * Variable registering the stamp of the last update of the levels of detail of its World that visited this
+	 * Game object.
+	 */
+	int detailLevelStamp = 0;
+	
 	/******************************************************* MOVEMENT **************************************************/
 	
 	/**
@@ -1401,6 +1700,8 @@ public abstract class GameObject implements IKind, IMovable{
 	 * @throws 	IllegalStateException
 	 * 				The Game object is already terminated or it has no proper World when advanceTimeOnce is invoked.
 	 * 				| !this.isTerminated() && !this.hasProperWorld()
+	 * @note	Time is advanced in steps of about one pixel of motion. If the World of this Game object has continuous
+	 * 			collision detection, a step lasts until the time of impact instead, whenever that is longer.
 	 * @note must be worked out defensively
 	 */
 	public void advanceTime(double dt) throws IllegalArgumentException, IllegalStateException{
@@ -1419,12 +1720,364 @@ public abstract class GameObject implements IKind, IMovable{
 			if(this.isTerminated()){
 				break;
 			}
-			minDt = Math.min( dt,  0.01 / (this.getVelocityMagnitude() + this.getAccelerationMagnitude()* dt) );
+			minDt = this.getSubstep(dt);
 			this.advanceTimeOnce(minDt);
 			dt -= minDt;	
 		}
 	}
 	
+	/**
+	 * Return the time this Game object advances in the next substep of a time step with the given remaining time.
+	 * 
+	 * @param 	dt
+	 * 				The remaining in-game time of the time step.
+	 * @return	The time in which this Game object moves about getSubstepPixels() pixels, or the time until its time 
+	 * 			of impact if its World has continuous collision detection or if it is simulated at a mid-range 
+	 * 			distance of the visible window, and that time is longer, but never more than dt.
+	 * 			| if ( !hasWorld() || !( getWorld().hasContinuousCollisionDetection() 
+	 * 			|						 || getDetailLevel() == DetailLevel.MID ) )
+	 * 			|	then result == Math.min( dt,  0.01 * getSubstepPixels() / 
+	 * 			|								(getVelocityMagnitude() + getAccelerationMagnitude() * dt) )
+	 * 			| else
+	 * 			|	result == Math.max( Math.min( dt,  0.01 * getSubstepPixels() / 
+	 * 			|									(getVelocityMagnitude() + getAccelerationMagnitude() * dt) ),
+	 * 			|						Math.min( dt, getTimeOfImpact(dt) ) )
+	 */
+	@Model
+	protected double getSubstep(double dt){
+		double minDt = Math.min( dt,  0.01 * this.getSubstepPixels() / 
+										(this.getVelocityMagnitude() + this.getAccelerationMagnitude()* dt) );
+		if(this.hasWorld() && ( this.getWorld().hasContinuousCollisionDetection() 
+								|| this.getDetailLevel() == DetailLevel.MID ))
+			minDt = Math.max( minDt, Math.min( dt, this.getTimeOfImpact(dt) ) );
+		return minDt;
+	}
+	
+	/**
+	 * Return the number of pixels this Game object moves at least in a substep, unless it reaches its time of 
+	 * impact or the end of its time step first.
+	 * 
+	 * @return	One pixel, unless this Game object is simulated at a mid-range distance of the visible window. It then 
+	 * 			moves COARSE_STEP_PIXELS pixels, but never more than its own width or height, so it cannot pass
+	 * 			through terrain or other Game objects in a single substep.
+	 * 			| if ( getDetailLevel() == DetailLevel.MID )
+	 * 			|	then result == Math.min( COARSE_STEP_PIXELS, Math.min( getWidth(), getHeight() ) )
+	 * 			| else
+	 * 			|	result == 1
+	 * @note	A substep that ends in a collision is undone, so a Game object at a mid-range distance may stop a few
+	 * 			pixels before terrain or another Game object instead of right against it.
+	 */
+	@Model
+	private int getSubstepPixels(){
+		if(this.getDetailLevel() == DetailLevel.MID)
+			return Math.min( COARSE_STEP_PIXELS, Math.min( this.getWidth(), this.getHeight() ) );
+		return 1;
+	}
+	
+	/**
+	 * Constant reflecting the number of pixels a Game object at a mid-range distance of the visible window moves 
+	 * at least in a substep.
+	 */
+	static final int COARSE_STEP_PIXELS = 5;
+	
+	/**
+	 * Return the time this Game object can advance in a single step without its bounding box touching anything it 
+	 * does not touch yet, and without passing a timed event.
+	 * 
+	 * The bounding box is swept along both axes, bounding the number of pixels it moves by its velocity and 
+	 * acceleration. Against terrain, the bounding box widened by one pixel on every side is checked: as long as 
+	 * it only covers tiles of a single Terrain type, the tiles the Game object overlaps, collides with and stands 
+	 * on stay of that type. The step then ends right before the widened box reaches the first tile of another 
+	 * Terrain type within the swept region, so the Game object crosses any number of tiles of its own Terrain type 
+	 * in a single step. Once the widened box covers tiles of several Terrain types, the step ends right after the 
+	 * next tile border instead, as the sides of the box and the pixels right within them may then not enter 
+	 * another tile more than once. The step always ends right before the border of its World. Against other Game 
+	 * objects, at least one free pixel must remain between the boxes along one axis. During such a step, advancing
+	 * time once gives the same result as advancing it in steps of one pixel.
+	 * 
+	 * @param 	dt
+	 * 				The remaining in-game time of the time step.
+	 * @return	Zero if this Game object is killed or has no proper World, as its termination needs the steps of one 
+	 * 			pixel, or if it touches another Game object. Otherwise a time not greater than dt, which ends before 
+	 * 			getTimeToNextEvent() and before the first contact. Outside of a fixed time step of its World, the 
+	 * 			Program of this Game object executes the statements that are due at the start of every step, so the 
+	 * 			step then also ends when its next statement is due.
+	 * 			| if ( hasProgram() && !getWorld().isPlanningLockstep() )
+	 * 			|	then result <= 0.001 - getTimer().getSinceLastProgram()
+	 * @note	Other Game objects are taken at the bounding boxes they last reported to the World, so the time of
+	 * 			impact does not depend on Game objects that are planning their motion at the same time.
+	 * @note	In a fixed time step, the Program of this Game object has executed all its statements for the step 
+	 * 			before it starts to move, so its substeps are not bound by its Program.
+	 */
+	@Model
+	protected double getTimeOfImpact(double dt){
+		if(this.isKilled() || !this.hasProperWorld())
+			return 0;
+		
+		World world = this.getWorld();
+		double time = Math.min(dt, this.getTimeToNextEvent() - EVENT_MARGIN);
+		if(this.hasProgram() && !world.isPlanningLockstep())
+			time = Math.min(time, 0.001 - this.getTimer().getSinceLastProgram());
+		if(time <= 0)
+			return 0;
+		
+		int left = this.getRoundedPositionX(), bottom = this.getRoundedPositionY();
+		int right = left + this.getWidth() - 1, top = bottom + this.getHeight() - 1;
+		double velocityX = this.getVelocityX(), accelerationX = this.getAccelerationX();
+		double velocityY = this.getVelocityY(), accelerationY = this.getAccelerationY();
+		
+		/* Resting contacts are resolved in steps of one pixel */
+		if(velocityY < 0 && this.isOnGround())
+			return 0;
+		
+		/* Terrain */
+		int directionX = getDirectionOf(velocityX, accelerationX), directionY = getDirectionOf(velocityY, accelerationY);
+		double allowedX = this.getDistanceToWorldBorder(this.getPositionX(), this.getWidth(), 
+														world.getWorldWidth(), directionX) - 1e-6;
+		double allowedY = this.getDistanceToWorldBorder(this.getPositionY(), this.getHeight(), 
+														world.getWorldHeight(), directionY) - 1e-6;
+		Terrain terrain = world.getGeologicalFeatureOfTile(world.getTileX(left), world.getTileY(bottom));
+		ImpassableTileSet otherTerrain = world.getImpassableTileSet(ImpassableTileSet.getMaskOfAllBut(terrain));
+		if(world.hasImpassableTileIn(otherTerrain.getImpassableTerrainMask(), left - 1, bottom - 1, right + 1, top + 1)){
+			allowedX = Math.min(allowedX, Collision.getDistanceToTileBorder(this.getPositionX(), this.getWidth(), 
+																			world.getTileLength(), directionX) + 1e-6);
+			allowedY = Math.min(allowedY, Collision.getDistanceToTileBorder(this.getPositionY(), this.getHeight(), 
+																			world.getTileLength(), directionY) + 1e-6);
+		}else{
+			int reachX = this.getReachX(time), reachY = this.getReachY(time);
+			int sweptLeft = left - 1 - ( directionX <= 0 ? reachX : 0 ), sweptRight = right + 1 + ( directionX >= 0 ? reachX : 0 );
+			int sweptBottom = bottom - 1 - ( directionY <= 0 ? reachY : 0 ), sweptTop = top + 1 + ( directionY >= 0 ? reachY : 0 );
+			if(world.hasImpassableTileIn(otherTerrain.getImpassableTerrainMask(), sweptLeft, sweptBottom, sweptRight, sweptTop)){
+				allowedX = Math.min(allowedX, this.getDistanceToTerrain(otherTerrain, true, this.getPositionX(), 
+												this.getWidth(), sweptBottom, sweptTop, reachX, directionX));
+				allowedY = Math.min(allowedY, this.getDistanceToTerrain(otherTerrain, false, this.getPositionY(), 
+												this.getHeight(), sweptLeft, sweptRight, reachY, directionY));
+			}
+		}
+		time = Math.min(time, Math.min(Collision.getTimeToTravel(velocityX, accelerationX, allowedX),
+									   Collision.getTimeToTravel(velocityY, accelerationY, allowedY)));
+		if(time <= 0)
+			return 0;
+		
+		/* Game objects */
+		int reachX = this.getReachX(time), reachY = this.getReachY(time);
+		int nbNearby = world.queryGameObjects(left - reachX - 2, bottom - reachY - 2, right + reachX + 2, top + reachY + 2,
+											  World.ALL_KINDS_MASK, this);
+		GameObject[] nearby = world.getQueryResult();
+		boolean constrained = false;
+		for(int i = 0; i < nbNearby; i++){
+			GameObject other = nearby[i];
+			int otherLeft = other.contactCache.getReportedX(), otherBottom = other.contactCache.getReportedY();
+			int gapX = Math.max(otherLeft - right, left - ( otherLeft + other.contactCache.getReportedWidth() - 1 )) - 1;
+			int gapY = Math.max(otherBottom - top, bottom - ( otherBottom + other.contactCache.getReportedHeight() - 1 )) - 1;
+			if(reachX <= gapX - 2 || reachY <= gapY - 2)
+				continue;
+			if(Math.max(gapX, gapY) < 2)
+				return 0;
+			if(gapX >= gapY)
+				allowedX = Math.min(allowedX, gapX - 2);
+			else
+				allowedY = Math.min(allowedY, gapY - 2);
+			constrained = true;
+		}
+		if(constrained)
+			time = Math.min(time, Math.min(Collision.getTimeToTravel(velocityX, accelerationX, allowedX),
+										   Collision.getTimeToTravel(velocityY, accelerationY, allowedY)));
+		return time;
+	}
+	
+	/**
+	 * Return the number of whole pixels this Game object moves at most horizontally in the given time.
+	 * 
+	 * @param 	time
+	 * 				The time, in seconds, which is not longer than the rest of the current time step.
+	 * @return	While its World plans a fixed time step and this Game object has not moved in that step yet, the 
+	 * 			reach its World swept for the whole step.
+	 * 			| if ( getWorld().isPlanningLockstep() && lockstep.hasSweptReach() )
+	 * 			|	then result == (int) Math.ceil( physics.getReachX(physicsSlot) )
+	 * 			| else
+	 * 			|	result == getReach(getVelocityX(), getAccelerationX(), time)
+	 */
+	@Model
+	private int getReachX(double time){
+		if(this.getWorld().isPlanningLockstep() && this.lockstep.hasSweptReach())
+			return (int) Math.ceil( this.physics.getReachX(this.physicsSlot) );
+		return getReach(this.getVelocityX(), this.getAccelerationX(), time);
+	}
+	
+	/**
+	 * Return the number of whole pixels this Game object moves at most vertically in the given time.
+	 * 
+	 * @param 	time
+	 * 				The time, in seconds, which is not longer than the rest of the current time step.
+	 * @return	| if ( getWorld().isPlanningLockstep() && lockstep.hasSweptReach() )
+	 * 			|	then result == (int) Math.ceil( physics.getReachY(physicsSlot) )
+	 * 			| else
+	 * 			|	result == getReach(getVelocityY(), getAccelerationY(), time)
+	 */
+	@Model
+	private int getReachY(double time){
+		if(this.getWorld().isPlanningLockstep() && this.lockstep.hasSweptReach())
+			return (int) Math.ceil( this.physics.getReachY(this.physicsSlot) );
+		return getReach(this.getVelocityY(), this.getAccelerationY(), time);
+	}
+	
+	/**
+	 * Return the number of whole pixels something with the given velocity and acceleration moves at most in the 
+	 * given time, along one axis.
+	 * 
+	 * @param 	velocity
+	 * 				The velocity along the axis, in meters per second.
+	 * @param 	acceleration
+	 * 				The acceleration along the axis, in meters per second squared.
+	 * @param 	time
+	 * 				The time, in seconds.
+	 * @return	| result == (int) Math.ceil( 100 * ( Math.abs(velocity) * time + 0.5 * Math.abs(acceleration) * (time * time) ) )
+	 */
+	@Model
+	private static int getReach(double velocity, double acceleration, double time){
+		return (int) Math.ceil( 100 * ( Math.abs(velocity) * time + 0.5 * Math.abs(acceleration) * (time * time) ) );
+	}
+	
+	/**
+	 * Return the distance this Game object can move along one axis of its World before its bounding box, widened 
+	 * by one pixel on every side, reaches a tile of the given set.
+	 * 
+	 * The tiles are searched one row or column of tiles at a time, starting next to the widened box and moving 
+	 * away from it, up to the given reach. Across the axis, every row or column is searched over the whole region 
+	 * the widened box is swept over, so the distance holds however this Game object moves across the axis.
+	 * 
+	 * @param 	tiles
+	 * 				The set of tiles this Game object may not reach.
+	 * @param 	horizontal
+	 * 				Whether the axis is horizontal.
+	 * @param 	position
+	 * 				The exact position of this Game object along the axis.
+	 * @param 	length
+	 * 				The length of this Game object along the axis, in pixels.
+	 * @param 	sweptLow
+	 * 				The first pixel across the axis of the region the widened box is swept over.
+	 * @param 	sweptHigh
+	 * 				The last pixel across the axis of the region the widened box is swept over.
+	 * @param 	reach
+	 * 				The number of pixels this Game object moves at most along the axis.
+	 * @param 	direction
+	 * 				The sign of the direction in which this Game object moves, or zero if it may move in both directions.
+	 * @return	Infinity if no tile of the set is reached within the reach. Otherwise the distance after which the 
+	 * 			widened box is right next to the first tile of the set it would reach.
+	 * @note	The widened box is assumed not to cover any tile of the set yet.
+	 */
+	@Model
+	private double getDistanceToTerrain(ImpassableTileSet tiles, boolean horizontal, double position, int length,
+										int sweptLow, int sweptHigh, int reach, int direction){
+		int tileLength = this.getWorld().getTileLength();
+		int low = (int) Math.floor(position), high = low + length - 1;
+		int sweptLowTile = Math.floorDiv(sweptLow, tileLength), sweptHighTile = Math.floorDiv(sweptHigh, tileLength);
+		double distance = Double.POSITIVE_INFINITY;
+		
+		if(direction >= 0){
+			for(int tile = Math.floorDiv(high + 1, tileLength) + 1; tile <= Math.floorDiv(high + 1 + reach, tileLength); tile++){
+				if(horizontal ? tiles.containsAnyIn(tile, sweptLowTile, tile, sweptHighTile) 
+							  : tiles.containsAnyIn(sweptLowTile, tile, sweptHighTile, tile)){
+					distance = tile * tileLength - length - position - 1e-6;
+					break;
+				}
+			}
+		}
+		if(direction <= 0){
+			for(int tile = Math.floorDiv(low - 1, tileLength) - 1; tile >= Math.floorDiv(low - 1 - reach, tileLength); tile--){
+				if(horizontal ? tiles.containsAnyIn(tile, sweptLowTile, tile, sweptHighTile) 
+							  : tiles.containsAnyIn(sweptLowTile, tile, sweptHighTile, tile)){
+					distance = Math.min(distance, position - ( tile + 1 ) * tileLength - 1 - 1e-6);
+					break;
+				}
+			}
+		}
+		return distance;
+	}
+	
+	/**
+	 * Return the distance this Game object can move along one axis of its World before it leaves that World.
+	 * 
+	 * @param 	position
+	 * 				The exact position of this Game object along the axis.
+	 * @param 	length
+	 * 				The length of this Game object along the axis, in pixels.
+	 * @param 	worldLength
+	 * 				The length of the World along the axis, in pixels.
+	 * @param 	direction
+	 * 				The sign of the direction in which this Game object moves, or zero if it may move in both directions.
+	 * @return	| if ( direction > 0 )
+	 * 			|	then result == worldLength - length + 1 - position
+	 * 			| else if ( direction < 0 )
+	 * 			|	then result == position
+	 * 			| else
+	 * 			|	result == Math.min(position, worldLength - length + 1 - position)
+	 */
+	@Model
+	private double getDistanceToWorldBorder(double position, int length, int worldLength, int direction){
+		double distance = Double.POSITIVE_INFINITY;
+		if(direction >= 0)
+			distance = Math.min(distance, worldLength - length + 1 - position);
+		if(direction <= 0)
+			distance = Math.min(distance, position);
+		return distance;
+	}
+	
+	/**
+	 * Return the sign of the direction in which something with the given velocity and acceleration moves, or zero if 
+	 * it may move in both directions.
+	 * 
+	 * @param 	velocity
+	 * 				The velocity.
+	 * @param 	acceleration
+	 * 				The acceleration.
+	 * @return	| if ( velocity * acceleration < 0 )
+	 * 			|	then result == 0
+	 * 			| else if ( velocity != 0 )
+	 * 			|	then result == Math.signum(velocity)
+	 * 			| else
+	 * 			|	result == Math.signum(acceleration)
+	 */
+	@Model
+	private static int getDirectionOf(double velocity, double acceleration){
+		if(velocity * acceleration < 0)
+			return 0;
+		return (int) Math.signum( velocity != 0 ? velocity : acceleration );
+	}
+	
+	/**
+	 * Return the time until the next timed event of this Game object, at which its movement or its state changes 
+	 * without it touching anything.
+	 * 
+	 * @return	The time until this Game object is no longer immune, until its horizontal velocity reaches its 
+	 * 			maximum, or until the Terrain it overlaps damages it, whichever comes first. Infinity if none of 
+	 * 			these happens.
+	 * @note	Subclasses with other timed events, such as periodic movements, extend this method.
+	 */
+	@Model
+	protected double getTimeToNextEvent(){
+		double time = Double.POSITIVE_INFINITY;
+		
+		if(this.isImmune())
+			time = Math.min(time, IMMUNE_TIME - this.getTimer().getSinceEnemyCollision());
+		
+		double velocityX = this.getVelocityX(), accelerationX = this.getAccelerationX();
+		if(accelerationX != 0 && velocityX * accelerationX >= 0)
+			time = Math.min(time, ( this.getVelocityXMax() - Math.abs(velocityX) ) / Math.abs(accelerationX));
+		
+		for(Terrain terrain : this.getOverlappingTerrainTypes()){
+			if(this.hasTerrainPropertiesOf(terrain) && this.getTerrainPropertiesOf(terrain).getDamage() != 0){
+				TerrainProperties properties = this.getTerrainPropertiesOf(terrain);
+				double untilDamage = properties.getDamageTime() - this.getTimer().getSinceLastTerrainDamage(terrain);
+				if(!properties.isInstantDamage())
+					untilDamage = Math.max(untilDamage, properties.getDamageTime() - this.getTimer().getTerrainOverlapDuration(terrain));
+				time = Math.min(time, untilDamage);
+			}
+		}
+		return time;
+	}
+	
 	/**
 	 * Advance time for this Game object once.
 	 * 
@@ -1446,10 +2099,26 @@ public abstract class GameObject implements IKind, IMovable{
 		if( !this.isTerminated() && !this.hasProperWorld())
 			throw new IllegalStateException("This object is not in a proper world!");
 		
-		if(this.isKilled() && !this.isTerminated()){
-			this.processKilled(dt);
-		}
-
+		this.startTimeStep(dt);
+		this.completeTimeStep(dt);
+	}
+	
+	/**
+	 * Start a time step of the given time for this Game object, by updating the parts of its state that only 
+	 * depend on itself and on the terrain of its World.
+	 * 
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	If this Game object is not killed, it is no longer immune once the immune time has passed, and its 
+	 * 			timers are updated.
+	 * 			| if ( !this.isKilled() && this.isImmune() && this.getTimer().getSinceEnemyCollision() > IMMUNE_TIME )
+	 * 			|	then this.setImmune(false)
+	 * 			| if ( !this.isKilled() )
+	 * 			|	then this.updateTimers(dt)
+	 * @note	This method only reads the terrain of the World of this Game object and only writes the state of this 
+	 * 			Game object, so different Game objects can start a time step in parallel.
+	 */
+	void startTimeStep(double dt){
 		if(!this.isKilled()){
 			// Check last enemy collision and reset immunity status if needed
 			if (this.isImmune() && this.getTimer().getSinceEnemyCollision() > IMMUNE_TIME ){
@@ -1457,15 +2126,152 @@ public abstract class GameObject implements IKind, IMovable{
 			}
 			
 			this.updateTimers(dt);
-			
+		}
+	}
+	
+	/**
+	 * Complete a time step of the given time for this Game object, by processing its death or its movement.
+	 * 
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	| if ( this.isKilled() && !this.isTerminated() )
+	 * 			|	then this.processKilled(dt)
+	 * @effect	| if ( !this.isKilled() && this.hasProgram() && this instanceof IProgrammable )
+	 * 			|	then ((IProgrammable) this).doMoveProgram(dt)
+	 * @effect	| if ( !this.isKilled() && !( this.hasProgram() && this instanceof IProgrammable ) )
+	 * 			|	then this.doMove(dt)
+	 * @effect	| if ( !this.isKilled() )
+	 * 			|	then this.updateSpriteIndex()
+	 */
+	void completeTimeStep(double dt){
+		if(this.isKilled() && !this.isTerminated()){
+			this.processKilled(dt);
+		}
+
+		if(!this.isKilled()){
 			if (this.hasProgram() && this instanceof IProgrammable){
 				((IProgrammable) this).doMoveProgram(dt);
 			} else
 				this.doMove(dt);
 			
-			this.getAnimation().updateSpriteIndex();
+			this.updateSpriteIndex();
 		}	
+	}
+	
+	/**
+	 * Complete a fixed time step of the given time for this Game object, of which the start has already been 
+	 * processed, in the same substeps as advanceTime.
+	 * 
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	| for each substep in the substeps of dt, as computed by getSubstep:
+	 * 			|	completeTimeStep(substep) && this.lockstep.moved()
+	 * @note	The timers of this Game object have been updated for the whole step when it started, so they are not 
+	 * 			updated again for every substep. Moving in substeps keeps this Game object from passing through 
+	 * 			terrain or other Game objects in a long step.
+	 * @note	The first substep is bounded by the reach its World swept for all its Game objects at once. Once this
+	 * 			Game object has moved, its velocity may have changed, so later substeps compute their own reach.
+	 */
+	void completeLockstep(double dt){
+		double minDt;
+		
+		while(!Util.fuzzyGreaterThanOrEqualTo(0, dt)){
+			if(this.isTerminated()){
+				break;
+			}
+			minDt = this.getSubstep(dt);
+			this.completeTimeStep(minDt);
+			this.lockstep.moved();
+			dt -= minDt;
+		}
+	}
+	
+	/**
+	 * Execute the statements of the Program of this Game object for the fixed time step its World is planning, 
+	 * as the first substep of completeLockstep would.
+	 * 
+	 * @effect	| if ( !this.isTerminated() && !this.isKilled() && this.hasProgram() && this instanceof IProgrammable )
+	 * 			|	then this.advanceProgram()
+	 * @note	While its World plans a step, the Program keeps its actions and prints until its World applies them,
+	 * 			so the Programs of different Game objects only read the World and can be executed in parallel. The 
+	 * 			first substep of completeLockstep has no statements left to execute afterwards.
+	 */
+	void planProgram(){
+		if(!this.isTerminated() && !this.isKilled() && this.hasProgram() && this instanceof IProgrammable)
+			this.advanceProgram();
+	}
+	
+	/**
+	 * Apply the actions and prints the Program of this Game object kept while its World planned the current fixed
+	 * time step.
+	 * 
+	 * @effect	| if ( this.hasProgram() )
+	 * 			|	then this.getProgram().applyDeferredActions()
+	 */
+	void applyProgram(){
+		if(this.hasProgram())
+			this.getProgram().applyDeferredActions();
+	}
+	
+	/**
+	 * Plan the motion of this Game object in the fixed time step of the given time its World is planning.
+	 * 
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	| this.lockstep.start(this.getPositionX(), this.getPositionY())
+	 * @effect	| completeLockstep(dt)
+	 * @note	Other Game objects are seen at the bounding boxes they reported to the World at the start of the 
+	 * 			step, and everything this Game object would change in the World is kept in its lockstep buffer, so 
+	 * 			different Game objects can plan their motion in parallel.
+	 */
+	void planLockstep(double dt){
+		this.lockstep.start(this.getPositionX(), this.getPositionY());
+		this.completeLockstep(dt);
+	}
+	
+	/**
+	 * Report the bounding box this Game object has planned for the current fixed time step to its World.
+	 * 
+	 * @effect	| if ( this.lockstep.hasChangedBounds() )
+	 * 			|	then boundsChanged()
+	 */
+	void publishLockstep(){
+		if(this.lockstep.hasChangedBounds())
+			this.boundsChanged();
+	}
 	
+	/**
+	 * Resolve the plan of this Game object for the current fixed time step, after all Game objects of its World 
+	 * have reported their bounding boxes.
+	 * 
+	 * @effect	Two Game objects that moved into each other in the same step, each planned against the position the 
+	 * 			other had at the start of the step. The one that is resolved first moves back to its position at the 
+	 * 			start of the step.
+	 * 			| if ( this.lockstep.hasChangedBounds() && !this.isTerminated() && 
+	 * 			|		this.doesInteractWithGameObjects(TerrainInteraction.COLLIDE, Orientation.ALL) )
+	 * 			|	then this.getPositionX() == this.lockstep.getStartPositionX() && 
+	 * 			|		 this.getPositionY() == this.lockstep.getStartPositionY() && boundsChanged()
+	 * @effect	| if ( this.lockstep.isTerminationScheduled() )
+	 * 			|	then this.getWorld().deferStructuralChange(StructuralChangeBuffer.Change.TERMINATE, this, null) &&
+	 * 			|		 this.getWorld().gameObjectChanged(this)
+	 * @effect	| this.getWorld().countContactCacheLookups(this.lockstep.getNbHits(), this.lockstep.getNbMisses())
+	 * @note	The start position of a Game object never collides with the planned position of another one, so
+	 * 			moving back resolves the collision without causing a new one.
+	 */
+	void resolveLockstep(){
+		World world = this.getWorld();
+		
+		if(this.lockstep.hasChangedBounds() && !this.isTerminated() && 
+				this.doesInteractWithGameObjects(TerrainInteraction.COLLIDE, Orientation.ALL)){
+			this.physics.setPositionX(this.physicsSlot, this.lockstep.getStartPositionX());
+			this.physics.setPositionY(this.physicsSlot, this.lockstep.getStartPositionY());
+			this.boundsChanged();
+		}
+		if(this.lockstep.isTerminationScheduled()){
+			world.deferStructuralChange(StructuralChangeBuffer.Change.TERMINATE, this, null);
+			world.gameObjectChanged(this);
+		}
+		world.countContactCacheLookups(this.lockstep.getNbHits(), this.lockstep.getNbMisses());
 	}
 	
 	/**
@@ -1491,7 +2297,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 * @effect	If the time since the Game object was killed is greater than 0.6s, the Game object
 	 * 			gets terminated.
 	 * 			| if ( this.getTimer().getSinceKilled() >= 0.6 )
-	 * 			|	then this.terminate()
+	 * 			|	then this.scheduleTermination()
 	 * @effect	If the time since the Game object was killed is smaller than 0.6s, the time since the
 	 * 			Game object was killed is increased with the given dt.
 	 * 			| if ( this.getTimer().getSinceKilled() <= 0.6 )
@@ -1499,7 +2305,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	protected void processKilled(double dt) {
 		if(this.getTimer().getSinceKilled() >= 0.60){
-			this.terminate();
+			this.scheduleTermination();
 		}else{
 			this.getTimer().increaseSinceKilled(dt);
 		}
@@ -1560,8 +2366,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	protected void updatePositionX(double dt) {
 		try{
-			double sx = this.getVelocityX() * dt + 0.5 * this.getAccelerationX() * Math.pow( dt , 2 );
-			this.setPositionX( this.getPositionX() + 100 * sx );
+			this.setPositionX( this.physics.integratePositionX(this.physicsSlot, dt) );
 		}catch( IllegalPositionXException exc){
 			this.kill();
 		}catch( CollisionException exc ){
@@ -1605,8 +2410,7 @@ public abstract class GameObject implements IKind, IMovable{
 	 */
 	protected void updatePositionY(double dt) {
 		try{
-			double sy = this.getVelocityY() * dt + 0.5 * this.getAccelerationY() * Math.pow( dt , 2 );
-			this.setPositionY( this.getPositionY() + 100 * sy );
+			this.setPositionY( this.physics.integratePositionY(this.physicsSlot, this.getAccelerationY(), dt) );
 		}catch( IllegalPositionYException exc){
 			this.kill();
 		}catch( CollisionException exc){
@@ -1822,6 +2626,31 @@ public abstract class GameObject implements IKind, IMovable{
 				getWidth(), getHeight(), x, y, width, height, orientation);
 	}
 	
+	/**
+	 * Check whether the bounding box of this Game object, which overlaps with the bounding box of the given Game 
+	 * object, also overlaps with it pixel by pixel, as far as the World of this Game object asks for that.
+	 * 
+	 * @param 	other
+	 * 				The Game object to check overlap with.
+	 * @pre		| hasWorld() && doesOverlapWith(other)
+	 * @return	If the World of this Game object uses pixel-perfect collision for the kind of neither Game object, 
+	 * 			the bounding boxes suffice. Otherwise, the Game objects overlap if and only if the collision masks of 
+	 * 			their current sprites have an opaque pixel in common.
+	 * 			| if ( !getWorld().hasPixelPerfectCollision(this.getKindBit()) &&
+	 * 			|	   !getWorld().hasPixelPerfectCollision(other.getKindBit()) )
+	 * 			|	then result == true
+	 * 			| else
+	 * 			|	result == this.getAnimation().getCurrentMask().overlapsWith(getRoundedPositionX(), getRoundedPositionY(),
+	 * 			|				other.getAnimation().getCurrentMask(), other.getRoundedPositionX(), other.getRoundedPositionY())
+	 */
+	boolean doesOverlapInPixelsWith(GameObject other){
+		World world = this.getWorld();
+		if(!world.hasPixelPerfectCollision(this.getKindBit()) && !world.hasPixelPerfectCollision(other.getKindBit()))
+			return true;
+		return this.getAnimation().getCurrentMask().overlapsWith(this.getRoundedPositionX(), this.getRoundedPositionY(), 
+				other.getAnimation().getCurrentMask(), other.getRoundedPositionX(), other.getRoundedPositionY());
+	}
+	
 	/** 
 	 * Return a set containing the overlapping Terrain types.
 	 *  
@@ -1830,24 +2659,53 @@ public abstract class GameObject implements IKind, IMovable{
 	public Set<Terrain> getOverlappingTerrainTypes(){
 		World world = this.getWorld();
 		
-		Set<Terrain> overlappingTerrainTypes = new HashSet<Terrain>();
+		Set<Terrain> overlappingTerrainTypes = EnumSet.noneOf(Terrain.class);
 		
-		int[][] tiles = world.getTilePositionsIn(	this.getRoundedPositionX(), 
-													this.getRoundedPositionY(),
-													this.getRoundedPositionX() + this.getWidth(), 
-													this.getRoundedPositionY() + this.getHeight()  );
-		
-		for(int[] tile : tiles){
-			if(this.doesCollideWith(world.getPositionXOfTile(tile[0]), world.getPositionYOfTile(tile[1]), world.getTileLength(), world.getTileLength(), Orientation.ALL)){
-				overlappingTerrainTypes.add(world.getGeologicalFeature(world.getPositionXOfTile(tile[0]), world.getPositionYOfTile(tile[1])));	
+		world.forEachTileIn(this.getRoundedPositionX(), 
+							this.getRoundedPositionY(),
+							this.getRoundedPositionX() + this.getWidth(), 
+							this.getRoundedPositionY() + this.getHeight(),
+							(tileX, tileY, terrain) -> {
+			if(this.doesCollideWith(world.getPositionXOfTile(tileX), world.getPositionYOfTile(tileY), world.getTileLength(), world.getTileLength(), Orientation.ALL)){
+				overlappingTerrainTypes.add(terrain);	
 			}
-		}
+			return false;
+		});
 		
 		return overlappingTerrainTypes;
 	}
 	
 	/***************************************************** INTERACTION ************************************************/
 	
+	/**
+	 * Compute the contacts with terrain this Game object asks for first in a time step, from the current state of 
+	 * its World, and remember them in its contact cache.
+	 * 
+	 * @pre		| hasProperWorld()
+	 * @post	The contact cache of this Game object holds whether it collides with impassable terrain and whether it 
+	 * 			stands on impassable terrain, for its current bounding box, as far as it can hold them.
+	 * @note	This method only reads the World of this Game object and only writes its own contact cache, so 
+	 * 			different Game objects can prefetch their contacts in parallel, as long as none of them moves and 
+	 * 			the impassable tile sets of their World have been prepared for counting. The cache is exact, so 
+	 * 			prefetching contacts never changes the outcome of a time step.
+	 */
+	void prefetchContacts(){
+		for(int contact = 0; contact < PREFETCHED_INTERACTIONS.length; contact++){
+			int contactIndex = ContactCache.getContactIndex(PREFETCHED_INTERACTIONS[contact], PREFETCHED_ORIENTATIONS[contact]);
+			if(!this.contactCache.holdsTerrainContact(this, contactIndex))
+				this.contactCache.putTerrainContact(contactIndex, 
+						this.findInteractionWithTerrain(PREFETCHED_INTERACTIONS[contact], PREFETCHED_ORIENTATIONS[contact]));
+		}
+	}
+	
+	/**
+	 * Constants reflecting the interactions with terrain, and their orientations, that a Game object prefetches: 
+	 * colliding, as every move checks, and standing on terrain, as every acceleration 
+	 * checks.
+	 */
+	private static final TerrainInteraction[] PREFETCHED_INTERACTIONS = { TerrainInteraction.COLLIDE, TerrainInteraction.STAND_ON };
+	private static final Orientation[] PREFETCHED_ORIENTATIONS = { Orientation.ALL, Orientation.BOTTOM };
+	
 	/**
 	 * Check if this Game object interacts with any other impassable Game object, in the given direction.
 	 * 
@@ -1863,46 +2721,88 @@ public abstract class GameObject implements IKind, IMovable{
 	 * 			Terrain.
 	 * 			In case the interaction is STAND_ON, return true if and only if this object stands on the impassable
 	 * 			Terrain.
+	 * @note	The answer is remembered in the contact cache of this Game object, until one of its outer pixels or 
+	 * 			the pixels right within them enters another tile, or the terrain of its World changes.
 	 */
 	public boolean doesInteractWithTerrain(TerrainInteraction interaction, Orientation orientation){
 		assert hasProperWorld(); 
 		
+		int contactIndex = ContactCache.getContactIndex(interaction, orientation);
+		if(this.contactCache.hasTerrainContact(this, contactIndex))
+			return this.contactCache.getTerrainContact(contactIndex);
+		
+		boolean contact = this.findInteractionWithTerrain(interaction, orientation);
+		this.contactCache.putTerrainContact(contactIndex, contact);
+		return contact;
+	}
+	
+	/**
+	 * Check if this Game object interacts with impassable Terrain in the given direction, without consulting its 
+	 * contact cache.
+	 * 
+	 * @param	interaction
+	 * 				The desired type of interaction to check, as an element of the TerrainInteraction enumeration.
+	 * @param	orientation
+	 * 				The desired direction in which the interaction should be checked.
+	 * @return	| result == doesInteractWithTerrain(interaction, orientation)
+	 * @note	Colliding in any direction means that an impassable tile shares a pixel with this Game object
+	 * 			without its outer perimeter, and standing on terrain means that an impassable tile contains the bottom 
+	 * 			row of pixels of this Game object without its outer columns. For Game objects of at least three 
+	 * 			pixels wide and high, both are answered by a single counting query on the impassable tile set, in 
+	 * 			constant time.
+	 */
+	@Model
+	private boolean findInteractionWithTerrain(TerrainInteraction interaction, Orientation orientation){
 		World world = this.getWorld();
 		
-		// Check overlap with tiles
-		int[][] tiles = world.getTilePositionsIn(	this.getRoundedPositionX(), 
+		if(this.getWidth() > 2 && this.getHeight() > 2){
+			if(interaction == TerrainInteraction.COLLIDE && orientation == Orientation.ALL)
+				return world.getNbImpassableTilesIn(this.getImpassableTerrainMask(),
+													this.getRoundedPositionX() + 1,
+													this.getRoundedPositionY() + 1,
+													this.getRoundedPositionX() + this.getWidth() - 2,
+													this.getRoundedPositionY() + this.getHeight() - 2) > 0;
+			if(interaction == TerrainInteraction.STAND_ON && orientation == Orientation.BOTTOM)
+				return world.getNbImpassableTilesIn(this.getImpassableTerrainMask(),
+													this.getRoundedPositionX() + 1,
 													this.getRoundedPositionY(),
-			 										this.getRoundedPositionX() + this.getWidth(), 
-													this.getRoundedPositionY() + this.getHeight());
-
-		for(int[] tile : tiles){
+													this.getRoundedPositionX() + this.getWidth() - 2,
+													this.getRoundedPositionY()) > 0;
+		}
+		
+		// Rule out regions without any impassable tiles with a couple of word tests
+		if( !world.hasImpassableTileIn( this.getImpassableTerrainMask(),
+										this.getRoundedPositionX(), 
+										this.getRoundedPositionY(),
+										this.getRoundedPositionX() + this.getWidth(), 
+										this.getRoundedPositionY() + this.getHeight()) )
+			return false;
+		
+		// Check overlap with tiles
+		return world.forEachTileIn(	this.getRoundedPositionX(), 
+									this.getRoundedPositionY(),
+			 						this.getRoundedPositionX() + this.getWidth(), 
+									this.getRoundedPositionY() + this.getHeight(),
+									(tileX, tileY, terrain) -> {
 			// Check if that tile is passable 
 			// and if the given object interacts with a tile
-			Terrain terrain = world.getGeologicalFeature(world.getPositionXOfTile(tile[0]), world.getPositionYOfTile(tile[1]));
-			if( !getTerrainPropertiesOf( terrain ).isPassable() ){
+			if( ImpassableTileSet.isImpassableTerrain(this.getImpassableTerrainMask(), terrain) ){
 				switch(interaction){
 					case COLLIDE:
-						if( this.doesCollideWith(world.getPositionXOfTile(tile[0]), world.getPositionYOfTile(tile[1]),
-												 world.getTileLength(), world.getTileLength(), orientation))
-							return true;
-					break;
+						return this.doesCollideWith(world.getPositionXOfTile(tileX), world.getPositionYOfTile(tileY),
+												 	world.getTileLength(), world.getTileLength(), orientation);
 					case OVERLAP:
-						if( this.doesOverlapWith(world.getPositionXOfTile(tile[0]), world.getPositionYOfTile(tile[1]),
-												 world.getTileLength(), world.getTileLength(), orientation))
-							return true;
-					break;
+						return this.doesOverlapWith(world.getPositionXOfTile(tileX), world.getPositionYOfTile(tileY),
+												 	world.getTileLength(), world.getTileLength(), orientation);
 					case STAND_ON:
-						if( Collision.doRegionsOverlap(getRoundedPositionX() + 1, getRoundedPositionY(),
-													   getWidth() - 2, getHeight(),
-													   world.getPositionXOfTile(tile[0]), world.getPositionYOfTile(tile[1]),
-													   world.getTileLength(), world.getTileLength(), orientation))
-								return true;
-					break;
+						return Collision.doRegionsOverlap(getRoundedPositionX() + 1, getRoundedPositionY(),
+													   	  getWidth() - 2, getHeight(),
+													   	  world.getPositionXOfTile(tileX), world.getPositionYOfTile(tileY),
+													   	  world.getTileLength(), world.getTileLength(), orientation);
 				}	
 			}
-		}
-		
-		return false;
+			return false;
+		});
 	}
 	
 	/**
@@ -1920,31 +2820,37 @@ public abstract class GameObject implements IKind, IMovable{
 	 * 			other impassable Game object.
 	 * 			In case the interaction is STAND_ON, return true if and only if this object stands on an
 	 * 			impassable Game object.
+	 * @note	Only the impassable Game objects near this Game object are checked. They are looked up in the 
+	 * 			broadphase of the World, so not every Game object of the World is tested. The contact cache of this 
+	 * 			Game object remembers both them and the answer, until this Game object leaves the tiles around it, 
+	 * 			one of them changes or another Game object enters those tiles.
 	 */
 	public boolean doesInteractWithGameObjects(TerrainInteraction interaction, Orientation orientation){
 		assert hasProperWorld();
 		
-		for(GameObject object : this.getAllImpassableGameObjects()){
-			if(object != this){
-				switch(interaction){
-					case COLLIDE:
-						if(this.doesCollideWith(object, orientation))
-							return true;
-						break;
-					case OVERLAP:
-						if(this.doesOverlapWith(object, orientation))
-							return true;
-						break;
-					case STAND_ON:
-						assert orientation == Orientation.BOTTOM;
-						if(Collision.doRegionsOverlap(getRoundedPositionX() + 1, getRoundedPositionY(), getWidth() - 2, getHeight(),
-								object.getRoundedPositionX(), object.getRoundedPositionY(), object.getWidth(), object.getHeight(), orientation))
-								return true;
-						break;
-				}
-			}
+		int contactIndex = ContactCache.getContactIndex(interaction, orientation);
+		if(this.contactCache.hasGameObjectContact(this, contactIndex))
+			return this.contactCache.getGameObjectContact(contactIndex);
+		
+		// Only the Game objects near this Game object can interact with it, and they are all tested at once
+		boolean contact = false;
+		switch(interaction){
+			case COLLIDE:
+				contact = this.contactCache.hasNeighbourOverlappingWith(getRoundedPositionX() + 1, getRoundedPositionY() + 1, 
+																		getWidth() - 2, getHeight() - 2, orientation);
+				break;
+			case OVERLAP:
+				contact = this.contactCache.hasNeighbourOverlappingWith(getRoundedPositionX(), getRoundedPositionY(), 
+																		getWidth(), getHeight(), orientation);
+				break;
+			case STAND_ON:
+				assert orientation == Orientation.BOTTOM;
+				contact = this.contactCache.hasNeighbourOverlappingWith(getRoundedPositionX() + 1, getRoundedPositionY(), 
+																		getWidth() - 2, getHeight(), orientation);
+				break;
 		}
-		return false;
+		this.contactCache.putGameObjectContact(contactIndex, contact);
+		return contact;
 	}
 	
 	/************************************************** OVERLAP PROCESSING ********************************************/
@@ -1954,12 +2860,15 @@ public abstract class GameObject implements IKind, IMovable{
 	 * 
 	 * @effect	Process overlap with tiles.
 	 * 			| processTileOverlap()
-	 * @effect	Process overlap with other Game objects.
-	 * 			| processGameObjectOverlap()
+	 * @effect	Process overlap with other Game objects, unless the World of this Game object processes those in 
+	 * 			one batch at the end of every time step.
+	 * 			| if ( !this.getWorld().defersGameObjectOverlaps() )
+	 * 			|	then processGameObjectOverlap()
 	 */
 	protected void processOverlap(){
 		this.processTerrainOverlap();
-		this.processGameObjectOverlap();
+		if(!this.getWorld().defersGameObjectOverlaps())
+			this.processGameObjectOverlap();
 	}
 
 	/**
@@ -2026,57 +2935,129 @@ public abstract class GameObject implements IKind, IMovable{
 	 * @effect	Process overlaps of the Mazub with this Game object.
 	 * 			| for mazub in this.getWorld().getAllMazubs():
 	 * 			|	if ( Mazub.getInWorld( this.getWorld() ) != this &&
-	 * 					 this.doesOverlapWith(Mazub.getInWorld( this.getWorld() ))) 
+	 * 					 this.doesOverlapWith(Mazub.getInWorld( this.getWorld() )) &&
+	 * 			|		 this.doesOverlapInPixelsWith(Mazub.getInWorld( this.getWorld() ))) 
 	 * 			|		then this.processMazubOverlap( Mazub.getInWorld( this.getWorld() ) )
 	 * @effect	Process overlaps of Buzams with this Game object.
 	 * 			| for buzam in Buzam.getAllInWorld( this.getWorld() )):
-	 * 			|	if ( buzam != this && this.doesOverlapWith(buzam) ) 
+	 * 			|	if ( buzam != this && this.doesOverlapWith(buzam) &&
+	 * 			|		 this.doesOverlapInPixelsWith(buzam) ) 
 	 * 			|		then this.processMazubOverlap(mazub)
 	 * @effect	Process overlaps of Plants with this Game object.
 	 * 			| for plant in Plant.getAllInWorld( this.getWorld() ):
-	 * 			|	if ( plant != this && this.doesOverlapWith(plant) ) 
+	 * 			|	if ( plant != this && this.doesOverlapWith(plant) &&
+	 * 			|		 this.doesOverlapInPixelsWith(plant) ) 
 	 * 			|		then this.processPlantOverlap(plant)
 	 * @effect	Process overlaps of Sharks with this Game object.
 	 * 			| for shark in Shark.getAllInWorld( this.getWorld() ):
-	 * 			|	if ( shark != this && this.doesOverlapWith(shark) ) 
+	 * 			|	if ( shark != this && this.doesOverlapWith(shark) &&
+	 * 			|		 this.doesOverlapInPixelsWith(shark) ) 
 	 * 			|		then this.processSharkOverlap(shark)
 	 * @effect	Process overlaps of Slimes with this Game object.
 	 * 			| for slime in Slime.getAllInWorld( this.getWorld() ):
-	 * 			|	if ( slime != this && this.doesOverlapWith(slime) ) 
+	 * 			|	if ( slime != this && this.doesOverlapWith(slime) &&
+	 * 			|		 this.doesOverlapInPixelsWith(slime) ) 
 	 * 			|		then this.processSlimeOverlap(slime) 	
 	 */
 	protected void processGameObjectOverlap(){
 		
 		World world = this.getWorld();
+		int nbNearby = world.queryGameObjects(this.getRoundedPositionX(), this.getRoundedPositionY(),
+								  this.getRoundedPositionX() + this.getWidth() - 1, this.getRoundedPositionY() + this.getHeight() - 1,
+								  World.ALL_KINDS_MASK, this);
+		if(nbNearby == 0)
+			return;
 		
-		if( Mazub.getInWorld(world) != this && this.doesOverlapWith(Mazub.getInWorld(world))){
-			this.processMazubOverlap(Mazub.getInWorld(world));
-		}
-		
-		for(Buzam buzam : Buzam.getAllInWorld(world)){
-			if(buzam != this && this.doesOverlapWith(buzam)){
-				this.processMazubOverlap(buzam);
-			}
-		}
+		// Processing an overlap may query the World again, so work on a copy in the order of the specification
+		GameObject[] nearby = Arrays.copyOf(world.getQueryResult(), nbNearby);
+		sortInOverlapOrder(nearby);
 		
-		for(Plant plant : Plant.getAllInWorld(world)){
-			if(plant != this && this.doesOverlapWith(plant)){
-				this.processPlantOverlap(plant);
-			}
+		for(GameObject object : nearby)
+			if(this.doesOverlapWith(object) && this.doesOverlapInPixelsWith(object))
+				this.processOverlapWith(object);
+	}
+	
+	/**
+	 * Process an overlap of this Game object with the given Game object, according to the kind of the given Game 
+	 * object.
+	 * 
+	 * @param 	object
+	 * 				The Game object with which this Game object overlaps.
+	 * @effect	| if ( object.getKindBit() == World.MAZUB_BIT || object.getKindBit() == World.BUZAM_BIT )
+	 * 			|	then this.processMazubOverlap((Mazub) object)
+	 * @effect	| if ( object.getKindBit() == World.PLANT_BIT )
+	 * 			|	then this.processPlantOverlap((Plant) object)
+	 * @effect	| if ( object.getKindBit() == World.SHARK_BIT )
+	 * 			|	then this.processSharkOverlap((Shark) object)
+	 * @effect	| if ( object.getKindBit() == World.SLIME_BIT )
+	 * 			|	then this.processSlimeOverlap((Slime) object)
+	 */
+	void processOverlapWith(GameObject object){
+		switch(object.getKindBit()){
+			case World.MAZUB_BIT:
+			case World.BUZAM_BIT:
+				this.processMazubOverlap((Mazub) object);
+				break;
+			case World.PLANT_BIT:
+				this.processPlantOverlap((Plant) object);
+				break;
+			case World.SHARK_BIT:
+				this.processSharkOverlap((Shark) object);
+				break;
+			case World.SLIME_BIT:
+				this.processSlimeOverlap((Slime) object);
+				break;
 		}
-		
-		for(Shark shark :  Shark.getAllInWorld(world)){
-			if(shark != this && this.doesOverlapWith(shark)){
-				processSharkOverlap(shark);
+	}
+	
+	/**
+	 * Sort the given Game objects in the order in which their overlaps are processed: the Mazub first, followed
+	 * by the Buzams, Plants, Sharks and Slimes, each kind in the order of the registry of their World.
+	 * 
+	 * @param 	gameObjects
+	 * 				The Game objects to sort.
+	 */
+	private static void sortInOverlapOrder(GameObject[] gameObjects){
+		for(int i = 1; i < gameObjects.length; i++){
+			GameObject object = gameObjects[i];
+			int j = i - 1;
+			while(j >= 0 && comesBeforeInOverlapOrder(object, gameObjects[j])){
+				gameObjects[j + 1] = gameObjects[j];
+				j--;
 			}
+			gameObjects[j + 1] = object;
 		}
-		
-		for(Slime slime :  Slime.getAllInWorld(world)){
-			if(slime != this && this.doesOverlapWith(slime)){
-				processSlimeOverlap(slime);
-			}
+	}
+	
+	/**
+	 * Check whether the overlap with the first given Game object is processed before the overlap with the second
+	 * given Game object.
+	 * 
+	 * @param 	first
+	 * 				The first Game object.
+	 * @param 	second
+	 * 				The second Game object.
+	 */
+	private static boolean comesBeforeInOverlapOrder(GameObject first, GameObject second){
+		int firstRank = getOverlapRank(first.getKindBit());
+		int secondRank = getOverlapRank(second.getKindBit());
+		return firstRank < secondRank || (firstRank == secondRank && first.registryIndex < second.registryIndex);
+	}
+	
+	/**
+	 * Return the rank of the given kind of Game objects in the order in which overlaps are processed.
+	 * 
+	 * @param 	kindBit
+	 * 				The kind bit of the Game objects.
+	 */
+	private static int getOverlapRank(int kindBit){
+		switch(kindBit){
+			case World.MAZUB_BIT:	return 0;
+			case World.BUZAM_BIT:	return 1;
+			case World.PLANT_BIT:	return 2;
+			case World.SHARK_BIT:	return 3;
+			default:				return 4;
 		}
-		
 	}
 	
 	/**
@@ -2139,6 +3120,35 @@ public abstract class GameObject implements IKind, IMovable{
 		this.terminated = true;
 	}
 	
+	/**
+	 * Terminate this Game object, or, while its World is advancing time, mark it as terminated and let its World
+	 * terminate it at the end of the current time step.
+	 * 
+	 * @effect	| if ( !this.hasWorld() || !this.getWorld().isDeferringStructuralChanges() )
+	 * 			|	then this.terminate()
+	 * @effect	A Game object that is marked as terminated is taken out of the broadphase of its World at once, so
+	 * 			no other Game object finds it anymore during the rest of the time step.
+	 * 			| if ( this.hasWorld() && this.getWorld().isDeferringStructuralChanges() )
+	 * 			|	then this.getWorld().gameObjectChanged(this)
+	 * @effect	While its World plans a fixed time step, the termination is only remembered, and requested from the 
+	 * 			World once all Game objects have planned the step.
+	 * 			| if ( this.hasWorld() && this.getWorld().isPlanningLockstep() )
+	 * 			|	then this.lockstep.scheduleTermination()
+	 * @post	| new.isTerminated() == true
+	 */
+	@Model
+	private void scheduleTermination(){
+		if(this.hasWorld() && this.getWorld().isPlanningLockstep()){
+			this.terminated = true;
+			this.lockstep.scheduleTermination();
+		}else if(this.hasWorld() && this.getWorld().isDeferringStructuralChanges()){
+			this.getWorld().deferStructuralChange(StructuralChangeBuffer.Change.TERMINATE, this, null);
+			this.terminated = true;
+			this.getWorld().gameObjectChanged(this);
+		}else
+			this.terminate();
+	}
+	
 	/**
 	 * Check if a Game object is terminated.
 	 * 
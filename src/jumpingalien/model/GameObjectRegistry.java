@@ -0,0 +1,183 @@
+package jumpingalien.model;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of registries that keep the Game objects of one kind in a World.
+ *
+ * The Game objects are kept in a dense array. Every Game object remembers its own index in that array, so it
+ * can be found and removed in constant time: the last Game object of the array takes the place of the removed
+ * one. A registry is itself a read-only, live view on its Game objects. Its iterators walk over the dense
+ * array itself and fail fast if a Game object is added or removed during the iteration; the World defers such
+ * changes to the end of a time step, so they cannot happen while it advances time.
+ *
+ * @param	<T>
+ * 				The kind of Game objects kept in the registry.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| size() >= 0
+ * @invar	| for each index in 0..size()-1: get(index).registryIndex == index
+ */
+class GameObjectRegistry<T extends GameObject> extends AbstractSet<T> {
+
+	/**
+	 * Constant reflecting the initial capacity of the array of a registry.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/***************************************************** REGISTRATION ************************************************/
+
+	/**
+	 * Add the given Game object to this registry.
+	 *
+	 * @param 	gameObject
+	 * 				The Game object to add.
+	 * @pre		| gameObject != null && !contains(gameObject)
+	 * @post	| new.contains(gameObject)
+	 * @post	| new.size() == size() + 1
+	 */
+	void register(T gameObject){
+		assert gameObject != null && !this.contains(gameObject);
+
+		if(this.size == this.gameObjects.length)
+			this.gameObjects = Arrays.copyOf(this.gameObjects, 2 * this.gameObjects.length);
+
+		gameObject.registryIndex = this.size;
+		this.gameObjects[this.size++] = gameObject;
+		this.snapshot = null;
+		this.nbModifications++;
+	}
+
+	/**
+	 * Remove the given Game object from this registry, moving the last Game object of this registry into its place.
+	 *
+	 * @param 	gameObject
+	 * 				The Game object to remove.
+	 * @pre		| contains(gameObject)
+	 * @post	| !new.contains(gameObject)
+	 * @post	| new.size() == size() - 1
+	 */
+	void unregister(T gameObject){
+		assert this.contains(gameObject);
+
+		int index = gameObject.registryIndex;
+		GameObject last = this.gameObjects[--this.size];
+		this.gameObjects[index] = last;
+		last.registryIndex = index;
+		this.gameObjects[this.size] = null;
+		gameObject.registryIndex = -1;
+		this.snapshot = null;
+		this.nbModifications++;
+	}
+
+	/******************************************************** ACCESS ***************************************************/
+
+	/**
+	 * Return the number of Game objects in this registry.
+	 */
+	@Basic @Override
+	public int size(){
+		return this.size;
+	}
+
+	/**
+	 * Check whether the given object is a Game object in this registry.
+	 *
+	 * @param 	object
+	 * 				The object to check.
+	 * @return	| result == ( object instanceof GameObject && for some index in 0..size()-1: get(index) == object )
+	 * @note	This method runs in constant time.
+	 */
+	@Override
+	public boolean contains(Object object){
+		if(!(object instanceof GameObject))
+			return false;
+		int index = ((GameObject) object).registryIndex;
+		return index >= 0 && index < this.size && this.gameObjects[index] == object;
+	}
+
+	/**
+	 * Return the Game object at the given index of this registry.
+	 *
+	 * @param 	index
+	 * 				The index of the Game object.
+	 * @pre		| index >= 0 && index < size()
+	 */
+	@SuppressWarnings("unchecked")
+	T get(int index){
+		assert index >= 0 && index < this.size;
+		return (T) this.gameObjects[index];
+	}
+
+	/**
+	 * Return an array containing the Game objects of this registry, as they were registered when this method was
+	 * invoked. The same array is returned until a Game object is added or removed.
+	 *
+	 * @return	An array containing exactly the Game objects of this registry.
+	 * @note	The returned array is shared and may not be modified.
+	 */
+	GameObject[] getSnapshot(){
+		if(this.snapshot == null)
+			this.snapshot = Arrays.copyOf(this.gameObjects, this.size);
+		return this.snapshot;
+	}
+
+	/**
+	 * Return an iterator over the Game objects of this registry, which does not copy them.
+	 * 
+	 * @note	The iterator throws a ConcurrentModificationException if a Game object is added to or removed from 
+	 * 			this registry while it is in use.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		return new Iterator<T>(){
+
+			private final int expectedNbModifications = nbModifications;
+
+			private int next = 0;
+
+			@Override
+			public boolean hasNext(){
+				if(nbModifications != this.expectedNbModifications)
+					throw new ConcurrentModificationException();
+				return this.next < size;
+			}
+
+			@Override
+			public T next(){
+				if(!this.hasNext())
+					throw new NoSuchElementException();
+				return get(this.next++);
+			}
+		};
+	}
+
+	/**
+	 * Array registering the Game objects of this registry at its first size() indices.
+	 */
+	private GameObject[] gameObjects = new GameObject[INITIAL_CAPACITY];
+
+	/**
+	 * Variable registering the number of Game objects in this registry.
+	 */
+	private int size = 0;
+
+	/**
+	 * Variable registering the snapshot array of this registry, or null if it needs to be rebuilt.
+	 */
+	private GameObject[] snapshot = null;
+
+	/**
+	 * Variable registering the number of times a Game object has been added to or removed from this registry.
+	 */
+	private int nbModifications = 0;
+}
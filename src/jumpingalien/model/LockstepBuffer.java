@@ -0,0 +1,181 @@
+package jumpingalien.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of buffers that hold what a Game object intends to do in a fixed time step of its World, while all Game
+ * objects plan their motion in parallel against the state of the World at the start of that step.
+ *
+ * While planning, a Game object only writes its own state. Whatever it would change in its World is kept in its
+ * buffer instead: whether its bounding box has changed, whether it is to be terminated and how many questions its
+ * contact cache has answered. Once all Game objects have planned, their World applies the buffers serially, in a
+ * fixed order, so the outcome of a step does not depend on the number of threads that planned it.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+class LockstepBuffer {
+
+	/**
+	 * Empty this buffer at the start of a plan, for a Game object at the given position.
+	 *
+	 * @param 	startPositionX
+	 * 				The horizontal position of the Game object at the start of the plan.
+	 * @param 	startPositionY
+	 * 				The vertical position of the Game object at the start of the plan.
+	 * @post	| new.getStartPositionX() == startPositionX && new.getStartPositionY() == startPositionY
+	 * @post	| !new.hasChangedBounds() && !new.isTerminationScheduled()
+	 * @post	| new.hasSweptReach()
+	 * @post	| new.getNbHits() == 0 && new.getNbMisses() == 0
+	 */
+	void start(double startPositionX, double startPositionY){
+		this.startPositionX = startPositionX;
+		this.startPositionY = startPositionY;
+		this.sweptReach = true;
+		this.changedBounds = false;
+		this.terminationScheduled = false;
+		this.nbHits = 0;
+		this.nbMisses = 0;
+	}
+
+	/* Start position */
+
+	/**
+	 * Return the horizontal position of the Game object of this buffer at the start of its plan.
+	 */
+	@Basic
+	double getStartPositionX(){
+		return this.startPositionX;
+	}
+
+	/**
+	 * Return the vertical position of the Game object of this buffer at the start of its plan.
+	 */
+	@Basic
+	double getStartPositionY(){
+		return this.startPositionY;
+	}
+
+	/**
+	 * Variables registering the position of the Game object of this buffer at the start of its plan.
+	 */
+	private double startPositionX, startPositionY;
+
+	/* Reach */
+
+	/**
+	 * Check whether the reach the World of the Game object of this buffer swept at the start of the plan, still
+	 * bounds the motion of the Game object in the rest of its plan. It does until the Game object has moved.
+	 */
+	@Basic
+	boolean hasSweptReach(){
+		return this.sweptReach;
+	}
+
+	/**
+	 * Register that the Game object of this buffer has moved since the start of its plan.
+	 *
+	 * @post	| !new.hasSweptReach()
+	 */
+	void moved(){
+		this.sweptReach = false;
+	}
+
+	/**
+	 * Variable registering whether the swept reach still bounds the motion of the Game object of this buffer.
+	 */
+	private boolean sweptReach = false;
+
+	/* Bounds */
+
+	/**
+	 * Check whether the bounding box of the Game object of this buffer has changed while planning.
+	 */
+	@Basic
+	boolean hasChangedBounds(){
+		return this.changedBounds;
+	}
+
+	/**
+	 * Register that the bounding box of the Game object of this buffer has changed while planning.
+	 *
+	 * @post	| new.hasChangedBounds()
+	 */
+	void boundsChanged(){
+		this.changedBounds = true;
+	}
+
+	/**
+	 * Variable registering whether the bounding box of the Game object of this buffer has changed while planning.
+	 */
+	private boolean changedBounds = false;
+
+	/* Termination */
+
+	/**
+	 * Check whether the Game object of this buffer is to be terminated at the end of the current time step.
+	 */
+	@Basic
+	boolean isTerminationScheduled(){
+		return this.terminationScheduled;
+	}
+
+	/**
+	 * Register that the Game object of this buffer is to be terminated at the end of the current time step.
+	 *
+	 * @post	| new.isTerminationScheduled()
+	 */
+	void scheduleTermination(){
+		this.terminationScheduled = true;
+	}
+
+	/**
+	 * Variable registering whether the Game object of this buffer is to be terminated.
+	 */
+	private boolean terminationScheduled = false;
+
+	/* Contact cache */
+
+	/**
+	 * Return the number of questions the contact cache of the Game object of this buffer has answered while
+	 * planning.
+	 */
+	@Basic
+	long getNbHits(){
+		return this.nbHits;
+	}
+
+	/**
+	 * Return the number of questions for which the Game object of this buffer had to query its World while
+	 * planning.
+	 */
+	@Basic
+	long getNbMisses(){
+		return this.nbMisses;
+	}
+
+	/**
+	 * Count a question about the contacts of the Game object of this buffer as a hit or a miss of its contact
+	 * cache.
+	 *
+	 * @param 	hit
+	 * 				Whether the question was answered from the contact cache.
+	 * @post	| if ( hit )
+	 * 			|	then new.getNbHits() == getNbHits() + 1
+	 * 			| else
+	 * 			|	new.getNbMisses() == getNbMisses() + 1
+	 */
+	void countContactCacheLookup(boolean hit){
+		if(hit)
+			this.nbHits++;
+		else
+			this.nbMisses++;
+	}
+
+	/**
+	 * Variables registering the number of hits and misses of the contact cache while planning.
+	 */
+	private long nbHits = 0, nbMisses = 0;
+}
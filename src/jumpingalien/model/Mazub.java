@@ -1,9 +1,6 @@
 
 package jumpingalien.model;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import jumpingalien.model.terrain.Terrain;
 import be.kuleuven.cs.som.annotate.*;
 import jumpingalien.util.Sprite;
@@ -340,6 +337,16 @@ public class Mazub extends GameObject implements IDuckable, IJumpable{
 	
 	/******************************************************** WORLD ****************************************************/
 	
+	/**
+	 * Return the kind bit of a Mazub.
+	 * 
+	 * @return	| result == World.MAZUB_BIT
+	 */
+	@Override @Immutable
+	public int getKindBit(){
+		return World.MAZUB_BIT;
+	}
+	
 	/**
 	 * Add the Mazub to his World.
 	 * 
@@ -669,7 +676,7 @@ public class Mazub extends GameObject implements IDuckable, IJumpable{
 		this.setDucking(false);
 		
 		Sprite oldSprite = this.getCurrentSprite();
-		this.getAnimation().updateSpriteIndex();
+		this.updateSpriteIndex();
 		
 		if(oldSprite == this.getCurrentSprite()){ // if sprite didn't change, a collision prevented the change
 			this.setDucking(true);
@@ -872,6 +879,26 @@ public class Mazub extends GameObject implements IDuckable, IJumpable{
 		
 	}
 	
+	/**
+	 * Return the time until the next timed event of this Mazub, which includes the next frame of its animation, so 
+	 * its size changes at the same time as before.
+	 * 
+	 * @return	| if ( this.isMoving() )
+	 * 			|	then result == Math.min( super.getTimeToNextEvent(), 0.075 - this.getTimer().getSinceLastSprite() )
+	 * 			| else if ( this.hasMovedInLastSecond() )
+	 * 			|	then result == Math.min( super.getTimeToNextEvent(), 1.0 - this.getTimer().getSinceLastMove() )
+	 * 			| else
+	 * 			|	result == super.getTimeToNextEvent()
+	 */
+	@Override
+	protected double getTimeToNextEvent(){
+		if(this.isMoving())
+			return Math.min( super.getTimeToNextEvent(), 0.075 - this.getTimer().getSinceLastSprite() );
+		if(this.hasMovedInLastSecond())
+			return Math.min( super.getTimeToNextEvent(), 1.0 - this.getTimer().getSinceLastMove() );
+		return super.getTimeToNextEvent();
+	}
+	
 	/****************************************************** COLLISION **************************************************/
 	
 	/**
@@ -918,19 +945,14 @@ public class Mazub extends GameObject implements IDuckable, IJumpable{
 	}
 	
 	/**
-	 * Return all impassable Game objects for a Mazub.
+	 * Return the kinds of Game objects that are impassable for a Mazub.
 	 * 
-	 * @return	A Hashset that contains the Mazub and all Buzams, Slimes, Sharks and Plants in the Mazub's world.
+	 * @return	A bitmask that selects the Mazub and all Buzams, Slimes, Sharks and Plants in the Mazub's world.
+	 * 			| result == ( World.MAZUB_BIT | World.BUZAM_BIT | World.SLIME_BIT | World.SHARK_BIT | World.PLANT_BIT )
 	 */
-	@Override
-	public Set<GameObject> getAllImpassableGameObjects(){
-		Set<GameObject> allImpassableGameObjects= new HashSet<GameObject>();
-		allImpassableGameObjects.add(Mazub.getInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Buzam.getAllInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Slime.getAllInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Shark.getAllInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Plant.getAllInWorld(this.getWorld()));
-		return allImpassableGameObjects;
+	@Override @Immutable
+	public int getImpassableGameObjectMask(){
+		return World.MAZUB_BIT | World.BUZAM_BIT | World.SLIME_BIT | World.SHARK_BIT | World.PLANT_BIT;
 	}
 	
 	/******************************************************* OVERLAP **************************************************/
@@ -1046,17 +1068,13 @@ public class Mazub extends GameObject implements IDuckable, IJumpable{
 	 */
 	public boolean isOnTargetTile(){
 		
-		for(int[] tile: this.getWorld().getTilePositionsIn(this.getRoundedPositionX(),
+		World world = this.getWorld();
+		
+		return world.forEachTileIn(this.getRoundedPositionX(),
 				this.getRoundedPositionY(),
 				this.getRoundedPositionX() + this.getWidth(),
-				this.getRoundedPositionY() + this.getHeight())){
-	
-			if((tile[0] == this.getWorld().getTargetTileX()) && (tile[1] == this.getWorld().getTargetTileY()))
-				return true;
-
-		}
-		
-		return false;
+				this.getRoundedPositionY() + this.getHeight(),
+				(tileX, tileY, terrain) -> (tileX == world.getTargetTileX()) && (tileY == world.getTargetTileY()) );
 		
 	}
 	
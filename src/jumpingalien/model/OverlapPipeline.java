@@ -0,0 +1,321 @@
+package jumpingalien.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of pipelines that process the overlaps between the Game objects of a World in one batch.
+ *
+ * The pipeline has three stages. The detection stage packs the bounding boxes of the Game objects in primitive
+ * arrays, sorts them on their left side and sweeps over them, emitting every overlapping pair of Game objects
+ * exactly once into a buffer of keys. The sorting stage sorts those keys, so the pairs are handled in the same
+ * order regardless of how they were found. The dispatch stage lets both Game objects of every pair process
+ * their overlap with each other, one pair at a time.
+ *
+ * Detection only reads the packed arrays, so large batches are swept in parallel on a given pool of threads, in
+ * chunks of positions that each fill a buffer of their own. The buffers are merged in the order of their chunks.
+ * Dispatch always happens serially.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getNbPairs() >= 0
+ */
+class OverlapPipeline {
+
+	/**
+	 * Constant reflecting the initial capacity of the arrays of a pipeline.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * Constant reflecting the number of Game objects from which detection is done in parallel, if a pool of threads
+	 * is given.
+	 */
+	static final int PARALLEL_THRESHOLD = 4096;
+
+	/**
+	 * Constant reflecting the number of Game objects swept by one chunk of a parallel detection.
+	 */
+	private static final int CHUNK_SIZE = 1024;
+
+	/**
+	 * Process all overlaps between the given Game objects.
+	 *
+	 * @param 	gameObjects
+	 * 				The Game objects, in the order of their indices in the keys of the pairs.
+	 * @param 	pool
+	 * 				The pool of threads to detect the pairs on, or null to detect them on the current thread.
+	 * @effect	| detect(gameObjects, pool)
+	 * @effect	| sort()
+	 * @effect	| dispatch(gameObjects)
+	 */
+	void process(GameObject[] gameObjects, ForkJoinPool pool){
+		this.detect(gameObjects, pool);
+		this.sort();
+		this.dispatch(gameObjects);
+	}
+
+	/******************************************************* DETECTION *************************************************/
+
+	/**
+	 * Find all pairs of the given Game objects of which the bounding boxes overlap.
+	 *
+	 * @param 	gameObjects
+	 * 				The Game objects.
+	 * @param 	pool
+	 * 				The pool of threads to sweep on, or null to sweep on the current thread.
+	 * @post	The buffer of this pipeline contains, in some order, the key of every pair of indices i < j for which
+	 * 			gameObjects[i].doesOverlapWith(gameObjects[j]), and no other keys.
+	 * 			| new.getNbPairs() == count of i, j in 0..gameObjects.length-1:
+	 * 			|	i < j && gameObjects[i].doesOverlapWith(gameObjects[j])
+	 * @note	Batches smaller than PARALLEL_THRESHOLD are swept on the current thread, as splitting them costs more 
+	 * 			than it saves. The buffers of the chunks of larger batches are merged in the order of the chunks, so 
+	 * 			the keys end up in the same order with and without a pool.
+	 */
+	void detect(GameObject[] gameObjects, ForkJoinPool pool){
+		int nbObjects = gameObjects.length;
+		this.pack(gameObjects);
+
+		this.pairs.clear();
+		if(pool == null || nbObjects < PARALLEL_THRESHOLD){
+			this.sweep(0, nbObjects, this.pairs);
+			return;
+		}
+
+		// Every chunk fills a buffer of its own, so the chunks can be swept in parallel
+		int nbChunks = (nbObjects + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		if(this.chunkPairs.length < nbChunks){
+			this.chunkPairs = Arrays.copyOf(this.chunkPairs, nbChunks);
+			for(int chunk = 0; chunk < nbChunks; chunk++)
+				if(this.chunkPairs[chunk] == null)
+					this.chunkPairs[chunk] = new PairBuffer();
+		}
+		ForkJoinTask<?>[] sweeps = new ForkJoinTask<?>[nbChunks];
+		for(int chunk = 0; chunk < nbChunks; chunk++){
+			PairBuffer buffer = this.chunkPairs[chunk];
+			int from = chunk * CHUNK_SIZE, to = Math.min(nbObjects, from + CHUNK_SIZE);
+			buffer.clear();
+			sweeps[chunk] = pool.submit(() -> this.sweep(from, to, buffer));
+		}
+		for(int chunk = 0; chunk < nbChunks; chunk++){
+			sweeps[chunk].join();
+			this.pairs.addAll(this.chunkPairs[chunk]);
+		}
+	}
+
+	/**
+	 * Array registering the buffers in which the chunks of a parallel detection collect their keys, reused from one
+	 * detection to the next.
+	 */
+	private PairBuffer[] chunkPairs = new PairBuffer[0];
+
+	/**
+	 * Pack the bounding boxes of the given Game objects in the arrays of this pipeline, and sort their indices on
+	 * the left side of their bounding box.
+	 *
+	 * @param 	gameObjects
+	 * 				The Game objects to pack.
+	 */
+	private void pack(GameObject[] gameObjects){
+		int nbObjects = gameObjects.length;
+		if(nbObjects > this.lefts.length){
+			int capacity = Math.max(nbObjects, 2 * this.lefts.length);
+			this.lefts = new int[capacity];
+			this.bottoms = new int[capacity];
+			this.rights = new int[capacity];
+			this.tops = new int[capacity];
+			this.order = new long[capacity];
+		}
+		for(int i = 0; i < nbObjects; i++){
+			GameObject gameObject = gameObjects[i];
+			this.lefts[i] = gameObject.getRoundedPositionX();
+			this.bottoms[i] = gameObject.getRoundedPositionY();
+			this.rights[i] = this.lefts[i] + gameObject.getWidth() - 1;
+			this.tops[i] = this.bottoms[i] + gameObject.getHeight() - 1;
+			this.order[i] = ((long) this.lefts[i] << 32) | i;
+		}
+		Arrays.sort(this.order, 0, nbObjects);
+		this.nbObjects = nbObjects;
+	}
+
+	/**
+	 * Sweep over the packed Game objects at the given positions of the sorted order, and append the key of every
+	 * pair of such a Game object with a Game object further in the sorted order that overlaps with it to the given
+	 * buffer.
+	 *
+	 * @param 	from
+	 * 				The first position in the sorted order to sweep from.
+	 * @param 	to
+	 * 				The position in the sorted order after the last one to sweep from.
+	 * @param 	buffer
+	 * 				The buffer to append the keys to.
+	 * @note	This method only reads the packed arrays, so sweeps over different positions into different buffers 
+	 * 			can run in parallel.
+	 */
+	private void sweep(int from, int to, PairBuffer buffer){
+		final int[] lefts = this.lefts, bottoms = this.bottoms, rights = this.rights, tops = this.tops;
+		final long[] order = this.order;
+		final int nbObjects = this.nbObjects;
+
+		for(int position = from; position < to; position++){
+			int i = (int) order[position];
+			int right = rights[i], bottom = bottoms[i], top = tops[i];
+			for(int next = position + 1; next < nbObjects; next++){
+				int j = (int) order[next];
+				if(lefts[j] > right)
+					break;
+				if(bottoms[j] <= top && tops[j] >= bottom)
+					buffer.add(i < j ? getKey(i, j) : getKey(j, i));
+			}
+		}
+	}
+
+	/**
+	 * Return the key of the pair of Game objects at the given indices.
+	 *
+	 * @param 	first
+	 * 				The smaller index.
+	 * @param 	second
+	 * 				The greater index.
+	 * @return	| result == ( (long) first << 32 ) | second
+	 */
+	private static long getKey(int first, int second){
+		return ((long) first << 32) | second;
+	}
+
+	/**
+	 * Variables registering the sides of the bounding boxes of the packed Game objects, at their indices.
+	 */
+	private int[] lefts = new int[INITIAL_CAPACITY], bottoms = new int[INITIAL_CAPACITY],
+				  rights = new int[INITIAL_CAPACITY], tops = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Array registering the indices of the packed Game objects, in the lower half of every element, sorted on the
+	 * left side of their bounding box, which is stored in the upper half.
+	 */
+	private long[] order = new long[INITIAL_CAPACITY];
+
+	/**
+	 * Variable registering the number of packed Game objects.
+	 */
+	private int nbObjects = 0;
+
+	/********************************************************* SORTING *************************************************/
+
+	/**
+	 * Sort the keys of the detected pairs, so they are ordered on the index of their first Game object and then on
+	 * the index of their second one.
+	 */
+	void sort(){
+		Arrays.sort(this.pairs.keys, 0, this.pairs.size);
+	}
+
+	/**
+	 * Return the number of detected pairs of this pipeline.
+	 */
+	@Basic
+	int getNbPairs(){
+		return this.pairs.size;
+	}
+
+	/**
+	 * Return the index of the first Game object of the detected pair at the given index.
+	 *
+	 * @param 	index
+	 * 				The index of the pair.
+	 * @pre		| index >= 0 && index < getNbPairs()
+	 */
+	int getFirst(int index){
+		assert index >= 0 && index < this.getNbPairs();
+		return (int) (this.pairs.keys[index] >>> 32);
+	}
+
+	/**
+	 * Return the index of the second Game object of the detected pair at the given index.
+	 *
+	 * @param 	index
+	 * 				The index of the pair.
+	 * @pre		| index >= 0 && index < getNbPairs()
+	 */
+	int getSecond(int index){
+		assert index >= 0 && index < this.getNbPairs();
+		return (int) this.pairs.keys[index];
+	}
+
+	/**
+	 * Variable registering the buffer holding the keys of the detected pairs.
+	 */
+	private final PairBuffer pairs = new PairBuffer();
+
+	/**
+	 * A class of growable buffers of keys of pairs.
+	 */
+	private static class PairBuffer {
+
+		/**
+		 * Append the given key to this buffer.
+		 */
+		void add(long key){
+			if(this.size == this.keys.length)
+				this.keys = Arrays.copyOf(this.keys, 2 * this.keys.length);
+			this.keys[this.size++] = key;
+		}
+
+		/**
+		 * Append all keys of the given buffer to this buffer.
+		 */
+		void addAll(PairBuffer other){
+			if(this.size + other.size > this.keys.length)
+				this.keys = Arrays.copyOf(this.keys, Math.max(this.size + other.size, 2 * this.keys.length));
+			System.arraycopy(other.keys, 0, this.keys, this.size, other.size);
+			this.size += other.size;
+		}
+
+		/**
+		 * Remove all keys from this buffer.
+		 */
+		void clear(){
+			this.size = 0;
+		}
+
+		/**
+		 * Array registering the keys of this buffer at its first size indices.
+		 */
+		private long[] keys = new long[INITIAL_CAPACITY];
+
+		/**
+		 * Variable registering the number of keys in this buffer.
+		 */
+		private int size = 0;
+	}
+
+	/******************************************************** DISPATCH *************************************************/
+
+	/**
+	 * Let both Game objects of every detected pair that also overlap pixel by pixel, as far as their World asks 
+	 * for that, process their overlap with each other, in the order of the keys of the pairs.
+	 *
+	 * @param 	gameObjects
+	 * 				The Game objects, in the order of their indices in the keys.
+	 * @effect	| for each index in 0..getNbPairs()-1:
+	 * 			|	if ( !gameObjects[getFirst(index)].isTerminated() && !gameObjects[getSecond(index)].isTerminated() &&
+	 * 			|		 gameObjects[getFirst(index)].doesOverlapInPixelsWith(gameObjects[getSecond(index)]) )
+	 * 			|		then gameObjects[getFirst(index)].processOverlapWith(gameObjects[getSecond(index)]) &&
+	 * 			|			 gameObjects[getSecond(index)].processOverlapWith(gameObjects[getFirst(index)])
+	 */
+	void dispatch(GameObject[] gameObjects){
+		for(int index = 0; index < this.getNbPairs(); index++){
+			GameObject first = gameObjects[this.getFirst(index)], second = gameObjects[this.getSecond(index)];
+			// A Game object that is terminated by an earlier pair no longer takes part in overlaps
+			if(first.isTerminated() || second.isTerminated() || !first.doesOverlapInPixelsWith(second))
+				continue;
+			first.processOverlapWith(second);
+			second.processOverlapWith(first);
+		}
+	}
+}
@@ -0,0 +1,349 @@
+package jumpingalien.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of stores that keep the physical state of Game objects in parallel arrays.
+ *
+ * Every Game object occupies one slot of a store, and its position, velocity and acceleration are kept at the
+ * index of that slot in one array per component. A World keeps the state of all its Game objects in one store,
+ * and the slot of a Game object in that store also identifies it in the broadphase and the ray caster of the 
+ * World. A Game object that is not in a World keeps its state in a store of its own.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getNbSlots() >= 0 && getNbSlots() <= getCapacity()
+ */
+class PhysicsStore {
+
+	/**
+	 * Constructor for the class PhysicsStore.
+	 *
+	 * @param 	capacity
+	 * 				The initial number of slots of the store.
+	 * @pre		| capacity > 0
+	 * @post	| new.getCapacity() == capacity
+	 * @post	| new.getNbSlots() == 0
+	 */
+	PhysicsStore(int capacity){
+		assert capacity > 0;
+
+		this.positionsX = new double[capacity];
+		this.positionsY = new double[capacity];
+		this.velocitiesX = new double[capacity];
+		this.velocitiesY = new double[capacity];
+		this.accelerationsX = new double[capacity];
+		this.accelerationsY = new double[capacity];
+		this.reachesX = new double[capacity];
+		this.reachesY = new double[capacity];
+		this.freeSlots = new int[capacity];
+	}
+
+	/******************************************************** SLOTS ****************************************************/
+
+	/**
+	 * Return the number of slots this store can hold before its arrays are grown.
+	 */
+	@Basic
+	int getCapacity(){
+		return this.positionsX.length;
+	}
+
+	/**
+	 * Return the number of occupied slots of this store.
+	 */
+	@Basic
+	int getNbSlots(){
+		return this.nbSlots;
+	}
+
+	/**
+	 * Occupy a free slot of this store, of which all components are zero.
+	 *
+	 * @return	The index of the occupied slot. Slots that have been released are reused before the store grows.
+	 * @post	| new.getNbSlots() == getNbSlots() + 1
+	 */
+	int allocate(){
+		int slot;
+		if(this.nbFreeSlots > 0)
+			slot = this.freeSlots[--this.nbFreeSlots];
+		else{
+			if(this.end == this.getCapacity())
+				this.grow();
+			slot = this.end++;
+		}
+		this.nbSlots++;
+		return slot;
+	}
+
+	/**
+	 * Release the given slot of this store, so it can be reused by another Game object.
+	 *
+	 * @param 	slot
+	 * 				The slot to release.
+	 * @pre		The given slot is occupied.
+	 * @post	| new.getNbSlots() == getNbSlots() - 1
+	 */
+	void release(int slot){
+		assert slot >= 0 && slot < this.end;
+
+		this.positionsX[slot] = 0;
+		this.positionsY[slot] = 0;
+		this.velocitiesX[slot] = 0;
+		this.velocitiesY[slot] = 0;
+		this.accelerationsX[slot] = 0;
+		this.accelerationsY[slot] = 0;
+		if(this.nbFreeSlots == this.freeSlots.length)
+			this.freeSlots = Arrays.copyOf(this.freeSlots, 2 * this.freeSlots.length);
+		this.freeSlots[this.nbFreeSlots++] = slot;
+		this.nbSlots--;
+	}
+
+	/**
+	 * Copy the state of the given slot of the given store into a newly occupied slot of this store, and release
+	 * the given slot.
+	 *
+	 * @param 	other
+	 * 				The store to move the state from.
+	 * @param 	otherSlot
+	 * 				The slot of the given store to move.
+	 * @return	The slot of this store that now holds the state.
+	 */
+	int moveFrom(PhysicsStore other, int otherSlot){
+		int slot = this.allocate();
+		this.positionsX[slot] = other.positionsX[otherSlot];
+		this.positionsY[slot] = other.positionsY[otherSlot];
+		this.velocitiesX[slot] = other.velocitiesX[otherSlot];
+		this.velocitiesY[slot] = other.velocitiesY[otherSlot];
+		this.accelerationsX[slot] = other.accelerationsX[otherSlot];
+		this.accelerationsY[slot] = other.accelerationsY[otherSlot];
+		other.release(otherSlot);
+		return slot;
+	}
+
+	/**
+	 * Double the capacity of this store.
+	 */
+	private void grow(){
+		int capacity = 2 * this.getCapacity();
+		this.positionsX = Arrays.copyOf(this.positionsX, capacity);
+		this.positionsY = Arrays.copyOf(this.positionsY, capacity);
+		this.velocitiesX = Arrays.copyOf(this.velocitiesX, capacity);
+		this.velocitiesY = Arrays.copyOf(this.velocitiesY, capacity);
+		this.accelerationsX = Arrays.copyOf(this.accelerationsX, capacity);
+		this.accelerationsY = Arrays.copyOf(this.accelerationsY, capacity);
+		this.reachesX = Arrays.copyOf(this.reachesX, capacity);
+		this.reachesY = Arrays.copyOf(this.reachesY, capacity);
+	}
+
+	/**
+	 * Variable registering the number of occupied slots of this store.
+	 */
+	private int nbSlots = 0;
+
+	/**
+	 * Variable registering the number of slots of this store that have ever been occupied. Slots at this index
+	 * and above have never been used.
+	 */
+	private int end = 0;
+
+	/**
+	 * Array registering the released slots of this store at its first nbFreeSlots indices.
+	 */
+	private int[] freeSlots;
+
+	/**
+	 * Variable registering the number of released slots of this store.
+	 */
+	private int nbFreeSlots = 0;
+
+	/****************************************************** COMPONENTS *************************************************/
+
+	/**
+	 * Return the horizontal position of the given slot of this store.
+	 */
+	@Basic
+	double getPositionX(int slot){
+		return this.positionsX[slot];
+	}
+
+	/**
+	 * Set the horizontal position of the given slot of this store to the given value.
+	 */
+	void setPositionX(int slot, double positionX){
+		this.positionsX[slot] = positionX;
+	}
+
+	/**
+	 * Return the vertical position of the given slot of this store.
+	 */
+	@Basic
+	double getPositionY(int slot){
+		return this.positionsY[slot];
+	}
+
+	/**
+	 * Set the vertical position of the given slot of this store to the given value.
+	 */
+	void setPositionY(int slot, double positionY){
+		this.positionsY[slot] = positionY;
+	}
+
+	/**
+	 * Return the horizontal velocity of the given slot of this store.
+	 */
+	@Basic
+	double getVelocityX(int slot){
+		return this.velocitiesX[slot];
+	}
+
+	/**
+	 * Set the horizontal velocity of the given slot of this store to the given value.
+	 */
+	void setVelocityX(int slot, double velocityX){
+		this.velocitiesX[slot] = velocityX;
+	}
+
+	/**
+	 * Return the vertical velocity of the given slot of this store.
+	 */
+	@Basic
+	double getVelocityY(int slot){
+		return this.velocitiesY[slot];
+	}
+
+	/**
+	 * Set the vertical velocity of the given slot of this store to the given value.
+	 */
+	void setVelocityY(int slot, double velocityY){
+		this.velocitiesY[slot] = velocityY;
+	}
+
+	/**
+	 * Return the horizontal acceleration of the given slot of this store.
+	 */
+	@Basic
+	double getAccelerationX(int slot){
+		return this.accelerationsX[slot];
+	}
+
+	/**
+	 * Set the horizontal acceleration of the given slot of this store to the given value.
+	 */
+	void setAccelerationX(int slot, double accelerationX){
+		this.accelerationsX[slot] = accelerationX;
+	}
+
+	/**
+	 * Return the vertical acceleration of the given slot of this store.
+	 */
+	@Basic
+	double getAccelerationY(int slot){
+		return this.accelerationsY[slot];
+	}
+
+	/**
+	 * Set the vertical acceleration of the given slot of this store to the given value.
+	 */
+	void setAccelerationY(int slot, double accelerationY){
+		this.accelerationsY[slot] = accelerationY;
+	}
+
+	/**
+	 * Arrays registering the position, velocity and acceleration of every slot of this store, one per component.
+	 * The positions are expressed in pixels, the velocities and accelerations in meters per second (squared).
+	 */
+	private double[] positionsX, positionsY, velocitiesX, velocitiesY, accelerationsX, accelerationsY;
+
+	/****************************************************** INTEGRATION ************************************************/
+
+	/**
+	 * Return the horizontal position the given slot reaches after the given time without colliding.
+	 *
+	 * @param 	slot
+	 * 				The slot to integrate.
+	 * @param 	dt
+	 * 				The elapsed in-game time.
+	 * @return	| result == getPositionX(slot) + 100 * ( getVelocityX(slot) * dt + 0.5 * getAccelerationX(slot) * (dt * dt) )
+	 */
+	double integratePositionX(int slot, double dt){
+		return this.positionsX[slot] + 100 * ( this.velocitiesX[slot] * dt + 0.5 * this.accelerationsX[slot] * (dt * dt) );
+	}
+
+	/**
+	 * Return the vertical position the given slot reaches after the given time with the given vertical acceleration,
+	 * without colliding.
+	 *
+	 * @param 	slot
+	 * 				The slot to integrate.
+	 * @param 	accelerationY
+	 * 				The vertical acceleration to integrate with.
+	 * @param 	dt
+	 * 				The elapsed in-game time.
+	 * @return	| result == getPositionY(slot) + 100 * ( getVelocityY(slot) * dt + 0.5 * accelerationY * (dt * dt) )
+	 * @note	Most Game objects derive their vertical acceleration from whether they stand on the ground, so it is 
+	 * 			passed in rather than stored in this store first.
+	 */
+	double integratePositionY(int slot, double accelerationY, double dt){
+		return this.positionsY[slot] + 100 * ( this.velocitiesY[slot] * dt + 0.5 * accelerationY * (dt * dt) );
+	}
+
+	/******************************************************** SWEEP ****************************************************/
+
+	/**
+	 * Compute for every slot of this store the number of pixels it moves at most along each axis in the given time,
+	 * in a single pass over the arrays of this store.
+	 *
+	 * @param 	dt
+	 * 				The elapsed in-game time.
+	 * @param 	minAccelerationY
+	 * 				The magnitude of the vertical acceleration every slot is assumed to have at least.
+	 * @post	| for each slot in 0..getCapacity()-1:
+	 * 			|	new.getReachX(slot) == 100 * ( Math.abs(getVelocityX(slot)) * dt + 
+	 * 			|									0.5 * Math.abs(getAccelerationX(slot)) * (dt * dt) ) &&
+	 * 			|	new.getReachY(slot) == 100 * ( Math.abs(getVelocityY(slot)) * dt + 
+	 * 			|									0.5 * Math.max(Math.abs(getAccelerationY(slot)), minAccelerationY) * (dt * dt) )
+	 * @note	Most Game objects derive their vertical acceleration from whether they stand on the ground, so the 
+	 * 			reach is computed for the largest acceleration they can have.
+	 * @note	The loop has no branches and reads and writes every array in order, so the JIT compiler can turn it 
+	 * 			into vector instructions.
+	 */
+	void sweep(double dt, double minAccelerationY){
+		double[] velocitiesX = this.velocitiesX, velocitiesY = this.velocitiesY;
+		double[] accelerationsX = this.accelerationsX, accelerationsY = this.accelerationsY;
+		double[] reachesX = this.reachesX, reachesY = this.reachesY;
+		double halfDtSquared = 0.5 * (dt * dt);
+		
+		for(int i = 0; i < this.end; i++){
+			reachesX[i] = 100 * ( Math.abs(velocitiesX[i]) * dt + Math.abs(accelerationsX[i]) * halfDtSquared );
+			reachesY[i] = 100 * ( Math.abs(velocitiesY[i]) * dt + 
+								  Math.max(Math.abs(accelerationsY[i]), minAccelerationY) * halfDtSquared );
+		}
+	}
+
+	/**
+	 * Return the number of pixels the given slot moves at most horizontally, as computed by the last sweep.
+	 */
+	@Basic
+	double getReachX(int slot){
+		return this.reachesX[slot];
+	}
+
+	/**
+	 * Return the number of pixels the given slot moves at most vertically, as computed by the last sweep.
+	 */
+	@Basic
+	double getReachY(int slot){
+		return this.reachesY[slot];
+	}
+
+	/**
+	 * Arrays registering the number of pixels every slot of this store moves at most along each axis, as computed
+	 * by the last sweep.
+	 */
+	private double[] reachesX, reachesY;
+}
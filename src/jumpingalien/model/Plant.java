@@ -1,8 +1,8 @@
 package jumpingalien.model;
 
-import java.util.HashSet;
 import java.util.Set;
 
+import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Raw;
 import jumpingalien.model.terrain.Terrain;
 import jumpingalien.model.exceptions.IllegalHeightException;
@@ -208,6 +208,16 @@ public class Plant extends GameObject implements IProgrammable {
 	
 	/******************************************************** WORLD ****************************************************/
 	
+	/**
+	 * Return the kind bit of a Plant.
+	 * 
+	 * @return	| result == World.PLANT_BIT
+	 */
+	@Override @Immutable
+	public int getKindBit(){
+		return World.PLANT_BIT;
+	}
+	
 	/**
 	 * Add the Plant to its World.
 	 * 
@@ -215,7 +225,7 @@ public class Plant extends GameObject implements IProgrammable {
 	 */
 	@Override
 	protected void addToWorld(){
-		this.getWorld().plants.add(this);
+		this.getWorld().plants.register(this);
 	}
 	
 	/**
@@ -232,7 +242,7 @@ public class Plant extends GameObject implements IProgrammable {
 		assert this != null && !this.hasWorld();
 		assert world.hasAsGameObject(this);
 		
-		world.plants.remove(this);
+		world.plants.unregister(this);
 	}
 	
 	/**
@@ -241,10 +251,11 @@ public class Plant extends GameObject implements IProgrammable {
 	 * @param	world
 	 * 				The World to check.
 	 * @return	| result == ( Plant.getAllInWorld(world).contains(this) )
+	 * @note	This method runs in constant time.
 	 */
 	@Override
 	protected boolean hasAsWorld(World world){
-		return Plant.getAllInWorld(world).contains(this);
+		return world.plants.contains(this);
 	}
 	
 	/**
@@ -255,7 +266,7 @@ public class Plant extends GameObject implements IProgrammable {
 	 * @return	| result == ( Plant.getAllInWorld(world).size() )
 	 */
 	public static int getNbInWorld(World world){
-		return Plant.getAllInWorld(world).size();
+		return world.plants.size();
 	}
 	
 	/**
@@ -263,11 +274,10 @@ public class Plant extends GameObject implements IProgrammable {
 	 * 
 	 * @param 	world
 	 * 				The World to check.
-	 * @return	A Hashset containing all Plants in the given World.
+	 * @return	A read-only, live view on all Plants in the given World.
 	 */
 	public static Set<Plant> getAllInWorld(World world){
-		HashSet<Plant> plantsClone =  new HashSet<Plant>(world.plants);
-		return plantsClone;
+		return world.plants;
 	}
 
 	/******************************************************* MOVEMENT **************************************************/
@@ -297,6 +307,16 @@ public class Plant extends GameObject implements IProgrammable {
 		this.updatePositionX(dt);
 	}
 	
+	/**
+	 * Return the time until the next timed event of this Plant.
+	 * 
+	 * @return	| result == Math.min( super.getTimeToNextEvent(), PERIOD_TIME - this.getTimer().getSinceLastPeriod() )
+	 */
+	@Override
+	protected double getTimeToNextEvent(){
+		return Math.min( super.getTimeToNextEvent(), PERIOD_TIME - this.getTimer().getSinceLastPeriod() );
+	}
+	
 	/**
 	 * Advance the Plant's Program and update his horizontal position for the given time interval.
 	 * 
@@ -343,17 +363,14 @@ public class Plant extends GameObject implements IProgrammable {
 	}
 	
 	/**
-	 * Return all impassable Game objects for a Plant.
+	 * Return the kinds of Game objects that are impassable for a Plant.
 	 * 
-	 * @return	A Hashset that contains the Mazub and all Buzams and Plants in the Plant's world.
+	 * @return	A bitmask that selects the Mazub and all Buzams and Plants in the Plant's world.
+	 * 			| result == ( World.MAZUB_BIT | World.BUZAM_BIT | World.PLANT_BIT )
 	 */
-	@Override
-	public Set<GameObject> getAllImpassableGameObjects(){
-		Set<GameObject> allImpassableGameObjects= new HashSet<GameObject>();
-		allImpassableGameObjects.add(Mazub.getInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Buzam.getAllInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Plant.getAllInWorld(this.getWorld()));
-		return allImpassableGameObjects;
+	@Override @Immutable
+	public int getImpassableGameObjectMask(){
+		return World.MAZUB_BIT | World.BUZAM_BIT | World.PLANT_BIT;
 	}
 	
 	/******************************************************* OVERLAP **************************************************/
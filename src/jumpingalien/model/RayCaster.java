@@ -0,0 +1,402 @@
+package jumpingalien.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import jumpingalien.model.helper.DynamicAABBTree;
+import jumpingalien.model.helper.Orientation;
+import jumpingalien.model.interfaces.IKind;
+import jumpingalien.model.terrain.Terrain;
+
+/**
+ * A class of Ray casters, which look for the nearest Game object or Tile that a Game object can see in a given
+ * direction in its World.
+ *
+ * Something is seen in a direction if its bottom left pixel lies strictly beyond the bottom left pixel of the
+ * searching Game object in that direction and if it shares at least one pixel row (for left and right) or pixel
+ * column (for top and bottom) with the searching Game object. This is the same definition as used by the
+ * searchobj expression of a Program.
+ *
+ * For terrain, every row and every column of tiles has a jump table that leads from any tile to the nearest tile
+ * that does not consist of air in each direction. These are built on the first search and updated tile by tile
+ * afterwards. For Game objects, a dynamic bounding volume hierarchy of their bounding boxes is kept up to date as they
+ * move, and searched for the nearest Game object in the direction.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+public class RayCaster {
+
+	/***************************************************** CONSTRUCTOR *************************************************/
+
+	/**
+	 * Constructor for the class RayCaster.
+	 *
+	 * @param 	world
+	 * 				The World in which this Ray caster searches.
+	 * @pre		| world != null
+	 * @post	| new.getWorld() == world
+	 */
+	public RayCaster(World world){
+		assert world != null;
+		this.world = world;
+	}
+
+	/******************************************************** WORLD ****************************************************/
+
+	/**
+	 * Return the World in which this Ray caster searches.
+	 *
+	 * @return	| result == ( this.world )
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Variable registering the World in which this Ray caster searches.
+	 */
+	private final World world;
+
+	/******************************************************** SEARCH ***************************************************/
+
+	/**
+	 * Return the nearest Game object or Tile that does not consist of air, as seen by the given searcher in the
+	 * given direction.
+	 *
+	 * @param 	searcher
+	 * 				The object that searches.
+	 * @param 	direction
+	 * 				The direction in which to search.
+	 * @return	Null if nothing can be seen in the given direction. Otherwise the seen object with the smallest
+	 * 			distance to the searcher. On equal distances, Game objects are preferred over Tiles.
+	 * @throws 	IllegalArgumentException
+	 * 				| direction == Orientation.ALL
+	 * @note	Searching only reads this Ray caster once its index of terrain has been built, so Programs that are 
+	 * 			executed in parallel search at the same time.
+	 */
+	public IKind search(IKind searcher, Orientation direction) throws IllegalArgumentException{
+		if(direction == Orientation.ALL)
+			throw new IllegalArgumentException("Can only search in a single direction!");
+
+		GameObject gameObject = this.searchGameObject(searcher, direction);
+		Tile tile = this.searchTile(searcher, direction);
+
+		if(tile == null)
+			return gameObject;
+		if(gameObject == null || getDistance(searcher, tile, direction) < getDistance(searcher, gameObject, direction))
+			return tile;
+		return gameObject;
+	}
+
+	/**
+	 * Return the distance between the given searcher and the given object in the given direction.
+	 *
+	 * @param 	searcher
+	 * 				The object that searches.
+	 * @param 	object
+	 * 				The object that is seen.
+	 * @param 	direction
+	 * 				The direction in which is searched.
+	 * @return	For the left and bottom direction, the distance between the given side of the searcher and the
+	 * 			opposite side of the object. For the right and top direction, the distance between the bottom left
+	 * 			pixels of both along that direction.
+	 * @throws 	IllegalArgumentException
+	 * 				| direction == Orientation.ALL
+	 */
+	public static int getDistance(IKind searcher, IKind object, Orientation direction) throws IllegalArgumentException{
+		switch(direction){
+		case LEFT:
+			return searcher.getRoundedPositionX() - ( object.getRoundedPositionX() + object.getWidth() );
+		case RIGHT:
+			return object.getRoundedPositionX() - searcher.getRoundedPositionX();
+		case TOP:
+			return object.getRoundedPositionY() - searcher.getRoundedPositionY();
+		case BOTTOM:
+			return searcher.getRoundedPositionY() - ( object.getRoundedPositionY() + object.getHeight() );
+		default:
+			throw new IllegalArgumentException();
+		}
+	}
+
+	/******************************************************** TERRAIN **************************************************/
+
+	/**
+	 * Register that the given tile of the World of this Ray caster has changed from air to another Terrain type
+	 * or the other way around, and update the jump tables of its row and its column accordingly.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position of the changed tile.
+	 * @param 	tileY
+	 * 				The vertical tile position of the changed tile.
+	 * @param 	isAir
+	 * 				Whether the tile consists of air after the change.
+	 * @note	Only the entries that jump to or over the changed tile are rewritten, which are the entries between
+	 * 			the changed tile and the nearest other tiles that do not consist of air.
+	 */
+	void terrainChanged(int tileX, int tileY, boolean isAir){
+		if(this.isTerrainIndexOutdated())
+			return;
+		
+		int nbTilesX = this.getWorld().getNbTilesX();
+		int nbTilesY = this.getWorld().getNbTilesY();
+		int rowStart = tileY * nbTilesX;
+		int colStart = tileX * nbTilesY;
+		
+		if(isAir){
+			int right = ( tileX + 1 < nbTilesX ) ? this.nextNonAirRight[rowStart + tileX + 1] : nbTilesX;
+			for(int col = tileX; col >= 0 && this.nextNonAirRight[rowStart + col] == tileX; col--)
+				this.nextNonAirRight[rowStart + col] = right;
+			int left = ( tileX > 0 ) ? this.nextNonAirLeft[rowStart + tileX - 1] : -1;
+			for(int col = tileX; col < nbTilesX && this.nextNonAirLeft[rowStart + col] == tileX; col++)
+				this.nextNonAirLeft[rowStart + col] = left;
+			int up = ( tileY + 1 < nbTilesY ) ? this.nextNonAirUp[colStart + tileY + 1] : nbTilesY;
+			for(int row = tileY; row >= 0 && this.nextNonAirUp[colStart + row] == tileY; row--)
+				this.nextNonAirUp[colStart + row] = up;
+			int down = ( tileY > 0 ) ? this.nextNonAirDown[colStart + tileY - 1] : -1;
+			for(int row = tileY; row < nbTilesY && this.nextNonAirDown[colStart + row] == tileY; row++)
+				this.nextNonAirDown[colStart + row] = down;
+		}else{
+			for(int col = tileX; col >= 0 && this.nextNonAirRight[rowStart + col] > tileX; col--)
+				this.nextNonAirRight[rowStart + col] = tileX;
+			for(int col = tileX; col < nbTilesX && this.nextNonAirLeft[rowStart + col] < tileX; col++)
+				this.nextNonAirLeft[rowStart + col] = tileX;
+			for(int row = tileY; row >= 0 && this.nextNonAirUp[colStart + row] > tileY; row--)
+				this.nextNonAirUp[colStart + row] = tileY;
+			for(int row = tileY; row < nbTilesY && this.nextNonAirDown[colStart + row] < tileY; row++)
+				this.nextNonAirDown[colStart + row] = tileY;
+		}
+	}
+
+	/**
+	 * Check whether the jump tables of the terrain still need to be built before they can be used.
+	 *
+	 * @return	| result == ( this.nextNonAirRight == null )
+	 */
+	public boolean isTerrainIndexOutdated(){
+		return this.nextNonAirRight == null;
+	}
+
+	/**
+	 * Return the nearest Tile that does not consist of air, as seen by the given searcher in the given direction.
+	 *
+	 * @param 	searcher
+	 * 				The object that searches.
+	 * @param 	direction
+	 * 				The direction in which to search.
+	 * @return	Null if no Tile is seen, otherwise the Tile at the smallest distance. On equal distances, the Tile
+	 * 			in the lowest row (for left and right) or the leftmost column (for top and bottom) is returned.
+	 */
+	@Model
+	private Tile searchTile(IKind searcher, Orientation direction){
+		this.updateTerrainIndex();
+
+		World world = this.getWorld();
+		int tileLength = world.getTileLength();
+		int nbTilesX = world.getNbTilesX();
+		int nbTilesY = world.getNbTilesY();
+		int x = searcher.getRoundedPositionX();
+		int y = searcher.getRoundedPositionY();
+
+		int bestTileX = -1;
+		int bestTileY = -1;
+
+		switch(direction){
+		case RIGHT:
+		case LEFT:{
+			int minRow = Math.max(0, Math.floorDiv(y, tileLength));
+			int maxRow = Math.min(nbTilesY - 1, Math.floorDiv(y + searcher.getHeight() - 1, tileLength));
+			int startCol = ( direction == Orientation.RIGHT ) ? Math.floorDiv(x, tileLength) + 1
+															  : Math.floorDiv(x - 1, tileLength);
+			if(startCol < 0 || startCol >= nbTilesX)
+				break;
+
+			for(int row = minRow; row <= maxRow; row++){
+				int col = ( direction == Orientation.RIGHT ) ? this.nextNonAirRight[row * nbTilesX + startCol]
+															 : this.nextNonAirLeft[row * nbTilesX + startCol];
+				if(col < 0 || col >= nbTilesX)
+					continue;
+				if(bestTileX < 0 || ( direction == Orientation.RIGHT ? col < bestTileX : col > bestTileX )){
+					bestTileX = col;
+					bestTileY = row;
+				}
+			}
+			break;
+		}
+		case TOP:
+		case BOTTOM:{
+			int minCol = Math.max(0, Math.floorDiv(x, tileLength));
+			int maxCol = Math.min(nbTilesX - 1, Math.floorDiv(x + searcher.getWidth() - 1, tileLength));
+			int startRow = ( direction == Orientation.TOP ) ? Math.floorDiv(y, tileLength) + 1
+															: Math.floorDiv(y - 1, tileLength);
+			if(startRow < 0 || startRow >= nbTilesY)
+				break;
+
+			for(int col = minCol; col <= maxCol; col++){
+				int row = ( direction == Orientation.TOP ) ? this.nextNonAirUp[col * nbTilesY + startRow]
+														   : this.nextNonAirDown[col * nbTilesY + startRow];
+				if(row < 0 || row >= nbTilesY)
+					continue;
+				if(bestTileY < 0 || ( direction == Orientation.TOP ? row < bestTileY : row > bestTileY )){
+					bestTileX = col;
+					bestTileY = row;
+				}
+			}
+			break;
+		}
+		default:
+			throw new IllegalArgumentException();
+		}
+
+		if(bestTileX < 0)
+			return null;
+		return world.getTile(world.getPositionXOfTile(bestTileX), world.getPositionYOfTile(bestTileY));
+	}
+
+	/**
+	 * Build the jump tables of the terrain, if they have not been built yet.
+	 *
+	 * @post	| ! new.isTerrainIndexOutdated()
+	 * @note	Only the first search waits for a lock, while one thread builds the tables. The table to the right is
+	 * 			published last, so a thread that sees it also sees the other tables.
+	 */
+	@Model
+	private void updateTerrainIndex(){
+		if(!this.isTerrainIndexOutdated())
+			return;
+		synchronized(this){
+			if(!this.isTerrainIndexOutdated())
+				return;
+			this.buildTerrainIndex();
+		}
+	}
+
+	/**
+	 * Build the jump tables of the terrain.
+	 *
+	 * @post	| ! new.isTerrainIndexOutdated()
+	 */
+	@Model
+	private void buildTerrainIndex(){
+		World world = this.getWorld();
+		int nbTilesX = world.getNbTilesX();
+		int nbTilesY = world.getNbTilesY();
+		int[] right = new int[nbTilesX * nbTilesY];
+		int[] left = new int[nbTilesX * nbTilesY];
+		int[] up = new int[nbTilesX * nbTilesY];
+		int[] down = new int[nbTilesX * nbTilesY];
+
+		/* Rows, stored row by row */
+		for(int row = 0; row < nbTilesY; row++){
+			int next = nbTilesX;
+			for(int col = nbTilesX - 1; col >= 0; col--){
+				if(world.getGeologicalFeatureOfTile(col, row) != Terrain.AIR)
+					next = col;
+				right[row * nbTilesX + col] = next;
+			}
+			int previous = -1;
+			for(int col = 0; col < nbTilesX; col++){
+				if(world.getGeologicalFeatureOfTile(col, row) != Terrain.AIR)
+					previous = col;
+				left[row * nbTilesX + col] = previous;
+			}
+		}
+
+		/* Columns, stored column by column */
+		for(int col = 0; col < nbTilesX; col++){
+			int next = nbTilesY;
+			for(int row = nbTilesY - 1; row >= 0; row--){
+				if(world.getGeologicalFeatureOfTile(col, row) != Terrain.AIR)
+					next = row;
+				up[col * nbTilesY + row] = next;
+			}
+			int previous = -1;
+			for(int row = 0; row < nbTilesY; row++){
+				if(world.getGeologicalFeatureOfTile(col, row) != Terrain.AIR)
+					previous = row;
+				down[col * nbTilesY + row] = previous;
+			}
+		}
+
+		this.nextNonAirLeft = left;
+		this.nextNonAirUp = up;
+		this.nextNonAirDown = down;
+		this.nextNonAirRight = right;
+	}
+
+	/**
+	 * Jump table registering, for every tile, the column of the nearest tile at or right of it in the same row
+	 * that does not consist of air, or the number of columns if there is none. Null if the tables are not built yet.
+	 */
+	private volatile int[] nextNonAirRight = null;
+
+	/**
+	 * Jump table registering, for every tile, the column of the nearest tile at or left of it in the same row
+	 * that does not consist of air, or -1 if there is none.
+	 */
+	private int[] nextNonAirLeft = null;
+
+	/**
+	 * Jump table registering, for every tile, the row of the nearest tile at or above it in the same column
+	 * that does not consist of air, or the number of rows if there is none.
+	 */
+	private int[] nextNonAirUp = null;
+
+	/**
+	 * Jump table registering, for every tile, the row of the nearest tile at or below it in the same column
+	 * that does not consist of air, or -1 if there is none.
+	 */
+	private int[] nextNonAirDown = null;
+
+	/****************************************************** GAME OBJECTS ***********************************************/
+
+	/**
+	 * Register that the position or the size of the given Game object has changed, or that it has been added to or
+	 * removed from the World of this Ray caster, and update its leaf in the tree of Game objects accordingly. A 
+	 * terminated Game object is removed from the tree, even if its World has not removed it yet.
+	 *
+	 * @param 	gameObject
+	 * 				The Game object that has changed.
+	 * @note	The tree fattens the bounding boxes of its leaves, so a Game object that moves only a few pixels does
+	 * 			not change the tree.
+	 */
+	void gameObjectChanged(GameObject gameObject){
+		int id = gameObject.physicsSlot;
+		if(this.getWorld().getAllGameObjects().contains(gameObject) && !gameObject.isTerminated()){
+			int left = gameObject.getRoundedPositionX(), bottom = gameObject.getRoundedPositionY();
+			int right = left + gameObject.getWidth() - 1, top = bottom + gameObject.getHeight() - 1;
+			if(this.gameObjectTree.getElement(id) == gameObject)
+				this.gameObjectTree.update(id, left, bottom, right, top);
+			else
+				this.gameObjectTree.insert(id, gameObject, left, bottom, right, top);
+		}else if(this.gameObjectTree.getElement(id) == gameObject)
+			this.gameObjectTree.remove(id);
+	}
+
+	/**
+	 * Return the nearest Game object seen by the given searcher in the given direction.
+	 *
+	 * @param 	searcher
+	 * 				The object that searches.
+	 * @param 	direction
+	 * 				The direction in which to search.
+	 * @return	Null if no Game object is seen, otherwise the seen Game object at the smallest distance.
+	 */
+	@Model
+	private GameObject searchGameObject(IKind searcher, Orientation direction){
+		int left = searcher.getRoundedPositionX(), bottom = searcher.getRoundedPositionY();
+		int id = this.gameObjectTree.queryNearest(direction, left, bottom, left + searcher.getWidth() - 1,
+												  bottom + searcher.getHeight() - 1);
+		return ( id < 0 ) ? null : this.gameObjectTree.getElement(id);
+	}
+
+	/**
+	 * Tree of the bounding boxes of the Game objects of the World, identified by their slot in the physics store of
+	 * the World.
+	 */
+	private final DynamicAABBTree<GameObject> gameObjectTree = new DynamicAABBTree<GameObject>();
+
+}
@@ -1,6 +1,9 @@
 package jumpingalien.model;
 
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import be.kuleuven.cs.som.annotate.*;
@@ -60,10 +63,12 @@ public class School {
 	 * @param 	slime
 	 * 				The Slime to check.
 	 * @return	| result == ( this.getAllSlimes().contains(slime) )
+	 * @note	This method runs in constant time.
 	 */
 	@Raw
 	public boolean hasAsSlime(Slime slime){
-		return this.getAllSlimes().contains(slime);
+		return slime != null && slime.schoolIndex >= 0 && slime.schoolIndex < this.nbSlimes 
+				&& this.slimes[slime.schoolIndex] == slime;
 	}
 	
 	/**
@@ -80,11 +85,14 @@ public class School {
 		assert canHaveAsSlime(slime);
 		assert slime.getSchool() == this;
 
-		slimes.add(slime);
+		if(this.nbSlimes == this.slimes.length)
+			this.slimes = Arrays.copyOf(this.slimes, 2 * this.slimes.length);
+		slime.schoolIndex = this.nbSlimes;
+		this.slimes[this.nbSlimes++] = slime;
 	}
 	
 	/**
-	 * Remove a Slime from a School.
+	 * Remove a Slime from a School. The last member of the School takes the place of the removed Slime.
 	 * 
 	 * @param 	slime
 	 * 				The Slime to remove.
@@ -97,33 +105,218 @@ public class School {
 		assert slime != null && !slime.hasSchool();
 		assert this.hasAsSlime(slime);
 		
-		slimes.remove(slime);
+		Slime last = this.slimes[--this.nbSlimes];
+		this.slimes[slime.schoolIndex] = last;
+		last.schoolIndex = slime.schoolIndex;
+		this.slimes[this.nbSlimes] = null;
+		slime.schoolIndex = -1;
 	}
 	
 	/**
 	 * Return all Slimes that are member of this School.
 	 * 
-	 * @return	A Hashset of all Slimes that are member of this School.
+	 * @return	A read-only, live view on all Slimes that are member of this School.
 	 */
 	@Basic
 	public Set<Slime> getAllSlimes(){
-		HashSet<Slime> slimesClone =  new HashSet<Slime>(this.slimes);
-		return slimesClone;
+		return this.slimesView;
 	}
 	
 	/**
 	 * Return the number of Slimes that are member of this School.
 	 * 
 	 * @return	An integer representing the number of Slimes that are member of this School.
+	 * @note	This method runs in constant time.
 	 */
 	public int getNbSlimes(){
-		return this.getAllSlimes().size();
+		return this.nbSlimes;
 	}
 	
 	/**
-	 * Variable registering the slimes that are member of this School.
+	 * Return the member of this School at the given index. Iterating the members by index does not allocate
+	 * any objects.
+	 * 
+	 * @param 	index
+	 * 				The index of the member.
+	 * @pre		| index >= 0 && index < getNbSlimes()
+	 */
+	Slime getSlimeAt(int index){
+		assert index >= 0 && index < this.nbSlimes;
+		return this.slimes[index];
+	}
+	
+	/**
+	 * Array registering the Slimes that are member of this School at its first getNbSlimes() indices.
+	 */
+	private Slime[] slimes = new Slime[4];
+	
+	/**
+	 * Variable registering the number of Slimes that are member of this School.
+	 */
+	private int nbSlimes = 0;
+	
+	/**
+	 * Read-only, live view on the Slimes that are member of this School.
+	 */
+	private final Set<Slime> slimesView = new AbstractSet<Slime>(){
+		
+		@Override
+		public int size(){
+			return nbSlimes;
+		}
+		
+		@Override
+		public boolean contains(Object object){
+			return object instanceof Slime && hasAsSlime((Slime) object);
+		}
+		
+		@Override
+		public Iterator<Slime> iterator(){
+			return new Iterator<Slime>(){
+				
+				private int next = 0;
+				
+				@Override
+				public boolean hasNext(){
+					return this.next < nbSlimes;
+				}
+				
+				@Override
+				public Slime next(){
+					if(!this.hasNext())
+						throw new NoSuchElementException();
+					return slimes[this.next++];
+				}
+			};
+		}
+	};
+	
+	/******************************************************** WORLDS ***************************************************/
+	
+	/**
+	 * Return the number of members of this School that are in the given World.
+	 * 
+	 * @param 	world
+	 * 				The World to check.
+	 * @note	A School normally has Slimes in at most one World, so this method runs in constant time.
+	 */
+	int getNbSlimesIn(World world){
+		int entry = this.getWorldEntry(world);
+		return entry < 0 ? 0 : this.nbSlimesInWorlds[entry];
+	}
+	
+	/**
+	 * Return the index of this School in the school registry of the given World.
+	 * 
+	 * @param 	world
+	 * 				The World of the registry.
+	 * @pre		| getNbSlimesIn(world) > 0
+	 */
+	int getRegistryIndexIn(World world){
+		int entry = this.getWorldEntry(world);
+		assert entry >= 0;
+		return this.registryIndices[entry];
+	}
+	
+	/**
+	 * Set the index of this School in the school registry of the given World.
+	 * 
+	 * @param 	world
+	 * 				The World of the registry.
+	 * @param 	index
+	 * 				The new index.
+	 * @pre		| getNbSlimesIn(world) > 0
+	 */
+	void setRegistryIndexIn(World world, int index){
+		int entry = this.getWorldEntry(world);
+		assert entry >= 0;
+		this.registryIndices[entry] = index;
+	}
+	
+	/**
+	 * Count one more member of this School in the given World.
+	 * 
+	 * @param 	world
+	 * 				The World the member is in.
+	 * @return	| result == new.getNbSlimesIn(world)
+	 * @post	| new.getNbSlimesIn(world) == getNbSlimesIn(world) + 1
+	 */
+	int retainIn(World world){
+		int entry = this.getWorldEntry(world);
+		if(entry < 0){
+			if(this.nbWorlds == this.worlds.length){
+				this.worlds = Arrays.copyOf(this.worlds, 2 * this.worlds.length);
+				this.registryIndices = Arrays.copyOf(this.registryIndices, 2 * this.registryIndices.length);
+				this.nbSlimesInWorlds = Arrays.copyOf(this.nbSlimesInWorlds, 2 * this.nbSlimesInWorlds.length);
+			}
+			entry = this.nbWorlds++;
+			this.worlds[entry] = world;
+			this.registryIndices[entry] = -1;
+			this.nbSlimesInWorlds[entry] = 0;
+		}
+		return ++this.nbSlimesInWorlds[entry];
+	}
+	
+	/**
+	 * Count one member of this School less in the given World. When no members are left in that World, the
+	 * School is retired from it.
+	 * 
+	 * @param 	world
+	 * 				The World the member has left.
+	 * @pre		| getNbSlimesIn(world) > 0
+	 * @return	| result == new.getNbSlimesIn(world)
+	 * @post	| new.getNbSlimesIn(world) == getNbSlimesIn(world) - 1
+	 */
+	int releaseIn(World world){
+		int entry = this.getWorldEntry(world);
+		assert entry >= 0;
+		
+		int nbLeft = --this.nbSlimesInWorlds[entry];
+		if(nbLeft == 0){
+			int last = --this.nbWorlds;
+			this.worlds[entry] = this.worlds[last];
+			this.registryIndices[entry] = this.registryIndices[last];
+			this.nbSlimesInWorlds[entry] = this.nbSlimesInWorlds[last];
+			this.worlds[last] = null;
+		}
+		return nbLeft;
+	}
+	
+	/**
+	 * Return the index of the entry of the given World in the arrays of Worlds of this School, or -1 if none of 
+	 * the members of this School is in the given World.
+	 * 
+	 * @param 	world
+	 * 				The World to look up.
+	 */
+	@Model
+	private int getWorldEntry(World world){
+		for(int entry = 0; entry < this.nbWorlds; entry++)
+			if(this.worlds[entry] == world)
+				return entry;
+		return -1;
+	}
+	
+	/**
+	 * Array registering the Worlds with members of this School at its first nbWorlds indices.
+	 */
+	private World[] worlds = new World[1];
+	
+	/**
+	 * Array registering the index of this School in the school registry of every World in worlds.
+	 */
+	private int[] registryIndices = new int[1];
+	
+	/**
+	 * Array registering the number of members of this School in every World in worlds, which keeps this School
+	 * in the school registry of that World as long as it is positive.
+	 */
+	private int[] nbSlimesInWorlds = new int[1];
+	
+	/**
+	 * Variable registering the number of Worlds with members of this School.
 	 */
-	public Set<Slime> slimes = new HashSet<Slime>();
+	private int nbWorlds = 0;
 	
 	/***************************************************** TERMINATION *************************************************/
 	
@@ -1,6 +1,5 @@
 package jumpingalien.model;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import jumpingalien.model.terrain.Terrain;
@@ -106,17 +105,11 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	 * 				The Program a Shark should execute.
 	 * @pre		| Array.getLength(sprites) == 2	 * 
 	 * @post	| new.getNbNonJumpingPeriods == 0
-	 * @post	| new.getCurrentPeriodTime() == timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME)
 	 * @post	| new.isJumping == false
 	 * @effect	| super(pixelLeftX, pixelBottomY, velocityXInit, velocityYInit, velocityXMax, accelerationXInit, 
 	 * 					sprites,nbHitPoints, maxNbHitPoints, program)
-	 * @effect	| if ( ! this.hasProgram() )
-	 * 			|	then this.setCurrentPeriodTime( timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME) )
-	 * @effect	| if ( ! this.hasProgram() )
-	 * 			|	then this.startMove(this.getRandomOrientation())
-	 * @effect	| if ( ! this.hasProgram() )
-	 * 			|	then this.startDiveRise()
 	 * @effect 	| configureTerrain()
+	 * @note	A Shark only draws its first period and movement once it is added to a World.
 	 * @throws 	IllegalPositionXException
 	 * 				| ! canHaveAsXPosition(pixelLeftX)
 	 * @throws 	IllegalPositionYException
@@ -139,12 +132,6 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 		this.setNbNonJumpingPeriods(0);
 		this.setJumping(false);	
 		
-		if ( ! this.hasProgram()){
-			this.setCurrentPeriodTime( timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME) );
-			this.startMove(this.getRandomOrientation());
-			this.startDiveRise();
-		}
-		
 		this.configureTerrain();
 		
 	}
@@ -302,14 +289,37 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	
 	/******************************************************** WORLD ****************************************************/
 	
+	/**
+	 * Return the kind bit of a Shark.
+	 * 
+	 * @return	| result == World.SHARK_BIT
+	 */
+	@Override @Immutable
+	public int getKindBit(){
+		return World.SHARK_BIT;
+	}
+	
 	/**
 	 * Add the Shark to his World.
 	 * 
 	 * @post	| new.getWorld().hasAsGameObject(this) == true
+	 * @effect	The first period of the Shark is drawn from the source of random numbers of its World.
+	 * 			| if ( ! this.hasProgram() )
+	 * 			|	then this.setCurrentPeriodTime( timer.getRandomPeriodTime(getRandom(), MIN_PERIOD_TIME, MAX_PERIOD_TIME) )
+	 * @effect	| if ( ! this.hasProgram() )
+	 * 			|	then this.startMove(this.getRandomOrientation())
+	 * @effect	| if ( ! this.hasProgram() )
+	 * 			|	then this.startDiveRise()
 	 */
 	@Override
 	protected void addToWorld(){
-		this.getWorld().sharks.add(this);
+		this.getWorld().sharks.register(this);
+		
+		if ( ! this.hasProgram()){
+			this.setCurrentPeriodTime( timer.getRandomPeriodTime(getRandom(), MIN_PERIOD_TIME, MAX_PERIOD_TIME) );
+			this.startMove(this.getRandomOrientation());
+			this.startDiveRise();
+		}
 	}
 	
 	/**
@@ -326,7 +336,7 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 		assert this != null && !this.hasWorld();
 		assert world.hasAsGameObject(this);
 		
-		world.sharks.remove(this);
+		world.sharks.unregister(this);
 	}
 	
 	/**
@@ -335,10 +345,11 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	 * @param	world
 	 * 				The World to check.
 	 * @return	| result == ( Shark.getAllInWorld(world).contains(this) )
+	 * @note	This method runs in constant time.
 	 */
 	@Override
 	protected boolean hasAsWorld(World world){
-		return Shark.getAllInWorld(world).contains(this);
+		return world.sharks.contains(this);
 	}
 	
 	/**
@@ -349,7 +360,7 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	 * @return	| result == ( Shark.getAllInWorld(world).size() )
 	 */
 	public static int getNbInWorld(World world){
-		return Shark.getAllInWorld(world).size();
+		return world.sharks.size();
 	}
 	
 	/**
@@ -357,11 +368,10 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	 * 
 	 * @param 	world
 	 * 				The World to check.
-	 * @return	A Hashset containing all Sharks in the given World.
+	 * @return	A read-only, live view on all Sharks in the given World.
 	 */
 	public static Set<Shark> getAllInWorld(World world){
-		HashSet<Shark> sharksClone =  new HashSet<Shark>(world.sharks);
-		return sharksClone;
+		return world.sharks;
 	}
 	
 	/***************************************************** ACCELERATION ************************************************/
@@ -373,7 +383,7 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	 */
 	@Override @Basic @Raw @Immutable
 	public double getAccelerationY() {
-		return this.accelerationY;
+		return this.physics.getAccelerationY(this.physicsSlot);
 	}
 	
 	/**
@@ -389,16 +399,11 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	@Basic @Raw
 	protected void setAccelerationY(double accelerationY) {
 		if (Double.isNaN(accelerationY)){
-			this.accelerationY = 0;
+			this.physics.setAccelerationY(this.physicsSlot, 0);
 		} else
-			this.accelerationY = accelerationY;
+			this.physics.setAccelerationY(this.physicsSlot, accelerationY);
 	}
 	
-	/**
-	 * Variable registering the vertical acceleration of a Shark.
-	 */
-	private double accelerationY;
-	
 	/**
 	 * Return the random acceleration of a Shark for diving or rising.
 	 * 
@@ -487,12 +492,12 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	/**
 	 * Make a Shark start diving or rising in water.
 	 * 
-	 * @effect	| setRandomAcceleration( ACCELERATION_DIVING + (ACCELERATION_RISING - ACCELERATION_DIVING)*Math.random())
+	 * @effect	| setRandomAcceleration( ACCELERATION_DIVING + (ACCELERATION_RISING - ACCELERATION_DIVING)*getRandom().nextDouble())
 	 * @effect	| setVelocityY( Math.signum( this.getRandomAcceleration() )*this.getVelocityYInit() )
 	 * @effect	| setAccelerationY( this.getRandomAcceleration() )
 	 */
 	public void startDiveRise(){
-		this.setRandomAcceleration( ACCELERATION_DIVING + (ACCELERATION_RISING - ACCELERATION_DIVING)*Math.random() );
+		this.setRandomAcceleration( ACCELERATION_DIVING + (ACCELERATION_RISING - ACCELERATION_DIVING)*getRandom().nextDouble() );
 		this.setVelocityY( Math.signum( this.getRandomAcceleration() )*this.getVelocityYInit() );
 		this.setAccelerationY( this.getRandomAcceleration() ); 
 	}
@@ -547,7 +552,7 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	 * @effect	| if ( this.getTimer().getSinceLastPeriod() >= currentPeriodTime)
 	 * 			|	then this.getTimer().setSinceLastPeriod(0)
 	 * @post 	| if ( this.getTimer().getSinceLastPeriod() >= currentPeriodTime)
-	 * 			|	then this.getCurrentPeriodTime() == timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME)
+	 * 			|	then this.getCurrentPeriodTime() == timer.getRandomPeriodTime(getRandom(), MIN_PERIOD_TIME, MAX_PERIOD_TIME)
 	 * @effect	| adjustGravitationalAcceleration()
 	 * @effect	| update(dt)
 	 */
@@ -559,7 +564,7 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 			this.periodicMovement();
 					
 			this.getTimer().setSinceLastPeriod(0);		
-			this.setCurrentPeriodTime( timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME) );
+			this.setCurrentPeriodTime( timer.getRandomPeriodTime(getRandom(), MIN_PERIOD_TIME, MAX_PERIOD_TIME) );
 		}
 		
 		/* Adjust gravitational acceleration */
@@ -570,6 +575,16 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 		
 	}
 	
+	/**
+	 * Return the time until the next timed event of this Shark.
+	 * 
+	 * @return	| result == Math.min( super.getTimeToNextEvent(), this.getCurrentPeriodTime() - this.getTimer().getSinceLastPeriod() )
+	 */
+	@Override
+	protected double getTimeToNextEvent(){
+		return Math.min( super.getTimeToNextEvent(), this.getCurrentPeriodTime() - this.getTimer().getSinceLastPeriod() );
+	}
+	
 	/**
 	 * Advance the Shark's Program and update the Shark's horizontal and vertical position and velocity
 	 * for the given time interval along with his gravitational acceleration.
@@ -605,11 +620,11 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	 * @effect	| if ( ! this.isJumping())
 	 * 			|	then this.endDiveRise()
 	 * @effect	| startMove(this.getRandomOrientation())
-	 * @effect	| if ( (this.getNbNonJumpingPeriods() >= 4) && (Math.random() < 0.5) )
+	 * @effect	| if ( (this.getNbNonJumpingPeriods() >= 4) && (getRandom().nextDouble() < 0.5) )
 	 * 			|	then this.startJump()
-	 * @effect	| if ( (this.getNbNonJumpingPeriods() >= 4) && (Math.random() < 0.5) )
+	 * @effect	| if ( (this.getNbNonJumpingPeriods() >= 4) && (getRandom().nextDouble() < 0.5) )
 	 * 			|	then new.getNbNonJumpingPeriods() == 0
-	 * @effect	| if ( ( (!this.getNbNonJumpingPeriods() >= 4) || (Math.random() >= 0.5) ) 
+	 * @effect	| if ( ( (!this.getNbNonJumpingPeriods() >= 4) || (getRandom().nextDouble() >= 0.5) ) 
 	 * 			|	   && this.isSubmergedIn(Terrain.WATER) )
 	 * 			|	then this.startDiveRise()
 	 */
@@ -626,7 +641,7 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 		
 		this.startMove(this.getRandomOrientation());
 		
-		if ((this.getNbNonJumpingPeriods() >= 4) && (Math.random() < 0.5)){
+		if ((this.getNbNonJumpingPeriods() >= 4) && (getRandom().nextDouble() < 0.5)){
 			this.startJump();
 			this.setNbNonJumpingPeriods(0);
 		} else if (this.isSubmergedIn(Terrain.WATER)) {
@@ -728,18 +743,14 @@ public class Shark extends GameObject implements IJumpable, IProgrammable{
 	}
 	
 	/**
-	 * Return all impassable Game objects for a Shark.
+	 * Return the kinds of Game objects that are impassable for a Shark.
 	 * 
-	 * @return	A Hashset that contains the Mazub and all Buzams, Slimes and Sharks in the Shark's world.
+	 * @return	A bitmask that selects the Mazub and all Buzams, Slimes and Sharks in the Shark's world.
+	 * 			| result == ( World.MAZUB_BIT | World.BUZAM_BIT | World.SLIME_BIT | World.SHARK_BIT )
 	 */
-	@Override
-	public Set<GameObject> getAllImpassableGameObjects(){
-		Set<GameObject> allImpassableGameObjects= new HashSet<GameObject>();
-		allImpassableGameObjects.add(Mazub.getInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Buzam.getAllInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Slime.getAllInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Shark.getAllInWorld(this.getWorld()));
-		return allImpassableGameObjects;
+	@Override @Immutable
+	public int getImpassableGameObjectMask(){
+		return World.MAZUB_BIT | World.BUZAM_BIT | World.SLIME_BIT | World.SHARK_BIT;
 	}
 	
 	/******************************************************* OVERLAP **************************************************/
@@ -1,6 +1,5 @@
 package jumpingalien.model;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import jumpingalien.model.terrain.Terrain;
@@ -98,16 +97,11 @@ public class Slime extends GameObject implements IProgrammable {
 	 * @param	program
 	 * 				The Program a Slime should execute.
 	 * @pre		| Array.getLength(sprites) == 2
-	 * @post	| new.getCurrentPeriodTime() == timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME)
 	 * @effect	| super(pixelLeftX, pixelBottomY, velocityXInit, velocityYInit, velocityXMax, accelerationXInit, 
 	 * 					sprites,nbHitPoints, maxNbHitPoints, program)
 	 * @effect	| setSchoolTo(school)
-	 * @effect	| startMove( this.getRandomOrientation() )
-	 * @effect	| if ( ! this.hasProgram() )
-	 * 			|	then this.setCurrentPeriodTime( timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME) )
-	 * @effect	| if ( ! this.hasProgram() )
-	 * 			|	then this.startMove(this.getRandomOrientation())
 	 * @effect 	| configureTerrain()
+	 * @note	A Slime only draws its first period and orientation once it is added to a World.
 	 * @throws 	IllegalPositionXException
 	 * 				| ! canHaveAsXPosition(pixelLeftX)
 	 * @throws 	IllegalPositionYException
@@ -130,11 +124,6 @@ public class Slime extends GameObject implements IProgrammable {
 
 		this.setSchoolTo(school);
 		
-		if ( ! this.hasProgram() ){
-			this.setCurrentPeriodTime( timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME) );
-			this.startMove(this.getRandomOrientation());
-		}
-		
 		this.configureTerrain();
 		
 	}
@@ -299,14 +288,36 @@ public class Slime extends GameObject implements IProgrammable {
 	
 	/******************************************************** WORLD ****************************************************/
 	
+	/**
+	 * Return the kind bit of a Slime.
+	 * 
+	 * @return	| result == World.SLIME_BIT
+	 */
+	@Override @Immutable
+	public int getKindBit(){
+		return World.SLIME_BIT;
+	}
+	
 	/**
 	 * Add the Slime to his World.
 	 * 
 	 * @post	| new.getWorld().hasAsGameObject(this) == true
+	 * @effect	| this.getWorld().slimeJoinedSchool(this.getSchool())
+	 * @effect	The first period of the Slime is drawn from the source of random numbers of its World.
+	 * 			| if ( ! this.hasProgram() )
+	 * 			|	then this.setCurrentPeriodTime( timer.getRandomPeriodTime(getRandom(), MIN_PERIOD_TIME, MAX_PERIOD_TIME) )
+	 * @effect	| if ( ! this.hasProgram() )
+	 * 			|	then this.startMove(this.getRandomOrientation())
 	 */
 	@Override @Raw
 	protected void addToWorld(){
-		this.getWorld().slimes.add(this);
+		this.getWorld().slimes.register(this);
+		this.getWorld().slimeJoinedSchool(this.getSchool());
+		
+		if ( ! this.hasProgram() ){
+			this.setCurrentPeriodTime( timer.getRandomPeriodTime(getRandom(), MIN_PERIOD_TIME, MAX_PERIOD_TIME) );
+			this.startMove(this.getRandomOrientation());
+		}
 	}
 	
 	/**
@@ -317,13 +328,15 @@ public class Slime extends GameObject implements IProgrammable {
 	 * @pre		| this != null && !this.hasWorld()
 	 * @pre		| world.hasAsGameObject(this)
 	 * @post	| world.hasAsGameObject(this) == false
+	 * @effect	| world.slimeLeftSchool(this.getSchool())
 	 */
 	@Override @Raw
 	protected void removeFromWorld(World world){
 		assert this != null && !this.hasWorld();
 		assert world.hasAsGameObject(this);
 		
-		world.slimes.remove(this);
+		world.slimes.unregister(this);
+		world.slimeLeftSchool(this.getSchool());
 	}
 
 	/**
@@ -332,10 +345,11 @@ public class Slime extends GameObject implements IProgrammable {
 	 * @param	world
 	 * 				The World to check.
 	 * @return	| result == ( Slime.getAllInWorld(world).contains(this) )
+	 * @note	This method runs in constant time.
 	 */
 	@Override
 	protected boolean hasAsWorld(World world){
-		return Slime.getAllInWorld(world).contains(this);
+		return world.slimes.contains(this);
 	}
 	
 	/**
@@ -346,7 +360,7 @@ public class Slime extends GameObject implements IProgrammable {
 	 * @return	| result == ( Slime.getAllInWorld(world).size() )
 	 */
 	public static int getNbInWorld(World world){
-		return Slime.getAllInWorld(world).size();
+		return world.slimes.size();
 	}
 	
 	/**
@@ -354,11 +368,10 @@ public class Slime extends GameObject implements IProgrammable {
 	 * 
 	 * @param 	world
 	 * 				The World to check.
-	 * @return	A Hashset containing all Slimes in the given World.
+	 * @return	A read-only, live view on all Slimes in the given World.
 	 */
 	public static Set<Slime> getAllInWorld(World world){
-		HashSet<Slime> slimesClone =  new HashSet<Slime>(world.slimes);
-		return slimesClone;
+		return world.slimes;
 	}
 	
 	/******************************************************** SCHOOL ***************************************************/
@@ -476,25 +489,38 @@ public class Slime extends GameObject implements IProgrammable {
 	 * 			|			slime.modifyNbHitPoints( - SWITCH_SCHOOL_DAMAGE )
 	 * @effect	| if (this.getSchool() != newSchool)
 	 * 			|	then this.setSchoolTo(newSchool)
+	 * @note	While the World of the Slime is advancing time, the switch is only made at the end of the current
+	 * 			time step.
 	 */
 	public void switchSchool(School newSchool){
 		
+		if ( this.getSchool() != newSchool && this.hasWorld() && this.getWorld().isDeferringStructuralChanges() ){
+			this.getWorld().deferStructuralChange(StructuralChangeBuffer.Change.SWITCH_SCHOOL, this, newSchool);
+			return;
+		}
+		
 		if ( this.getSchool() != newSchool) {
 			
-			for (Slime slime: this.getSchool().getAllSlimes()){
-				if (!slime.equals(this))
+			School oldSchool = this.getSchool();
+			for (int i = 0; i < oldSchool.getNbSlimes(); i++){
+				Slime slime = oldSchool.getSlimeAt(i);
+				if (slime != this)
 					slime.modifyNbHitPoints(SWITCH_SCHOOL_DAMAGE);
 			}
 			this.modifyNbHitPoints( - SWITCH_SCHOOL_DAMAGE * this.getSchool().getNbSlimes() );
 			
+			if(this.hasWorld())
+				this.getWorld().slimeLeftSchool(this.getSchool());
 			this.unsetSchool();
 			
-			for (Slime slime: newSchool.getAllSlimes()){
-				slime.modifyNbHitPoints( - SWITCH_SCHOOL_DAMAGE );
+			for (int i = 0; i < newSchool.getNbSlimes(); i++){
+				newSchool.getSlimeAt(i).modifyNbHitPoints( - SWITCH_SCHOOL_DAMAGE );
 			}
 			this.modifyNbHitPoints( SWITCH_SCHOOL_DAMAGE * newSchool.getNbSlimes() );
 			
 			this.setSchoolTo(newSchool);
+			if(this.hasWorld())
+				this.getWorld().slimeJoinedSchool(newSchool);
 		}
 
 	}
@@ -504,6 +530,11 @@ public class Slime extends GameObject implements IProgrammable {
 	 */
 	private School school;
 	
+	/**
+	 * Variable registering the index of this Slime among the members of its School, or -1 if it has no School.
+	 */
+	int schoolIndex = -1;
+	
 	/****************************************************** HIT POINTS *************************************************/
 	
 	/**
@@ -512,13 +543,40 @@ public class Slime extends GameObject implements IProgrammable {
 	 * @param	damageAmount
 	 * 				The amount of damage that a Slime needs to take.
 	 * @effect	| modifyNbHitPoints( - damageAmount )
-	 * @effect	| if ( this.getSchool() != null)
+	 * @effect	| if ( this.getSchool() != null && !( this.hasWorld() && this.getWorld().isPlanningLockstep() ) )
 	 * 			|	then this.mutualDamage()
+	 * @post	While its World plans a fixed time step, the other Slimes of the School only take their mutual damage 
+	 * 			once the plan of this Slime is resolved.
+	 * 			| if ( this.hasWorld() && this.getWorld().isPlanningLockstep() )
+	 * 			|	then new.nbDeferredMutualDamages == this.nbDeferredMutualDamages + 1
 	 */
 	@Override
 	protected void takeDamage(int damageAmount){
 		this.modifyNbHitPoints( - damageAmount );
-		this.mutualDamage();
+		if(this.hasWorld() && this.getWorld().isPlanningLockstep())
+			this.nbDeferredMutualDamages++;
+		else
+			this.mutualDamage();
+	}
+	
+	/**
+	 * Variable registering the number of times the other Slimes of the School of this Slime still have to take 
+	 * mutual damage for the fixed time step its World is planning.
+	 */
+	private int nbDeferredMutualDamages = 0;
+	
+	/**
+	 * Resolve the plan of this Slime for the current fixed time step.
+	 * 
+	 * @effect	| super.resolveLockstep()
+	 * @effect	| for each deferred damage:
+	 * 			|	this.mutualDamage()
+	 */
+	@Override
+	void resolveLockstep(){
+		super.resolveLockstep();
+		for(; this.nbDeferredMutualDamages > 0; this.nbDeferredMutualDamages--)
+			this.mutualDamage();
 	}
 	
 	/**
@@ -529,8 +587,10 @@ public class Slime extends GameObject implements IProgrammable {
 	 * 			| 		then slime.modifyNbHitPoints( - MUTUAL_SCHOOL_DAMAGE )
 	 */
 	protected void mutualDamage(){
-		for (Slime slime: this.getSchool().getAllSlimes()){
-			if (!slime.equals(this))
+		School school = this.getSchool();
+		for (int i = 0; i < school.getNbSlimes(); i++){
+			Slime slime = school.getSlimeAt(i);
+			if (slime != this)
 				slime.modifyNbHitPoints( - MUTUAL_SCHOOL_DAMAGE );
 		}
 	}
@@ -544,7 +604,7 @@ public class Slime extends GameObject implements IProgrammable {
 	 * @param	dt
 	 * 				A double that represents the elapsed in-game time.
 	 * @post 	| if (this.getTimer().getSinceLastPeriod() >= currentPeriodTime)
-	 * 			|	then new.getCurrentPeriodTime() == timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME)
+	 * 			|	then new.getCurrentPeriodTime() == timer.getRandomPeriodTime(getRandom(), MIN_PERIOD_TIME, MAX_PERIOD_TIME)
 	 * @effect	| if (this.getTimer().getSinceLastPeriod() >= currentPeriodTime)
 	 * 			|	then this.periodicMovement();
 	 * @effect	| if (this.getTimer().getSinceLastPeriod() >= currentPeriodTime)
@@ -560,7 +620,7 @@ public class Slime extends GameObject implements IProgrammable {
 			this.periodicMovement();
 			
 			this.getTimer().setSinceLastPeriod(0);
-			this.setCurrentPeriodTime( timer.getRandomPeriodTime(MIN_PERIOD_TIME, MAX_PERIOD_TIME) );
+			this.setCurrentPeriodTime( timer.getRandomPeriodTime(getRandom(), MIN_PERIOD_TIME, MAX_PERIOD_TIME) );
 		}
 		
 		/* Update position and velocity */
@@ -568,6 +628,16 @@ public class Slime extends GameObject implements IProgrammable {
 		
 	}
 	
+	/**
+	 * Return the time until the next timed event of this Slime.
+	 * 
+	 * @return	| result == Math.min( super.getTimeToNextEvent(), this.getCurrentPeriodTime() - this.getTimer().getSinceLastPeriod() )
+	 */
+	@Override
+	protected double getTimeToNextEvent(){
+		return Math.min( super.getTimeToNextEvent(), this.getCurrentPeriodTime() - this.getTimer().getSinceLastPeriod() );
+	}
+	
 	/**
 	 * Advance the Slime's Program and update the Slime's horizontal and vertical position and velocity
 	 * for the given time interval.
@@ -617,20 +687,14 @@ public class Slime extends GameObject implements IProgrammable {
 	}
 	
 	/**
-	 * Return all impassable Game objects for a Slime.
+	 * Return the kinds of Game objects that are impassable for a Slime.
 	 * 
-	 * @return	A Hashset that contains the Mazub and all Buzams, Slimes and Sharks in the Slime's world.
+	 * @return	A bitmask that selects the Mazub and all Buzams, Slimes and Sharks in the Slime's world.
+	 * 			| result == ( World.MAZUB_BIT | World.BUZAM_BIT | World.SLIME_BIT | World.SHARK_BIT )
 	 */
-	@Override
-	public Set<GameObject> getAllImpassableGameObjects(){
-		assert hasProperWorld();
-		
-		Set<GameObject> allImpassableGameObjects= new HashSet<GameObject>();
-		allImpassableGameObjects.add(Mazub.getInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Buzam.getAllInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Slime.getAllInWorld(this.getWorld()));
-		allImpassableGameObjects.addAll(Shark.getAllInWorld(this.getWorld()));
-		return allImpassableGameObjects;
+	@Override @Immutable
+	public int getImpassableGameObjectMask(){
+		return World.MAZUB_BIT | World.BUZAM_BIT | World.SLIME_BIT | World.SHARK_BIT;
 	}
 	
 	/******************************************************* OVERLAP **************************************************/
@@ -681,9 +745,10 @@ public class Slime extends GameObject implements IProgrammable {
 	@Override
 	protected void processSlimeOverlap(@Raw Slime slime){
 		if(slime != this){
-			if ( slime.getSchool().getNbSlimes() > this.getSchool().getNbSlimes() ){
+			int otherSize = slime.getSchool().getNbSlimes(), ownSize = this.getSchool().getNbSlimes();
+			if ( otherSize > ownSize ){
 				this.switchSchool( slime.getSchool() );
-			} else if ( slime.getSchool().getNbSlimes() < this.getSchool().getNbSlimes() ) {
+			} else if ( otherSize < ownSize ) {
 				slime.switchSchool( this.getSchool() );
 			}
 		}
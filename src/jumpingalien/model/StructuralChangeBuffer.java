@@ -0,0 +1,137 @@
+package jumpingalien.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of buffers that hold the structural changes to a World that were requested while it was advancing
+ * time, such as Game objects that are added, removed or terminated and Slimes that switch School.
+ *
+ * The changes are kept in the order in which they were requested, in parallel arrays that are reused from one
+ * time step to the next.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getNbChanges() >= 0
+ */
+class StructuralChangeBuffer {
+
+	/**
+	 * An enumeration of the kinds of structural changes to a World.
+	 */
+	enum Change {
+		ADD, REMOVE, TERMINATE, SWITCH_SCHOOL
+	}
+
+	/**
+	 * Constant reflecting the initial capacity of a buffer.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Append a structural change to this buffer.
+	 *
+	 * @param 	change
+	 * 				The kind of the change.
+	 * @param 	gameObject
+	 * 				The Game object that is changed.
+	 * @param 	argument
+	 * 				The World to add the Game object to for ADD, the new School for SWITCH_SCHOOL, and null otherwise.
+	 * @post	| new.getNbChanges() == getNbChanges() + 1
+	 * @post	| new.getChange(getNbChanges()) == change
+	 * @post	| new.getGameObject(getNbChanges()) == gameObject
+	 * @post	| new.getArgument(getNbChanges()) == argument
+	 */
+	void append(Change change, GameObject gameObject, Object argument){
+		if(this.nbChanges == this.changes.length){
+			this.changes = Arrays.copyOf(this.changes, 2 * this.changes.length);
+			this.gameObjects = Arrays.copyOf(this.gameObjects, 2 * this.gameObjects.length);
+			this.arguments = Arrays.copyOf(this.arguments, 2 * this.arguments.length);
+		}
+		this.changes[this.nbChanges] = change;
+		this.gameObjects[this.nbChanges] = gameObject;
+		this.arguments[this.nbChanges] = argument;
+		this.nbChanges++;
+	}
+
+	/**
+	 * Return the number of structural changes in this buffer.
+	 */
+	@Basic
+	int getNbChanges(){
+		return this.nbChanges;
+	}
+
+	/**
+	 * Return the kind of the structural change at the given index of this buffer.
+	 *
+	 * @param 	index
+	 * 				The index of the change.
+	 * @pre		| index >= 0 && index < getNbChanges()
+	 */
+	@Basic
+	Change getChange(int index){
+		assert index >= 0 && index < this.nbChanges;
+		return this.changes[index];
+	}
+
+	/**
+	 * Return the Game object of the structural change at the given index of this buffer.
+	 *
+	 * @param 	index
+	 * 				The index of the change.
+	 * @pre		| index >= 0 && index < getNbChanges()
+	 */
+	@Basic
+	GameObject getGameObject(int index){
+		assert index >= 0 && index < this.nbChanges;
+		return this.gameObjects[index];
+	}
+
+	/**
+	 * Return the argument of the structural change at the given index of this buffer.
+	 *
+	 * @param 	index
+	 * 				The index of the change.
+	 * @pre		| index >= 0 && index < getNbChanges()
+	 */
+	@Basic
+	Object getArgument(int index){
+		assert index >= 0 && index < this.nbChanges;
+		return this.arguments[index];
+	}
+
+	/**
+	 * Remove all structural changes from this buffer.
+	 *
+	 * @post	| new.getNbChanges() == 0
+	 */
+	void clear(){
+		Arrays.fill(this.gameObjects, 0, this.nbChanges, null);
+		Arrays.fill(this.arguments, 0, this.nbChanges, null);
+		this.nbChanges = 0;
+	}
+
+	/**
+	 * Array registering the kind of every structural change in this buffer.
+	 */
+	private Change[] changes = new Change[INITIAL_CAPACITY];
+
+	/**
+	 * Array registering the changed Game object of every structural change in this buffer.
+	 */
+	private GameObject[] gameObjects = new GameObject[INITIAL_CAPACITY];
+
+	/**
+	 * Array registering the argument of every structural change in this buffer.
+	 */
+	private Object[] arguments = new Object[INITIAL_CAPACITY];
+
+	/**
+	 * Variable registering the number of structural changes in this buffer.
+	 */
+	private int nbChanges = 0;
+}
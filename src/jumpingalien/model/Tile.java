@@ -1,6 +1,7 @@
 package jumpingalien.model;
 
 import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
 import jumpingalien.model.interfaces.IKind;
 import jumpingalien.model.terrain.Terrain;
 
@@ -11,6 +12,8 @@ import jumpingalien.model.terrain.Terrain;
  * @note	See the class Mazub for further information about our project.
  * @version 1.0
  * 
+ * @note	Tiles are immutable. A World hands out one cached Tile instance per tile, which it replaces by a new
+ * 			instance when the geological feature of that tile changes.
  */
 public class Tile implements IKind {
 
@@ -48,7 +51,7 @@ public class Tile implements IKind {
 	 * 
 	 * @return	| result == ( this.tileLength )
 	 */
-	@Basic
+	@Basic @Immutable
 	public int getTileLength(){
 		return this.tileLength;
 	}
@@ -56,7 +59,7 @@ public class Tile implements IKind {
 	/**
 	 * Variable registering the length of a square side of the Tile.
 	 */
-	private int tileLength;
+	private final int tileLength;
 	
 	/**
 	 * Return the width of the Tile.
@@ -85,7 +88,7 @@ public class Tile implements IKind {
 	 * 
 	 * @return	| result == ( this.positionX )
 	 */
-	@Override @Basic
+	@Override @Basic @Immutable
 	public int getRoundedPositionX() {
 		return this.positionX;
 	}
@@ -93,7 +96,7 @@ public class Tile implements IKind {
 	/**
 	 * Variable registering the horizontal pixel position of the Tile in a World.
 	 */
-	private int positionX;
+	private final int positionX;
 
 	/* Vertical Position */
 	
@@ -102,7 +105,7 @@ public class Tile implements IKind {
 	 * 
 	 * @return	| result == ( this.positionY )
 	 */
-	@Override @Basic
+	@Override @Basic @Immutable
 	public int getRoundedPositionY() {
 		return this.positionY;
 	}
@@ -110,7 +113,7 @@ public class Tile implements IKind {
 	/**
 	 * Variable registering the horizontal pixel position of the Tile in a World.
 	 */
-	private int positionY;
+	private final int positionY;
 	
 	/* Terrain Type */
 	
@@ -119,7 +122,7 @@ public class Tile implements IKind {
 	 * 
 	 * @return	| result == ( this.type )
 	 */
-	@Basic
+	@Basic @Immutable
 	public Terrain getTerrainType(){
 		return this.type;
 	}
@@ -127,7 +130,7 @@ public class Tile implements IKind {
 	/**
 	 * Variable registering the Terrain type of the Tile.
 	 */
-	private Terrain type;
+	private final Terrain type;
 	
 	/******************************************************** STRING ***************************************************/
 	
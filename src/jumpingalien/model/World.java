@@ -1,18 +1,42 @@
 package jumpingalien.model;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Model;
 import be.kuleuven.cs.som.annotate.Raw;
+import jumpingalien.model.terrain.ImpassableTileSet;
 import jumpingalien.model.terrain.Terrain;
+import jumpingalien.model.terrain.TerrainMemoryReport;
+import jumpingalien.model.terrain.TerrainStore;
 import jumpingalien.model.exceptions.IllegalPositionXException;
 import jumpingalien.model.exceptions.IllegalPositionYException;
+import jumpingalien.model.interfaces.IBroadPhase;
+import jumpingalien.model.interfaces.IBroadPhaseVisitor;
+import jumpingalien.model.interfaces.IKind;
+import jumpingalien.model.interfaces.ITerrainListener;
+import jumpingalien.model.interfaces.ITileVisitor;
+import jumpingalien.model.helper.DetailLevel;
+import jumpingalien.model.helper.Orientation;
+import jumpingalien.model.helper.SpatialHash;
 import jumpingalien.model.helper.Vector;
 import jumpingalien.util.Util;
 
@@ -23,8 +47,8 @@ import jumpingalien.util.Util;
  * @note	See the class Mazub for further information about our project.
  * @version 2.0
  * 
- * @invar 	| getNbGameObjects() <= 101
- * @invar	| getNbSchools() <= 10
+ * @invar 	| isLargeWorld() || getNbGameObjects() <= 101
+ * @invar	| isLargeWorld() || getNbSchools() <= 10
  * @invar	| canHaveAsDisplayPositionX(getDisplayPositionX())
  * @invar	| canHaveAsDisplayPositionY(getDisplayPositionY())	
  * @invar	| canHaveAsTargetTileX(getTargetTileX())
@@ -80,6 +104,10 @@ public class World {
 		assert nbTilesY > 0;
 		this.nbTilesX = nbTilesX;
 		this.nbTilesY = nbTilesY;
+		this.geologicalFeatures = new TerrainStore(nbTilesX, nbTilesY);
+		this.tileCache = new AtomicReferenceArray<AtomicReferenceArray<Tile>>(this.geologicalFeatures.getNbChunks());
+		this.tileStamps = new long[this.geologicalFeatures.getNbChunks()][];
+		this.broadPhase = new SpatialHash<GameObject>(tileSize);
 		
 		assert canHaveAsDisplayWidth(visibleWindowWidth);
 		assert canHaveAsDisplayHeight(visibleWindowHeight);
@@ -610,17 +638,54 @@ public class World {
 	 */	
 	@Raw
 	public int[][] getTilePositionsIn(int pixelLeft, int pixelBottom, int pixelRight, int pixelTop) {
-
-		ArrayList<int[]> positions = new ArrayList<int[]>(); 
+		
+		int nbCols = Math.max(0, getTileX(pixelRight) - getTileX(pixelLeft) + 1);
+		int nbRows = Math.max(0, getTileY(pixelTop) - getTileY(pixelBottom) + 1);
+		int[][] positions = new int[nbCols * nbRows][];
+		
+		this.forEachTileIn(pixelLeft, pixelBottom, pixelRight, pixelTop, (tileX, tileY, terrain) -> {
+			positions[(tileY - getTileY(pixelBottom)) * nbCols + (tileX - getTileX(pixelLeft))] = new int[]{ tileX, tileY };
+			return false;
+		});
+		
+		return positions;
+	}
+	
+	/**
+	 * Visit all tiles within the given rectangular region, in the same order as getTilePositionsIn, until
+	 * the given visitor asks to stop.
+	 *
+	 * @param 	pixelLeft
+	 *            	The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *            	The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *            	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *            	The y-coordinate of the top side of the rectangular region.
+	 * @param 	visitor
+	 * 				The visitor to invoke for every tile, together with the Terrain type of that tile.
+	 * @return	True if and only if the visitor stopped the traversal.
+	 * 			| result == ( for some tile in getTilePositionsIn(pixelLeft, pixelBottom, pixelRight, pixelTop):
+	 * 			|				visitor.visitTile(tile[0], tile[1], getGeologicalFeatureOfTile(tile[0], tile[1])) )
+	 * @note	No objects are allocated by the traversal itself.
+	 */
+	@Raw
+	public boolean forEachTileIn(int pixelLeft, int pixelBottom, int pixelRight, int pixelTop, ITileVisitor visitor){
+		
+		int minCol = getTileX(pixelLeft);
+		int maxCol = getTileX(pixelRight);
+		int maxRow = getTileY(pixelTop);
 		
 		/* Loop trough all positions inside the rectangle */
-		for(int row = getTileY(pixelBottom); row <= getTileY(pixelTop); row++){
-			for(int col = getTileX(pixelLeft); col <= getTileX(pixelRight); col++){ // <= of < ?
-				positions.add(new int[]{ col, row} );
+		for(int row = getTileY(pixelBottom); row <= maxRow; row++){
+			for(int col = minCol; col <= maxCol; col++){
+				if(visitor.visitTile(col, row, this.getGeologicalFeatureOfTile(col, row)))
+					return true;
 			}
 		}
-
-		return  positions.toArray(new int[positions.size()][2]);
+		
+		return false;
 	}
 	
 	/**
@@ -630,202 +695,2052 @@ public class World {
 	 * 				The horizontal pixel position of a tile.
 	 * @param 	positionY
 	 * 				The vertical pixel position of a tile.
-	 * @return	| result == ( new Tile(this.getTileLength(), this.getPositionXTileX(positionX),
-	 * 			|					   this.getPositionYTileY(positionY),
-	 *			|					   this.getGeologicalFeature( this.getPositionXTileX(positionX),
-	 *			|												  this.getPositionYTileY(positionY) ) )
+	 * @return	A Tile with the given bottom left pixel position and the current geological feature at that position.
+	 * 			| result.getRoundedPositionX() == this.getPositionXTileX(positionX) &&
+	 * 			| result.getRoundedPositionY() == this.getPositionYTileY(positionY) &&
+	 *			| result.getTerrainType() == this.getGeologicalFeature( this.getPositionXTileX(positionX),
+	 *			|												  		this.getPositionYTileY(positionY) )
+	 * @note	Tiles inside the World are cached: as long as the geological feature of a tile does not change, 
+	 * 			the same Tile instance is returned for it.
+	 */
+	public Tile getTile(int positionX, int positionY){
+		int tileX = this.getTileX(positionX);
+		int tileY = this.getTileY(positionY);
+		
+		if(!this.isValidTilePosition(tileX, tileY))
+			return new Tile(this.getTileLength(), this.getPositionXOfTile(tileX), this.getPositionYOfTile(tileY), Terrain.AIR);
+		return this.getTileOf(tileX, tileY);
+	}
+	
+	/**
+	 * Return the cached Tile instance of the tile with the given tile position, creating it if needed.
+	 * 
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @pre		| isValidTilePosition(tileX, tileY)
+	 * @return	| result.getTerrainType() == getGeologicalFeatureOfTile(tileX, tileY)
+	 * @note	Programs that are executed in parallel may ask for the same tile at once. A chunk or a Tile is only
+	 * 			stored if no other thread has stored one first, and otherwise the stored one is used, so every thread 
+	 * 			gets the same Tile instance without waiting for a lock.
+	 */
+	@Model
+	private Tile getTileOf(int tileX, int tileY){
+		int chunkIndex = (tileY >> TerrainStore.CHUNK_SHIFT) * this.geologicalFeatures.getNbChunksX() 
+							+ (tileX >> TerrainStore.CHUNK_SHIFT);
+		int indexInChunk = ((tileY & (TerrainStore.CHUNK_SIZE - 1)) << TerrainStore.CHUNK_SHIFT) 
+							| (tileX & (TerrainStore.CHUNK_SIZE - 1));
+		
+		AtomicReferenceArray<Tile> chunk = this.tileCache.get(chunkIndex);
+		if(chunk == null){
+			chunk = new AtomicReferenceArray<Tile>(TerrainStore.CHUNK_SIZE * TerrainStore.CHUNK_SIZE);
+			if(!this.tileCache.compareAndSet(chunkIndex, null, chunk))
+				chunk = this.tileCache.get(chunkIndex);
+		}
+		
+		Tile tile = chunk.get(indexInChunk);
+		if(tile == null){
+			tile = new Tile(this.getTileLength(), this.getPositionXOfTile(tileX), this.getPositionYOfTile(tileY),
+							this.getGeologicalFeatureOfTile(tileX, tileY));
+			if(!chunk.compareAndSet(indexInChunk, null, tile))
+				tile = chunk.get(indexInChunk);
+		}
+		return tile;
+	}
+	
+	/**
+	 * Forget the cached Tile instance of the given tile, after its geological feature has changed.
+	 * 
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @pre		| isValidTilePosition(tileX, tileY)
+	 */
+	@Model
+	private void invalidateTile(int tileX, int tileY){
+		AtomicReferenceArray<Tile> chunk = this.tileCache.get((tileY >> TerrainStore.CHUNK_SHIFT) * this.geologicalFeatures.getNbChunksX() 
+															  + (tileX >> TerrainStore.CHUNK_SHIFT));
+		if(chunk != null)
+			chunk.set(((tileY & (TerrainStore.CHUNK_SIZE - 1)) << TerrainStore.CHUNK_SHIFT) 
+					  | (tileX & (TerrainStore.CHUNK_SIZE - 1)), null);
+	}
+	
+	/**
+	 * Array registering the cached Tile instances of this World, per terrain chunk. Chunks of which no Tile
+	 * has been requested yet are not allocated.
+	 */
+	private final AtomicReferenceArray<AtomicReferenceArray<Tile>> tileCache;
+	
+	/**************************************************** ADVANCE TIME *************************************************/
+	
+	/**
+	 * Advance time to iteratively invoke advanceTime of all Game objects in the World, starting with Mazub.
+	 * 
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	If this World has no fixed time step, every Game object advances the given time on its own, in steps 
+	 * 			of its own.
+	 * 			| if ( !hasFixedTimeStep() )
+	 * 			|	then advanceTimeOnce(dt)
+	 * @effect	If this World has a fixed time step, the given time is added to the accumulated time of this World, 
+	 * 			and all Game objects advance together in as many fixed time steps as the accumulated time holds.
+	 * 			| if ( hasFixedTimeStep() )
+	 * 			|	then for each step in 1..floor((getAccumulatedTime() + dt) / getFixedTimeStep()):
+	 * 			|		advanceLockstep(getFixedTimeStep())
+	 * @effect	| updateDetailLevels()
+	 * @effect	| if ( hasEndedGame() )
+	 * 			|	then shutdownPool()
+	 * @post	| if ( hasFixedTimeStep() )
+	 * 			|	then new.getAccumulatedTime() == (getAccumulatedTime() + dt) % getFixedTimeStep()
+	 * @note	Game objects that are added, removed or terminated and Slimes that switch School while time is 
+	 * 			advancing, only do so at the end of a time step of this World, in the order in which they were 
+	 * 			requested. The Game objects of the World can therefore be iterated directly while time advances.
+	 * @throws 	IllegalArgumentException
+	 * 				| !Util.fuzzyGreaterThanOrEqualTo(dt, 0) || !Util.fuzzyLessThanOrEqualTo(dt, 0.2)
+	 */
+	public void advanceTime( double dt) throws IllegalArgumentException{
+		
+		if( !Util.fuzzyGreaterThanOrEqualTo(dt, 0) || !Util.fuzzyLessThanOrEqualTo(dt, 0.2))
+			throw new IllegalArgumentException("Illegal time step amount given: "+ dt + " s");	
+		
+		this.updateDetailLevels();
+		
+		if(!this.hasFixedTimeStep()){
+			this.advanceTimeOnce(dt);
+		}else{
+			double step = this.getFixedTimeStep();
+			this.accumulatedTime += dt;
+			while(this.accumulatedTime >= step - ACCUMULATOR_EPSILON){
+				this.advanceLockstep(step);
+				this.accumulatedTime = Math.max(0, this.accumulatedTime - step);
+			}
+		}
+		
+		this.updateDisplayPosition();
+		
+		// The game has ended, so the threads of this World are no longer needed
+		if(this.hasEndedGame())
+			this.shutdownPool();
+	}
+	
+	/**
+	 * Let every Game object of this World advance the given time on its own, starting with Mazub.
+	 * 
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	| for each enemy in getAllEnemies():
+	 * 			|	enemy.advanceTimeInDetail(dt)
+	 * @effect	| applyStructuralChanges()
+	 * @effect	If this World processes overlaps between Game objects in one batch, every pair of overlapping Game 
+	 * 			objects is processed once, after all Game objects have advanced.
+	 * @post	| new.getSimulatedTime() == getSimulatedTime() + dt
+	 * @note	Frozen enemies are not visited, as advancing time does not change them.
+	 */
+	@Model
+	private void advanceTimeOnce(double dt){
+		this.deferringStructuralChanges = true;
+		try{
+			this.getMazub().advanceTime(dt);	
+	
+			for(int i = 0; i < this.nbSimulatedEnemies; i++){
+				this.simulatedEnemies[i].advanceTimeInDetail(dt);
+			}
+			this.simulatedTime += dt;
+			
+			if(this.hasBatchedOverlapProcessing())
+				this.overlapPipeline.process(this.getImpassableGameObjects(ALL_KINDS_MASK), this.getPool());
+		}finally{
+			this.deferringStructuralChanges = false;
+			this.applyStructuralChanges();
+		}
+	}
+	
+	/**
+	 * Let all Game objects of this World advance the given time together, in one step of one phase at a time.
+	 * 
+	 * First, every Game object starts its step from the state of this World at the start of the step: it updates 
+	 * its timers and computes the contacts with terrain it asks for first. Then, the Game objects that are not 
+	 * frozen execute their Programs, keeping the actions and prints of their Programs in buffers of their own, and 
+	 * the buffered actions are applied in a fixed order, starting with Mazub. Then, every such Game object plans its 
+	 * motion, in the same substeps as in advanceTime, against the bounding boxes the other Game objects had at the 
+	 * start of the motion, keeping whatever it would change in this World in its lockstep buffer. Once all of them 
+	 * have planned, they report their new bounding boxes to this World and their plans are resolved, in the same 
+	 * fixed order. Then, the overlapping pairs of Game objects are found in one sweep over all Game objects. 
+	 * Finally, both Game objects of every such pair process their overlap with each other. All Game objects are 
+	 * thus at the same in-game time whenever their overlaps are processed.
+	 * 
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	| startLockstep(getImpassableGameObjects(ALL_KINDS_MASK), dt)
+	 * @effect	| for each gameObject in the Mazub and the simulated enemies of this World:
+	 * 			|	if ( !gameObject.isTerminated() )
+	 * 			|		then gameObject.planProgram() && gameObject.applyProgram()
+	 * @effect	| getPhysicsStore().sweep(dt, -GameObject.ACCELERATION_Y)
+	 * @effect	| for each gameObject in the Mazub and the simulated enemies of this World:
+	 * 			|	if ( !gameObject.isTerminated() )
+	 * 			|		then gameObject.planLockstep(dt) && gameObject.publishLockstep() && gameObject.resolveLockstep()
+	 * @effect	| applyStructuralChanges()
+	 * @post	| new.getSimulatedTime() == getSimulatedTime() + dt
+	 * @note	Starting the step, executing Programs and planning motion run in parallel if this World has more than 
+	 * 			one thread, and so does detecting the overlapping pairs of a large number of Game objects. While they do, Game objects only read this World and write 
+	 * 			their own state and buffers, and every Game object draws from a source of random numbers of its own. 
+	 * 			Applying actions, reporting bounding boxes, resolving plans and processing overlaps write state shared 
+	 * 			by all Game objects, such as the broadphase of this World and its additions and removals, so they 
+	 * 			happen serially in a fixed order. The outcome of a step therefore does not depend on the number of 
+	 * 			threads of this World.
+	 * @note	The actions of a Program only take effect once all Programs have been executed for the step, so the 
+	 * 			statements a Program executes later in the same step do not see them yet. Two Game objects that move 
+	 * 			into each other in the same step, only notice each other in the next step.
+	 * @note	Frozen Game objects only remember the time of the step. Game objects at a mid-range distance of the
+	 * 			visible window advance in every step, so all Game objects stay at the same in-game time, but they 
+	 * 			move in coarser substeps and execute their Programs at a lower rate.
+	 */
+	@Model
+	private void advanceLockstep(double dt){
+		this.deferringStructuralChanges = true;
+		try{
+			// Additions and removals are deferred, so the Game objects stay the same during the whole step
+			GameObject[] gameObjects = this.getImpassableGameObjects(ALL_KINDS_MASK);
+			
+			/* Start of the step */
+			this.startLockstep(gameObjects, dt);
+			
+			/* Programs */
+			int nbPlanned = this.collectLockstepObjects();
+			GameObject[] planned = this.lockstepObjects;
+			this.planLockstep(planned, nbPlanned, GameObject::planProgram);
+			for(int i = 0; i < nbPlanned; i++)
+				planned[i].applyProgram();
+			
+			/* Integration */
+			// Every Game object advances the same time, so the reach of all of them is swept in one pass
+			this.physicsStore.sweep(dt, -GameObject.ACCELERATION_Y);
+			this.planLockstep(planned, nbPlanned, gameObject -> gameObject.planLockstep(dt));
+			for(int i = 0; i < nbPlanned; i++)
+				planned[i].publishLockstep();
+			for(int i = 0; i < nbPlanned; i++)
+				planned[i].resolveLockstep();
+			this.simulatedTime += dt;
+			
+			/* Broadphase and resolution */
+			this.overlapPipeline.detect(gameObjects, this.getPool());
+			this.overlapPipeline.sort();
+			this.overlapPipeline.dispatch(gameObjects);
+		}finally{
+			this.deferringStructuralChanges = false;
+			this.applyStructuralChanges();
+		}
+	}
+	
+	/**
+	 * Let all given Game objects start a time step of the given time, in parallel if this World has more than one 
+	 * thread.
+	 * 
+	 * @param 	gameObjects
+	 * 				The Game objects of this World.
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 * @effect	| for each impassableTerrainMask in getImpassableTerrainMasks():
+	 * 			|	getImpassableTileSet(impassableTerrainMask).prepareCounting()
+	 * @effect	| for each terrain in Terrain.values():
+	 * 			|	getImpassableTileSet(ImpassableTileSet.getMaskOfAllBut(terrain))
+	 * @effect	| if ( getNbThreads() > 1 && ( for some gameObject in gameObjects: gameObject.hasProgram() ) )
+	 * 			|	then getAllTiles()
+	 * @effect	| for each gameObject in gameObjects:
+	 * 			|	if ( !gameObject.isTerminated() && gameObject.getDetailLevel() == DetailLevel.FAR )
+	 * 			|		then gameObject.advanceTimeInDetail(dt)
+	 * 			|	else if ( !gameObject.isTerminated() )
+	 * 			|		then gameObject.prefetchContacts() && gameObject.startTimeStep(dt)
+	 */
+	@Model
+	private void startLockstep(GameObject[] gameObjects, double dt){
+		// The impassable tile sets rebuild the summed area tables of changed chunks on first use, so that happens before they are shared
+		for(int impassableTerrainMask : this.getImpassableTerrainMasks())
+			this.getImpassableTileSet(impassableTerrainMask).prepareCounting();
+		// The sets of tiles the time of impact is swept against are built on first use as well
+		for(Terrain terrain : Terrain.values())
+			this.getImpassableTileSet(ImpassableTileSet.getMaskOfAllBut(terrain));
+		
+		ForkJoinPool pool = this.getPool();
+		// Likewise, Programs that iterate over the terrain share the set of all tiles, which is collected on first use
+		if(pool != null && hasProgram(gameObjects))
+			this.getAllTiles();
+		
+		if(pool == null)
+			for(GameObject gameObject : gameObjects)
+				startTimeStep(gameObject, dt);
+		else
+			pool.invoke(ForkJoinTask.adapt(() -> 
+				Arrays.stream(gameObjects).parallel().forEach(gameObject -> startTimeStep(gameObject, dt))));
+	}
+	
+	/**
+	 * Check whether any of the given Game objects has a Program.
+	 * 
+	 * @param 	gameObjects
+	 * 				The Game objects to check.
+	 * @return	| result == ( for some gameObject in gameObjects: gameObject.hasProgram() )
+	 */
+	private static boolean hasProgram(GameObject[] gameObjects){
+		for(GameObject gameObject : gameObjects)
+			if(gameObject.hasProgram())
+				return true;
+		return false;
+	}
+	
+	/**
+	 * Let the given planner plan the fixed time step of this World for the given Game objects, in parallel if this
+	 * World has more than one thread.
+	 * 
+	 * @param 	gameObjects
+	 * 				The Game objects to plan for, at the first nbGameObjects indices.
+	 * @param 	nbGameObjects
+	 * 				The number of Game objects to plan for.
+	 * @param 	planner
+	 * 				The planner, which may only read this World and write the state and the buffers of the Game 
+	 * 				object it is given.
+	 * @effect	| for each i in 0..nbGameObjects-1:
+	 * 			|	planner.accept(gameObjects[i])
+	 * @post	| !new.isPlanningLockstep()
+	 */
+	@Model
+	private void planLockstep(GameObject[] gameObjects, int nbGameObjects, Consumer<GameObject> planner){
+		this.planningLockstep = true;
+		try{
+			ForkJoinPool pool = this.getPool();
+			if(pool == null)
+				for(int i = 0; i < nbGameObjects; i++)
+					planner.accept(gameObjects[i]);
+			else
+				pool.invoke(ForkJoinTask.adapt(() -> 
+					Arrays.stream(gameObjects, 0, nbGameObjects).parallel().forEach(planner)));
+		}finally{
+			this.planningLockstep = false;
+		}
+	}
+	
+	/**
+	 * Check whether this World is planning a fixed time step, during which its Game objects only read the World 
+	 * and keep whatever they would change in it in buffers of their own.
+	 */
+	@Basic
+	public boolean isPlanningLockstep(){
+		return this.planningLockstep;
+	}
+	
+	/**
+	 * Variable registering whether this World is planning a fixed time step.
+	 */
+	private boolean planningLockstep = false;
+	
+	/**
+	 * Collect the Mazub of this World and its simulated enemies that are not terminated, in the order in which 
+	 * their plans are applied.
+	 * 
+	 * @return	The number of collected Game objects, which are stored at the first indices of lockstepObjects.
+	 */
+	@Model
+	private int collectLockstepObjects(){
+		if(this.lockstepObjects.length < this.nbSimulatedEnemies + 1)
+			this.lockstepObjects = new GameObject[this.simulatedEnemies.length + 1];
+		
+		int nbCollected = 0;
+		if(this.getMazub() != null && !this.getMazub().isTerminated())
+			this.lockstepObjects[nbCollected++] = this.getMazub();
+		for(int i = 0; i < this.nbSimulatedEnemies; i++)
+			if(!this.simulatedEnemies[i].isTerminated())
+				this.lockstepObjects[nbCollected++] = this.simulatedEnemies[i];
+		Arrays.fill(this.lockstepObjects, nbCollected, this.lockstepObjects.length, null);
+		return nbCollected;
+	}
+	
+	/**
+	 * Array registering the Game objects of the fixed time step of this World that is being advanced, at the 
+	 * indices before the first null, reused from one step to the next.
+	 */
+	private GameObject[] lockstepObjects = new GameObject[16];
+	
+	/**
+	 * Return the profiles of impassable Terrain types of the Game objects of this World, each of them once.
+	 * 
+	 * @return	| for each gameObject in getImpassableGameObjects(ALL_KINDS_MASK):
+	 * 			|	Arrays.asList(result).contains(gameObject.getImpassableTerrainMask())
+	 * @note	The array is cached until a Game object is added to or removed from this World, so the impassable 
+	 * 			tile sets can be prepared once per profile in every step, instead of once per Game object. The 
+	 * 			returned array is shared and may not be modified.
+	 */
+	@Model
+	private int[] getImpassableTerrainMasks(){
+		if(this.impassableTerrainMasks == null){
+			boolean[] used = new boolean[this.impassableTileSets.length];
+			int nbMasks = 0;
+			for(GameObject gameObject : this.getImpassableGameObjects(ALL_KINDS_MASK)){
+				if(!used[gameObject.getImpassableTerrainMask()]){
+					used[gameObject.getImpassableTerrainMask()] = true;
+					nbMasks++;
+				}
+			}
+			
+			int[] masks = new int[nbMasks];
+			for(int mask = 0, index = 0; mask < used.length; mask++)
+				if(used[mask])
+					masks[index++] = mask;
+			this.impassableTerrainMasks = masks;
+		}
+		return this.impassableTerrainMasks;
+	}
+	
+	/**
+	 * Array registering the cached profiles of impassable Terrain types of the Game objects of this World, or null 
+	 * if it needs to be rebuilt.
+	 */
+	private int[] impassableTerrainMasks = null;
+	
+	/**
+	 * Let the given Game object start a time step of the given time, unless it is terminated or frozen.
+	 * 
+	 * @param 	gameObject
+	 * 				The Game object.
+	 * @param 	dt
+	 * 				A double that represents the elapsed in-game time.
+	 */
+	private static void startTimeStep(GameObject gameObject, double dt){
+		if(gameObject.isTerminated())
+			return;
+		if(gameObject.getDetailLevel() == DetailLevel.FAR){
+			gameObject.advanceTimeInDetail(dt);
+			return;
+		}
+		gameObject.prefetchContacts();
+		gameObject.startTimeStep(dt);
+	}
+	
+	/* Fixed time step */
+	
+	/**
+	 * Return the fixed time step in which all Game objects of this World advance together, or zero if every Game 
+	 * object advances in steps of its own.
+	 */
+	@Basic
+	public double getFixedTimeStep(){
+		return this.fixedTimeStep;
+	}
+	
+	/**
+	 * Check whether all Game objects of this World advance together, in a fixed time step.
+	 * 
+	 * @return	| result == ( getFixedTimeStep() > 0 )
+	 */
+	public boolean hasFixedTimeStep(){
+		return this.getFixedTimeStep() > 0;
+	}
+	
+	/**
+	 * Set the fixed time step in which all Game objects of this World advance together.
+	 * 
+	 * @param 	fixedTimeStep
+	 * 				The fixed time step, or zero to let every Game object advance in steps of its own.
+	 * @post	| new.getFixedTimeStep() == fixedTimeStep
+	 * @post	| new.getAccumulatedTime() == 0
+	 * @throws	IllegalArgumentException
+	 * 				| fixedTimeStep < 0 || fixedTimeStep > 0.2
+	 * @note	Within a fixed time step, every Game object still moves in substeps of about one pixel, so a long 
+	 * 			fixed time step does not let it pass through terrain.
+	 */
+	public void setFixedTimeStep(double fixedTimeStep) throws IllegalArgumentException{
+		if(fixedTimeStep < 0 || fixedTimeStep > 0.2)
+			throw new IllegalArgumentException("Illegal fixed time step given: " + fixedTimeStep + " s");
+		this.fixedTimeStep = fixedTimeStep;
+		this.accumulatedTime = 0;
+	}
+	
+	/**
+	 * Variable registering the fixed time step of this World, or zero if it has none.
+	 */
+	private double fixedTimeStep = 0;
+	
+	/**
+	 * Constant reflecting the fixed time step that matches the time a Program takes to execute one statement.
+	 */
+	public static final double DEFAULT_FIXED_TIME_STEP = 0.001;
+	
+	/**
+	 * Return the in-game time that has been passed to this World, but that is too short to advance its Game 
+	 * objects in a fixed time step yet.
+	 * 
+	 * @note	The Game objects of this World are drawn getAccumulatedTime() behind the time that has been passed 
+	 * 			to this World. An interface can interpolate between their previous and their current positions by
+	 * 			the fraction getInterpolationFactor().
+	 */
+	@Basic
+	public double getAccumulatedTime(){
+		return this.accumulatedTime;
+	}
+	
+	/**
+	 * Return the fraction of a fixed time step that has been accumulated by this World.
+	 * 
+	 * @return	| if ( !hasFixedTimeStep() )
+	 * 			|	then result == 0
+	 * 			| else
+	 * 			|	result == getAccumulatedTime() / getFixedTimeStep()
+	 */
+	public double getInterpolationFactor(){
+		if(!this.hasFixedTimeStep())
+			return 0;
+		return this.getAccumulatedTime() / this.getFixedTimeStep();
+	}
+	
+	/**
+	 * Variable registering the accumulated in-game time of this World.
+	 */
+	private double accumulatedTime = 0;
+	
+	/**
+	 * Constant reflecting the tolerance on the accumulated time, so rounding errors do not postpone a fixed time 
+	 * step to the next call.
+	 */
+	private static final double ACCUMULATOR_EPSILON = 1e-9;
+	
+	/* Randomness */
+	
+	/**
+	 * Return the source of random numbers from which the Game objects of this World draw the seeds of their own 
+	 * sources of random numbers when they join this World.
+	 */
+	@Basic @Immutable
+	public Random getRandom(){
+		return this.random;
+	}
+	
+	/**
+	 * Reset the source of random numbers of this World to the given seed. Worlds that are given the same seed, and 
+	 * that are filled and advanced in the same way afterwards, behave in the same way.
+	 * 
+	 * @param 	seed
+	 * 				The seed.
+	 * @note	Game objects draw the seed of their own source of random numbers when they are added to this World, 
+	 * 			so the seed should be set before any Game objects are added.
+	 */
+	public void setRandomSeed(long seed){
+		this.random.setSeed(seed);
+	}
+	
+	/**
+	 * Variable registering the source of random numbers of this World.
+	 */
+	private final Random random = new Random();
+	
+	/* Parallel update */
+	
+	/**
+	 * Return the number of threads this World uses to advance its Game objects in a fixed time step.
+	 */
+	@Basic
+	public int getNbThreads(){
+		return this.nbThreads;
+	}
+	
+	/**
+	 * Set the number of threads this World uses to advance its Game objects in a fixed time step.
+	 * 
+	 * @param 	nbThreads
+	 * 				The number of threads, one to advance the Game objects serially.
+	 * @post	| new.getNbThreads() == nbThreads
+	 * @throws	IllegalArgumentException
+	 * 				| nbThreads < 1
+	 * @note	Only Worlds with a fixed time step use more than one thread to start the time steps of their Game 
+	 * 			objects, to execute their Programs and to plan their motion. Every World uses them to detect the 
+	 * 			overlaps of a large number of Game objects in one batch. Applying the plans stays serial, so the Game 
+	 * 			objects advance to the same state as with one thread.
+	 */
+	public void setNbThreads(int nbThreads) throws IllegalArgumentException{
+		if(nbThreads < 1)
+			throw new IllegalArgumentException("Illegal number of threads given: " + nbThreads);
+		this.shutdownPool();
+		this.nbThreads = nbThreads;
+	}
+	
+	/**
+	 * Variable registering the number of threads of this World.
+	 */
+	private int nbThreads = 1;
+	
+	/**
+	 * Return the pool of threads this World uses to advance its Game objects in a fixed time step, or null if it 
+	 * uses only one thread.
+	 * 
+	 * @return	A World of which the game has ended, advances serially.
+	 * 			| if ( getNbThreads() == 1 || hasEndedGame() )
+	 * 			|	then result == null
+	 * 			| else
+	 * 			|	result.getParallelism() == getNbThreads()
+	 * @note	The pool is only created once it is needed.
+	 */
+	@Model
+	private ForkJoinPool getPool(){
+		if(this.getNbThreads() == 1 || this.hasEndedGame())
+			return null;
+		if(this.pool == null)
+			this.pool = new ForkJoinPool(this.getNbThreads());
+		return this.pool;
+	}
+	
+	/**
+	 * Check whether this World has a Mazub of which the game is over.
+	 * 
+	 * @return	| result == ( getMazub() != null && isGameOver() )
+	 */
+	private boolean hasEndedGame(){
+		return this.getMazub() != null && this.isGameOver();
+	}
+	
+	/**
+	 * Shut down the pool of threads of this World, if it has one.
+	 * 
+	 * @post	The threads of the pool stop once they have finished their current tasks.
+	 */
+	@Model
+	private void shutdownPool(){
+		if(this.pool != null){
+			this.pool.shutdown();
+			this.pool = null;
+		}
+	}
+	
+	/**
+	 * Variable registering the pool of threads of this World, or null if it has none.
+	 */
+	private ForkJoinPool pool = null;
+	
+	/* Level of detail */
+	
+	/**
+	 * Return the distance to the visible window of this World up to which enemies are simulated in full detail.
+	 */
+	@Basic
+	public double getNearDistance(){
+		return this.nearDistance;
+	}
+	
+	/**
+	 * Return the distance to the visible window of this World up to which enemies are simulated in coarse steps. 
+	 * Enemies further away are frozen.
+	 */
+	@Basic
+	public double getFarDistance(){
+		return this.farDistance;
+	}
+	
+	/**
+	 * Check whether this World simulates enemies away from its visible window in less detail.
+	 * 
+	 * @return	| result == ( getNearDistance() < Double.POSITIVE_INFINITY )
+	 */
+	public boolean hasLevelOfDetail(){
+		return this.getNearDistance() < Double.POSITIVE_INFINITY;
+	}
+	
+	/**
+	 * Set the distances to the visible window of this World that separate the levels of detail at which its 
+	 * enemies are simulated.
+	 * 
+	 * @param 	nearDistance
+	 * 				The distance in pixels up to which enemies are simulated in full detail, or infinity to simulate 
+	 * 				all enemies in full detail.
+	 * @param 	farDistance
+	 * 				The distance in pixels up to which enemies are simulated in coarse steps, or infinity to never 
+	 * 				freeze enemies.
+	 * @post	| new.getNearDistance() == nearDistance
+	 * @post	| new.getFarDistance() == farDistance
+	 * @throws	IllegalArgumentException
+	 * 				| !( nearDistance >= 0 ) || !( farDistance >= nearDistance )
+	 */
+	public void setLevelOfDetail(double nearDistance, double farDistance) throws IllegalArgumentException{
+		if(!(nearDistance >= 0) || !(farDistance >= nearDistance))
+			throw new IllegalArgumentException("Illegal level of detail distances given: " + nearDistance + ", " + farDistance);
+		this.nearDistance = nearDistance;
+		this.farDistance = farDistance;
+		this.detailLevelsInvalid = true;
+	}
+	
+	/**
+	 * Variables registering the distances that separate the levels of detail of this World.
+	 */
+	private double nearDistance = Double.POSITIVE_INFINITY, farDistance = Double.POSITIVE_INFINITY;
+	
+	/**
+	 * Return the distance between the bounding box of the given Game object and the visible window of this World.
+	 * 
+	 * @param 	gameObject
+	 * 				The Game object.
+	 * @return	The largest of the horizontal and the vertical gap between both, or zero if they overlap.
+	 * 			| result == Math.max( Math.max(0, Math.max( getDisplayPositionX() - ( gameObject.getRoundedPositionX() + gameObject.getWidth() ), 
+	 * 			|								gameObject.getRoundedPositionX() - ( getDisplayPositionX() + getDisplayWidth() ) ) ),
+	 * 			|					  Math.max(0, Math.max( getDisplayPositionY() - ( gameObject.getRoundedPositionY() + gameObject.getHeight() ), 
+	 * 			|								gameObject.getRoundedPositionY() - ( getDisplayPositionY() + getDisplayHeight() ) ) ) )
+	 */
+	public int getDistanceToDisplay(GameObject gameObject){
+		int left = gameObject.getRoundedPositionX(), bottom = gameObject.getRoundedPositionY();
+		int gapX = Math.max(this.getDisplayPositionX() - ( left + gameObject.getWidth() ), 
+							left - ( this.getDisplayPositionX() + this.getDisplayWidth() ));
+		int gapY = Math.max(this.getDisplayPositionY() - ( bottom + gameObject.getHeight() ), 
+							bottom - ( this.getDisplayPositionY() + this.getDisplayHeight() ));
+		return Math.max(0, Math.max(gapX, gapY));
+	}
+	
+	/**
+	 * Return the level of detail at which the given Game object should be simulated.
+	 * 
+	 * @param 	gameObject
+	 * 				The Game object.
+	 * @return	Mazub and killed Game objects are always simulated in full detail, so the player and the removal of 
+	 * 			killed Game objects are never delayed.
+	 * 			| if ( gameObject == getMazub() || gameObject.isKilled() || getDistanceToDisplay(gameObject) <= getNearDistance() )
+	 * 			|	then result == DetailLevel.NEAR
+	 * 			| else if ( getDistanceToDisplay(gameObject) <= getFarDistance() )
+	 * 			|	then result == DetailLevel.MID
+	 * 			| else
+	 * 			|	result == DetailLevel.FAR
+	 */
+	public DetailLevel getDetailLevelFor(GameObject gameObject){
+		if(gameObject == this.getMazub() || gameObject.isKilled() || !this.hasLevelOfDetail())
+			return DetailLevel.NEAR;
+		int distance = this.getDistanceToDisplay(gameObject);
+		if(distance <= this.getNearDistance())
+			return DetailLevel.NEAR;
+		if(distance <= this.getFarDistance())
+			return DetailLevel.MID;
+		return DetailLevel.FAR;
+	}
+	
+	/**
+	 * Update the level of detail of every enemy of this World, from the current position of the visible window, 
+	 * and count the Game objects at every level of detail.
+	 * 
+	 * @effect	| for each enemy in getAllEnemies():
+	 * 			|	enemy.setDetailLevel(getDetailLevelFor(enemy))
+	 * @post	Mazub, if any, is counted in full detail, and every enemy at its new level of detail.
+	 * 			| for each level in DetailLevel.values():
+	 * 			|	new.getNbGameObjectsAt(level) == ( getMazub() != null && level == DetailLevel.NEAR ? 1 : 0 ) +
+	 * 			|		count of enemy in getAllEnemies(): getDetailLevelFor(enemy) == level
+	 * @note	A frozen enemy that is out of range of the visible window stays frozen, so once the levels of detail 
+	 * 			are known, only the enemies that were not frozen, the enemies that were added or killed, and the 
+	 * 			enemies that the broadphase finds in range of the visible window are visited. The cost therefore 
+	 * 			depends on the number of enemies near the visible window, not on the number of enemies in this World.
+	 */
+	@Model
+	private void updateDetailLevels(){
+		int stamp = ++this.detailLevelStamp;
+		this.nbDetailLevelCandidates = 0;
+		
+		if(this.detailLevelsInvalid || this.getFarDistance() == Double.POSITIVE_INFINITY){
+			// No enemy is known to stay frozen
+			for(GameObject enemy : this.getAllEnemies())
+				this.addDetailLevelCandidate(enemy, stamp);
+			this.detailLevelsInvalid = false;
+		}else{
+			for(int i = 0; i < this.nbSimulatedEnemies; i++)
+				this.addDetailLevelCandidate(this.simulatedEnemies[i], stamp);
+			for(int i = 0; i < this.nbWokenEnemies; i++)
+				this.addDetailLevelCandidate(this.wokenEnemies[i], stamp);
+			
+			double range = this.getFarDistance() + 1;
+			int nbFound = this.queryGameObjects(
+					(int) Math.max(0, this.getDisplayPositionX() - range), 
+					(int) Math.max(0, this.getDisplayPositionY() - range),
+					(int) Math.min(this.getWorldWidth() - 1, this.getDisplayPositionX() + this.getDisplayWidth() + range), 
+					(int) Math.min(this.getWorldHeight() - 1, this.getDisplayPositionY() + this.getDisplayHeight() + range),
+					ALL_KINDS_MASK & ~MAZUB_BIT, null);
+			GameObject[] found = this.getQueryResult();
+			for(int i = 0; i < nbFound; i++)
+				this.addDetailLevelCandidate(found[i], stamp);
+			
+			// Keep the order of getAllEnemies, as the enemies advance in that order
+			Arrays.sort(this.detailLevelCandidates, 0, this.nbDetailLevelCandidates, ENEMY_ORDER);
+		}
+		Arrays.fill(this.wokenEnemies, 0, this.nbWokenEnemies, null);
+		this.nbWokenEnemies = 0;
+		
+		Arrays.fill(this.nbGameObjectsAtDetailLevel, 0);
+		if(this.getMazub() != null)
+			this.nbGameObjectsAtDetailLevel[DetailLevel.NEAR.ordinal()]++;
+		if(this.simulatedEnemies.length < this.nbDetailLevelCandidates)
+			this.simulatedEnemies = new GameObject[this.detailLevelCandidates.length];
+		Arrays.fill(this.simulatedEnemies, 0, this.nbSimulatedEnemies, null);
+		this.nbSimulatedEnemies = 0;
+		for(int i = 0; i < this.nbDetailLevelCandidates; i++){
+			GameObject enemy = this.detailLevelCandidates[i];
+			DetailLevel level = this.getDetailLevelFor(enemy);
+			enemy.setDetailLevel(level);
+			if(level != DetailLevel.FAR){
+				this.nbGameObjectsAtDetailLevel[level.ordinal()]++;
+				this.simulatedEnemies[this.nbSimulatedEnemies++] = enemy;
+			}
+			this.detailLevelCandidates[i] = null;
+		}
+		this.nbGameObjectsAtDetailLevel[DetailLevel.FAR.ordinal()] = this.getAllEnemies().size() - this.nbSimulatedEnemies;
+	}
+	
+	/**
+	 * Add the given enemy to the enemies of which the level of detail is updated, unless it is no longer in this 
+	 * World or it has been added before in the update with the given stamp.
+	 * 
+	 * @param 	enemy
+	 * 				The enemy.
+	 * @param 	stamp
+	 * 				The stamp of the current update of the levels of detail.
+	 */
+	@Model
+	private void addDetailLevelCandidate(GameObject enemy, int stamp){
+		if(enemy.detailLevelStamp == stamp || enemy.getWorld() != this)
+			return;
+		enemy.detailLevelStamp = stamp;
+		if(this.nbDetailLevelCandidates == this.detailLevelCandidates.length)
+			this.detailLevelCandidates = Arrays.copyOf(this.detailLevelCandidates, 2 * this.detailLevelCandidates.length);
+		this.detailLevelCandidates[this.nbDetailLevelCandidates++] = enemy;
+	}
+	
+	/**
+	 * Register that the level of detail of the given enemy may have changed while it was not visited, because it 
+	 * has been added to this World or it has been killed.
+	 * 
+	 * @param 	enemy
+	 * 				The enemy.
+	 * @post	The level of detail of the given enemy is updated in the next update of the levels of detail.
+	 */
+	void detailLevelMayHaveChanged(GameObject enemy){
+		if(this.nbWokenEnemies == this.wokenEnemies.length)
+			this.wokenEnemies = Arrays.copyOf(this.wokenEnemies, 2 * this.wokenEnemies.length);
+		this.wokenEnemies[this.nbWokenEnemies++] = enemy;
+	}
+	
+	/**
+	 * Constant reflecting the order of getAllEnemies: by kind, in the order Buzams, Plants, Slimes, Sharks, and 
+	 * in the order of their registry within every kind.
+	 */
+	private static final Comparator<GameObject> ENEMY_ORDER = (first, second) -> 
+			first.getKindBit() != second.getKindBit() ? Integer.compare(first.getKindBit(), second.getKindBit()) 
+													  : Integer.compare(first.registryIndex, second.registryIndex);
+	
+	/**
+	 * Array registering the enemies of this World that are not frozen, in the order of getAllEnemies, at the first
+	 * nbSimulatedEnemies indices.
+	 */
+	private GameObject[] simulatedEnemies = new GameObject[16];
+	
+	/**
+	 * Variable registering the number of enemies of this World that are not frozen.
+	 */
+	private int nbSimulatedEnemies = 0;
+	
+	/**
+	 * Array registering the enemies of which the level of detail is being updated, at the first 
+	 * nbDetailLevelCandidates indices.
+	 */
+	private GameObject[] detailLevelCandidates = new GameObject[16];
+	
+	/**
+	 * Variable registering the number of enemies of which the level of detail is being updated.
+	 */
+	private int nbDetailLevelCandidates = 0;
+	
+	/**
+	 * Array registering the enemies of which the level of detail may have changed while they were not visited, at 
+	 * the first nbWokenEnemies indices.
+	 */
+	private GameObject[] wokenEnemies = new GameObject[16];
+	
+	/**
+	 * Variable registering the number of enemies of which the level of detail may have changed while they were not 
+	 * visited.
+	 */
+	private int nbWokenEnemies = 0;
+	
+	/**
+	 * Variable registering whether the level of detail of every enemy must be updated, because the distances that 
+	 * separate the levels of detail have changed.
+	 */
+	private boolean detailLevelsInvalid = true;
+	
+	/**
+	 * Variable registering the stamp of the last update of the levels of detail.
+	 */
+	private int detailLevelStamp = 0;
+	
+	/**
+	 * Return the in-game time this World has simulated. Frozen enemies derive the time they have been frozen from it.
+	 */
+	@Basic
+	public double getSimulatedTime(){
+		return this.simulatedTime;
+	}
+	
+	/**
+	 * Variable registering the in-game time this World has simulated.
+	 */
+	private double simulatedTime = 0;
+	
+	/**
+	 * Return the number of Game objects of this World that were simulated at the given level of detail in the last 
+	 * call to advanceTime.
+	 * 
+	 * @param 	level
+	 * 				The level of detail.
+	 */
+	@Basic
+	public int getNbGameObjectsAt(DetailLevel level){
+		return this.nbGameObjectsAtDetailLevel[level.ordinal()];
+	}
+	
+	/**
+	 * Array registering the number of Game objects of this World at every level of detail, by the ordinal of the
+	 * level.
+	 */
+	private final int[] nbGameObjectsAtDetailLevel = new int[DetailLevel.values().length];
+	
+	/**
+	 * Check whether the Game objects of this World leave their overlaps with other Game objects to be processed 
+	 * in one batch, after all of them have moved.
+	 * 
+	 * @return	| result == ( hasBatchedOverlapProcessing() || hasFixedTimeStep() )
+	 */
+	boolean defersGameObjectOverlaps(){
+		return this.hasBatchedOverlapProcessing() || this.hasFixedTimeStep();
+	}
+	
+	/* Structural changes */
+	
+	/**
+	 * Check whether structural changes to this World are deferred to the end of the current time step.
+	 */
+	@Basic
+	public boolean isDeferringStructuralChanges(){
+		return this.deferringStructuralChanges;
+	}
+	
+	/**
+	 * Variable registering whether structural changes to this World are deferred to the end of the current 
+	 * time step.
+	 */
+	private boolean deferringStructuralChanges = false;
+	
+	/**
+	 * Defer a structural change of this World to the end of the current time step.
+	 * 
+	 * @param 	change
+	 * 				The kind of the change.
+	 * @param 	gameObject
+	 * 				The Game object that is changed.
+	 * @param 	argument
+	 * 				This World for an addition, the new School for a School switch, and null otherwise.
+	 * @pre		| isDeferringStructuralChanges()
+	 */
+	void deferStructuralChange(StructuralChangeBuffer.Change change, GameObject gameObject, Object argument){
+		assert this.isDeferringStructuralChanges();
+		this.structuralChanges.append(change, gameObject, argument);
+	}
+	
+	/**
+	 * Apply all deferred structural changes of this World, in the order in which they were requested.
+	 * 
+	 * @post	| new.structuralChanges.getNbChanges() == 0
+	 */
+	@Model
+	private void applyStructuralChanges(){
+		// Applying a change never defers another one, as time is no longer advancing
+		for(int i = 0; i < this.structuralChanges.getNbChanges(); i++){
+			GameObject gameObject = this.structuralChanges.getGameObject(i);
+			switch(this.structuralChanges.getChange(i)){
+				case ADD:
+					gameObject.setWorldTo((World) this.structuralChanges.getArgument(i));
+					break;
+				case REMOVE:
+					if(this.getMazub() == gameObject)
+						this.removeMazub();
+					break;
+				case TERMINATE:
+					gameObject.terminate();
+					break;
+				case SWITCH_SCHOOL:
+					// A Slime that was terminated during the time step no longer switches School
+					if(!gameObject.isTerminated())
+						((Slime) gameObject).switchSchool((School) this.structuralChanges.getArgument(i));
+					break;
+			}
+		}
+		this.structuralChanges.clear();
+	}
+	
+	/**
+	 * Buffer registering the structural changes of this World that are deferred to the end of the current 
+	 * time step.
+	 */
+	private final StructuralChangeBuffer structuralChanges = new StructuralChangeBuffer();
+	
+	/************************************************* GEOLOGICAL FEATURES *********************************************/	
+	
+	/**
+	 * Modify the geological type of a specific tile in the this world to a given type.
+	 * 
+	 * @param 	tileX
+	 *            	The x-position x_T of the tile for which the type needs to be modified.
+	 * @param 	tileY
+	 *            	The y-position y_T of the tile for which the type needs to be modified.
+	 * @param 	terrainType
+	 *            	The new Terrain type for the given tile.
+	 * @post	| new.getGeologicalFeature( this.getPositionXofTile(tileX), this.getPositionYofTile(tileY) ) == terrainType
+	 * @effect	| if ( terrainType != getGeologicalFeatureOfTile(tileX, tileY) )
+	 * 			|	then for each listener in the terrain listeners of this World:
+	 * 			|		listener.terrainChanged(tileX, tileY, tileX, tileY)
+	 * @throws 	IllegalStateException
+	 * 				| this.hasStarted() && !canChangeGeologicalFeature(tileX, tileY, terrainType)
+	 * @throws 	IllegalPositionXException
+	 * 				| !canHaveAsPositionX(getPositionXOfTile(tileX))
+	 * @throws 	IllegalPositionYException
+	 * 				| !canHaveAsPositionY(getPositionYOfTile(tileY))
+	 * @note	Geological features may also be changed after the World has started. All structures derived from
+	 * 			them are updated for the changed tile only, so the cost of a change does not depend on the size 
+	 * 			of the World.
+	 */
+	public void setGeologicalFeature(int tileX, int tileY, Terrain terrainType) 
+			throws IllegalStateException, IllegalPositionXException, IllegalPositionYException{
+		
+		if (!canHaveAsPositionX(getPositionXOfTile(tileX)))
+			throw new IllegalPositionXException(getPositionXOfTile(tileX));
+		if (!canHaveAsPositionY(getPositionYOfTile(tileY)))
+			throw new IllegalPositionYException(getPositionYOfTile(tileY));
+		if (this.hasStarted() && !this.canChangeGeologicalFeature(tileX, tileY, terrainType))
+			throw new IllegalStateException("Tile is occupied by a Game object for which the new terrain is impassable!");
+		
+		if(this.changeGeologicalFeature(tileX, tileY, terrainType))
+			this.notifyTerrainListeners(tileX, tileY, tileX, tileY);
+	}
+	
+	/**
+	 * Modify the geological type of all tiles within the given rectangular region of tiles to a given type.
+	 * 
+	 * @param 	minTileX
+	 * 				The leftmost tile column of the region.
+	 * @param 	minTileY
+	 * 				The bottom tile row of the region.
+	 * @param 	maxTileX
+	 * 				The rightmost tile column of the region, inclusive.
+	 * @param 	maxTileY
+	 * 				The top tile row of the region, inclusive.
+	 * @param 	terrainType
+	 * 				The new Terrain type for the tiles of the region.
+	 * @post	| for each tileX in minTileX..maxTileX, tileY in minTileY..maxTileY:
+	 * 			|	new.getGeologicalFeatureOfTile(tileX, tileY) == terrainType
+	 * @effect	Terrain listeners are notified once of the whole region, if any tile of it has changed.
+	 * @throws	IllegalArgumentException
+	 * 				| minTileX > maxTileX || minTileY > maxTileY
+	 * @throws 	IllegalStateException
+	 * 				| this.hasStarted() && ( for some tileX in minTileX..maxTileX, tileY in minTileY..maxTileY:
+	 * 				|	!canChangeGeologicalFeature(tileX, tileY, terrainType) )
+	 * @throws 	IllegalPositionXException
+	 * 				| !canHaveAsPositionX(getPositionXOfTile(minTileX)) || !canHaveAsPositionX(getPositionXOfTile(maxTileX))
+	 * @throws 	IllegalPositionYException
+	 * 				| !canHaveAsPositionY(getPositionYOfTile(minTileY)) || !canHaveAsPositionY(getPositionYOfTile(maxTileY))
+	 * @note	Either all tiles of the region are changed, or none of them is.
+	 */
+	public void setGeologicalFeatures(int minTileX, int minTileY, int maxTileX, int maxTileY, Terrain terrainType)
+			throws IllegalArgumentException, IllegalStateException, IllegalPositionXException, IllegalPositionYException{
+		
+		if (minTileX > maxTileX || minTileY > maxTileY)
+			throw new IllegalArgumentException("Empty region of tiles given");
+		if (!canHaveAsPositionX(getPositionXOfTile(minTileX)))
+			throw new IllegalPositionXException(getPositionXOfTile(minTileX));
+		if (!canHaveAsPositionX(getPositionXOfTile(maxTileX)))
+			throw new IllegalPositionXException(getPositionXOfTile(maxTileX));
+		if (!canHaveAsPositionY(getPositionYOfTile(minTileY)))
+			throw new IllegalPositionYException(getPositionYOfTile(minTileY));
+		if (!canHaveAsPositionY(getPositionYOfTile(maxTileY)))
+			throw new IllegalPositionYException(getPositionYOfTile(maxTileY));
+		if (this.hasStarted())
+			for(int tileY = minTileY; tileY <= maxTileY; tileY++)
+				for(int tileX = minTileX; tileX <= maxTileX; tileX++)
+					if(!this.canChangeGeologicalFeature(tileX, tileY, terrainType))
+						throw new IllegalStateException("Tile is occupied by a Game object for which the new terrain is impassable!");
+		
+		boolean changed = false;
+		for(int tileY = minTileY; tileY <= maxTileY; tileY++)
+			for(int tileX = minTileX; tileX <= maxTileX; tileX++)
+				changed |= this.changeGeologicalFeature(tileX, tileY, terrainType);
+		
+		if(changed)
+			this.notifyTerrainListeners(minTileX, minTileY, maxTileX, maxTileY);
+	}
+	
+	/**
+	 * Check whether the geological feature of the given tile can be changed to the given Terrain type while 
+	 * Game objects are moving around in this World.
+	 * 
+	 * @param 	tileX
+	 * 				The horizontal tile position of the tile.
+	 * @param 	tileY
+	 * 				The vertical tile position of the tile.
+	 * @param 	terrainType
+	 * 				The new Terrain type for the given tile.
+	 * @return	False if and only if some Game object in this World for which the given Terrain type is impassable 
+	 * 			would collide with the tile, since such an object would end up stuck inside the terrain.
+	 * 			| result == ( for each object in getAllGameObjects():
+	 * 			|	!ImpassableTileSet.isImpassableTerrain(object.getImpassableTerrainMask(), terrainType)
+	 * 			|	|| !object.doesCollideWith(getPositionXOfTile(tileX), getPositionYOfTile(tileY), 
+	 * 			|							   getTileLength(), getTileLength(), Orientation.ALL) )
+	 * @note	Only the Game objects the broadphase of this World finds near the tile are checked.
+	 */
+	public boolean canChangeGeologicalFeature(int tileX, int tileY, Terrain terrainType){
+		int pixelX = this.getPositionXOfTile(tileX);
+		int pixelY = this.getPositionYOfTile(tileY);
+		
+		int nbFound = this.queryGameObjects(pixelX, pixelY, pixelX + this.getTileLength() - 1, 
+											pixelY + this.getTileLength() - 1, ALL_KINDS_MASK, null);
+		GameObject[] found = this.getQueryResult();
+		for(int i = 0; i < nbFound; i++){
+			if(!ImpassableTileSet.isImpassableTerrain(found[i].getImpassableTerrainMask(), terrainType))
+				continue;
+			if(found[i].doesCollideWith(pixelX, pixelY, this.getTileLength(), this.getTileLength(), Orientation.ALL))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Change the geological feature of the given tile and bring every structure derived from the geological 
+	 * features up to date for that tile only, without notifying any terrain listeners.
+	 * 
+	 * @param 	tileX
+	 * 				The horizontal tile position of the tile.
+	 * @param 	tileY
+	 * 				The vertical tile position of the tile.
+	 * @param 	terrainType
+	 * 				The new Terrain type for the given tile.
+	 * @pre		| isValidTilePosition(tileX, tileY)
+	 * @post	| new.getGeologicalFeatureOfTile(tileX, tileY) == terrainType
+	 * @return	| result == ( terrainType != getGeologicalFeatureOfTile(tileX, tileY) )
+	 */
+	@Model
+	private boolean changeGeologicalFeature(int tileX, int tileY, Terrain terrainType){
+		int tileIndex = this.getTileIndex(tileX, tileY);
+		boolean wasAssigned = this.assignedTiles.get(tileIndex);
+		this.assignedTiles.set(tileIndex);
+		
+		Terrain oldTerrainType = this.geologicalFeatures.setTerrain(tileX, tileY, terrainType);
+		if(oldTerrainType == terrainType){
+			if(this.allTiles != null && !wasAssigned){
+				this.allTiles.add(this.getTileOf(tileX, tileY));
+				this.allTilesSnapshot = null;
+			}
+			return false;
+		}
+		
+		this.nbTerrainChanges++;
+		if(this.allTiles != null && wasAssigned)
+			this.allTiles.remove(this.getTileOf(tileX, tileY));
+		this.invalidateTile(tileX, tileY);
+		if(this.allTiles != null){
+			this.allTiles.add(this.getTileOf(tileX, tileY));
+			this.allTilesSnapshot = null;
+		}
+		
+		if((oldTerrainType == Terrain.AIR) != (terrainType == Terrain.AIR))
+			this.rayCaster.terrainChanged(tileX, tileY, terrainType == Terrain.AIR);
+		
+		for(ImpassableTileSet impassableTiles : this.impassableTileSets)
+			if(impassableTiles != null)
+				impassableTiles.update(tileX, tileY, terrainType);
+		return true;
+	}
+	
+	/**
+	 * Register the given listener to be notified of every change of the geological features of this World.
+	 * 
+	 * @param 	listener
+	 * 				The listener to register.
+	 * @throws	IllegalArgumentException
+	 * 				| listener == null
+	 */
+	public void addTerrainListener(ITerrainListener listener) throws IllegalArgumentException{
+		if(listener == null)
+			throw new IllegalArgumentException("Terrain listener cannot be null");
+		this.terrainListeners.add(listener);
+	}
+	
+	/**
+	 * Stop notifying the given listener of changes of the geological features of this World.
+	 * 
+	 * @param 	listener
+	 * 				The listener to unregister.
+	 */
+	public void removeTerrainListener(ITerrainListener listener){
+		this.terrainListeners.remove(listener);
+	}
+	
+	/**
+	 * Notify all terrain listeners of this World of a change within the given rectangular region of tiles.
+	 * 
+	 * @param 	minTileX
+	 * 				The leftmost tile column of the dirty region.
+	 * @param 	minTileY
+	 * 				The bottom tile row of the dirty region.
+	 * @param 	maxTileX
+	 * 				The rightmost tile column of the dirty region, inclusive.
+	 * @param 	maxTileY
+	 * 				The top tile row of the dirty region, inclusive.
+	 */
+	@Model
+	private void notifyTerrainListeners(int minTileX, int minTileY, int maxTileX, int maxTileY){
+		for(ITerrainListener listener : this.terrainListeners)
+			listener.terrainChanged(minTileX, minTileY, maxTileX, maxTileY);
+	}
+	
+	/**
+	 * List registering the terrain listeners of this World, in order of registration.
+	 */
+	private final List<ITerrainListener> terrainListeners = new ArrayList<ITerrainListener>();
+	
+	/**
+	 * Return the geological feature of the tile with its bottom left pixel at the given position.
+	 *
+	 * @param 	pixelX
+	 *            	The x-position of the pixel at the bottom left of the tile for
+	 *            	which the geological feature should be returned.
+	 * @param 	pixelY
+	 *           	The y-position of the pixel at the bottom left of the tile for
+	 *            	which the geological feature should be returned.
+	 * @note 	This method must return its result in constant time.
+	 * @return 	The Terrain type of the tile with the given bottom left pixel position.
+	 * @throw 	IllegalArgumentException
+	 * 				| (pixelX % getTileLength() != 0 || pixelY % getTileLength() != 0)
+	 */
+	public Terrain getGeologicalFeature(int pixelX, int pixelY) throws IllegalArgumentException{
+		if(pixelX % getTileLength() != 0 || pixelY % getTileLength() != 0)
+			throw new IllegalArgumentException("Given position does not correspond to the bottom left pixel of a tile");
+		
+		return getGeologicalFeatureOfTile(getTileX(pixelX), getTileY(pixelY));
+	}
+	
+	/**
+	 * Return the geological feature of the tile with the given tile position.
+	 * 
+	 * @param 	tileX
+	 * 				The horizontal tile position of the tile.
+	 * @param 	tileY
+	 * 				The vertical tile position of the tile.
+	 * @return	The Terrain type of the given tile. Tiles outside of the World boundaries consist of air.
+	 * 			| if ( !isValidTilePosition(tileX, tileY) )
+	 * 			|	then result == Terrain.AIR
+	 * @note	This method runs in constant time and does not allocate any objects.
+	 */
+	@Raw
+	public Terrain getGeologicalFeatureOfTile(int tileX, int tileY){
+		return this.geologicalFeatures.getTerrain(tileX, tileY);
+	}
+	
+	/**
+	 * Return all Tile instances of the tiles in the World of which the geological feature has been set.
+	 * 
+	 * @return	An unmodifiable set containing a Tile instance, positioned at its bottom left pixel, for every 
+	 * 			tile in the World whose geological feature has been set with setGeologicalFeature or 
+	 * 			setGeologicalFeatures, including the tiles that have been set to Terrain.AIR.
+	 * @note	The set is only rebuilt after a geological feature has changed. A set that has been returned 
+	 * 			before is never modified, so it can safely be iterated while the World changes.
+	 * @note	The tiles are collected once and then kept up to date tile by tile whenever a geological feature 
+	 * 			changes, so rebuilding the set only copies them.
+	 * @note	Before Programs are executed in parallel, this World builds the set, so the Programs only read it.
+	 */
+	public Set<Tile> getAllTiles(){
+		if(this.allTiles == null)
+			this.allTiles = this.collectAllTiles();
+		if(this.allTilesSnapshot == null)
+			this.allTilesSnapshot = Collections.unmodifiableSet(new HashSet<Tile>(this.allTiles));
+		return this.allTilesSnapshot;
+	}
+	
+	/**
+	 * Variable registering the set of all Tile instances of this World of which the geological feature has been
+	 * set, or null if that set has not been collected yet.
+	 */
+	private Set<Tile> allTiles = null;
+	
+	/**
+	 * Variable registering the unmodifiable copy of the set of all Tile instances of this World of which the 
+	 * geological feature has been set that was last handed out, or null if that set needs to be rebuilt.
+	 */
+	private Set<Tile> allTilesSnapshot = null;
+	
+	/**
+	 * Collect the Tile instances of all tiles of this World of which the geological feature has been set in a 
+	 * new set.
+	 * 
+	 * @return	A new set containing the Tile instances of all tiles of which the geological feature has been set.
+	 */
+	@Model
+	private Set<Tile> collectAllTiles(){
+		HashSet<Tile> tiles =  new HashSet<Tile>();
+		for(int tileIndex = this.assignedTiles.nextSetBit(0); tileIndex >= 0; 
+				tileIndex = this.assignedTiles.nextSetBit(tileIndex + 1))
+			tiles.add(this.getTileOf(tileIndex % this.getNbTilesX(), tileIndex / this.getNbTilesX()));
+		return tiles;
+	} 
+	
+	/**
+	 * Variable registering, by the index of every tile, whether its geological feature has been set. Like the 
+	 * original map of geological features, a tile that has been set to air is kept as well.
+	 */
+	private final BitSet assignedTiles = new BitSet();
+	
+	/**
+	 * Return the index of the given tile in the set of tiles of which the geological feature has been set.
+	 * 
+	 * @param 	tileX
+	 * 				The horizontal tile position of the tile.
+	 * @param 	tileY
+	 * 				The vertical tile position of the tile.
+	 * @pre		| isValidTilePosition(tileX, tileY)
+	 * @return	| result == ( tileY * getNbTilesX() + tileX )
+	 */
+	@Model
+	private int getTileIndex(int tileX, int tileY){
+		return tileY * this.getNbTilesX() + tileX;
+	}
+	
+	/**
+	 * Return all geological features in the World that have been set.
+	 * 
+	 * @return	A map containing the tile position of every tile of which the geological feature has been set, 
+	 * 			mapped on its Terrain type.
+	 */
+	public Map<Vector<Integer>, Terrain> getAllGeologicalFeatures(){
+		HashMap<Vector<Integer>, Terrain> features = new HashMap<Vector<Integer>, Terrain>();
+		for(Tile tile : this.getAllTiles())
+			features.put(new Vector<Integer>(getTileX(tile.getRoundedPositionX()), getTileY(tile.getRoundedPositionY())),
+						 tile.getTerrainType());
+		return features;
+	}
+	
+	/**
+	 * Return a report of the memory used to store the geological features of this World.
+	 * 
+	 * @return	A report listing the number of bytes per terrain chunk and the number of resident chunks.
+	 */
+	public TerrainMemoryReport getTerrainMemoryReport(){
+		return this.geologicalFeatures.getMemoryReport();
+	}
+	
+	/**
+	 * Check whether the given tile position lies within the boundaries of this World.
+	 * 
+	 * @param 	tileX
+	 * 				The horizontal tile position to check.
+	 * @param 	tileY
+	 * 				The vertical tile position to check.
+	 * @return	| result == ( tileX >= 0 && tileX < getNbTilesX() && tileY >= 0 && tileY < getNbTilesY() )
+	 */
+	@Raw
+	public boolean isValidTilePosition(int tileX, int tileY){
+		return tileX >= 0 && tileX < this.getNbTilesX() && tileY >= 0 && tileY < this.getNbTilesY();
+	}
+	
+	/**
+	 * Chunked store registering the Terrain type of every tile of this World. Tiles that have not been set
+	 * explicitly consist of air, and chunks of air only do not take up any storage of their own.
+	 */
+	private final TerrainStore geologicalFeatures;
+	
+	/**
+	 * Return the set of impassable tiles of this World for the given profile of impassable Terrain types.
+	 * The set is built on first request and kept up to date with every change of geological features afterwards.
+	 * 
+	 * @param 	impassableTerrainMask
+	 * 				A bitmask in which bit i is set if and only if the Terrain type with ID i is impassable.
+	 * @pre		| impassableTerrainMask >= 0 && impassableTerrainMask < (1 << Terrain.values().length)
+	 * @return	| for each tileX, tileY in this World:
+	 * 			|	result.isImpassable(tileX, tileY) == ImpassableTileSet.isImpassableTerrain(impassableTerrainMask,
+	 * 			|											getGeologicalFeatureOfTile(tileX, tileY))
+	 */
+	public ImpassableTileSet getImpassableTileSet(int impassableTerrainMask){
+		assert impassableTerrainMask >= 0 && impassableTerrainMask < this.impassableTileSets.length;
+		
+		if(this.impassableTileSets[impassableTerrainMask] == null)
+			this.impassableTileSets[impassableTerrainMask] = new ImpassableTileSet(this.geologicalFeatures, impassableTerrainMask);
+		return this.impassableTileSets[impassableTerrainMask];
+	}
+	
+	/**
+	 * Check whether any tile within the given rectangular region is impassable for the given profile of 
+	 * impassable Terrain types.
+	 * 
+	 * @param 	impassableTerrainMask
+	 * 				A bitmask in which bit i is set if and only if the Terrain type with ID i is impassable.
+	 * @param 	pixelLeft
+	 *            	The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *            	The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *            	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *            	The y-coordinate of the top side of the rectangular region.
+	 * @return	| result == ( for some tile in getTilePositionsIn(pixelLeft, pixelBottom, pixelRight, pixelTop):
+	 * 			|				getImpassableTileSet(impassableTerrainMask).isImpassable(tile[0], tile[1]) )
+	 */
+	public boolean hasImpassableTileIn(int impassableTerrainMask, int pixelLeft, int pixelBottom, int pixelRight, int pixelTop){
+		return this.getImpassableTileSet(impassableTerrainMask).containsAnyIn(getTileX(pixelLeft), getTileY(pixelBottom),
+																			  getTileX(pixelRight), getTileY(pixelTop));
+	}
+	
+	/**
+	 * Return the number of tiles within the given rectangular region that are impassable for the given profile 
+	 * of impassable Terrain types. Tiles are counted if they share at least one pixel with the region.
+	 * 
+	 * @param 	impassableTerrainMask
+	 * 				A bitmask in which bit i is set if and only if the Terrain type with ID i is impassable.
+	 * @param 	pixelLeft
+	 *            	The x-coordinate of the left side of the rectangular region.
+	 * @param 	pixelBottom
+	 *            	The y-coordinate of the bottom side of the rectangular region.
+	 * @param 	pixelRight
+	 *            	The x-coordinate of the right side of the rectangular region.
+	 * @param 	pixelTop
+	 *            	The y-coordinate of the top side of the rectangular region.
+	 * @return	| result == ( getImpassableTileSet(impassableTerrainMask).countIn(getTileX(pixelLeft), getTileY(pixelBottom),
+	 * 			|															 getTileX(pixelRight), getTileY(pixelTop)) )
+	 * @note	This method runs in constant time, regardless of the size of the region.
+	 */
+	public int getNbImpassableTilesIn(int impassableTerrainMask, int pixelLeft, int pixelBottom, int pixelRight, int pixelTop){
+		return this.getImpassableTileSet(impassableTerrainMask).countIn(getTileX(pixelLeft), getTileY(pixelBottom),
+																		getTileX(pixelRight), getTileY(pixelTop));
+	}
+	
+	/**
+	 * Array registering the impassable tile sets of this World, indexed by their bitmask of impassable Terrain 
+	 * types. Game objects sharing the same impassable Terrain types share the same set.
+	 */
+	private final ImpassableTileSet[] impassableTileSets = new ImpassableTileSet[1 << Terrain.values().length];
+	
+	/**************************************************** GAME OBJECTS *************************************************/
+	
+	/* Game object */
+
+	/**
+	 * Check whether or not this World is in the right state to add a Game object. The world may not be started 
+	 * or terminated.
+	 * 
+	 * @return	| result ==  ( !this.hasStarted() && !this.isTerminated() )
+	 */
+	@Raw
+	public boolean canAddGameObject(){
+		return !this.hasStarted() && !this.isTerminated(); 
+	}
+	
+	/**
+	 * Check whether or not this World can have the given Game object as its Game object.
+	 * 
+	 * @param 	gameObject
+	 * 				The Game object that needs to be checked.
+	 * @return	If the World is not a large world and the Game object is a Slime with a School that isn't in the 
+	 * 			World yet and the World has already 10 Schools, return false. Otherwise check if the World can add 
+	 * 			a Game object and that the Game object isn't null.
+	 * @note	This method runs in constant time.
+	 */
+	@Raw
+	public boolean canHaveAsGameObject(GameObject gameObject){
+		if ( !this.isLargeWorld() && (gameObject instanceof Slime ) && ( this.getNbSchools() == 10 ) &&
+			 ( ! this.getAllSchools().contains(((Slime) gameObject).getSchool())) )
+			return false;
+			
+		return this.canAddGameObject() && gameObject != null;
+	}
+	
+	/**
+	 * Check whether or not this World has proper Game objects.
+	 * 
+	 * @return	| result == ( ( Mazub.getNbInWorld(this) >= 1) && 
+	 * 			|			  ( this.isLargeWorld() || this.getNbGameObjects() - 1 <= 100 ) &&
+	 * 			|			  ( for every object in this.getAllGameObjects(): object.getWorld() == this ) )
+	 */
+	@Raw
+	public boolean hasProperGameObjects(){
+		if( (Mazub.getNbInWorld(this) < 1) || (!this.isLargeWorld() && this.getNbGameObjects() - 1 > 100 )){
+			return false;
+		}
+		
+		for(GameObject object : this.getAllGameObjects()){
+			if(object.getWorld() != this){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Check whether or not the World has gameObject as one of its Game objects.
+	 * 
+	 * @param 	gameObject
+	 * 				The Game object to check.
+	 * @return	| gameObject.hasAsWorld(this)
+	 */
+	public boolean hasAsGameObject(GameObject gameObject){
+		return gameObject.hasAsWorld(this);
+	}
+	
+	/**
+	 * Remove the given Game object from the World.
+	 * 
+	 * @param 	gameObject
+	 * 				The Game object to remove from the World.
+	 * @effect	| gameObject.removeFromWorld(this)
+	 */
+	void removeAsGameObject(GameObject gameObject){
+		gameObject.removeFromWorld(this);
+	}
+	
+	/**
+	 * Register that the given Game object has changed its position or its size, or that it has been added to or
+	 * removed from this World.
+	 * 
+	 * @param 	gameObject
+	 * 				The Game object that has changed.
+	 * @effect	| this.rayCaster.gameObjectChanged(gameObject)
+	 * @effect	| gameObject.contactCache.boundsChanged(this, gameObject, 
+	 * 			|	getAllGameObjects().contains(gameObject) && !gameObject.isTerminated(), getNbGameObjectChanges() + 1)
+	 * @post	The bounding box of the Game object is updated in the broadphase of this World, or the Game object 
+	 * 			is removed from that broadphase if it is no longer in this World or it is terminated.
+	 * @post	| new.getNbGameObjectChanges() == getNbGameObjectChanges() + 1
+	 */
+	void gameObjectChanged(GameObject gameObject){
+		boolean inWorld = this.getAllGameObjects().contains(gameObject) && !gameObject.isTerminated();
+		gameObject.contactCache.boundsChanged(this, gameObject, inWorld, ++this.nbGameObjectChanges);
+		if(inWorld)
+			this.enterInBroadPhase(this.broadPhase, gameObject);
+		else if(this.broadPhase.getElement(gameObject.physicsSlot) == gameObject)
+			this.broadPhase.remove(gameObject.physicsSlot);
+		this.rayCaster.gameObjectChanged(gameObject);
+	}
+	
+	/**
+	 * Register that the given Game object has been added to or removed from this World.
+	 * 
+	 * @param 	gameObject
+	 * 				The Game object that has been added or removed.
+	 * @effect	| gameObjectChanged(gameObject)
+	 * @post	The cached arrays of impassable Game objects and their profiles of impassable Terrain types are 
+	 * 			rebuilt when they are requested next.
+	 */
+	void gameObjectAddedOrRemoved(GameObject gameObject){
+		Arrays.fill(this.impassableGameObjects, null);
+		this.impassableTerrainMasks = null;
+		if(gameObject.getWorld() == this && gameObject != this.getMazub())
+			this.detailLevelMayHaveChanged(gameObject);
+		this.gameObjectChanged(gameObject);
+	}
+	
+	/**
+	 * Return the store keeping the position, velocity and acceleration of the Game objects of this World.
+	 */
+	@Basic @Immutable
+	PhysicsStore getPhysicsStore(){
+		return this.physicsStore;
+	}
+	
+	/**
+	 * Store keeping the physical state of the Game objects of this World, so it can be integrated in one pass.
+	 */
+	private final PhysicsStore physicsStore = new PhysicsStore(16);
+	
+	/**
+	 * Collect the Game objects of this World of which the bounding box shares at least one pixel with the given
+	 * rectangular region and of which the kind is selected by the given mask, except for the given Game object.
+	 * 
+	 * @param 	pixelLeft
+	 * 				The x-coordinate of the left side of the region.
+	 * @param 	pixelBottom
+	 * 				The y-coordinate of the bottom side of the region.
+	 * @param 	pixelRight
+	 * 				The x-coordinate of the right side of the region.
+	 * @param 	pixelTop
+	 * 				The y-coordinate of the top side of the region.
+	 * @param 	kindMask
+	 * 				A bitmask of the kind bits of this class, selecting the kinds of Game objects to collect.
+	 * @param 	excluded
+	 * 				A Game object that must not be collected, or null.
+	 * @return	The number of collected Game objects, which are stored at the first indices of 
+	 * 			getQueryResult(), each of them exactly once.
+	 * @note	Only the Game objects the broadphase of this World finds near the region are visited. The result is 
+	 * 			overwritten by the next query, so it must be consumed or copied before querying again.
+	 * @note	While this World plans a fixed time step, every thread queries with a query of its own. Querying the 
+	 * 			broadphase only reads it, so the threads do not wait for each other.
+	 */
+	int queryGameObjects(int pixelLeft, int pixelBottom, int pixelRight, int pixelTop, int kindMask, GameObject excluded){
+		GameObjectQuery query = this.getQuery();
+		query.start(kindMask, excluded);
+		this.broadPhase.query(pixelLeft, pixelBottom, pixelRight, pixelTop, query);
+		query.excluded = null;
+		return query.nbQueried;
+	}
+	
+	/**
+	 * Return the array holding the result of the last query for Game objects of this World by the current thread.
+	 * 
+	 * @note	The returned array is shared and may not be modified.
+	 */
+	GameObject[] getQueryResult(){
+		return this.getQuery().result;
+	}
+	
+	/**
+	 * Return the query with which the current thread queries this World for Game objects.
+	 * 
+	 * @return	| if ( !isPlanningLockstep() )
+	 * 			|	then result == this.query
+	 */
+	@Model
+	private GameObjectQuery getQuery(){
+		return this.isPlanningLockstep() ? this.planningQueries.get() : this.query;
+	}
+	
+	/**
+	 * Variable registering the query with which this World is queried for Game objects outside of the planning 
+	 * of a fixed time step.
+	 */
+	private final GameObjectQuery query = new GameObjectQuery();
+	
+	/**
+	 * Variable registering the queries with which the threads planning a fixed time step of this World query it 
+	 * for Game objects, one per thread.
+	 */
+	private final ThreadLocal<GameObjectQuery> planningQueries = ThreadLocal.withInitial(() -> new GameObjectQuery());
+	
+	/**
+	 * A class of queries collecting the Game objects found in the broadphase of this World, kept so queries do not
+	 * allocate.
+	 */
+	private final class GameObjectQuery implements IBroadPhaseVisitor {
+		
+		/**
+		 * Start this query for Game objects of the kinds selected by the given mask, except for the given Game 
+		 * object.
+		 */
+		void start(int kindMask, GameObject excluded){
+			this.kindMask = kindMask;
+			this.excluded = excluded;
+			this.nbQueried = 0;
+		}
+		
+		/**
+		 * Add the Game object with the given id in the broadphase of this World to the result of this query, if 
+		 * it has a selected kind.
+		 * 
+		 * @param 	id
+		 * 				The id of the Game object in the broadphase.
+		 * @return	Always false, so the query visits all Game objects in the region.
+		 */
+		@Override
+		public boolean visitElement(int id){
+			GameObject object = broadPhase.getElement(id);
+			if(object == this.excluded || (object.getKindBit() & this.kindMask) == 0)
+				return false;
+			
+			if(this.nbQueried == this.result.length)
+				this.result = Arrays.copyOf(this.result, 2 * this.result.length);
+			this.result[this.nbQueried++] = object;
+			return false;
+		}
+		
+		/**
+		 * Array registering the result of the last run of this query.
+		 */
+		private GameObject[] result = new GameObject[16];
+		
+		/**
+		 * Variables registering the kind mask and the excluded Game object of this query, and the number of Game 
+		 * objects it has collected so far.
+		 */
+		private int kindMask, nbQueried;
+		private GameObject excluded;
+	}
+	
+	/* Broadphase */
+	
+	/**
+	 * Return the broadphase indexing the Game objects of this World by position.
+	 */
+	@Basic
+	public IBroadPhase<GameObject> getBroadPhase(){
+		return this.broadPhase;
+	}
+	
+	/**
+	 * Check whether this World can use the given broadphase.
+	 * 
+	 * @param 	broadPhase
+	 * 				The broadphase to check.
+	 * @return	| result == ( broadPhase != null && ( broadPhase == getBroadPhase() || broadPhase.getNbElements() == 0 ) )
+	 */
+	public boolean canHaveAsBroadPhase(IBroadPhase<GameObject> broadPhase){
+		return broadPhase != null && ( broadPhase == this.broadPhase || broadPhase.getNbElements() == 0 );
+	}
+	
+	/**
+	 * Set the broadphase indexing the Game objects of this World, so it can be chosen per level. All Game objects 
+	 * of this World are entered in the given broadphase.
+	 * 
+	 * @param 	broadPhase
+	 * 				The new broadphase, such as a SpatialHash, a DynamicAABBTree, a SweepAndPruneBroadPhase or a
+	 * 				BruteForceBroadPhase.
+	 * @post	| new.getBroadPhase() == broadPhase
+	 * @post	| for each gameObject in getAllGameObjects():
+	 * 			|	broadPhase.getElement(gameObject.physicsSlot) == gameObject
+	 * @throws	IllegalArgumentException
+	 * 				| ! canHaveAsBroadPhase(broadPhase)
+	 * @throws	IllegalStateException
+	 * 				The World is advancing time.
+	 * 				| isDeferringStructuralChanges()
+	 */
+	public void setBroadPhase(IBroadPhase<GameObject> broadPhase) throws IllegalArgumentException, IllegalStateException{
+		if(!this.canHaveAsBroadPhase(broadPhase))
+			throw new IllegalArgumentException("This World cannot use the given broadphase!");
+		if(this.isDeferringStructuralChanges())
+			throw new IllegalStateException("The broadphase cannot be changed while the World advances time!");
+		
+		if(broadPhase == this.broadPhase)
+			return;
+		for(GameObject gameObject : this.getAllGameObjects())
+			this.enterInBroadPhase(broadPhase, gameObject);
+		this.broadPhase = broadPhase;
+	}
+	
+	/**
+	 * Enter the given Game object in the given broadphase with its current bounding box, or update its bounding box
+	 * if it is already in that broadphase.
+	 * 
+	 * @param 	broadPhase
+	 * 				The broadphase.
+	 * @param 	gameObject
+	 * 				The Game object.
+	 */
+	@Model
+	private void enterInBroadPhase(IBroadPhase<GameObject> broadPhase, GameObject gameObject){
+		int id = gameObject.physicsSlot;
+		int left = gameObject.getRoundedPositionX(), bottom = gameObject.getRoundedPositionY();
+		int right = left + gameObject.getWidth() - 1, top = bottom + gameObject.getHeight() - 1;
+		if(broadPhase.getElement(id) == gameObject)
+			broadPhase.update(id, left, bottom, right, top);
+		else
+			broadPhase.insert(id, gameObject, left, bottom, right, top);
+	}
+	
+	/**
+	 * Broadphase indexing the Game objects of this World by position. Every Game object is identified by its slot 
+	 * in the physics store of this World. By default, this is a spatial hash with cells of one tile.
+	 */
+	private IBroadPhase<GameObject> broadPhase;
+	
+	/* Large world */
+	
+	/**
+	 * Check whether this World is a large world. A large world has no limit on the number of Game objects 
+	 * or the number of Schools.
+	 */
+	@Basic
+	public boolean isLargeWorld(){
+		return this.largeWorld;
+	}
+	
+	/**
+	 * Set whether this World is a large world.
+	 * 
+	 * @param 	largeWorld
+	 * 				Whether the World should be a large world.
+	 * @post	| new.isLargeWorld() == largeWorld
+	 * @throws	IllegalStateException
+	 * 				| this.hasStarted() || !this.getAllEnemies().isEmpty()
+	 */
+	public void setLargeWorld(boolean largeWorld) throws IllegalStateException{
+		if(this.hasStarted() || !this.getAllEnemies().isEmpty())
+			throw new IllegalStateException("The size limits of a World can only be changed before enemies are added!");
+		this.largeWorld = largeWorld;
+	}
+	
+	/**
+	 * Variable registering whether this World is a large world.
+	 */
+	private boolean largeWorld = false;
+	
+	/* Continuous collision detection */
+	
+	/**
+	 * Check whether the Game objects of this World use continuous collision detection. If they do, a Game object 
+	 * that moves freely advances until its time of impact in a single step, instead of in steps of one pixel.
+	 * Continuous collision detection is off by default, so Game objects move in steps of one pixel unless a World 
+	 * opts in.
+	 */
+	@Basic
+	public boolean hasContinuousCollisionDetection(){
+		return this.continuousCollisionDetection;
+	}
+	
+	/**
+	 * Set whether the Game objects of this World use continuous collision detection.
+	 * 
+	 * @param 	continuousCollisionDetection
+	 * 				Whether the Game objects should use continuous collision detection.
+	 * @post	| new.hasContinuousCollisionDetection() == continuousCollisionDetection
+	 */
+	public void setContinuousCollisionDetection(boolean continuousCollisionDetection){
+		this.continuousCollisionDetection = continuousCollisionDetection;
+	}
+	
+	/**
+	 * Variable registering whether the Game objects of this World use continuous collision detection.
+	 */
+	private boolean continuousCollisionDetection = false;
+	
+	/* Batched overlap processing */
+	
+	/**
+	 * Check whether this World processes the overlaps between its Game objects in one batch at the end of every 
+	 * time step. If it does, every overlapping pair of Game objects is found once, and both Game objects process 
+	 * their overlap with each other in a fixed order. Otherwise, every Game object processes its own overlaps 
+	 * after every move.
+	 */
+	@Basic
+	public boolean hasBatchedOverlapProcessing(){
+		return this.batchedOverlapProcessing;
+	}
+	
+	/**
+	 * Set whether this World processes the overlaps between its Game objects in one batch at the end of every time 
+	 * step.
+	 * 
+	 * @param 	batchedOverlapProcessing
+	 * 				Whether the overlaps should be processed in one batch.
+	 * @post	| new.hasBatchedOverlapProcessing() == batchedOverlapProcessing
+	 */
+	public void setBatchedOverlapProcessing(boolean batchedOverlapProcessing){
+		this.batchedOverlapProcessing = batchedOverlapProcessing;
+	}
+	
+	/**
+	 * Variable registering whether this World processes the overlaps between its Game objects in one batch.
+	 */
+	private boolean batchedOverlapProcessing = false;
+	
+	/**
+	 * Variable registering the pipeline that processes the overlaps between the Game objects of this World in 
+	 * one batch.
+	 */
+	private final OverlapPipeline overlapPipeline = new OverlapPipeline();
+	
+	/* Pixel-perfect collision */
+	
+	/**
+	 * Check whether the overlaps of the Game objects of the kind selected by the given bit with other Game objects 
+	 * are checked pixel by pixel. If they are, two Game objects of which the bounding boxes overlap, only overlap 
+	 * if the collision masks of their current sprites have an opaque pixel in common.
+	 * 
+	 * @param 	kindBit
+	 * 				One of MAZUB_BIT, BUZAM_BIT, PLANT_BIT, SLIME_BIT and SHARK_BIT.
+	 * @note	Blocking movement and standing on other Game objects is always checked with bounding boxes.
 	 */
-	public Tile getTile(int positionX, int positionY){
-		return new Tile(this.getTileLength(), this.getPositionXTileX(positionX), this.getPositionYTileY(positionY),
-						this.getGeologicalFeature(this.getPositionXTileX(positionX),this.getPositionYTileY(positionY)));
+	public boolean hasPixelPerfectCollision(int kindBit){
+		return (this.pixelPerfectKindMask & kindBit) != 0;
 	}
 	
-	/**************************************************** ADVANCE TIME *************************************************/
-	
 	/**
-	 * Advance time to iteratively invoke advanceTime of all Game objects in the World, starting with Mazub.
+	 * Set whether the overlaps of the Game objects of the kind selected by the given bit with other Game objects 
+	 * are checked pixel by pixel.
 	 * 
-	 * @param 	dt
-	 * 				A double that represents the elapsed in-game time.
-	 * @note	No further documentation was required for this method.
-	 * @throws 	IllegalArgumentException
-	 * 				| !Util.fuzzyGreaterThanOrEqualTo(dt, 0) || !Util.fuzzyLessThanOrEqualTo(dt, 0.2)
-	 */
-	public void advanceTime( double dt) throws IllegalArgumentException{
-		
-		if( !Util.fuzzyGreaterThanOrEqualTo(dt, 0) || !Util.fuzzyLessThanOrEqualTo(dt, 0.2))
-			throw new IllegalArgumentException("Illegal time step amount given: "+ dt + " s");	
-		
-			
-		this.getMazub().advanceTime(dt);	
-
-		for(GameObject object: this.getAllEnemies()){
-			object.advanceTime(dt);
-		}
+	 * @param 	kindBit
+	 * 				One of MAZUB_BIT, BUZAM_BIT, PLANT_BIT, SLIME_BIT and SHARK_BIT.
+	 * @param 	pixelPerfectCollision
+	 * 				Whether those overlaps should be checked pixel by pixel.
+	 * @pre		| Integer.bitCount(kindBit) == 1 && (kindBit & ALL_KINDS_MASK) != 0
+	 * @post	| new.hasPixelPerfectCollision(kindBit) == pixelPerfectCollision
+	 */
+	public void setPixelPerfectCollision(int kindBit, boolean pixelPerfectCollision){
+		assert Integer.bitCount(kindBit) == 1 && (kindBit & ALL_KINDS_MASK) != 0;
 		
-		this.updateDisplayPosition();
+		if(pixelPerfectCollision)
+			this.pixelPerfectKindMask |= kindBit;
+		else
+			this.pixelPerfectKindMask &= ~kindBit;
 	}
 	
-	/************************************************* GEOLOGICAL FEATURES *********************************************/	
+	/**
+	 * Variable registering the mask of the kinds of Game objects of which the overlaps are checked pixel by pixel.
+	 */
+	private int pixelPerfectKindMask = 0;
+	
+	/* Contact cache */
 	
 	/**
-	 * Modify the geological type of a specific tile in the this world to a given type.
-	 * 
-	 * @param 	tileX
-	 *            	The x-position x_T of the tile for which the type needs to be modified.
-	 * @param 	tileY
-	 *            	The y-position y_T of the tile for which the type needs to be modified.
-	 * @param 	terrainType
-	 *            	The new Terrain type for the given tile.
-	 * @post	| new.getGeologicalFeature( this.getPositionXofTile(tileX), this.getPositionYofTile(tileY) ) == terrainType
-	 * @throws 	IllegalStateException
-	 * 				| this.hasStarted()
-	 * @throws 	IllegalPositionXException
-	 * 				| !canHaveAsPositionX(getPositionXOfTile(tileX))
-	 * @throws 	IllegalPositionYException
-	 * 				| !canHaveAsPositionY(getPositionYOfTile(tileY))
+	 * Return the number of questions about the contacts of the Game objects of this World that were answered from 
+	 * their contact caches, without querying the terrain or the broadphase of this World.
 	 */
-	public void setGeologicalFeature(int tileX, int tileY, Terrain terrainType) 
-			throws IllegalStateException, IllegalPositionXException, IllegalPositionYException{
-		
-		if (this.hasStarted())
-			throw new IllegalStateException("World already started!");
-		if (!canHaveAsPositionX(getPositionXOfTile(tileX)))
-			throw new IllegalPositionXException(getPositionXOfTile(tileX));
-		if (!canHaveAsPositionY(getPositionYOfTile(tileY)))
-			throw new IllegalPositionYException(getPositionYOfTile(tileY));
-		
-		this.geologicalFeatures.put(new Vector<Integer>(tileX,  tileY), terrainType);
+	@Basic
+	public long getNbContactCacheHits(){
+		return this.nbContactCacheHits;
 	}
 	
 	/**
-	 * Return the geological feature of the tile with its bottom left pixel at the given position.
-	 *
-	 * @param 	pixelX
-	 *            	The x-position of the pixel at the bottom left of the tile for
-	 *            	which the geological feature should be returned.
-	 * @param 	pixelY
-	 *           	The y-position of the pixel at the bottom left of the tile for
-	 *            	which the geological feature should be returned.
-	 * @note 	This method must return its result in constant time.
-	 * @return 	The Terrain type of the tile with the given bottom left pixel position.
-	 * @throw 	IllegalArgumentException
-	 * 				| (pixelX % getTileLength() != 0 || pixelY % getTileLength() != 0)
+	 * Return the number of questions about the contacts of the Game objects of this World for which the terrain or 
+	 * the broadphase of this World had to be queried.
 	 */
-	public Terrain getGeologicalFeature(int pixelX, int pixelY) throws IllegalArgumentException{
-		if(pixelX % getTileLength() != 0 || pixelY % getTileLength() != 0)
-			throw new IllegalArgumentException("Given position does not correspond to the bottom left pixel of a tile");
-		
-		if(this.geologicalFeatures.containsKey( new Vector<Integer>(getTileX(pixelX), getTileY(pixelY)))){
-			return this.geologicalFeatures.get( new Vector<Integer>(getTileX(pixelX), getTileY(pixelY)));
-		}else{
-			return Terrain.AIR;
-		}
-		
+	@Basic
+	public long getNbContactCacheMisses(){
+		return this.nbContactCacheMisses;
 	}
 	
 	/**
-	 * Return all Tile instances of the tiles in the World.
+	 * Count a question about the contacts of the given Game object of this World as a hit or a miss of its contact 
+	 * cache.
 	 * 
-	 * @return	A hashmap containing all Tile instances of the tiles in the World.
-	 */
-	public Set<Tile> getAllTiles(){
-		HashSet<Tile> tiles =  new HashSet<Tile>();
-		for ( Map.Entry<Vector<Integer>, Terrain> feature : this.getAllGeologicalFeatures().entrySet() ){
-			tiles.add(new Tile(this.getTileLength(), feature.getKey().getX(), feature.getKey().getY(), feature.getValue()));
-		}
-		return tiles;
-	} 
+	 * @param 	gameObject
+	 * 				The Game object of the contact cache.
+	 * @param 	hit
+	 * 				Whether the question was answered from the contact cache.
+	 * @effect	While this World plans a fixed time step, the question is counted in the lockstep buffer of the 
+	 * 			given Game object, until its plan is resolved.
+	 * 			| if ( isPlanningLockstep() )
+	 * 			|	then gameObject.lockstep.countContactCacheLookup(hit)
+	 * @post	| if ( !isPlanningLockstep() && hit )
+	 * 			|	then new.getNbContactCacheHits() == getNbContactCacheHits() + 1
+	 * 			| else if ( !isPlanningLockstep() )
+	 * 			|	then new.getNbContactCacheMisses() == getNbContactCacheMisses() + 1
+	 */
+	void countContactCacheLookup(GameObject gameObject, boolean hit){
+		if(this.isPlanningLockstep())
+			gameObject.lockstep.countContactCacheLookup(hit);
+		else if(hit)
+			this.nbContactCacheHits++;
+		else
+			this.nbContactCacheMisses++;
+	}
 	
 	/**
-	 * Return all geological features in the World.
+	 * Count the given numbers of questions about the contacts of Game objects of this World as hits and misses of 
+	 * their contact caches.
 	 * 
-	 * @return	| result == ( new HashMap<>(this.geologicalFeatures) )
-	 */
-	public Map<Vector<Integer>, Terrain> getAllGeologicalFeatures(){
-		return new HashMap<>(this.geologicalFeatures);
+	 * @param 	nbHits
+	 * 				The number of hits.
+	 * @param 	nbMisses
+	 * 				The number of misses.
+	 * @post	| new.getNbContactCacheHits() == getNbContactCacheHits() + nbHits
+	 * @post	| new.getNbContactCacheMisses() == getNbContactCacheMisses() + nbMisses
+	 */
+	void countContactCacheLookups(long nbHits, long nbMisses){
+		this.nbContactCacheHits += nbHits;
+		this.nbContactCacheMisses += nbMisses;
 	}
 	
 	/**
-	 * Map registering the geological features of this World.
+	 * Variables registering the number of hits and misses of the contact caches of the Game objects of this World.
 	 */
-	private Map<Vector<Integer>, Terrain> geologicalFeatures = new HashMap<Vector<Integer>, Terrain>();
+	private long nbContactCacheHits = 0, nbContactCacheMisses = 0;
 	
-	/**************************************************** GAME OBJECTS *************************************************/
-	
-	/* Game object */
-
 	/**
-	 * Check whether or not this World is in the right state to add a Game object. The world may not be started 
-	 * or terminated.
-	 * 
-	 * @return	| result ==  ( !this.hasStarted() && !this.isTerminated() )
+	 * Return the number of times a Game object of this World has changed its position or its size, or has been 
+	 * added to or removed from this World.
 	 */
-	@Raw
-	public boolean canAddGameObject(){
-		return !this.hasStarted() && !this.isTerminated(); 
+	@Basic
+	long getNbGameObjectChanges(){
+		return this.nbGameObjectChanges;
 	}
 	
 	/**
-	 * Check whether or not this World can have the given Game object as its Game object.
-	 * 
-	 * @param 	gameObject
-	 * 				The Game object that needs to be checked.
-	 * @return	If the Game object is a Slime with a School that isn't in the World yet and the World
-	 * 			has already 10 Schools, return false. Otherwise check if the World can add a Game object
-	 * 			and that the Game object isn't null.
+	 * Variable registering the number of changes of the Game objects of this World.
 	 */
-	@Raw
-	public boolean canHaveAsGameObject(GameObject gameObject){
-		if ( (gameObject instanceof Slime ) && ( this.getNbSchools() == 10 ) &&
-			 ( ! this.getAllSchools().contains(((Slime) gameObject).getSchool())) )
-			return false;
-			
-		return this.canAddGameObject() && gameObject != null;
-	}
+	private long nbGameObjectChanges = 0;
 	
 	/**
-	 * Check whether or not this World has proper Game objects.
+	 * Return the largest stamp of the tiles in the given range of tiles, clamped to this World.
 	 * 
-	 * @return	| result == ( ( Mazub.getNbInWorld(this) >= 1) && (this.getNbGameObjects() - 1 <= 100 ) &&
-	 * 			|			  ( for every object in this.getAllGameObjects(): object.getWorld() == this ) )
-	 */
-	@Raw
-	public boolean hasProperGameObjects(){
-		if( (Mazub.getNbInWorld(this) < 1) || (this.getNbGameObjects() - 1 > 100 )){
-			return false;
-		}
-		
-		for(GameObject object : this.getAllGameObjects()){
-			if(object.getWorld() != this){
-				return false;
+	 * @param 	tileLeft
+	 * 				The horizontal position of the leftmost tile.
+	 * @param 	tileBottom
+	 * 				The vertical position of the bottom tile.
+	 * @param 	tileRight
+	 * 				The horizontal position of the rightmost tile.
+	 * @param 	tileTop
+	 * 				The vertical position of the top tile.
+	 * @return	The stamp of the last change of a Game object that entered one of the given tiles, or 0 if no Game 
+	 * 			object has entered them yet.
+	 */
+	long getTileStamp(int tileLeft, int tileBottom, int tileRight, int tileTop){
+		tileLeft = Math.max(tileLeft, 0);
+		tileBottom = Math.max(tileBottom, 0);
+		tileRight = Math.min(tileRight, this.getNbTilesX() - 1);
+		tileTop = Math.min(tileTop, this.getNbTilesY() - 1);
+		long stamp = 0;
+		for(int tileY = tileBottom; tileY <= tileTop; tileY++)
+			for(int tileX = tileLeft; tileX <= tileRight; tileX++){
+				long[] chunk = this.tileStamps[(tileY >> TerrainStore.CHUNK_SHIFT) * this.geologicalFeatures.getNbChunksX() 
+												+ (tileX >> TerrainStore.CHUNK_SHIFT)];
+				if(chunk != null)
+					stamp = Math.max(stamp, chunk[((tileY & (TerrainStore.CHUNK_SIZE - 1)) << TerrainStore.CHUNK_SHIFT) 
+												  | (tileX & (TerrainStore.CHUNK_SIZE - 1))]);
 			}
-		}
-		return true;
+		return stamp;
 	}
 	
 	/**
-	 * Check whether or not the World has gameObject as one of its Game objects.
+	 * Register that a Game object has entered the tiles in the given range of tiles, clamped to this World, with 
+	 * the given stamp.
 	 * 
-	 * @param 	gameObject
-	 * 				The Game object to check.
-	 * @return	| gameObject.hasAsWorld(this)
-	 */
-	public boolean hasAsGameObject(GameObject gameObject){
-		return gameObject.hasAsWorld(this);
+	 * @param 	tileLeft
+	 * 				The horizontal position of the leftmost tile.
+	 * @param 	tileBottom
+	 * 				The vertical position of the bottom tile.
+	 * @param 	tileRight
+	 * 				The horizontal position of the rightmost tile.
+	 * @param 	tileTop
+	 * 				The vertical position of the top tile.
+	 * @param 	stamp
+	 * 				The stamp of the change of the Game object.
+	 * @post	| new.getTileStamp(tileLeft, tileBottom, tileRight, tileTop) == stamp
+	 */
+	void stampTiles(int tileLeft, int tileBottom, int tileRight, int tileTop, long stamp){
+		tileLeft = Math.max(tileLeft, 0);
+		tileBottom = Math.max(tileBottom, 0);
+		tileRight = Math.min(tileRight, this.getNbTilesX() - 1);
+		tileTop = Math.min(tileTop, this.getNbTilesY() - 1);
+		for(int tileY = tileBottom; tileY <= tileTop; tileY++)
+			for(int tileX = tileLeft; tileX <= tileRight; tileX++){
+				int chunkIndex = (tileY >> TerrainStore.CHUNK_SHIFT) * this.geologicalFeatures.getNbChunksX() 
+									+ (tileX >> TerrainStore.CHUNK_SHIFT);
+				long[] chunk = this.tileStamps[chunkIndex];
+				if(chunk == null){
+					chunk = new long[TerrainStore.CHUNK_SIZE * TerrainStore.CHUNK_SIZE];
+					this.tileStamps[chunkIndex] = chunk;
+				}
+				chunk[((tileY & (TerrainStore.CHUNK_SIZE - 1)) << TerrainStore.CHUNK_SHIFT) 
+				      | (tileX & (TerrainStore.CHUNK_SIZE - 1))] = stamp;
+			}
 	}
 	
 	/**
-	 * Remove the given Game object from the World.
-	 * 
-	 * @param 	gameObject
-	 * 				The Game object to remove from the World.
-	 * @effect	| gameObject.removeFromWorld(this)
+	 * Variable registering, per chunk of tiles, the stamp of the last change of a Game object that entered each 
+	 * tile. A chunk is only allocated once a Game object enters one of its tiles.
 	 */
-	void removeAsGameObject(GameObject gameObject){
-		gameObject.removeFromWorld(this);
+	private final long[][] tileStamps;
+	
+	/**
+	 * Return the number of times a geological feature of this World has changed.
+	 */
+	@Basic
+	long getNbTerrainChanges(){
+		return this.nbTerrainChanges;
 	}
 	
+	/**
+	 * Variable registering the number of changes of the geological features of this World.
+	 */
+	private long nbTerrainChanges = 0;
+	
 	/* Mazub */
 	
 	/**
@@ -882,10 +2797,21 @@ public class World {
 	/**
 	 * Remove the Mazub from the World.
 	 * 
-	 * @effect	| this.getMazub().removeFromWorld(this)
+	 * @effect	| if ( !isDeferringStructuralChanges() )
+	 * 			|	then this.getMazub().removeFromWorld(this)
+	 * @effect	| if ( !isDeferringStructuralChanges() )
+	 * 			|	then gameObjectAddedOrRemoved(this.getMazub())
+	 * @note	While time is advancing, the Mazub is only removed at the end of the current time step.
 	 */
 	public void removeMazub(){
-		this.getMazub().removeFromWorld(this);
+		Mazub mazub = this.getMazub();
+		if(this.isDeferringStructuralChanges()){
+			this.deferStructuralChange(StructuralChangeBuffer.Change.REMOVE, mazub, null);
+			return;
+		}
+		
+		mazub.removeFromWorld(this);
+		this.gameObjectAddedOrRemoved(mazub);
 	}
 	
 	/**
@@ -898,29 +2824,19 @@ public class World {
 	/**
 	 * Return all the Game objects in the World.
 	 * 
-	 * @return	A Hashset containing the Mazub and all Buzams, Plants, Slimes and Sharks in this World.
+	 * @return	A read-only, live view on the Mazub, if any, and all Buzams, Plants, Slimes and Sharks in this World.
 	 */
 	public Set<GameObject> getAllGameObjects(){
-		Set<GameObject> allGameObjects= new HashSet<GameObject>();
-		allGameObjects.add(Mazub.getInWorld(this));
-		allGameObjects.addAll( Buzam.getAllInWorld(this));
-		allGameObjects.addAll( Plant.getAllInWorld(this));
-		allGameObjects.addAll( Slime.getAllInWorld(this));
-		allGameObjects.addAll( Shark.getAllInWorld(this));
-		return allGameObjects;
+		return this.allGameObjects;
 	}
 	
 	/**
 	 * Return all the enemies of the player's Mazub in the World.
 	 * 
-	 * @return	A Hashset containing all Buzams, Slimes, Sharks and Plants in this World.
+	 * @return	A read-only, live view on all Buzams, Slimes, Sharks and Plants in this World.
 	 */
 	public Set<GameObject> getAllEnemies(){
-		Set<GameObject> allEnemies = new HashSet<GameObject>( Buzam.getAllInWorld(this) );
-		allEnemies.addAll( Slime.getAllInWorld(this));
-		allEnemies.addAll( Shark.getAllInWorld(this));
-		allEnemies.addAll( Plant.getAllInWorld(this));
-		return allEnemies;
+		return this.allEnemies;
 	}	
 	
 	/* Counters */
@@ -929,6 +2845,7 @@ public class World {
 	 * Return the number of Game objects in the World.
 	 * 
 	 * @return	The number of Mazubs, Plants, Sharks and Slimes in this World added together.
+	 * @note	This method runs in constant time.
 	 */
 	public int getNbGameObjects(){
 		return Mazub.getNbInWorld(this) + Plant.getNbInWorld(this) + Shark.getNbInWorld(this) +
@@ -938,46 +2855,400 @@ public class World {
 	/**
 	 * Return all the Schools of Slimes in this World.
 	 * 
-	 * @return	A set of all the Schools in this World.
+	 * @return	A read-only, live view on the Schools of all Slimes in this World.
 	 */
 	public Set<School> getAllSchools(){
-		Set<School> schools = new HashSet<School>();
-		for ( Slime slime: Slime.getAllInWorld(this) ){
-			schools.add( slime.getSchool());
-		}
-		return schools;
+		return this.schoolsView;
 	}
 	
 	/**
 	 * Return the number of Schools in this World.
 	 * 
 	 * @return	The number of Schools in this World.
+	 * @note	This method runs in constant time.
 	 */
 	public int getNbSchools(){
-		return this.getAllSchools().size();
+		return this.nbSchools;
+	}
+	
+	/**
+	 * Register that a Slime of the given School has entered this World, or has joined the given School while
+	 * in this World.
+	 * 
+	 * @param 	school
+	 * 				The School of the Slime.
+	 * @post	| new.getAllSchools().contains(school)
+	 */
+	void slimeJoinedSchool(School school){
+		if(school.retainIn(this) == 1){
+			if(this.nbSchools == this.schools.length)
+				this.schools = Arrays.copyOf(this.schools, 2 * this.schools.length);
+			school.setRegistryIndexIn(this, this.nbSchools);
+			this.schools[this.nbSchools++] = school;
+		}
+	}
+	
+	/**
+	 * Register that a Slime of the given School has left this World, or has left the given School while
+	 * in this World.
+	 * 
+	 * @param 	school
+	 * 				The former School of the Slime.
+	 * @pre		| getAllSchools().contains(school)
+	 * @post	The given School is no longer a School of this World if this was its last Slime in this World.
+	 */
+	void slimeLeftSchool(School school){
+		assert school.getNbSlimesIn(this) > 0;
+		
+		int index = school.getRegistryIndexIn(this);
+		if(school.releaseIn(this) == 0){
+			School last = this.schools[--this.nbSchools];
+			this.schools[index] = last;
+			if(last != school)
+				last.setRegistryIndexIn(this, index);
+			this.schools[this.nbSchools] = null;
+		}
 	}
 	
+	/**
+	 * Array registering the Schools of the Slimes in this World at its first getNbSchools() indices.
+	 */
+	private School[] schools = new School[16];
+	
+	/**
+	 * Variable registering the number of Schools of the Slimes in this World.
+	 */
+	private int nbSchools = 0;
+	
+	/**
+	 * Read-only, live view on the Schools of the Slimes in this World.
+	 */
+	private final Set<School> schoolsView = new AbstractSet<School>(){
+		
+		@Override
+		public int size(){
+			return nbSchools;
+		}
+		
+		@Override
+		public boolean contains(Object object){
+			return object instanceof School && ((School) object).getNbSlimesIn(World.this) > 0;
+		}
+		
+		@Override
+		public Iterator<School> iterator(){
+			return new Iterator<School>(){
+				
+				private int next = 0;
+				
+				@Override
+				public boolean hasNext(){
+					return this.next < nbSchools;
+				}
+				
+				@Override
+				public School next(){
+					if(!this.hasNext())
+						throw new NoSuchElementException();
+					return schools[this.next++];
+				}
+			};
+		}
+	};
+	
 	/* Variables */
 	
 	/**
-	 * Set registering the Buzams in this World.
+	 * Registry keeping the Buzams in this World.
+	 */
+	final GameObjectRegistry<Buzam> buzams = new GameObjectRegistry<Buzam>();
+	
+	/**
+	 * Registry keeping the Plants in this World.
+	 */
+	final GameObjectRegistry<Plant> plants = new GameObjectRegistry<Plant>();
+	
+	/**
+	 * Registry keeping the Sharks in this World.
+	 */
+	final GameObjectRegistry<Shark> sharks = new GameObjectRegistry<Shark>();
+	
+	/**
+	 * Registry keeping the Slimes in this World.
+	 */
+	final GameObjectRegistry<Slime> slimes = new GameObjectRegistry<Slime>();
+	
+	/**
+	 * Live view on all enemies of the player's Mazub in this World.
+	 */
+	private final Set<GameObject> allEnemies = new GameObjectsView(false);
+	
+	/**
+	 * Live view on all Game objects in this World.
+	 */
+	private final Set<GameObject> allGameObjects = new GameObjectsView(true);
+	
+	/**
+	 * A class of read-only, live views on the Game objects of this World, chaining the registries of every kind 
+	 * of Game object without copying them. Like the registries, the iterators of a view fail fast if a Game 
+	 * object is added or removed during the iteration.
+	 */
+	private class GameObjectsView extends AbstractSet<GameObject>{
+		
+		/**
+		 * Create a new view on the enemies of this World, optionally preceded by its Mazub.
+		 * 
+		 * @param 	includesMazub
+		 * 				Whether the view includes the Mazub of this World.
+		 */
+		GameObjectsView(boolean includesMazub){
+			this.includesMazub = includesMazub;
+		}
+		
+		@Override
+		public int size(){
+			return (this.includesMazub ? Mazub.getNbInWorld(World.this) : 0) + buzams.size() + plants.size() 
+					+ slimes.size() + sharks.size();
+		}
+		
+		@Override
+		public boolean contains(Object object){
+			if(this.includesMazub && object != null && object == getMazub())
+				return true;
+			return buzams.contains(object) || plants.contains(object) || slimes.contains(object) || sharks.contains(object);
+		}
+		
+		@Override
+		public Iterator<GameObject> iterator(){
+			return new Iterator<GameObject>(){
+				
+				private Iterator<? extends GameObject> current = 
+						includesMazub && hasMazub() ? Collections.singleton(getMazub()).iterator() : buzams.iterator();
+				
+				private int nbRemainingRegistries = includesMazub && hasMazub() ? 4 : 3;
+				
+				@Override
+				public boolean hasNext(){
+					while(!this.current.hasNext() && this.nbRemainingRegistries > 0)
+						this.current = getEnemyRegistry(4 - this.nbRemainingRegistries--).iterator();
+					return this.current.hasNext();
+				}
+				
+				@Override
+				public GameObject next(){
+					if(!this.hasNext())
+						throw new NoSuchElementException();
+					return this.current.next();
+				}
+			};
+		}
+		
+		/**
+		 * Variable registering whether this view includes the Mazub of this World.
+		 */
+		private final boolean includesMazub;
+	}
+	
+	/**
+	 * Return the registry of the enemies of the given kind, in the order Buzams, Plants, Slimes, Sharks.
+	 * 
+	 * @param 	index
+	 * 				The index of the kind of enemies.
+	 * @pre		| index >= 0 && index < 4
+	 */
+	@Model
+	private GameObjectRegistry<? extends GameObject> getEnemyRegistry(int index){
+		switch(index){
+			case 0:		return this.buzams;
+			case 1:		return this.plants;
+			case 2:		return this.slimes;
+			default:	return this.sharks;
+		}
+	}
+	
+	/**
+	 * Constant registering an empty array of Game objects.
+	 */
+	private static final GameObject[] NO_GAME_OBJECTS = new GameObject[0];
+	
+	/* Impassable Game objects */
+	
+	/**
+	 * Constant reflecting the bit that selects the Mazub in a mask of impassable Game objects.
+	 */
+	public static final int MAZUB_BIT = 1 << 0;
+	
+	/**
+	 * Constant reflecting the bit that selects the Buzams in a mask of impassable Game objects.
+	 */
+	public static final int BUZAM_BIT = 1 << 1;
+	
+	/**
+	 * Constant reflecting the bit that selects the Plants in a mask of impassable Game objects.
+	 */
+	public static final int PLANT_BIT = 1 << 2;
+	
+	/**
+	 * Constant reflecting the bit that selects the Slimes in a mask of impassable Game objects.
+	 */
+	public static final int SLIME_BIT = 1 << 3;
+	
+	/**
+	 * Constant reflecting the bit that selects the Sharks in a mask of impassable Game objects.
+	 */
+	public static final int SHARK_BIT = 1 << 4;
+	
+	/**
+	 * Constant reflecting the mask that selects Game objects of every kind.
+	 */
+	public static final int ALL_KINDS_MASK = MAZUB_BIT | BUZAM_BIT | PLANT_BIT | SLIME_BIT | SHARK_BIT;
+	
+	/**
+	 * Return all Game objects in this World of the kinds selected by the given mask.
+	 * 
+	 * @param 	impassableGameObjectMask
+	 * 				A bitmask of MAZUB_BIT, BUZAM_BIT, PLANT_BIT, SLIME_BIT and SHARK_BIT.
+	 * @pre		| impassableGameObjectMask >= 0 && impassableGameObjectMask <= 0b11111
+	 * @return	An array containing the Mazub, if any, and all Buzams, Plants, Slimes and Sharks of this World,
+	 * 			as far as their kind is selected by the given mask.
+	 * @note	The array is cached per mask until a Game object is added to or removed from this World, so asking 
+	 * 			for it again does not allocate. The returned array is shared and may not be modified.
+	 * @note	Game objects that plan a fixed time step in parallel do not ask for these arrays, so they are only
+	 * 			built and read by one thread at a time.
+	 */
+	public GameObject[] getImpassableGameObjects(int impassableGameObjectMask){
+		assert impassableGameObjectMask >= 0 && impassableGameObjectMask < this.impassableGameObjects.length;
+		
+		GameObject[] objects = this.impassableGameObjects[impassableGameObjectMask];
+		if(objects == null){
+			objects = this.collectGameObjects(impassableGameObjectMask);
+			this.impassableGameObjects[impassableGameObjectMask] = objects;
+		}
+		return objects;
+	}
+	
+	/**
+	 * Collect all Game objects in this World of the kinds selected by the given mask in a new array.
+	 * 
+	 * @param 	impassableGameObjectMask
+	 * 				A bitmask of MAZUB_BIT, BUZAM_BIT, PLANT_BIT, SLIME_BIT and SHARK_BIT.
+	 * @return	A new array containing the Game objects of this World of the selected kinds.
+	 */
+	@Model
+	private GameObject[] collectGameObjects(int impassableGameObjectMask){
+		boolean withMazub = (impassableGameObjectMask & MAZUB_BIT) != 0 && this.hasMazub();
+		GameObject[][] parts = { (impassableGameObjectMask & BUZAM_BIT) != 0 ? this.buzams.getSnapshot() : NO_GAME_OBJECTS,
+								 (impassableGameObjectMask & PLANT_BIT) != 0 ? this.plants.getSnapshot() : NO_GAME_OBJECTS,
+								 (impassableGameObjectMask & SLIME_BIT) != 0 ? this.slimes.getSnapshot() : NO_GAME_OBJECTS,
+								 (impassableGameObjectMask & SHARK_BIT) != 0 ? this.sharks.getSnapshot() : NO_GAME_OBJECTS };
+		
+		int nbObjects = withMazub ? 1 : 0;
+		for(GameObject[] part : parts)
+			nbObjects += part.length;
+		
+		GameObject[] objects = new GameObject[nbObjects];
+		int index = 0;
+		if(withMazub)
+			objects[index++] = this.getMazub();
+		for(GameObject[] part : parts){
+			System.arraycopy(part, 0, objects, index, part.length);
+			index += part.length;
+		}
+		return objects;
+	}
+	
+	/**
+	 * Array registering the cached arrays of Game objects of this World, indexed by the mask of their kinds, 
+	 * or null for masks of which the array needs to be rebuilt.
 	 */
-	Set<Buzam> buzams = new HashSet<Buzam>();
+	private final GameObject[][] impassableGameObjects = new GameObject[1 << 5][];
+	
+	/**
+	 * Return all Game objects in this World of the kinds selected by the given mask, as a set.
+	 * 
+	 * @param 	impassableGameObjectMask
+	 * 				A bitmask of MAZUB_BIT, BUZAM_BIT, PLANT_BIT, SLIME_BIT and SHARK_BIT.
+	 * @pre		| impassableGameObjectMask >= 0 && impassableGameObjectMask <= 0b11111
+	 * @return	An unmodifiable set containing exactly the Game objects of getImpassableGameObjects(impassableGameObjectMask).
+	 * @note	The set is a live view on the cached array of the given mask, so asking for it does not copy any 
+	 * 			Game objects and it reflects every Game object that is added to or removed from this World.
+	 */
+	public Set<GameObject> getImpassableGameObjectSet(int impassableGameObjectMask){
+		assert impassableGameObjectMask >= 0 && impassableGameObjectMask < this.impassableGameObjectSets.size();
+		
+		if(this.impassableGameObjectSets.get(impassableGameObjectMask) == null)
+			this.impassableGameObjectSets.set(impassableGameObjectMask, new ImpassableGameObjectsView(impassableGameObjectMask));
+		return this.impassableGameObjectSets.get(impassableGameObjectMask);
+	}
 	
 	/**
-	 * Set registering the Plants in this World.
+	 * List registering the live views on the Game objects of this World, indexed by the mask of their kinds, or 
+	 * null for masks of which no view has been asked for yet.
 	 */
-	Set<Plant> plants = new HashSet<Plant>();
+	private final List<Set<GameObject>> impassableGameObjectSets = 
+			new ArrayList<Set<GameObject>>(Collections.<Set<GameObject>>nCopies(1 << 5, null));
 	
 	/**
-	 * Set registering the Sharks in this World.
+	 * A class of read-only, live views on the cached array of the Game objects of this World of the kinds selected 
+	 * by a mask.
 	 */
-	Set<Shark> sharks = new HashSet<Shark>();
+	private class ImpassableGameObjectsView extends AbstractSet<GameObject>{
+		
+		/**
+		 * Create a new view on the Game objects of this World of the kinds selected by the given mask.
+		 * 
+		 * @param 	impassableGameObjectMask
+		 * 				A bitmask of MAZUB_BIT, BUZAM_BIT, PLANT_BIT, SLIME_BIT and SHARK_BIT.
+		 */
+		ImpassableGameObjectsView(int impassableGameObjectMask){
+			this.impassableGameObjectMask = impassableGameObjectMask;
+		}
+		
+		@Override
+		public int size(){
+			return getImpassableGameObjects(this.impassableGameObjectMask).length;
+		}
+		
+		@Override
+		public boolean contains(Object object){
+			return object instanceof GameObject && ( ((GameObject) object).getKindBit() & this.impassableGameObjectMask ) != 0 
+					&& getAllGameObjects().contains(object);
+		}
+		
+		@Override
+		public Iterator<GameObject> iterator(){
+			return Collections.unmodifiableList(Arrays.asList(getImpassableGameObjects(this.impassableGameObjectMask))).iterator();
+		}
+		
+		/**
+		 * Variable registering the mask selecting the kinds of Game objects of this view.
+		 */
+		private final int impassableGameObjectMask;
+	}
+	
+	/******************************************************** SEARCH ***************************************************/
+	
+	/**
+	 * Return the nearest Game object or Tile that does not consist of air, as seen by the given searcher in the
+	 * given direction.
+	 * 
+	 * @param 	searcher
+	 * 				The object that searches.
+	 * @param 	direction
+	 * 				The direction in which to search.
+	 * @return	Null if nothing can be seen in the given direction, otherwise the nearest object that can be seen.
+	 * 			| result == this.rayCaster.search(searcher, direction)
+	 * @throws	IllegalArgumentException
+	 * 				| direction == Orientation.ALL
+	 */
+	public IKind searchObject(IKind searcher, Orientation direction) throws IllegalArgumentException{
+		return this.rayCaster.search(searcher, direction);
+	}
 	
 	/**
-	 * Set registering the Slimes in this World.
+	 * Variable registering the Ray caster that answers the searches in this World.
 	 */
-	Set<Slime> slimes = new HashSet<Slime>();
+	private final RayCaster rayCaster = new RayCaster(this);
 	
 	/******************************************************* PLAYER ****************************************************/
 	
@@ -1006,11 +3277,14 @@ public class World {
 	 * 
 	 * @effect	| for GameObject gameObject in this.getAllGameObjects():
 	 * 			|	gameObject.unsetWorld()
+	 * @effect	| shutdownPool()
 	 * @post	| new.isTerminated() == true
 	 */
 	@Basic @Model
 	private void terminate(){
-		for (GameObject gameObject: this.getAllGameObjects()){
+		this.shutdownPool();
+		
+		for (GameObject gameObject: this.getAllGameObjects().toArray(new GameObject[0])){
 			gameObject.unsetWorld();
 		}
 		
@@ -36,6 +36,9 @@ public class Animation {
 	 * 			| new.getGameObject() == gameObject
 	 * @post	The initial sprites of the animation are equal to the given array sprites.
 	 * 			| new.sprites == sprites
+	 * @post	The collision masks of the animation are the masks of the given sprites.
+	 * 			| for each index in 0..sprites.length-1:
+	 * 			|	new.getMaskAt(index) == CollisionMask.getMask(sprites[index])
 	 * @effect	The initial sprite index is set to 0.
 	 * 			| setSpriteIndex(0)
 	 * @throws 	IllegalWidthException
@@ -59,6 +62,9 @@ public class Animation {
 		
 		this.gameObject = gameObject;
 		this.sprites = sprites;
+		this.masks = new CollisionMask[sprites.length];
+		for (int i = 0; i < sprites.length; i++)
+			this.masks[i] = CollisionMask.getMask(sprites[i]);
 		this.setSpriteIndex(0);
 	}
 	
@@ -157,6 +163,33 @@ public class Animation {
 	 */
 	private final Sprite[] sprites;	
 	
+	/**
+	 * Return the collision mask of the current sprite of the Animation.
+	 * 
+	 * @return	| result == this.getMaskAt(this.getSpriteIndex())
+	 */
+	public CollisionMask getCurrentMask(){
+		return this.getMaskAt(this.getSpriteIndex());
+	}
+	
+	/**
+	 * Return the collision mask of the sprite of this Animation, with the given index.
+	 * 
+	 * @param 	index
+	 * 				The index of the sprite.
+	 * @return	The collision mask of the sprite of this Animation, with the given index.
+	 * @throws	IndexOutOfBoundsException
+	 */
+	@Basic @Immutable
+	public CollisionMask getMaskAt(int index) throws IndexOutOfBoundsException{
+		return this.masks[index];
+	}
+	
+	/**
+	 * Variable registering the collision masks of the sprites of this Animation, at the indices of the sprites.
+	 */
+	private final CollisionMask[] masks;
+	
 	/**
 	 * Return the current sprite index for this Animation.
 	 * 
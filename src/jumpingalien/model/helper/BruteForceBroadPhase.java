@@ -0,0 +1,198 @@
+package jumpingalien.model.helper;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+import jumpingalien.model.interfaces.IBroadPhase;
+import jumpingalien.model.interfaces.IBroadPhaseVisitor;
+
+/**
+ * A class of broadphases that test every element against every queried region.
+ *
+ * Keeping an element up to date costs constant time, but every query takes time linear in the number of
+ * elements. This broadphase reports exactly the elements of which the bounding box overlaps the queried region,
+ * and serves as the baseline the other broadphases are compared against.
+ *
+ * @param	<T>
+ * 				The type of the elements of the broadphase.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getNbElements() >= 0
+ */
+public class BruteForceBroadPhase<T> implements IBroadPhase<T> {
+
+	/******************************************************* ELEMENTS **************************************************/
+
+	/**
+	 * Return the number of elements in this broadphase.
+	 */
+	@Basic @Override
+	public int getNbElements(){
+		return this.nbElements;
+	}
+
+	/**
+	 * Check whether this broadphase has an element with the given id.
+	 *
+	 * @param 	id
+	 * 				The id to check.
+	 */
+	@Override
+	public boolean contains(int id){
+		return id >= 0 && id < this.elements.length && this.elements[id] != null;
+	}
+
+	/**
+	 * Return the element with the given id, or null if this broadphase has no element with that id.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 */
+	@Override @SuppressWarnings("unchecked")
+	public T getElement(int id){
+		return this.contains(id) ? (T) this.elements[id] : null;
+	}
+
+	/**
+	 * Enter the given element with the given id and bounding box at the end of this broadphase.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	element
+	 * 				The element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| id >= 0 && !contains(id) && element != null && left <= right && bottom <= top
+	 * @post	| new.getElement(id) == element
+	 */
+	@Override
+	public void insert(int id, T element, int left, int bottom, int right, int top){
+		assert id >= 0 && !this.contains(id) && element != null;
+
+		if(id >= this.elements.length){
+			int capacity = Math.max(id + 1, 2 * this.elements.length);
+			this.elements = Arrays.copyOf(this.elements, capacity);
+			this.positions = Arrays.copyOf(this.positions, capacity);
+			this.lefts = Arrays.copyOf(this.lefts, capacity);
+			this.bottoms = Arrays.copyOf(this.bottoms, capacity);
+			this.rights = Arrays.copyOf(this.rights, capacity);
+			this.tops = Arrays.copyOf(this.tops, capacity);
+		}
+		if(this.nbElements == this.ids.length)
+			this.ids = Arrays.copyOf(this.ids, Math.max(16, 2 * this.ids.length));
+
+		this.elements[id] = element;
+		this.positions[id] = this.nbElements;
+		this.ids[this.nbElements++] = id;
+		this.update(id, left, bottom, right, top);
+	}
+
+	/**
+	 * Move the element with the given id to the given bounding box.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| contains(id) && left <= right && bottom <= top
+	 */
+	@Override
+	public void update(int id, int left, int bottom, int right, int top){
+		assert this.contains(id) && left <= right && bottom <= top;
+
+		this.lefts[id] = left;
+		this.bottoms[id] = bottom;
+		this.rights[id] = right;
+		this.tops[id] = top;
+	}
+
+	/**
+	 * Remove the element with the given id from this broadphase, if any. The last element of this broadphase
+	 * takes its place.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @post	| !new.contains(id)
+	 */
+	@Override
+	public void remove(int id){
+		if(!this.contains(id))
+			return;
+
+		int last = this.ids[--this.nbElements];
+		this.ids[this.positions[id]] = last;
+		this.positions[last] = this.positions[id];
+		this.elements[id] = null;
+	}
+
+	/**
+	 * Array registering the element with every id, or null for ids without an element.
+	 */
+	private Object[] elements = new Object[0];
+
+	/**
+	 * Array registering the ids of the elements of this broadphase at its first getNbElements() indices.
+	 */
+	private int[] ids = new int[0];
+
+	/**
+	 * Array registering the index in ids of the element with every id.
+	 */
+	private int[] positions = new int[0];
+
+	/**
+	 * Arrays registering the bounding box of the element with every id, in pixels.
+	 */
+	private int[] lefts = new int[0], bottoms = new int[0], rights = new int[0], tops = new int[0];
+
+	/**
+	 * Variable registering the number of elements in this broadphase.
+	 */
+	private int nbElements = 0;
+
+	/********************************************************* QUERY ***************************************************/
+
+	/**
+	 * Visit the ids of the elements of which the bounding box shares at least one pixel with the given
+	 * rectangular region, testing every element of this broadphase.
+	 *
+	 * @param 	left
+	 * 				The leftmost pixel column of the region.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the region.
+	 * @param 	right
+	 * 				The rightmost pixel column of the region, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the region, inclusive.
+	 * @param 	visitor
+	 * 				The visitor to invoke for every found id.
+	 * @return	True if and only if the visitor stopped the query.
+	 */
+	@Override
+	public boolean query(int left, int bottom, int right, int top, IBroadPhaseVisitor visitor){
+		for(int i = 0; i < this.nbElements; i++){
+			int id = this.ids[i];
+			if(this.lefts[id] > right || this.rights[id] < left || this.bottoms[id] > top || this.tops[id] < bottom)
+				continue;
+			if(visitor.visitElement(id))
+				return true;
+		}
+		return false;
+	}
+
+}
@@ -84,6 +84,78 @@ public class Collision {
 		}
 	}
 	
+	/**
+	 * Find the regions among the given candidate regions that the given region overlaps with, in the given direction.
+	 * 
+	 * @param 	x
+	 * 				The horizontal position of the left bottom corner of the given region.
+	 * @param 	y
+	 * 				The vertical position of the left bottom corner of the given region.
+	 * @param 	width
+	 * 				The width of the given region.
+	 * @param 	height
+	 * 				The height of the given region.
+	 * @param 	orientation
+	 * 				The orientation to check overlap in.
+	 * @param 	xs
+	 * 				An array containing the horizontal positions of the candidate regions.
+	 * @param 	ys
+	 * 				An array containing the vertical positions of the candidate regions.
+	 * @param 	widths
+	 * 				An array containing the widths of the candidate regions.
+	 * @param 	heights
+	 * 				An array containing the heights of the candidate regions.
+	 * @param 	nbRegions
+	 * 				The number of candidate regions, stored at the first indices of the arrays.
+	 * @param 	hits
+	 * 				An array of at least nbRegions elements, in which the result is stored.
+	 * @return	The number of candidate regions the given region overlaps with. The indices of those regions are 
+	 * 			stored at the first indices of the given array of hits, in increasing order.
+	 * 			| result == count of index in 0..nbRegions-1: 
+	 * 			|	doRegionsOverlap(x, y, width, height, xs[index], ys[index], widths[index], heights[index], orientation)
+	 * @throws 	IllegalArgumentException
+	 * 				The given orientation is not implemented.
+	 * @note	Every orientation is reduced to a test of a range of columns and a range of rows against every 
+	 * 			candidate region, which compares the signs of four differences without branches. The first loop only
+	 * 			reads and writes the arrays at the loop index, so the JIT compiler can vectorize it. The second loop 
+	 * 			compacts the hits in place.
+	 */
+	public static int findOverlappingRegions(int x, int y, int width, int height, Orientation orientation,
+											 int[] xs, int[] ys, int[] widths, int[] heights, int nbRegions,
+											 int[] hits) throws IllegalArgumentException{
+		int minX = x, maxX = x + width - 1, minY = y, maxY = y + height - 1;
+		switch(orientation){
+			case RIGHT:
+				minX = maxX;
+				break;
+			case LEFT:
+				maxX = minX;
+				break;
+			case TOP:
+				minY = maxY;
+				break;
+			case BOTTOM:
+				maxY = minY;
+				break;
+			case ALL:
+				break;
+			default:
+				throw new IllegalArgumentException("Given orientation not implemented!");
+		}
+		
+		for(int i = 0; i < nbRegions; i++)
+			hits[i] = ~( (xs[i] + widths[i] - 1 - minX) | (maxX - xs[i]) | 
+						 (ys[i] + heights[i] - 1 - minY) | (maxY - ys[i]) ) >>> 31;
+		
+		int nbHits = 0;
+		for(int i = 0; i < nbRegions; i++){
+			int hit = hits[i];
+			hits[nbHits] = i;
+			nbHits += hit;
+		}
+		return nbHits;
+	}
+	
 	/**
 	 * Check whether two lines of pixels do overlap. The lines are defined by their most-left pixel (x) and their width. 
 	 * This can also be used for vertical lines, since the condition is the same.
@@ -102,4 +174,78 @@ public class Collision {
 	public static boolean doPixelsOverlap(int x1, int width1, int x2, int width2){
 		return	x1 < x2 + width2 && x1 + width1 > x2;
 	}
+	
+	/**
+	 * Return the distance a line of pixels can move in the given direction before one of its end pixels, or one of the 
+	 * pixels right within its ends, enters another tile. As long as that does not happen, the line overlaps the same 
+	 * tiles, and so does the line without its end pixels.
+	 * 
+	 * @param 	position
+	 * 				The exact position of the first pixel of the line, of which the pixel is the integer part.
+	 * @param 	length
+	 * 				The number of pixels of the line.
+	 * @param 	tileLength
+	 * 				The length of a tile, in pixels.
+	 * @param 	direction
+	 * 				The sign of the direction in which the line moves, or zero if it may move in both directions.
+	 * @return	The smallest distance, in pixels, over which all of the pixels at the ends of the line and right within 
+	 * 			them stay in their tiles.
+	 */
+	public static double getDistanceToTileBorder(double position, int length, int tileLength, int direction){
+		int low = (int) Math.floor(position);
+		int high = low + length - 1;
+		double fraction = position - low;
+		
+		return Math.min(Math.min(getDistanceToTileBorder(low, fraction, tileLength, direction), 
+								 getDistanceToTileBorder(low + 1, fraction, tileLength, direction)),
+						Math.min(getDistanceToTileBorder(high - 1, fraction, tileLength, direction), 
+								 getDistanceToTileBorder(high, fraction, tileLength, direction)));
+	}
+	
+	/**
+	 * Return the distance the given pixel, shifted by the given fraction, can move in the given direction before it 
+	 * enters another tile.
+	 * 
+	 * @param 	pixel
+	 * 				The pixel.
+	 * @param 	fraction
+	 * 				The fraction of a pixel by which the pixel is shifted.
+	 * @param 	tileLength
+	 * 				The length of a tile, in pixels.
+	 * @param 	direction
+	 * 				The sign of the direction in which the pixel moves, or zero if it may move in both directions.
+	 */
+	private static double getDistanceToTileBorder(int pixel, double fraction, int tileLength, int direction){
+		int inTile = Math.floorMod(pixel, tileLength);
+		if(direction > 0)
+			return tileLength - inTile - fraction;
+		if(direction < 0)
+			return inTile + fraction;
+		return Math.min(tileLength - inTile - fraction, inTile + fraction);
+	}
+	
+	/**
+	 * Return the longest time in which a Game object with the given velocity and acceleration along one axis moves at 
+	 * most the given number of pixels, whichever way its velocity changes.
+	 * 
+	 * @param 	velocity
+	 * 				The velocity along the axis, in meters per second.
+	 * @param 	acceleration
+	 * 				The acceleration along the axis, in meters per second squared.
+	 * @param 	pixels
+	 * 				The number of pixels.
+	 * @return	The greatest time t for which 100 * ( |velocity| * t + 0.5 * |acceleration| * t^2 ) <= pixels, which is
+	 * 			infinity if the Game object does not move and zero if the given number of pixels is not positive.
+	 */
+	public static double getTimeToTravel(double velocity, double acceleration, double pixels){
+		double speed = 100 * Math.abs(velocity);
+		double halfAcceleration = 50 * Math.abs(acceleration);
+		if(speed == 0 && halfAcceleration == 0)
+			return Double.POSITIVE_INFINITY;
+		if(pixels <= 0)
+			return 0;
+		if(halfAcceleration == 0)
+			return pixels / speed;
+		return ( -speed + Math.sqrt(speed * speed + 4 * halfAcceleration * pixels) ) / ( 2 * halfAcceleration );
+	}
 }
@@ -0,0 +1,260 @@
+package jumpingalien.model.helper;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import be.kuleuven.cs.som.annotate.*;
+import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.util.Sprite;
+
+/**
+ * A class of collision masks, which register for every pixel of a sprite whether it is opaque.
+ *
+ * Every row of a mask is packed in words of 64 bits, of which the lowest bit holds the leftmost pixel of the word.
+ * The rows are numbered from the bottom up, like the vertical positions in a World. Two masks are compared by
+ * shifting the words of both masks to the same column and combining them with a bitwise and, so 64 pixels are
+ * compared at once.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getWidth() > 0 && getHeight() > 0
+ */
+@Value
+public class CollisionMask {
+
+	/***************************************************** CONSTRUCTOR *************************************************/
+
+	/**
+	 * Constructor for the class CollisionMask, of which every pixel is opaque.
+	 *
+	 * @param 	width
+	 * 				The width of the mask.
+	 * @param 	height
+	 * 				The height of the mask.
+	 * @pre		| width > 0 && height > 0
+	 * @post	| new.getWidth() == width
+	 * @post	| new.getHeight() == height
+	 * @post	| for each column in 0..width-1, row in 0..height-1:
+	 * 			|	new.isOpaque(column, row)
+	 */
+	public CollisionMask(int width, int height){
+		this(width, height, null);
+	}
+
+	/**
+	 * Constructor for the class CollisionMask, of which the opaque pixels are the pixels of the given image of which
+	 * the alpha value is at least ALPHA_THRESHOLD.
+	 *
+	 * @param 	image
+	 * 				The image to build the mask from.
+	 * @pre		| image != null
+	 * @post	| new.getWidth() == image.getWidth()
+	 * @post	| new.getHeight() == image.getHeight()
+	 * @post	The bottom row of the mask is the bottom row of the image.
+	 * 			| for each column in 0..getWidth()-1, row in 0..getHeight()-1:
+	 * 			|	new.isOpaque(column, row) ==
+	 * 			|		( image.getRGB(column, getHeight() - 1 - row) >>> 24 >= ALPHA_THRESHOLD )
+	 */
+	public CollisionMask(BufferedImage image){
+		this(image.getWidth(), image.getHeight(), image);
+	}
+
+	/**
+	 * Initialize this mask with the given width and height, and set its pixels from the given image, or make all
+	 * of them opaque if no image is given.
+	 */
+	private CollisionMask(int width, int height, BufferedImage image){
+		assert width > 0 && height > 0;
+
+		this.width = width;
+		this.height = height;
+		this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+		this.words = new long[this.wordsPerRow * height];
+
+		for(int row = 0; row < height; row++){
+			int rowStart = row * this.wordsPerRow;
+			for(int column = 0; column < width; column++){
+				if(image == null || (image.getRGB(column, height - 1 - row) >>> 24) >= ALPHA_THRESHOLD)
+					this.words[rowStart + (column >>> 6)] |= 1L << (column & 63);
+			}
+		}
+	}
+
+	/**
+	 * Constant reflecting the smallest alpha value of an opaque pixel.
+	 */
+	public static final int ALPHA_THRESHOLD = 128;
+
+	/******************************************************** CACHE ****************************************************/
+
+	/**
+	 * Return the collision mask of the given sprite.
+	 *
+	 * @param 	sprite
+	 * 				The sprite to return the mask of.
+	 * @return	If the given sprite is an image sprite, a mask built from its image, else a mask of the size of the
+	 * 			sprite of which every pixel is opaque.
+	 * 			| if ( sprite instanceof ImageSprite )
+	 * 			|	then result.equals(new CollisionMask(((ImageSprite) sprite).getImage()))
+	 * 			| else
+	 * 			|	result.equals(new CollisionMask(sprite.getWidth(), sprite.getHeight()))
+	 * @note	Masks are cached, so every mask is built only once for as long as its image or sprite is in use. The 
+	 * 			masks of image sprites are cached by their image rather than by the name of the sprite, since a 
+	 * 			flipped or rescaled sprite keeps the name of the sprite it was made from.
+	 */
+	public static synchronized CollisionMask getMask(Sprite sprite){
+		if(sprite instanceof ImageSprite)
+			return imageMasks.computeIfAbsent(((ImageSprite) sprite).getImage(), CollisionMask::new);
+		return solidMasks.computeIfAbsent(sprite, key -> new CollisionMask(sprite.getWidth(), sprite.getHeight()));
+	}
+
+	/**
+	 * Variable registering the cached masks of image sprites, by their image. Images do not override equals, so 
+	 * they are compared by identity, and a mask is evicted as soon as its image is no longer used elsewhere.
+	 */
+	private static final Map<BufferedImage, CollisionMask> imageMasks = new WeakHashMap<>();
+
+	/**
+	 * Variable registering the cached opaque masks of the sprites that are not image sprites, by their sprite. A 
+	 * mask is evicted as soon as its sprite is no longer used elsewhere.
+	 */
+	private static final Map<Sprite, CollisionMask> solidMasks = new WeakHashMap<>();
+
+	/******************************************************* PIXELS ****************************************************/
+
+	/**
+	 * Return the width of this mask.
+	 */
+	@Basic @Immutable
+	public int getWidth(){
+		return this.width;
+	}
+
+	/**
+	 * Return the height of this mask.
+	 */
+	@Basic @Immutable
+	public int getHeight(){
+		return this.height;
+	}
+
+	/**
+	 * Check whether the pixel of this mask at the given column and row is opaque.
+	 *
+	 * @param 	column
+	 * 				The column of the pixel, counted from the left.
+	 * @param 	row
+	 * 				The row of the pixel, counted from the bottom.
+	 * @throws	IndexOutOfBoundsException
+	 * 				| column < 0 || column >= getWidth() || row < 0 || row >= getHeight()
+	 */
+	@Basic @Immutable
+	public boolean isOpaque(int column, int row) throws IndexOutOfBoundsException{
+		if(column < 0 || column >= this.getWidth() || row < 0 || row >= this.getHeight())
+			throw new IndexOutOfBoundsException();
+		return (this.words[row * this.wordsPerRow + (column >>> 6)] & (1L << (column & 63))) != 0;
+	}
+
+	/**
+	 * Return the 64 pixels of the given row of this mask, starting at the given column, packed in one word.
+	 *
+	 * @param 	rowStart
+	 * 				The index of the first word of the row.
+	 * @param 	column
+	 * 				The column of the first pixel, which lands in the lowest bit of the result.
+	 * @pre		| column >= 0 && column < getWidth()
+	 * @return	The pixels beyond the width of this mask are not opaque.
+	 */
+	private long getWord(int rowStart, int column){
+		int word = column >>> 6, shift = column & 63;
+		long bits = this.words[rowStart + word] >>> shift;
+		if(shift != 0 && word + 1 < this.wordsPerRow)
+			bits |= this.words[rowStart + word + 1] << (Long.SIZE - shift);
+		return bits;
+	}
+
+	/**
+	 * Variables registering the width and height of this mask.
+	 */
+	private final int width, height;
+
+	/**
+	 * Variable registering the number of words of every row of this mask.
+	 */
+	private final int wordsPerRow;
+
+	/**
+	 * Array registering the pixels of this mask, row after row from the bottom up, in wordsPerRow words per row.
+	 */
+	private final long[] words;
+
+	/******************************************************* OVERLAP ***************************************************/
+
+	/**
+	 * Check whether this mask, with its left bottom corner at the given position, has an opaque pixel in common with
+	 * the given mask, with its left bottom corner at the given other position.
+	 *
+	 * @param 	x
+	 * 				The horizontal position of this mask.
+	 * @param 	y
+	 * 				The vertical position of this mask.
+	 * @param 	other
+	 * 				The other mask.
+	 * @param 	otherX
+	 * 				The horizontal position of the other mask.
+	 * @param 	otherY
+	 * 				The vertical position of the other mask.
+	 * @pre		| other != null
+	 * @return	| result == ( for some pixelX, pixelY:
+	 * 			|	  this.isOpaque(pixelX - x, pixelY - y) && other.isOpaque(pixelX - otherX, pixelY - otherY) )
+	 * @note	Only the rows and columns in which the bounding boxes of both masks overlap are compared, 64 columns
+	 * 			at a time.
+	 */
+	public boolean overlapsWith(int x, int y, CollisionMask other, int otherX, int otherY){
+		int fromX = Math.max(x, otherX), toX = Math.min(x + this.getWidth(), otherX + other.getWidth());
+		int fromY = Math.max(y, otherY), toY = Math.min(y + this.getHeight(), otherY + other.getHeight());
+
+		for(int row = fromY; row < toY; row++){
+			int rowStart = (row - y) * this.wordsPerRow, otherRowStart = (row - otherY) * other.wordsPerRow;
+			for(int column = fromX; column < toX; column += Long.SIZE){
+				long common = this.getWord(rowStart, column - x) & other.getWord(otherRowStart, column - otherX);
+				if(toX - column < Long.SIZE)
+					common &= (1L << (toX - column)) - 1;
+				if(common != 0)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/****************************************************** EQUALITY ***************************************************/
+
+	/**
+	 * Check whether this mask is equal to the given object.
+	 *
+	 * @return	| result == ( other instanceof CollisionMask &&
+	 * 			|	getWidth() == other.getWidth() && getHeight() == other.getHeight() &&
+	 * 			|	for each column in 0..getWidth()-1, row in 0..getHeight()-1:
+	 * 			|		isOpaque(column, row) == other.isOpaque(column, row) )
+	 */
+	@Override
+	public boolean equals(Object other){
+		if(!(other instanceof CollisionMask))
+			return false;
+		CollisionMask mask = (CollisionMask) other;
+		return this.getWidth() == mask.getWidth() && this.getHeight() == mask.getHeight() &&
+			   Arrays.equals(this.words, mask.words);
+	}
+
+	/**
+	 * Return the hash code of this mask.
+	 */
+	@Override
+	public int hashCode(){
+		return 31 * (31 * this.getWidth() + this.getHeight()) + Arrays.hashCode(this.words);
+	}
+}
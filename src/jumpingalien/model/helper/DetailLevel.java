@@ -0,0 +1,61 @@
+package jumpingalien.model.helper;
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * An enumeration of the levels of detail at which a Game object is simulated, depending on its distance to the
+ * visible window of its World.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ */
+@Value
+public enum DetailLevel {
+
+	NEAR {
+		/**
+		 * Return the rate at which a Game object near the visible window executes its Program.
+		 *
+		 * @return	Every statement in time.
+		 * 			| 1
+		 */
+		@Override @Basic @Immutable
+		public double getProgramRate(){
+			return 1;
+		}
+	},
+	MID {
+		/**
+		 * Return the rate at which a Game object at a mid-range distance of the visible window executes its Program.
+		 *
+		 * @return	One in four statements in time.
+		 * 			| 0.25
+		 */
+		@Override @Basic @Immutable
+		public double getProgramRate(){
+			return 0.25;
+		}
+	},
+	FAR {
+		/**
+		 * Return the rate at which a Game object far from the visible window executes its Program.
+		 *
+		 * @return	No statements at all, as the Game object is frozen.
+		 * 			| 0
+		 */
+		@Override @Basic @Immutable
+		public double getProgramRate(){
+			return 0;
+		}
+	};
+
+	/**
+	 * Return the fraction of the elapsed in-game time for which a Game object at this level of detail executes
+	 * the statements of its Program.
+	 *
+	 * @return	The rate at which the Program is executed.
+	 */
+	@Basic @Immutable
+	public abstract double getProgramRate();
+
+}
@@ -0,0 +1,735 @@
+package jumpingalien.model.helper;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+import jumpingalien.model.interfaces.IBroadPhase;
+import jumpingalien.model.interfaces.IBroadPhaseVisitor;
+
+/**
+ * A class of broadphases that keep their elements in a dynamic bounding volume hierarchy: a binary tree of which
+ * every leaf holds one element and every inner node holds the bounding box of all leaves below it.
+ *
+ * The bounding box of a leaf is fattened by a margin on every side. As long as an element stays within its fattened
+ * box, an update only stores its exact bounding box and leaves the tree untouched, so elements that move a few
+ * pixels per time step rarely change the tree. A new leaf is placed next to the node that increases the perimeter
+ * of the tree the least, and the nodes above it are rotated like an AVL tree to keep the tree balanced. Unlike a
+ * grid, this does not depend on the size of the elements, so it suits Worlds with bounding boxes of very different
+ * sizes.
+ *
+ * Besides regions, the tree can be searched for the nearest element in a direction, as the searchobj expression
+ * of a Program does.
+ *
+ * @param	<T>
+ * 				The type of the elements of the broadphase.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getNbElements() >= 0
+ * @invar	| getHeight() >= -1
+ */
+public class DynamicAABBTree<T> implements IBroadPhase<T> {
+
+	/**
+	 * Constant reflecting the index of no node.
+	 */
+	private static final int NULL_NODE = -1;
+
+	/**
+	 * Constant reflecting the default number of pixels by which the bounding boxes of the leaves are fattened.
+	 */
+	public static final int DEFAULT_MARGIN = 16;
+
+	/***************************************************** CONSTRUCTORS ************************************************/
+
+	/**
+	 * Initialize a new tree of which the leaves are fattened by the given number of pixels on every side.
+	 *
+	 * @param 	margin
+	 * 				The number of pixels to fatten the leaves by.
+	 * @post	| new.getMargin() == margin
+	 * @throws	IllegalArgumentException
+	 * 				| margin < 0
+	 */
+	public DynamicAABBTree(int margin) throws IllegalArgumentException{
+		if(margin < 0)
+			throw new IllegalArgumentException("The margin of a tree cannot be negative!");
+		this.margin = margin;
+	}
+
+	/**
+	 * Initialize a new tree with the default margin.
+	 *
+	 * @effect	| this(DEFAULT_MARGIN)
+	 */
+	public DynamicAABBTree(){
+		this(DEFAULT_MARGIN);
+	}
+
+	/**
+	 * Return the number of pixels by which the bounding boxes of the leaves of this tree are fattened.
+	 */
+	@Basic @Immutable
+	public int getMargin(){
+		return this.margin;
+	}
+
+	/**
+	 * Variable registering the number of pixels by which the bounding boxes of the leaves are fattened.
+	 */
+	private final int margin;
+
+	/******************************************************* ELEMENTS **************************************************/
+
+	/**
+	 * Return the number of elements in this broadphase.
+	 */
+	@Basic @Override
+	public int getNbElements(){
+		return this.nbElements;
+	}
+
+	/**
+	 * Check whether this broadphase has an element with the given id.
+	 *
+	 * @param 	id
+	 * 				The id to check.
+	 */
+	@Override
+	public boolean contains(int id){
+		return id >= 0 && id < this.elements.length && this.elements[id] != null;
+	}
+
+	/**
+	 * Return the element with the given id, or null if this broadphase has no element with that id.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 */
+	@Override @SuppressWarnings("unchecked")
+	public T getElement(int id){
+		return this.contains(id) ? (T) this.elements[id] : null;
+	}
+
+	/**
+	 * Enter the given element with the given id and bounding box in this broadphase, as a new leaf of the tree.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	element
+	 * 				The element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| id >= 0 && !contains(id) && element != null && left <= right && bottom <= top
+	 * @post	| new.getElement(id) == element
+	 */
+	@Override
+	public void insert(int id, T element, int left, int bottom, int right, int top){
+		assert id >= 0 && !this.contains(id) && element != null && left <= right && bottom <= top;
+
+		if(id >= this.elements.length){
+			int capacity = Math.max(id + 1, 2 * this.elements.length);
+			this.elements = Arrays.copyOf(this.elements, capacity);
+			this.leaves = Arrays.copyOf(this.leaves, capacity);
+			this.exactLefts = Arrays.copyOf(this.exactLefts, capacity);
+			this.exactBottoms = Arrays.copyOf(this.exactBottoms, capacity);
+			this.exactRights = Arrays.copyOf(this.exactRights, capacity);
+			this.exactTops = Arrays.copyOf(this.exactTops, capacity);
+		}
+		this.elements[id] = element;
+		this.setExactBox(id, left, bottom, right, top);
+
+		int leaf = this.allocateNode();
+		this.elementIds[leaf] = id;
+		this.setFatBox(leaf, left, bottom, right, top);
+		this.insertLeaf(leaf);
+		this.leaves[id] = leaf;
+		this.nbElements++;
+	}
+
+	/**
+	 * Move the element with the given id to the given bounding box. The tree is only changed if the bounding box
+	 * leaves the fattened bounding box of the leaf of the element.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| contains(id) && left <= right && bottom <= top
+	 */
+	@Override
+	public void update(int id, int left, int bottom, int right, int top){
+		assert this.contains(id) && left <= right && bottom <= top;
+
+		this.setExactBox(id, left, bottom, right, top);
+		int leaf = this.leaves[id];
+		if(this.lefts[leaf] <= left && this.bottoms[leaf] <= bottom && this.rights[leaf] >= right && this.tops[leaf] >= top)
+			return;
+
+		this.removeLeaf(leaf);
+		this.setFatBox(leaf, left, bottom, right, top);
+		this.insertLeaf(leaf);
+	}
+
+	/**
+	 * Remove the element with the given id from this broadphase, if any.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @post	| !new.contains(id)
+	 */
+	@Override
+	public void remove(int id){
+		if(!this.contains(id))
+			return;
+
+		int leaf = this.leaves[id];
+		this.removeLeaf(leaf);
+		this.freeNode(leaf);
+		this.elements[id] = null;
+		this.leaves[id] = NULL_NODE;
+		this.nbElements--;
+	}
+
+	/**
+	 * Set the exact bounding box of the element with the given id.
+	 */
+	@Model
+	private void setExactBox(int id, int left, int bottom, int right, int top){
+		this.exactLefts[id] = left;
+		this.exactBottoms[id] = bottom;
+		this.exactRights[id] = right;
+		this.exactTops[id] = top;
+	}
+
+	/**
+	 * Array registering the element with every id, or null for ids without an element.
+	 */
+	private Object[] elements = new Object[0];
+
+	/**
+	 * Array registering the leaf of the element with every id.
+	 */
+	private int[] leaves = new int[0];
+
+	/**
+	 * Arrays registering the exact bounding box of the element with every id, in pixels.
+	 */
+	private int[] exactLefts = new int[0], exactBottoms = new int[0], exactRights = new int[0], exactTops = new int[0];
+
+	/**
+	 * Variable registering the number of elements in this broadphase.
+	 */
+	private int nbElements = 0;
+
+	/********************************************************* NODES ***************************************************/
+
+	/**
+	 * Return the height of this tree, which is -1 for an empty tree and 0 for a tree with a single leaf.
+	 */
+	public int getHeight(){
+		return ( this.root == NULL_NODE ) ? -1 : this.heights[this.root];
+	}
+
+	/**
+	 * Check whether the given node is a leaf.
+	 */
+	@Model
+	private boolean isLeaf(int node){
+		return this.firstChildren[node] == NULL_NODE;
+	}
+
+	/**
+	 * Take a node from the free list of this tree, growing the node arrays if there is none.
+	 *
+	 * @return	A node without parent or children and with height zero.
+	 */
+	@Model
+	private int allocateNode(){
+		if(this.freeList == NULL_NODE){
+			int capacity = Math.max(16, 2 * this.parents.length);
+			int oldCapacity = this.parents.length;
+			this.parents = Arrays.copyOf(this.parents, capacity);
+			this.firstChildren = Arrays.copyOf(this.firstChildren, capacity);
+			this.secondChildren = Arrays.copyOf(this.secondChildren, capacity);
+			this.heights = Arrays.copyOf(this.heights, capacity);
+			this.elementIds = Arrays.copyOf(this.elementIds, capacity);
+			this.lefts = Arrays.copyOf(this.lefts, capacity);
+			this.bottoms = Arrays.copyOf(this.bottoms, capacity);
+			this.rights = Arrays.copyOf(this.rights, capacity);
+			this.tops = Arrays.copyOf(this.tops, capacity);
+			for(int node = capacity - 1; node >= oldCapacity; node--){
+				this.parents[node] = this.freeList;
+				this.freeList = node;
+			}
+		}
+		int node = this.freeList;
+		this.freeList = this.parents[node];
+		this.parents[node] = NULL_NODE;
+		this.firstChildren[node] = NULL_NODE;
+		this.secondChildren[node] = NULL_NODE;
+		this.heights[node] = 0;
+		this.elementIds[node] = -1;
+		return node;
+	}
+
+	/**
+	 * Return the given node to the free list of this tree. The parent array links the free nodes.
+	 */
+	@Model
+	private void freeNode(int node){
+		this.parents[node] = this.freeList;
+		this.heights[node] = -1;
+		this.freeList = node;
+	}
+
+	/**
+	 * Set the bounding box of the given leaf to the given bounding box, fattened by the margin of this tree.
+	 */
+	@Model
+	private void setFatBox(int leaf, int left, int bottom, int right, int top){
+		this.lefts[leaf] = left - this.margin;
+		this.bottoms[leaf] = bottom - this.margin;
+		this.rights[leaf] = right + this.margin;
+		this.tops[leaf] = top + this.margin;
+	}
+
+	/**
+	 * Set the bounding box of the given node to the union of the bounding boxes of the two given nodes.
+	 */
+	@Model
+	private void setUnion(int node, int first, int second){
+		this.lefts[node] = Math.min(this.lefts[first], this.lefts[second]);
+		this.bottoms[node] = Math.min(this.bottoms[first], this.bottoms[second]);
+		this.rights[node] = Math.max(this.rights[first], this.rights[second]);
+		this.tops[node] = Math.max(this.tops[first], this.tops[second]);
+	}
+
+	/**
+	 * Return the perimeter of the bounding box of the given node.
+	 */
+	@Model
+	private long getPerimeter(int node){
+		return 2L * ( (long) this.rights[node] - this.lefts[node] + this.tops[node] - this.bottoms[node] );
+	}
+
+	/**
+	 * Return the perimeter of the union of the bounding boxes of the two given nodes.
+	 */
+	@Model
+	private long getUnionPerimeter(int first, int second){
+		long width = (long) Math.max(this.rights[first], this.rights[second]) - Math.min(this.lefts[first], this.lefts[second]);
+		long height = (long) Math.max(this.tops[first], this.tops[second]) - Math.min(this.bottoms[first], this.bottoms[second]);
+		return 2 * ( width + height );
+	}
+
+	/**
+	 * Variable registering the root of this tree, or NULL_NODE if the tree is empty.
+	 */
+	private int root = NULL_NODE;
+
+	/**
+	 * Variable registering the first node of the free list of this tree, or NULL_NODE if there is none.
+	 */
+	private int freeList = NULL_NODE;
+
+	/**
+	 * Arrays registering the parent, the two children and the height of every node. Leaves have no children and
+	 * height zero. For free nodes, the parent array registers the next free node.
+	 */
+	private int[] parents = new int[0], firstChildren = new int[0], secondChildren = new int[0], heights = new int[0];
+
+	/**
+	 * Array registering the id of the element of every leaf.
+	 */
+	private int[] elementIds = new int[0];
+
+	/**
+	 * Arrays registering the bounding box of every node, in pixels. The box of a leaf is the fattened box of its
+	 * element, the box of an inner node is the union of the boxes of its children.
+	 */
+	private int[] lefts = new int[0], bottoms = new int[0], rights = new int[0], tops = new int[0];
+
+	/****************************************************** STRUCTURE **************************************************/
+
+	/**
+	 * Insert the given leaf in this tree, as the sibling of the node for which the perimeters of the tree grow
+	 * the least, and rebalance the nodes above it.
+	 *
+	 * @param 	leaf
+	 * 				The leaf to insert, which is not in the tree.
+	 */
+	@Model
+	private void insertLeaf(int leaf){
+		if(this.root == NULL_NODE){
+			this.root = leaf;
+			this.parents[leaf] = NULL_NODE;
+			return;
+		}
+
+		/* Find the best sibling: descend as long as a child is cheaper than pairing with the node itself */
+		int sibling = this.root;
+		while(!this.isLeaf(sibling)){
+			int first = this.firstChildren[sibling];
+			int second = this.secondChildren[sibling];
+			long combinedPerimeter = this.getUnionPerimeter(sibling, leaf);
+			long cost = 2 * combinedPerimeter;
+			long inheritanceCost = 2 * ( combinedPerimeter - this.getPerimeter(sibling) );
+			long firstCost = this.getDescentCost(first, leaf) + inheritanceCost;
+			long secondCost = this.getDescentCost(second, leaf) + inheritanceCost;
+			if(cost < firstCost && cost < secondCost)
+				break;
+			sibling = ( firstCost < secondCost ) ? first : second;
+		}
+
+		/* Pair the leaf and the sibling under a new parent */
+		int oldParent = this.parents[sibling];
+		int newParent = this.allocateNode();
+		this.parents[newParent] = oldParent;
+		this.setUnion(newParent, leaf, sibling);
+		this.heights[newParent] = this.heights[sibling] + 1;
+		if(oldParent == NULL_NODE)
+			this.root = newParent;
+		else if(this.firstChildren[oldParent] == sibling)
+			this.firstChildren[oldParent] = newParent;
+		else
+			this.secondChildren[oldParent] = newParent;
+		this.firstChildren[newParent] = sibling;
+		this.secondChildren[newParent] = leaf;
+		this.parents[sibling] = newParent;
+		this.parents[leaf] = newParent;
+
+		this.refitFrom(this.parents[leaf]);
+	}
+
+	/**
+	 * Return the cost of descending into the given child to insert the given leaf below it.
+	 */
+	@Model
+	private long getDescentCost(int child, int leaf){
+		long perimeter = this.getUnionPerimeter(child, leaf);
+		return this.isLeaf(child) ? perimeter : perimeter - this.getPerimeter(child);
+	}
+
+	/**
+	 * Remove the given leaf from this tree. Its parent is freed and replaced by its sibling, and the nodes above
+	 * are rebalanced.
+	 *
+	 * @param 	leaf
+	 * 				The leaf to remove, which is in the tree.
+	 */
+	@Model
+	private void removeLeaf(int leaf){
+		if(leaf == this.root){
+			this.root = NULL_NODE;
+			return;
+		}
+
+		int parent = this.parents[leaf];
+		int grandParent = this.parents[parent];
+		int sibling = ( this.firstChildren[parent] == leaf ) ? this.secondChildren[parent] : this.firstChildren[parent];
+		if(grandParent == NULL_NODE){
+			this.root = sibling;
+			this.parents[sibling] = NULL_NODE;
+		}else{
+			if(this.firstChildren[grandParent] == parent)
+				this.firstChildren[grandParent] = sibling;
+			else
+				this.secondChildren[grandParent] = sibling;
+			this.parents[sibling] = grandParent;
+			this.refitFrom(grandParent);
+		}
+		this.freeNode(parent);
+		this.parents[leaf] = NULL_NODE;
+	}
+
+	/**
+	 * Rebalance the given node and all nodes above it, and recompute their heights and bounding boxes.
+	 *
+	 * @param 	node
+	 * 				The lowest node to refit, or NULL_NODE.
+	 */
+	@Model
+	private void refitFrom(int node){
+		while(node != NULL_NODE){
+			node = this.balance(node);
+			int first = this.firstChildren[node];
+			int second = this.secondChildren[node];
+			this.heights[node] = 1 + Math.max(this.heights[first], this.heights[second]);
+			this.setUnion(node, first, second);
+			node = this.parents[node];
+		}
+	}
+
+	/**
+	 * Rotate the higher child of the given node up if the heights of its children differ by more than one.
+	 *
+	 * @param 	a
+	 * 				The node to balance.
+	 * @return	The node that took the place of the given node in the tree.
+	 */
+	@Model
+	private int balance(int a){
+		if(this.isLeaf(a) || this.heights[a] < 2)
+			return a;
+
+		int b = this.firstChildren[a];
+		int c = this.secondChildren[a];
+		int balance = this.heights[c] - this.heights[b];
+		if(balance > 1)
+			return this.rotateUp(a, c, b, false);
+		if(balance < -1)
+			return this.rotateUp(a, b, c, true);
+		return a;
+	}
+
+	/**
+	 * Rotate the given high child of the given node up into the place of that node. The node keeps its other child
+	 * and the lower child of the high child, and the high child keeps its higher child.
+	 *
+	 * @param 	a
+	 * 				The node to rotate down.
+	 * @param 	high
+	 * 				The higher child of the node, which is rotated up.
+	 * @param 	other
+	 * 				The other child of the node.
+	 * @param 	highIsFirst
+	 * 				Whether the higher child is the first child of the node.
+	 * @return	The given higher child.
+	 */
+	@Model
+	private int rotateUp(int a, int high, int other, boolean highIsFirst){
+		int f = this.firstChildren[high];
+		int g = this.secondChildren[high];
+
+		/* The high child takes the place of a */
+		this.firstChildren[high] = a;
+		this.parents[high] = this.parents[a];
+		this.parents[a] = high;
+		int parent = this.parents[high];
+		if(parent == NULL_NODE)
+			this.root = high;
+		else if(this.firstChildren[parent] == a)
+			this.firstChildren[parent] = high;
+		else
+			this.secondChildren[parent] = high;
+
+		/* The higher grandchild stays with the high child, the lower one moves to a */
+		int kept = ( this.heights[f] > this.heights[g] ) ? f : g;
+		int moved = ( kept == f ) ? g : f;
+		this.secondChildren[high] = kept;
+		if(highIsFirst)
+			this.firstChildren[a] = moved;
+		else
+			this.secondChildren[a] = moved;
+		this.parents[moved] = a;
+
+		this.setUnion(a, other, moved);
+		this.setUnion(high, a, kept);
+		this.heights[a] = 1 + Math.max(this.heights[other], this.heights[moved]);
+		this.heights[high] = 1 + Math.max(this.heights[a], this.heights[kept]);
+		return high;
+	}
+
+	/********************************************************* QUERY ***************************************************/
+
+	/**
+	 * Visit the ids of the elements of which the bounding box shares at least one pixel with the given
+	 * rectangular region, descending only into the nodes of which the bounding box overlaps the region.
+	 *
+	 * @param 	left
+	 * 				The leftmost pixel column of the region.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the region.
+	 * @param 	right
+	 * 				The rightmost pixel column of the region, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the region, inclusive.
+	 * @param 	visitor
+	 * 				The visitor to invoke for every found id.
+	 * @return	True if and only if the visitor stopped the query.
+	 * @note	The tree is traversed without a stack, by climbing back up along the parents of its nodes, so a query
+	 * 			only reads this tree and any number of threads can query it at once.
+	 */
+	@Override
+	public boolean query(int left, int bottom, int right, int top, IBroadPhaseVisitor visitor){
+		int node = this.root;
+		while(node != NULL_NODE){
+			if(this.lefts[node] <= right && this.rights[node] >= left && this.bottoms[node] <= top && this.tops[node] >= bottom){
+				if(!this.isLeaf(node)){
+					node = this.secondChildren[node];
+					continue;
+				}
+				int id = this.elementIds[node];
+				if(this.exactLefts[id] <= right && this.exactRights[id] >= left &&
+				   this.exactBottoms[id] <= top && this.exactTops[id] >= bottom && visitor.visitElement(id))
+					return true;
+			}
+			node = this.getNextSubtree(node);
+		}
+		return false;
+	}
+
+	/**
+	 * Return the id of the nearest element that can be seen from the given bounding box in the given direction,
+	 * using the definition of the searchobj expression of a Program.
+	 *
+	 * An element is seen to the right if its left side lies beyond the left side of the given box and it shares a
+	 * pixel row with the box, and likewise for the other directions. The nearest element to the right or to the
+	 * top has the smallest left or bottom side; the nearest element to the left or to the bottom has the greatest
+	 * right or top side.
+	 *
+	 * @param 	direction
+	 * 				The direction in which to search.
+	 * @param 	left
+	 * 				The leftmost pixel column of the box to search from.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the box to search from.
+	 * @param 	right
+	 * 				The rightmost pixel column of the box to search from, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the box to search from, inclusive.
+	 * @return	The id of the nearest seen element, the smallest id on equal distances, or -1 if no element is seen.
+	 * @throws	IllegalArgumentException
+	 * 				| direction == Orientation.ALL
+	 * @note	Subtrees of which the bounding box lies behind the box, outside its pixel rows or columns, or further
+	 * 			away than the nearest element found so far are skipped.
+	 * @note	Like a query of a region, the search only reads this tree.
+	 */
+	public int queryNearest(Orientation direction, int left, int bottom, int right, int top) throws IllegalArgumentException{
+		if(direction == Orientation.ALL)
+			throw new IllegalArgumentException("Can only search in a single direction!");
+		if(this.root == NULL_NODE)
+			return -1;
+
+		int best = -1;
+		long bestDistance = Long.MAX_VALUE;
+		int node = this.root;
+		while(node != NULL_NODE){
+			if(this.isLeaf(node)){
+				int id = this.elementIds[node];
+				if(this.isSeen(direction, this.exactLefts[id], this.exactBottoms[id], this.exactRights[id], this.exactTops[id],
+							   left, bottom, right, top)){
+					long distance = getDistance(direction, this.exactLefts[id], this.exactBottoms[id], this.exactRights[id],
+												this.exactTops[id], left, bottom);
+					if(distance < bestDistance || ( distance == bestDistance && id < best )){
+						best = id;
+						bestDistance = distance;
+					}
+				}
+			}else if(this.maySee(direction, this.lefts[node], this.bottoms[node], this.rights[node], this.tops[node], left, bottom, right, top) &&
+					 getLowerBound(direction, this.lefts[node], this.bottoms[node], this.rights[node], this.tops[node], left, bottom) <= bestDistance){
+				node = this.secondChildren[node];
+				continue;
+			}
+			node = this.getNextSubtree(node);
+		}
+		return best;
+	}
+
+	/**
+	 * Check whether an element with the first given bounding box is seen from the second given bounding box in
+	 * the given direction.
+	 */
+	@Model
+	private boolean isSeen(Orientation direction, int left, int bottom, int right, int top,
+						   int fromLeft, int fromBottom, int fromRight, int fromTop){
+		switch(direction){
+		case RIGHT:
+			return left > fromLeft && bottom <= fromTop && top >= fromBottom;
+		case LEFT:
+			return left < fromLeft && bottom <= fromTop && top >= fromBottom;
+		case TOP:
+			return bottom > fromBottom && left <= fromRight && right >= fromLeft;
+		default:
+			return bottom < fromBottom && left <= fromRight && right >= fromLeft;
+		}
+	}
+
+	/**
+	 * Check whether a node with the first given bounding box may hold elements that are seen from the second given
+	 * bounding box in the given direction.
+	 */
+	@Model
+	private boolean maySee(Orientation direction, int left, int bottom, int right, int top,
+						   int fromLeft, int fromBottom, int fromRight, int fromTop){
+		switch(direction){
+		case RIGHT:
+			return right > fromLeft && bottom <= fromTop && top >= fromBottom;
+		case TOP:
+			return top > fromBottom && left <= fromRight && right >= fromLeft;
+		default:
+			return this.isSeen(direction, left, bottom, right, top, fromLeft, fromBottom, fromRight, fromTop);
+		}
+	}
+
+	/**
+	 * Return the distance in the given direction from a box with the given bottom left pixel to a seen element
+	 * with the given bounding box.
+	 *
+	 * @return	The distance between the bottom left pixels for the right and top direction, and the distance between
+	 * 			the left or bottom side of the searching box and the opposite side of the element otherwise.
+	 */
+	@Model
+	private static long getDistance(Orientation direction, int left, int bottom, int right, int top, int fromLeft, int fromBottom){
+		switch(direction){
+		case RIGHT:
+			return (long) left - fromLeft;
+		case LEFT:
+			return (long) fromLeft - right - 1;
+		case TOP:
+			return (long) bottom - fromBottom;
+		default:
+			return (long) fromBottom - top - 1;
+		}
+	}
+
+	/**
+	 * Return a lower bound on the distance in the given direction from a box with the given bottom left pixel to
+	 * the seen elements below a node with the given bounding box.
+	 */
+	@Model
+	private static long getLowerBound(Orientation direction, int left, int bottom, int right, int top, int fromLeft, int fromBottom){
+		switch(direction){
+		case RIGHT:
+			return Math.max((long) left - fromLeft, 1);
+		case TOP:
+			return Math.max((long) bottom - fromBottom, 1);
+		default:
+			return getDistance(direction, left, bottom, right, top, fromLeft, fromBottom);
+		}
+	}
+
+	/**
+	 * Return the root of the subtree to traverse after the subtree of the given node, or NULL_NODE if the traversal
+	 * is complete.
+	 *
+	 * The second child of every inner node is traversed before its first child, so this is the first child of
+	 * the nearest ancestor of the given node, or of the node itself, that is the second child of its parent.
+	 *
+	 * @param 	node
+	 * 				The node of which the subtree has been traversed.
+	 */
+	@Model
+	private int getNextSubtree(int node){
+		for(int parent = this.parents[node]; parent != NULL_NODE; node = parent, parent = this.parents[node])
+			if(this.secondChildren[parent] == node)
+				return this.firstChildren[parent];
+		return NULL_NODE;
+	}
+
+}
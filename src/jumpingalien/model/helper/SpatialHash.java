@@ -0,0 +1,473 @@
+package jumpingalien.model.helper;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+import jumpingalien.model.interfaces.IBroadPhase;
+import jumpingalien.model.interfaces.IBroadPhaseVisitor;
+
+/**
+ * A class of uniform spatial hashes, which index elements with a rectangular bounding box by the square cells
+ * of a grid those boxes cover.
+ *
+ * Every element is identified by a non-negative integer id chosen by the user of the hash, such as the index
+ * of the element in an array. The cells are kept in an open-addressing hash table keyed on their column and
+ * row, so only cells that ever held an element take memory and neither the keys nor the ids are boxed. Moving
+ * an element only touches the cells it leaves or enters, and looking up the elements near a region only visits
+ * the cells of that region.
+ *
+ * @param	<T>
+ * 				The type of the elements of the hash.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getCellLength() > 0
+ * @invar	| getNbElements() >= 0
+ */
+public class SpatialHash<T> implements IBroadPhase<T> {
+
+	/**
+	 * Constant reflecting the initial number of slots of the table of cells.
+	 */
+	private static final int INITIAL_TABLE_CAPACITY = 64;
+
+	/**
+	 * Constant reflecting the initial capacity of a cell.
+	 */
+	private static final int INITIAL_CELL_CAPACITY = 4;
+
+	/***************************************************** CONSTRUCTOR *************************************************/
+
+	/**
+	 * Constructor for the class SpatialHash.
+	 *
+	 * @param 	cellLength
+	 * 				The length of the sides of the cells, in pixels.
+	 * @pre		| cellLength > 0
+	 * @post	| new.getCellLength() == cellLength
+	 * @post	| new.getNbElements() == 0
+	 */
+	public SpatialHash(int cellLength){
+		assert cellLength > 0;
+
+		this.cellLength = cellLength;
+		this.cellColumns = new int[INITIAL_TABLE_CAPACITY];
+		this.cellRows = new int[INITIAL_TABLE_CAPACITY];
+		this.cellElements = new int[INITIAL_TABLE_CAPACITY][];
+		this.cellSizes = new int[INITIAL_TABLE_CAPACITY];
+	}
+
+	/******************************************************** CELLS ****************************************************/
+
+	/**
+	 * Return the length of the sides of the cells of this hash, in pixels.
+	 */
+	@Basic @Immutable
+	public int getCellLength(){
+		return this.cellLength;
+	}
+
+	/**
+	 * Variable registering the length of the sides of the cells of this hash, in pixels.
+	 */
+	private final int cellLength;
+
+	/**
+	 * Return the column or row of the cell containing the given pixel coordinate.
+	 *
+	 * @param 	pixel
+	 * 				The horizontal or vertical pixel coordinate.
+	 */
+	@Model
+	private int getCell(int pixel){
+		return Math.floorDiv(pixel, this.cellLength);
+	}
+
+	/**
+	 * Return the slot of the table of this hash that holds the cell with the given column and row, or -1 if
+	 * that cell has never held an element.
+	 *
+	 * @param 	column
+	 * 				The column of the cell.
+	 * @param 	row
+	 * 				The row of the cell.
+	 */
+	@Model
+	private int findCell(int column, int row){
+		int mask = this.cellElements.length - 1;
+		for(int slot = hash(column, row) & mask; this.cellElements[slot] != null; slot = (slot + 1) & mask)
+			if(this.cellColumns[slot] == column && this.cellRows[slot] == row)
+				return slot;
+		return -1;
+	}
+
+	/**
+	 * Return the slot of the table of this hash that holds the cell with the given column and row, creating
+	 * that cell if it has never held an element.
+	 *
+	 * @param 	column
+	 * 				The column of the cell.
+	 * @param 	row
+	 * 				The row of the cell.
+	 */
+	@Model
+	private int findOrCreateCell(int column, int row){
+		int slot = this.findCell(column, row);
+		if(slot >= 0)
+			return slot;
+
+		if(2 * (this.nbCells + 1) > this.cellElements.length)
+			this.growTable();
+
+		int mask = this.cellElements.length - 1;
+		for(slot = hash(column, row) & mask; this.cellElements[slot] != null; slot = (slot + 1) & mask);
+		this.cellColumns[slot] = column;
+		this.cellRows[slot] = row;
+		this.cellElements[slot] = new int[INITIAL_CELL_CAPACITY];
+		this.cellSizes[slot] = 0;
+		this.nbCells++;
+		return slot;
+	}
+
+	/**
+	 * Double the number of slots of the table of this hash and insert all cells again.
+	 */
+	@Model
+	private void growTable(){
+		int[] columns = this.cellColumns, rows = this.cellRows, sizes = this.cellSizes;
+		int[][] elements = this.cellElements;
+
+		int capacity = 2 * elements.length, mask = capacity - 1;
+		this.cellColumns = new int[capacity];
+		this.cellRows = new int[capacity];
+		this.cellElements = new int[capacity][];
+		this.cellSizes = new int[capacity];
+
+		for(int old = 0; old < elements.length; old++){
+			if(elements[old] == null)
+				continue;
+			int slot = hash(columns[old], rows[old]) & mask;
+			while(this.cellElements[slot] != null)
+				slot = (slot + 1) & mask;
+			this.cellColumns[slot] = columns[old];
+			this.cellRows[slot] = rows[old];
+			this.cellElements[slot] = elements[old];
+			this.cellSizes[slot] = sizes[old];
+		}
+	}
+
+	/**
+	 * Return a hash code for the cell with the given column and row.
+	 *
+	 * @param 	column
+	 * 				The column of the cell.
+	 * @param 	row
+	 * 				The row of the cell.
+	 */
+	private static int hash(int column, int row){
+		int hash = column * 0x9E3779B1 + row * 0x85EBCA77;
+		return hash ^ (hash >>> 15);
+	}
+
+	/**
+	 * Arrays registering the column and row of the cell in every slot of the table of this hash.
+	 */
+	private int[] cellColumns, cellRows;
+
+	/**
+	 * Array registering the ids of the elements in the cell in every slot of the table of this hash, or null
+	 * for slots without a cell. Cells are never removed from the table, so its probe sequences stay intact.
+	 */
+	private int[][] cellElements;
+
+	/**
+	 * Array registering the number of elements in the cell in every slot of the table of this hash.
+	 */
+	private int[] cellSizes;
+
+	/**
+	 * Variable registering the number of cells in the table of this hash.
+	 */
+	private int nbCells = 0;
+
+	/****************************************************** ELEMENTS ***************************************************/
+
+	/**
+	 * Return the number of elements in this hash.
+	 */
+	@Basic @Override
+	public int getNbElements(){
+		return this.nbElements;
+	}
+
+	/**
+	 * Check whether this hash has an element with the given id.
+	 *
+	 * @param 	id
+	 * 				The id to check.
+	 */
+	@Override
+	public boolean contains(int id){
+		return id >= 0 && id < this.elements.length && this.elements[id] != null;
+	}
+
+	/**
+	 * Return the element with the given id, or null if this hash has no element with that id.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 */
+	@Override @SuppressWarnings("unchecked")
+	public T getElement(int id){
+		return this.contains(id) ? (T) this.elements[id] : null;
+	}
+
+	/**
+	 * Enter the given element with the given id and bounding box in this hash.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	element
+	 * 				The element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| id >= 0 && !contains(id) && element != null && left <= right && bottom <= top
+	 * @post	| new.getElement(id) == element
+	 */
+	@Override
+	public void insert(int id, T element, int left, int bottom, int right, int top){
+		assert id >= 0 && !this.contains(id) && element != null;
+
+		if(id >= this.elements.length)
+			this.growElements(Math.max(id + 1, 2 * this.elements.length));
+
+		this.elements[id] = element;
+		this.nbElements++;
+		this.setBounds(id, left, bottom, right, top);
+		this.addToCells(id);
+	}
+
+	/**
+	 * Move the element with the given id to the given bounding box.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| contains(id) && left <= right && bottom <= top
+	 * @note	If the bounding box covers the same cells as before, no cells are touched and no objects are
+	 * 			allocated.
+	 */
+	@Override
+	public void update(int id, int left, int bottom, int right, int top){
+		assert this.contains(id);
+
+		if(this.getCell(left) == this.minColumns[id] && this.getCell(bottom) == this.minRows[id]
+				&& this.getCell(right) == this.maxColumns[id] && this.getCell(top) == this.maxRows[id]){
+			this.setBounds(id, left, bottom, right, top);
+			return;
+		}
+		this.removeFromCells(id);
+		this.setBounds(id, left, bottom, right, top);
+		this.addToCells(id);
+	}
+
+	/**
+	 * Set the bounding box of the element with the given id, without touching the cells.
+	 */
+	@Model
+	private void setBounds(int id, int left, int bottom, int right, int top){
+		assert left <= right && bottom <= top;
+
+		this.lefts[id] = left;
+		this.bottoms[id] = bottom;
+		this.rights[id] = right;
+		this.tops[id] = top;
+	}
+
+	/**
+	 * Remove the element with the given id from this hash, if any.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @post	| !new.contains(id)
+	 */
+	@Override
+	public void remove(int id){
+		if(!this.contains(id))
+			return;
+
+		this.removeFromCells(id);
+		this.elements[id] = null;
+		this.nbElements--;
+	}
+
+	/**
+	 * Enter the element with the given id in all cells its bounding box covers.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 */
+	@Model
+	private void addToCells(int id){
+		this.minColumns[id] = this.getCell(this.lefts[id]);
+		this.minRows[id] = this.getCell(this.bottoms[id]);
+		this.maxColumns[id] = this.getCell(this.rights[id]);
+		this.maxRows[id] = this.getCell(this.tops[id]);
+		for(int row = this.minRows[id]; row <= this.maxRows[id]; row++)
+			for(int column = this.minColumns[id]; column <= this.maxColumns[id]; column++)
+				this.addToCell(this.findOrCreateCell(column, row), id);
+	}
+
+	/**
+	 * Remove the element with the given id from all cells it has been entered in.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 */
+	@Model
+	private void removeFromCells(int id){
+		for(int row = this.minRows[id]; row <= this.maxRows[id]; row++)
+			for(int column = this.minColumns[id]; column <= this.maxColumns[id]; column++)
+				this.removeFromCell(this.findCell(column, row), id);
+	}
+
+	/**
+	 * Add the given id to the cell in the given slot.
+	 *
+	 * @param 	slot
+	 * 				The slot of the cell.
+	 * @param 	id
+	 * 				The id to add.
+	 */
+	@Model
+	private void addToCell(int slot, int id){
+		int[] ids = this.cellElements[slot];
+		if(this.cellSizes[slot] == ids.length){
+			ids = Arrays.copyOf(ids, 2 * ids.length);
+			this.cellElements[slot] = ids;
+		}
+		ids[this.cellSizes[slot]++] = id;
+	}
+
+	/**
+	 * Remove the given id from the cell in the given slot, moving the last id of that cell into its place.
+	 *
+	 * @param 	slot
+	 * 				The slot of the cell.
+	 * @param 	id
+	 * 				The id to remove.
+	 */
+	@Model
+	private void removeFromCell(int slot, int id){
+		int[] ids = this.cellElements[slot];
+		int size = this.cellSizes[slot];
+		for(int i = 0; i < size; i++){
+			if(ids[i] == id){
+				ids[i] = ids[size - 1];
+				this.cellSizes[slot] = size - 1;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Grow the arrays indexed by id to the given capacity.
+	 *
+	 * @param 	capacity
+	 * 				The new capacity.
+	 */
+	@Model
+	private void growElements(int capacity){
+		this.elements = Arrays.copyOf(this.elements, capacity);
+		this.lefts = Arrays.copyOf(this.lefts, capacity);
+		this.bottoms = Arrays.copyOf(this.bottoms, capacity);
+		this.rights = Arrays.copyOf(this.rights, capacity);
+		this.tops = Arrays.copyOf(this.tops, capacity);
+		this.minColumns = Arrays.copyOf(this.minColumns, capacity);
+		this.minRows = Arrays.copyOf(this.minRows, capacity);
+		this.maxColumns = Arrays.copyOf(this.maxColumns, capacity);
+		this.maxRows = Arrays.copyOf(this.maxRows, capacity);
+	}
+
+	/**
+	 * Array registering the element with every id, or null for ids without an element.
+	 */
+	private Object[] elements = new Object[0];
+
+	/**
+	 * Arrays registering the bounding box of the element with every id, in pixels.
+	 */
+	private int[] lefts = new int[0], bottoms = new int[0], rights = new int[0], tops = new int[0];
+
+	/**
+	 * Arrays registering the range of cells the element with every id has been entered in.
+	 */
+	private int[] minColumns = new int[0], minRows = new int[0], maxColumns = new int[0], maxRows = new int[0];
+
+	/**
+	 * Variable registering the number of elements in this hash.
+	 */
+	private int nbElements = 0;
+
+	/******************************************************** QUERY ****************************************************/
+
+	/**
+	 * Visit the ids of the elements of which the bounding box shares at least one pixel with the given
+	 * rectangular region, each of them once.
+	 *
+	 * @param 	left
+	 * 				The leftmost pixel column of the region.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the region.
+	 * @param 	right
+	 * 				The rightmost pixel column of the region, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the region, inclusive.
+	 * @param 	visitor
+	 * 				The visitor to invoke for every found id.
+	 * @return	True if and only if the visitor stopped the query.
+	 * @note	Only the cells covered by the region are visited. An element that covers several of those cells is
+	 * 			only visited in the first of them, its bottom left cell within the region, so a query keeps no
+	 * 			state and any number of threads can query this hash at once.
+	 */
+	@Override
+	public boolean query(int left, int bottom, int right, int top, IBroadPhaseVisitor visitor){
+		int minColumn = this.getCell(left), maxColumn = this.getCell(right);
+		int minRow = this.getCell(bottom), maxRow = this.getCell(top);
+
+		for(int row = minRow; row <= maxRow; row++){
+			for(int column = minColumn; column <= maxColumn; column++){
+				int slot = this.findCell(column, row);
+				if(slot < 0)
+					continue;
+				int[] ids = this.cellElements[slot];
+				for(int i = 0; i < this.cellSizes[slot]; i++){
+					int id = ids[i];
+					if(column != Math.max(this.minColumns[id], minColumn) || row != Math.max(this.minRows[id], minRow))
+						continue;
+					if(this.lefts[id] > right || this.rights[id] < left || this.bottoms[id] > top || this.tops[id] < bottom)
+						continue;
+					if(visitor.visitElement(id))
+						return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
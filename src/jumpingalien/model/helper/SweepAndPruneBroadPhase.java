@@ -0,0 +1,303 @@
+package jumpingalien.model.helper;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+import jumpingalien.model.interfaces.IBroadPhase;
+import jumpingalien.model.interfaces.IBroadPhaseVisitor;
+
+/**
+ * A class of broadphases that keep their elements sorted on the left side of their bounding box.
+ *
+ * A query only scans the elements of which the left side lies between the left side of the region minus the
+ * widest bounding box and the right side of the region. Elements only move a few pixels between two updates, so
+ * an updated element is put back in place with a few steps of insertion sort. This suits long horizontal levels,
+ * where the elements are spread out along the x axis.
+ * 
+ * A removed element leaves a tombstone with its left side in the sorted order, so the order stays sorted without 
+ * shifting the elements after it. The tombstones are compacted away in one pass once they outnumber the elements.
+ *
+ * @param	<T>
+ * 				The type of the elements of the broadphase.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getNbElements() >= 0
+ */
+public class SweepAndPruneBroadPhase<T> implements IBroadPhase<T> {
+
+	/******************************************************* ELEMENTS **************************************************/
+
+	/**
+	 * Return the number of elements in this broadphase.
+	 */
+	@Basic @Override
+	public int getNbElements(){
+		return this.nbElements;
+	}
+
+	/**
+	 * Check whether this broadphase has an element with the given id.
+	 *
+	 * @param 	id
+	 * 				The id to check.
+	 */
+	@Override
+	public boolean contains(int id){
+		return id >= 0 && id < this.elements.length && this.elements[id] != null;
+	}
+
+	/**
+	 * Return the element with the given id, or null if this broadphase has no element with that id.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 */
+	@Override @SuppressWarnings("unchecked")
+	public T getElement(int id){
+		return this.contains(id) ? (T) this.elements[id] : null;
+	}
+
+	/**
+	 * Enter the given element with the given id and bounding box in this broadphase.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	element
+	 * 				The element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| id >= 0 && !contains(id) && element != null && left <= right && bottom <= top
+	 * @post	| new.getElement(id) == element
+	 */
+	@Override
+	public void insert(int id, T element, int left, int bottom, int right, int top){
+		assert id >= 0 && !this.contains(id) && element != null;
+
+		if(id >= this.elements.length){
+			int capacity = Math.max(id + 1, 2 * this.elements.length);
+			this.elements = Arrays.copyOf(this.elements, capacity);
+			this.positions = Arrays.copyOf(this.positions, capacity);
+			this.lefts = Arrays.copyOf(this.lefts, capacity);
+			this.bottoms = Arrays.copyOf(this.bottoms, capacity);
+			this.rights = Arrays.copyOf(this.rights, capacity);
+			this.tops = Arrays.copyOf(this.tops, capacity);
+		}
+		if(this.nbEntries == this.order.length){
+			this.order = Arrays.copyOf(this.order, Math.max(16, 2 * this.order.length));
+			this.orderLefts = Arrays.copyOf(this.orderLefts, this.order.length);
+		}
+
+		this.elements[id] = element;
+		this.positions[id] = this.nbEntries;
+		this.order[this.nbEntries] = id;
+		this.orderLefts[this.nbEntries++] = left;
+		this.nbElements++;
+		this.update(id, left, bottom, right, top);
+	}
+
+	/**
+	 * Move the element with the given id to the given bounding box, and move it to its place in the sorted order
+	 * with insertion sort.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| contains(id) && left <= right && bottom <= top
+	 * @note	The cost is linear in the number of elements and tombstones the element passes, which is small when 
+	 * 			elements only move a little between two updates.
+	 */
+	@Override
+	public void update(int id, int left, int bottom, int right, int top){
+		assert this.contains(id) && left <= right && bottom <= top;
+
+		this.lefts[id] = left;
+		this.bottoms[id] = bottom;
+		this.rights[id] = right;
+		this.tops[id] = top;
+		this.maxWidth = Math.max(this.maxWidth, right - left + 1);
+
+		int position = this.positions[id];
+		while(position > 0 && this.orderLefts[position - 1] > left){
+			this.moveEntry(position - 1, position);
+			position--;
+		}
+		while(position < this.nbEntries - 1 && this.orderLefts[position + 1] < left){
+			this.moveEntry(position + 1, position);
+			position++;
+		}
+		this.order[position] = id;
+		this.orderLefts[position] = left;
+		this.positions[id] = position;
+	}
+
+	/**
+	 * Move the entry of the sorted order at the given position, which is an element or a tombstone, to the given 
+	 * other position.
+	 *
+	 * @param 	from
+	 * 				The position of the entry.
+	 * @param 	to
+	 * 				The position to move the entry to.
+	 */
+	@Model
+	private void moveEntry(int from, int to){
+		int id = this.order[from];
+		this.order[to] = id;
+		this.orderLefts[to] = this.orderLefts[from];
+		if(id != TOMBSTONE)
+			this.positions[id] = to;
+	}
+
+	/**
+	 * Remove the element with the given id from this broadphase, if any.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @post	| !new.contains(id)
+	 * @note	The element is replaced by a tombstone in the sorted order, so removing it takes constant time. The 
+	 * 			tombstones are compacted away once they outnumber the elements, which takes amortized constant time 
+	 * 			per removal as well.
+	 */
+	@Override
+	public void remove(int id){
+		if(!this.contains(id))
+			return;
+
+		this.order[this.positions[id]] = TOMBSTONE;
+		this.elements[id] = null;
+		this.nbElements--;
+		if(this.nbElements == 0){
+			this.nbEntries = 0;
+			this.maxWidth = 0;
+		}else if(this.nbEntries - this.nbElements > this.nbElements)
+			this.compact();
+	}
+
+	/**
+	 * Remove all tombstones from the sorted order, keeping the elements in the same order.
+	 */
+	@Model
+	private void compact(){
+		int nbKept = 0;
+		for(int position = 0; position < this.nbEntries; position++)
+			if(this.order[position] != TOMBSTONE)
+				this.moveEntry(position, nbKept++);
+		this.nbEntries = nbKept;
+	}
+
+	/**
+	 * Constant reflecting the entry of the sorted order that takes the place of a removed element.
+	 */
+	private static final int TOMBSTONE = -1;
+
+	/**
+	 * Array registering the element with every id, or null for ids without an element.
+	 */
+	private Object[] elements = new Object[0];
+
+	/**
+	 * Array registering the ids of the elements of this broadphase and the tombstones of removed elements at its 
+	 * first nbEntries indices, sorted on the left side of their bounding box.
+	 */
+	private int[] order = new int[0];
+
+	/**
+	 * Array registering the left side of the bounding box of every entry of the sorted order, at the same index. For
+	 * a tombstone, this is the left side of the removed element.
+	 */
+	private int[] orderLefts = new int[0];
+
+	/**
+	 * Variable registering the number of entries of the sorted order, elements and tombstones together.
+	 */
+	private int nbEntries = 0;
+
+	/**
+	 * Array registering the index in order of the element with every id.
+	 */
+	private int[] positions = new int[0];
+
+	/**
+	 * Arrays registering the bounding box of the element with every id, in pixels.
+	 */
+	private int[] lefts = new int[0], bottoms = new int[0], rights = new int[0], tops = new int[0];
+
+	/**
+	 * Variable registering the number of elements in this broadphase.
+	 */
+	private int nbElements = 0;
+
+	/**
+	 * Variable registering an upper bound on the width of the bounding boxes of the elements in this broadphase.
+	 */
+	private int maxWidth = 0;
+
+	/********************************************************* QUERY ***************************************************/
+
+	/**
+	 * Visit the ids of the elements of which the bounding box shares at least one pixel with the given
+	 * rectangular region, sweeping over the elements of which the left side may lie within reach of the region.
+	 *
+	 * @param 	left
+	 * 				The leftmost pixel column of the region.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the region.
+	 * @param 	right
+	 * 				The rightmost pixel column of the region, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the region, inclusive.
+	 * @param 	visitor
+	 * 				The visitor to invoke for every found id.
+	 * @return	True if and only if the visitor stopped the query.
+	 */
+	@Override
+	public boolean query(int left, int bottom, int right, int top, IBroadPhaseVisitor visitor){
+		for(int i = this.getFirstPositionFrom(left - this.maxWidth + 1); i < this.nbEntries; i++){
+			if(this.orderLefts[i] > right)
+				break;
+			int id = this.order[i];
+			if(id == TOMBSTONE || this.rights[id] < left || this.bottoms[id] > top || this.tops[id] < bottom)
+				continue;
+			if(visitor.visitElement(id))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Return the first position in the sorted order of which the element has a left side at or beyond the
+	 * given pixel column.
+	 *
+	 * @param 	pixelX
+	 * 				The pixel column.
+	 */
+	@Model
+	private int getFirstPositionFrom(int pixelX){
+		int low = 0, high = this.nbEntries;
+		while(low < high){
+			int middle = (low + high) >>> 1;
+			if(this.orderLefts[middle] < pixelX)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+}
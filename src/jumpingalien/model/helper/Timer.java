@@ -284,14 +284,17 @@ public class Timer {
 	/**
 	 * Return a random period time in a range.
 	 * 
+	 * @param 	random
+	 * 				The source of random numbers to draw the period time from.
 	 * @param 	min
 	 * 				The minimal random period time.
 	 * @param 	max
 	 * 				The maximal random period time.
-	 * @return	A random double in a range representing the period time.
+	 * @return	A random double in a range representing the period time, drawn from the given source of random 
+	 * 			numbers.
+	 * 			| result == min + (max - min)*random.nextDouble()
 	 */
-	public double getRandomPeriodTime(double min, double max){
-		Random random = new Random();
+	public double getRandomPeriodTime(Random random, double min, double max){
 		return min + (max - min)*random.nextDouble();
 	}
 	
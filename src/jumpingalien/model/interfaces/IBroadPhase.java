@@ -0,0 +1,109 @@
+package jumpingalien.model.interfaces;
+
+/**
+ * An interface for broadphases, which index elements with a rectangular bounding box so the elements near a
+ * region can be found without testing all of them.
+ *
+ * Every element is identified by a non-negative integer id chosen by the user of the broadphase. Bounding boxes
+ * are given in pixels, with inclusive right and top sides. A broadphase may report elements of which the bounding
+ * box does not overlap the queried region, but it never misses one that does.
+ *
+ * @param	<T>
+ * 				The type of the elements of the broadphase.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+public interface IBroadPhase<T> {
+
+	/**
+	 * Enter the given element with the given id and bounding box in this broadphase.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	element
+	 * 				The element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| id >= 0 && !contains(id) && element != null && left <= right && bottom <= top
+	 * @post	| new.getElement(id) == element
+	 */
+	public void insert(int id, T element, int left, int bottom, int right, int top);
+
+	/**
+	 * Move the element with the given id to the given bounding box.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @param 	left
+	 * 				The leftmost pixel column of the bounding box.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the bounding box.
+	 * @param 	right
+	 * 				The rightmost pixel column of the bounding box, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the bounding box, inclusive.
+	 * @pre		| contains(id) && left <= right && bottom <= top
+	 */
+	public void update(int id, int left, int bottom, int right, int top);
+
+	/**
+	 * Remove the element with the given id from this broadphase, if any.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 * @post	| !new.contains(id)
+	 */
+	public void remove(int id);
+
+	/**
+	 * Check whether this broadphase has an element with the given id.
+	 *
+	 * @param 	id
+	 * 				The id to check.
+	 */
+	public boolean contains(int id);
+
+	/**
+	 * Return the element with the given id, or null if this broadphase has no element with that id.
+	 *
+	 * @param 	id
+	 * 				The id of the element.
+	 */
+	public T getElement(int id);
+
+	/**
+	 * Return the number of elements in this broadphase.
+	 */
+	public int getNbElements();
+
+	/**
+	 * Visit the ids of the elements of which the bounding box may share a pixel with the given rectangular region,
+	 * each of them once.
+	 *
+	 * @param 	left
+	 * 				The leftmost pixel column of the region.
+	 * @param 	bottom
+	 * 				The bottom pixel row of the region.
+	 * @param 	right
+	 * 				The rightmost pixel column of the region, inclusive.
+	 * @param 	top
+	 * 				The top pixel row of the region, inclusive.
+	 * @param 	visitor
+	 * 				The visitor to invoke for every found id.
+	 * @return	True if and only if the visitor stopped the query.
+	 * @note	The visitor may not change this broadphase or query it again.
+	 * @note	A query only reads this broadphase, so several threads may query it at once as long as none of them
+	 * 			changes it.
+	 */
+	public boolean query(int left, int bottom, int right, int top, IBroadPhaseVisitor visitor);
+
+}
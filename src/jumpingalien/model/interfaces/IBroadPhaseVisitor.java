@@ -0,0 +1,23 @@
+package jumpingalien.model.interfaces;
+
+/**
+ * An interface for visitors of the elements found by a query of a broadphase.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+@FunctionalInterface
+public interface IBroadPhaseVisitor {
+
+	/**
+	 * Visit the element with the given id.
+	 *
+	 * @param 	id
+	 * 				The id of the visited element.
+	 * @return	True if the query should stop after this element, false if it should continue.
+	 */
+	public boolean visitElement(int id);
+
+}
@@ -0,0 +1,29 @@
+package jumpingalien.model.interfaces;
+
+/**
+ * An interface for objects that want to be notified of changes to the geological features of a World, such as
+ * painters that only need to refresh the tiles that changed.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+@FunctionalInterface
+public interface ITerrainListener {
+
+	/**
+	 * Handle a change of the geological features within the given rectangular region of tiles.
+	 *
+	 * @param 	minTileX
+	 * 				The leftmost tile column of the dirty region.
+	 * @param 	minTileY
+	 * 				The bottom tile row of the dirty region.
+	 * @param 	maxTileX
+	 * 				The rightmost tile column of the dirty region, inclusive.
+	 * @param 	maxTileY
+	 * 				The top tile row of the dirty region, inclusive.
+	 */
+	public void terrainChanged(int minTileX, int minTileY, int maxTileX, int maxTileY);
+
+}
@@ -0,0 +1,29 @@
+package jumpingalien.model.interfaces;
+
+import jumpingalien.model.terrain.Terrain;
+
+/**
+ * An interface for visitors of the tiles in a rectangular region of a World.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+@FunctionalInterface
+public interface ITileVisitor {
+
+	/**
+	 * Visit the tile with the given tile position.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position of the visited tile.
+	 * @param 	tileY
+	 * 				The vertical tile position of the visited tile.
+	 * @param 	terrain
+	 * 				The Terrain type of the visited tile.
+	 * @return	True if the traversal should stop after this tile, false if it should continue.
+	 */
+	public boolean visitTile(int tileX, int tileY, Terrain terrain);
+
+}
@@ -0,0 +1,433 @@
+package jumpingalien.model.terrain;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of bitsets registering which tiles of a World are impassable for a given profile of impassable
+ * Terrain types. The bits are stored row by row in 64-bit words, so that a rectangular region of tiles can be
+ * checked with a couple of masked word tests per row. Impassable tiles are counted with a summed area table per
+ * terrain chunk, so changing a tile only costs a rebuild of the table of its own chunk.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getNbTilesX() > 0 && getNbTilesY() > 0
+ */
+public class ImpassableTileSet {
+
+	/***************************************************** CONSTRUCTOR *************************************************/
+
+	/**
+	 * Constructor for the class ImpassableTileSet, initialised from the given TerrainStore.
+	 *
+	 * @param 	store
+	 * 				The TerrainStore containing the current Terrain types of all tiles.
+	 * @param 	impassableTerrainMask
+	 * 				A bitmask in which bit i is set if and only if the Terrain type with ID i is impassable.
+	 * @pre		| store != null
+	 * @post	| new.getImpassableTerrainMask() == impassableTerrainMask
+	 * @post	| for each tileX, tileY in store:
+	 * 			|	new.isImpassable(tileX, tileY) ==
+	 * 			|		isImpassableTerrain(impassableTerrainMask, store.getTerrain(tileX, tileY))
+	 */
+	public ImpassableTileSet(TerrainStore store, int impassableTerrainMask){
+		assert store != null;
+
+		this.nbTilesX = store.getNbTilesX();
+		this.nbTilesY = store.getNbTilesY();
+		this.wordsPerRow = ( this.nbTilesX + WORD_SIZE - 1 ) >> WORD_SHIFT;
+		this.impassableTerrainMask = impassableTerrainMask;
+		this.words = new long[this.wordsPerRow * this.nbTilesY];
+		this.nbChunksX = store.getNbChunksX();
+		this.summedAreaTables = new int[store.getNbChunks()][];
+		this.outdatedChunks = new int[store.getNbChunks()];
+		this.isOutdatedChunk = new boolean[store.getNbChunks()];
+		for(int chunk = 0; chunk < store.getNbChunks(); chunk++){
+			this.outdatedChunks[chunk] = chunk;
+			this.isOutdatedChunk[chunk] = true;
+		}
+		this.nbOutdatedChunks = store.getNbChunks();
+
+		for(int chunkY = 0; chunkY < store.getNbChunksY(); chunkY++){
+			for(int chunkX = 0; chunkX < store.getNbChunksX(); chunkX++){
+				if(!store.isResidentChunk(chunkX, chunkY) && !isImpassableTerrain(impassableTerrainMask, Terrain.AIR))
+					continue;
+
+				int maxTileY = Math.min((chunkY + 1) * TerrainStore.CHUNK_SIZE, this.nbTilesY);
+				int maxTileX = Math.min((chunkX + 1) * TerrainStore.CHUNK_SIZE, this.nbTilesX);
+				for(int tileY = chunkY * TerrainStore.CHUNK_SIZE; tileY < maxTileY; tileY++)
+					for(int tileX = chunkX * TerrainStore.CHUNK_SIZE; tileX < maxTileX; tileX++)
+						this.update(tileX, tileY, store.getTerrain(tileX, tileY));
+			}
+		}
+	}
+
+	/******************************************************* PROFILE ***************************************************/
+
+	/**
+	 * Return the bitmask of the Terrain types that are impassable in this set.
+	 *
+	 * @return	| result == ( this.impassableTerrainMask )
+	 */
+	@Basic @Immutable @Raw
+	public int getImpassableTerrainMask(){
+		return this.impassableTerrainMask;
+	}
+
+	/**
+	 * Variable registering the bitmask of the Terrain types that are impassable in this set.
+	 */
+	private final int impassableTerrainMask;
+
+	/**
+	 * Check whether the given Terrain type is impassable according to the given bitmask.
+	 *
+	 * @param 	impassableTerrainMask
+	 * 				A bitmask in which bit i is set if and only if the Terrain type with ID i is impassable.
+	 * @param 	terrain
+	 * 				The Terrain type to check.
+	 * @return	| result == ( (impassableTerrainMask & (1 << terrain.getId())) != 0 )
+	 */
+	public static boolean isImpassableTerrain(int impassableTerrainMask, Terrain terrain){
+		return ( impassableTerrainMask & ( 1 << terrain.getId() ) ) != 0;
+	}
+
+	/**
+	 * Return the bitmask in which every Terrain type except the given Terrain type is impassable.
+	 *
+	 * @param 	terrain
+	 * 				The only passable Terrain type.
+	 * @return	| for each other in Terrain.values():
+	 * 			|	isImpassableTerrain(result, other) == ( other != terrain )
+	 * @note	A set of tiles with this bitmask tells where a region stops consisting of the given Terrain type only.
+	 */
+	public static int getMaskOfAllBut(Terrain terrain){
+		return ( ( 1 << Terrain.values().length ) - 1 ) & ~( 1 << terrain.getId() );
+	}
+
+	/******************************************************** SIZE *****************************************************/
+
+	/**
+	 * Return the number of tiles in the horizontal direction.
+	 *
+	 * @return	| result == ( this.nbTilesX )
+	 */
+	@Basic @Immutable @Raw
+	public int getNbTilesX(){
+		return this.nbTilesX;
+	}
+
+	/**
+	 * Variable registering the number of tiles in the horizontal direction.
+	 */
+	private final int nbTilesX;
+
+	/**
+	 * Return the number of tiles in the vertical direction.
+	 *
+	 * @return	| result == ( this.nbTilesY )
+	 */
+	@Basic @Immutable @Raw
+	public int getNbTilesY(){
+		return this.nbTilesY;
+	}
+
+	/**
+	 * Variable registering the number of tiles in the vertical direction.
+	 */
+	private final int nbTilesY;
+
+	/********************************************************* BITS ****************************************************/
+
+	/**
+	 * The base-2 logarithm of the number of bits in a word.
+	 */
+	private static final int WORD_SHIFT = 6;
+
+	/**
+	 * The number of bits in a word.
+	 */
+	private static final int WORD_SIZE = 1 << WORD_SHIFT;
+
+	/**
+	 * Variable registering the number of words in a single row of tiles.
+	 */
+	private final int wordsPerRow;
+
+	/**
+	 * Array registering the bits of all tiles, row by row, starting with the bottom row.
+	 */
+	private final long[] words;
+
+	/**
+	 * Check whether the given tile is impassable.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @return	False if the tile lies outside of this set, otherwise whether its bit is set.
+	 */
+	public boolean isImpassable(int tileX, int tileY){
+		if(tileX < 0 || tileX >= this.getNbTilesX() || tileY < 0 || tileY >= this.getNbTilesY())
+			return false;
+		return ( this.words[getWordIndex(tileX, tileY)] & ( 1L << tileX ) ) != 0;
+	}
+
+	/**
+	 * Update the bit of the given tile to reflect the given Terrain type.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @param 	terrain
+	 * 				The new Terrain type of the tile.
+	 * @pre		| tileX >= 0 && tileX < getNbTilesX() && tileY >= 0 && tileY < getNbTilesY()
+	 * @post	| new.isImpassable(tileX, tileY) == isImpassableTerrain(getImpassableTerrainMask(), terrain)
+	 * @note	This takes constant time.
+	 */
+	public void update(int tileX, int tileY, Terrain terrain){
+		int index = getWordIndex(tileX, tileY);
+		long oldWord = this.words[index];
+		if(isImpassableTerrain(this.getImpassableTerrainMask(), terrain))
+			this.words[index] |= 1L << tileX;
+		else
+			this.words[index] &= ~( 1L << tileX );
+		
+		if(this.words[index] != oldWord)
+			this.chunkChanged(tileX, tileY);
+	}
+
+	/**
+	 * Check whether any tile within the given rectangular region of tile positions is impassable. The region
+	 * is clipped to the boundaries of this set.
+	 *
+	 * @param 	minTileX
+	 * 				The leftmost tile column of the region.
+	 * @param 	minTileY
+	 * 				The bottom tile row of the region.
+	 * @param 	maxTileX
+	 * 				The rightmost tile column of the region, inclusive.
+	 * @param 	maxTileY
+	 * 				The top tile row of the region, inclusive.
+	 * @return	| result == ( for some tileX in minTileX..maxTileX, tileY in minTileY..maxTileY:
+	 * 			|				isImpassable(tileX, tileY) )
+	 */
+	public boolean containsAnyIn(int minTileX, int minTileY, int maxTileX, int maxTileY){
+		minTileX = Math.max(minTileX, 0);
+		minTileY = Math.max(minTileY, 0);
+		maxTileX = Math.min(maxTileX, this.getNbTilesX() - 1);
+		maxTileY = Math.min(maxTileY, this.getNbTilesY() - 1);
+		if(minTileX > maxTileX || minTileY > maxTileY)
+			return false;
+
+		int firstWord = minTileX >> WORD_SHIFT;
+		int lastWord = maxTileX >> WORD_SHIFT;
+		long firstMask = -1L << minTileX;
+		long lastMask = -1L >>> ( WORD_SIZE - 1 - ( maxTileX & ( WORD_SIZE - 1 ) ) );
+
+		for(int row = minTileY; row <= maxTileY; row++){
+			int rowStart = row * this.wordsPerRow;
+			if(firstWord == lastWord){
+				if(( this.words[rowStart + firstWord] & firstMask & lastMask ) != 0)
+					return true;
+			}else{
+				if(( this.words[rowStart + firstWord] & firstMask ) != 0)
+					return true;
+				for(int word = firstWord + 1; word < lastWord; word++)
+					if(this.words[rowStart + word] != 0)
+						return true;
+				if(( this.words[rowStart + lastWord] & lastMask ) != 0)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/******************************************************* COUNTING **************************************************/
+	
+	/**
+	 * Return the number of impassable tiles within the given rectangular region of tile positions. The region
+	 * is clipped to the boundaries of this set.
+	 *
+	 * @param 	minTileX
+	 * 				The leftmost tile column of the region.
+	 * @param 	minTileY
+	 * 				The bottom tile row of the region.
+	 * @param 	maxTileX
+	 * 				The rightmost tile column of the region, inclusive.
+	 * @param 	maxTileY
+	 * 				The top tile row of the region, inclusive.
+	 * @return	| result == ( card({ (tileX, tileY) | tileX in minTileX..maxTileX, tileY in minTileY..maxTileY,
+	 * 			|								  	  isImpassable(tileX, tileY) }) )
+	 * @note	The count reads four entries of the summed area table of every terrain chunk the region covers, so it 
+	 * 			takes constant time per chunk, regardless of the number of tiles of the region. The table of a chunk
+	 * 			that has changed since it was built, is rebuilt on the first count that covers that chunk.
+	 */
+	public int countIn(int minTileX, int minTileY, int maxTileX, int maxTileY){
+		minTileX = Math.max(minTileX, 0);
+		minTileY = Math.max(minTileY, 0);
+		maxTileX = Math.min(maxTileX, this.getNbTilesX() - 1);
+		maxTileY = Math.min(maxTileY, this.getNbTilesY() - 1);
+		if(minTileX > maxTileX || minTileY > maxTileY)
+			return 0;
+		
+		int count = 0;
+		for(int chunkY = minTileY >> TerrainStore.CHUNK_SHIFT; chunkY <= maxTileY >> TerrainStore.CHUNK_SHIFT; chunkY++){
+			int chunkBottom = chunkY << TerrainStore.CHUNK_SHIFT;
+			int fromY = Math.max(minTileY - chunkBottom, 0);
+			int toY = Math.min(maxTileY - chunkBottom, TerrainStore.CHUNK_SIZE - 1) + 1;
+			for(int chunkX = minTileX >> TerrainStore.CHUNK_SHIFT; chunkX <= maxTileX >> TerrainStore.CHUNK_SHIFT; chunkX++){
+				int chunkLeft = chunkX << TerrainStore.CHUNK_SHIFT;
+				int fromX = Math.max(minTileX - chunkLeft, 0);
+				int toX = Math.min(maxTileX - chunkLeft, TerrainStore.CHUNK_SIZE - 1) + 1;
+				int[] table = this.getSummedAreaTable(chunkY * this.nbChunksX + chunkX);
+				count += table[toY * TABLE_STRIDE + toX] - table[fromY * TABLE_STRIDE + toX]
+						 - table[toY * TABLE_STRIDE + fromX] + table[fromY * TABLE_STRIDE + fromX];
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Prepare this set for counting, so counting no longer modifies it.
+	 * 
+	 * @note	Only the summed area tables of the chunks that have changed since they were last built are rebuilt.
+	 * 			Once they are up to date, counting only reads this set, so it can be done from several threads at 
+	 * 			once.
+	 */
+	public void prepareCounting(){
+		for(int i = 0; i < this.nbOutdatedChunks; i++){
+			int chunk = this.outdatedChunks[i];
+			this.getSummedAreaTable(chunk);
+			this.isOutdatedChunk[chunk] = false;
+		}
+		this.nbOutdatedChunks = 0;
+	}
+	
+	/**
+	 * Register that the given tile has become impassable or passable, for the counts of this set.
+	 * 
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @post	The summed area table of the chunk of the given tile is dropped, and rebuilt when it is used next. 
+	 * 			The tables of all other chunks are kept.
+	 * @note	This takes constant time.
+	 */
+	@Model
+	private void chunkChanged(int tileX, int tileY){
+		int chunk = ( tileY >> TerrainStore.CHUNK_SHIFT ) * this.nbChunksX + ( tileX >> TerrainStore.CHUNK_SHIFT );
+		this.summedAreaTables[chunk] = null;
+		if(!this.isOutdatedChunk[chunk]){
+			this.isOutdatedChunk[chunk] = true;
+			this.outdatedChunks[this.nbOutdatedChunks++] = chunk;
+		}
+	}
+	
+	/**
+	 * Return the summed area table of the given chunk of this set, rebuilding it if it is out of date.
+	 * 
+	 * @param 	chunk
+	 * 				The index of the chunk, counting row by row from the bottom left chunk.
+	 * @return	A table with (CHUNK_SIZE + 1) * (CHUNK_SIZE + 1) entries, in which entry y * (CHUNK_SIZE + 1) + x 
+	 * 			holds the number of impassable tiles of the chunk left of its column x and below its row y.
+	 * @note	Rebuilding a table takes time linear in the number of tiles of a chunk. Chunks without impassable 
+	 * 			tiles share a single table.
+	 */
+	@Model
+	private int[] getSummedAreaTable(int chunk){
+		int[] table = this.summedAreaTables[chunk];
+		if(table == null){
+			table = this.buildSummedAreaTable(chunk);
+			this.summedAreaTables[chunk] = table;
+		}
+		return table;
+	}
+	
+	/**
+	 * Build the summed area table of the given chunk of this set.
+	 * 
+	 * @param 	chunk
+	 * 				The index of the chunk, counting row by row from the bottom left chunk.
+	 */
+	@Model
+	private int[] buildSummedAreaTable(int chunk){
+		int chunkLeft = ( chunk % this.nbChunksX ) << TerrainStore.CHUNK_SHIFT;
+		int chunkBottom = ( chunk / this.nbChunksX ) << TerrainStore.CHUNK_SHIFT;
+		int nbColumns = Math.min(TerrainStore.CHUNK_SIZE, this.getNbTilesX() - chunkLeft);
+		int nbRows = Math.min(TerrainStore.CHUNK_SIZE, this.getNbTilesY() - chunkBottom);
+		
+		if(!this.containsAnyIn(chunkLeft, chunkBottom, chunkLeft + nbColumns - 1, chunkBottom + nbRows - 1))
+			return EMPTY_TABLE;
+		
+		int[] table = new int[TABLE_STRIDE * TABLE_STRIDE];
+		for(int y = 0; y < TerrainStore.CHUNK_SIZE; y++){
+			int rowSum = 0;
+			for(int x = 0; x < TerrainStore.CHUNK_SIZE; x++){
+				if(y < nbRows && x < nbColumns && this.isImpassable(chunkLeft + x, chunkBottom + y))
+					rowSum++;
+				table[(y + 1) * TABLE_STRIDE + x + 1] = table[y * TABLE_STRIDE + x + 1] + rowSum;
+			}
+		}
+		return table;
+	}
+	
+	/**
+	 * Constant reflecting the number of entries in a row of the summed area table of a chunk.
+	 */
+	private static final int TABLE_STRIDE = TerrainStore.CHUNK_SIZE + 1;
+	
+	/**
+	 * Constant reflecting the summed area table shared by all chunks without impassable tiles.
+	 */
+	private static final int[] EMPTY_TABLE = new int[TABLE_STRIDE * TABLE_STRIDE];
+	
+	/**
+	 * Variable registering the number of terrain chunks in the horizontal direction.
+	 */
+	private final int nbChunksX;
+	
+	/**
+	 * Array registering the summed area table of every terrain chunk of this set, row by row, or null for the
+	 * chunks of which the table needs to be rebuilt.
+	 */
+	private final int[][] summedAreaTables;
+	
+	/**
+	 * Array registering the indices of the chunks that have changed since this set was last prepared for counting, 
+	 * at its first nbOutdatedChunks indices, each of them once.
+	 */
+	private final int[] outdatedChunks;
+	
+	/**
+	 * Array registering, for every chunk, whether it is registered in outdatedChunks.
+	 */
+	private final boolean[] isOutdatedChunk;
+	
+	/**
+	 * Variable registering the number of chunks registered in outdatedChunks.
+	 */
+	private int nbOutdatedChunks;
+	
+	/**
+	 * Return the index of the word containing the bit of the given tile.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @return	| result == ( tileY * wordsPerRow + tileX / 64 )
+	 */
+	@Model
+	private int getWordIndex(int tileX, int tileY){
+		return tileY * this.wordsPerRow + ( tileX >> WORD_SHIFT );
+	}
+
+}
@@ -65,11 +65,29 @@ public enum Terrain {
 	 * 				If no Terrain type with the given ID exists, an IllegalArgumentException will be thrown.
 	 */
 	public static Terrain idToType(int terrainTypeId) throws IllegalArgumentException{
-		for(Terrain terrain : getAllTerrainTypes()){
-			if(terrain.getId() == terrainTypeId){
-				return terrain;
-			}
-		}
-		throw new IllegalArgumentException("Terrain type for given terrain type index not defined!");
+		if(terrainTypeId < 0 || terrainTypeId >= typesById.length || typesById[terrainTypeId] == null)
+			throw new IllegalArgumentException("Terrain type for given terrain type index not defined!");
+		return typesById[terrainTypeId];
+	}
+	
+	/**
+	 * Array mapping each Terrain ID on its Terrain type, so that the Terrain type of an ID can be looked up
+	 * in constant time without iterating over (a copy of) all Terrain types.
+	 */
+	private static final Terrain[] typesById = buildTypesById();
+	
+	/**
+	 * Build the lookup array of all Terrain types, indexed by their ID.
+	 * 
+	 * @return	An array in which each Terrain type is stored at the index of its ID.
+	 */
+	private static Terrain[] buildTypesById(){
+		int maxId = 0;
+		for(Terrain terrain : values())
+			maxId = Math.max(maxId, terrain.getId());
+		Terrain[] types = new Terrain[maxId + 1];
+		for(Terrain terrain : values())
+			types[terrain.getId()] = terrain;
+		return types;
 	}
 }
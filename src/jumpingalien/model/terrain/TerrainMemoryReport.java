@@ -0,0 +1,132 @@
+package jumpingalien.model.terrain;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of reports on the memory used by the tile data of a TerrainStore.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getBytesPerChunk() > 0
+ * @invar	| getNbResidentChunks() >= 0 && getNbResidentChunks() <= getNbChunks()
+ */
+@Value
+public class TerrainMemoryReport {
+
+	/**
+	 * Constructor for the class TerrainMemoryReport.
+	 *
+	 * @param 	bytesPerChunk
+	 * 				The number of bytes of tile data of a single resident chunk.
+	 * @param 	nbResidentChunks
+	 * 				The number of chunks that have their own storage allocated.
+	 * @param 	nbChunks
+	 * 				The total number of chunks.
+	 * @pre		| bytesPerChunk > 0
+	 * @pre		| nbResidentChunks >= 0 && nbResidentChunks <= nbChunks
+	 * @post	| new.getBytesPerChunk() == bytesPerChunk
+	 * @post	| new.getNbResidentChunks() == nbResidentChunks
+	 * @post	| new.getNbChunks() == nbChunks
+	 */
+	public TerrainMemoryReport(int bytesPerChunk, int nbResidentChunks, int nbChunks){
+		assert bytesPerChunk > 0;
+		assert nbResidentChunks >= 0 && nbResidentChunks <= nbChunks;
+
+		this.bytesPerChunk = bytesPerChunk;
+		this.nbResidentChunks = nbResidentChunks;
+		this.nbChunks = nbChunks;
+	}
+
+	/**
+	 * Return the number of bytes of tile data of a single resident chunk.
+	 *
+	 * @return	| result == ( this.bytesPerChunk )
+	 */
+	@Basic @Immutable
+	public int getBytesPerChunk(){
+		return this.bytesPerChunk;
+	}
+
+	/**
+	 * Variable registering the number of bytes of tile data of a single resident chunk.
+	 */
+	private final int bytesPerChunk;
+
+	/**
+	 * Return the number of chunks that have their own storage allocated.
+	 *
+	 * @return	| result == ( this.nbResidentChunks )
+	 */
+	@Basic @Immutable
+	public int getNbResidentChunks(){
+		return this.nbResidentChunks;
+	}
+
+	/**
+	 * Variable registering the number of chunks that have their own storage allocated.
+	 */
+	private final int nbResidentChunks;
+
+	/**
+	 * Return the total number of chunks, resident or not.
+	 *
+	 * @return	| result == ( this.nbChunks )
+	 */
+	@Basic @Immutable
+	public int getNbChunks(){
+		return this.nbChunks;
+	}
+
+	/**
+	 * Variable registering the total number of chunks, resident or not.
+	 */
+	private final int nbChunks;
+
+	/**
+	 * Return the number of bytes of tile data held by all resident chunks.
+	 *
+	 * @return	| result == ( (long) getBytesPerChunk() * getNbResidentChunks() )
+	 */
+	public long getResidentBytes(){
+		return (long) this.getBytesPerChunk() * this.getNbResidentChunks();
+	}
+
+	/**
+	 * Check whether this report equals the given object.
+	 *
+	 * @return	| result == ( (other instanceof TerrainMemoryReport)
+	 * 			|	&& ((TerrainMemoryReport) other).getBytesPerChunk() == getBytesPerChunk()
+	 * 			|	&& ((TerrainMemoryReport) other).getNbResidentChunks() == getNbResidentChunks()
+	 * 			|	&& ((TerrainMemoryReport) other).getNbChunks() == getNbChunks() )
+	 */
+	@Override
+	public boolean equals(Object other){
+		if(!(other instanceof TerrainMemoryReport))
+			return false;
+		TerrainMemoryReport report = (TerrainMemoryReport) other;
+		return report.getBytesPerChunk() == this.getBytesPerChunk()
+				&& report.getNbResidentChunks() == this.getNbResidentChunks()
+				&& report.getNbChunks() == this.getNbChunks();
+	}
+
+	/**
+	 * Return the hash code of this report.
+	 */
+	@Override
+	public int hashCode(){
+		return 31 * ( 31 * this.getBytesPerChunk() + this.getNbResidentChunks() ) + this.getNbChunks();
+	}
+
+	/**
+	 * Return a textual representation of this report.
+	 */
+	@Override
+	public String toString(){
+		return "Terrain chunks: " + this.getNbResidentChunks() + "/" + this.getNbChunks() + " resident, "
+				+ this.getBytesPerChunk() + " bytes per chunk, " + this.getResidentBytes() + " bytes in total";
+	}
+}
@@ -0,0 +1,329 @@
+package jumpingalien.model.terrain;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of sparse, chunked stores for the geological features of a rectangular grid of tiles.
+ *
+ * The grid is divided into square chunks of CHUNK_SIZE x CHUNK_SIZE tiles. Every chunk that only consists of air
+ * refers to one shared, read-only sentinel chunk; a private chunk is only allocated when a tile in it is set to a
+ * Terrain type other than air, and it is released again as soon as all of its tiles are air again.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ * @invar	| getNbResidentChunks() >= 0 && getNbResidentChunks() <= getNbChunks()
+ */
+public class TerrainStore {
+
+	/***************************************************** CONSTRUCTOR *************************************************/
+
+	/**
+	 * Constructor for the class TerrainStore. Initially, all tiles consist of air.
+	 *
+	 * @param 	nbTilesX
+	 * 				The number of tiles in the horizontal direction.
+	 * @param 	nbTilesY
+	 * 				The number of tiles in the vertical direction.
+	 * @pre		| nbTilesX > 0 && nbTilesY > 0
+	 * @post	| new.getNbTilesX() == nbTilesX
+	 * @post	| new.getNbTilesY() == nbTilesY
+	 * @post	| new.getNbResidentChunks() == 0
+	 */
+	public TerrainStore(int nbTilesX, int nbTilesY){
+		assert nbTilesX > 0 && nbTilesY > 0;
+
+		this.nbTilesX = nbTilesX;
+		this.nbTilesY = nbTilesY;
+		this.nbChunksX = ( nbTilesX + CHUNK_SIZE - 1 ) >> CHUNK_SHIFT;
+		this.nbChunksY = ( nbTilesY + CHUNK_SIZE - 1 ) >> CHUNK_SHIFT;
+
+		this.chunks = new byte[this.nbChunksX * this.nbChunksY][];
+		for(int i = 0; i < this.chunks.length; i++)
+			this.chunks[i] = AIR_CHUNK;
+		this.nbNonAirTiles = new short[this.chunks.length];
+	}
+
+	/******************************************************** SIZE *****************************************************/
+
+	/**
+	 * Return the number of tiles in the horizontal direction.
+	 *
+	 * @return	| result == ( this.nbTilesX )
+	 */
+	@Basic @Immutable @Raw
+	public int getNbTilesX(){
+		return this.nbTilesX;
+	}
+
+	/**
+	 * Variable registering the number of tiles in the horizontal direction.
+	 */
+	private final int nbTilesX;
+
+	/**
+	 * Return the number of tiles in the vertical direction.
+	 *
+	 * @return	| result == ( this.nbTilesY )
+	 */
+	@Basic @Immutable @Raw
+	public int getNbTilesY(){
+		return this.nbTilesY;
+	}
+
+	/**
+	 * Variable registering the number of tiles in the vertical direction.
+	 */
+	private final int nbTilesY;
+
+	/**
+	 * Check whether the given tile position lies within this store.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position to check.
+	 * @param 	tileY
+	 * 				The vertical tile position to check.
+	 * @return	| result == ( tileX >= 0 && tileX < getNbTilesX() && tileY >= 0 && tileY < getNbTilesY() )
+	 */
+	@Raw
+	public boolean isValidTilePosition(int tileX, int tileY){
+		return tileX >= 0 && tileX < this.getNbTilesX() && tileY >= 0 && tileY < this.getNbTilesY();
+	}
+
+	/******************************************************** CHUNKS ***************************************************/
+
+	/**
+	 * The base-2 logarithm of the side length of a chunk, in tiles.
+	 */
+	public static final int CHUNK_SHIFT = 6;
+
+	/**
+	 * The side length of a chunk, in tiles.
+	 */
+	public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	/**
+	 * Mask to obtain the position of a tile within its chunk.
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * The shared chunk referred to by all chunks that consist of air only. It is never written to.
+	 */
+	private static final byte[] AIR_CHUNK = new byte[CHUNK_SIZE * CHUNK_SIZE];
+
+	/**
+	 * Return the number of chunks in the horizontal direction.
+	 *
+	 * @return	| result == ( (getNbTilesX() + CHUNK_SIZE - 1) / CHUNK_SIZE )
+	 */
+	@Basic @Immutable @Raw
+	public int getNbChunksX(){
+		return this.nbChunksX;
+	}
+
+	/**
+	 * Variable registering the number of chunks in the horizontal direction.
+	 */
+	private final int nbChunksX;
+
+	/**
+	 * Return the number of chunks in the vertical direction.
+	 *
+	 * @return	| result == ( (getNbTilesY() + CHUNK_SIZE - 1) / CHUNK_SIZE )
+	 */
+	@Basic @Immutable @Raw
+	public int getNbChunksY(){
+		return this.nbChunksY;
+	}
+
+	/**
+	 * Variable registering the number of chunks in the vertical direction.
+	 */
+	private final int nbChunksY;
+
+	/**
+	 * Return the total number of chunks of this store, resident or not.
+	 *
+	 * @return	| result == ( getNbChunksX() * getNbChunksY() )
+	 */
+	@Raw
+	public int getNbChunks(){
+		return this.chunks.length;
+	}
+
+	/**
+	 * Check whether the chunk with the given chunk position has its own storage allocated.
+	 *
+	 * @param 	chunkX
+	 * 				The horizontal chunk position.
+	 * @param 	chunkY
+	 * 				The vertical chunk position.
+	 * @pre		| chunkX >= 0 && chunkX < getNbChunksX() && chunkY >= 0 && chunkY < getNbChunksY()
+	 * @return	True if and only if the chunk contains at least one tile that does not consist of air.
+	 */
+	@Raw
+	public boolean isResidentChunk(int chunkX, int chunkY){
+		return this.chunks[chunkY * this.getNbChunksX() + chunkX] != AIR_CHUNK;
+	}
+
+	/**
+	 * Return the number of chunks that have their own storage allocated.
+	 *
+	 * @return	The number of chunks that contain at least one tile that does not consist of air.
+	 */
+	@Basic @Raw
+	public int getNbResidentChunks(){
+		return this.nbResidentChunks;
+	}
+
+	/**
+	 * Variable registering the number of chunks that have their own storage allocated.
+	 */
+	private int nbResidentChunks = 0;
+
+	/**
+	 * Return the number of bytes of tile data stored per resident chunk.
+	 *
+	 * @return	| result == ( CHUNK_SIZE * CHUNK_SIZE )
+	 */
+	@Immutable
+	public static int getBytesPerChunk(){
+		return AIR_CHUNK.length;
+	}
+
+	/**
+	 * Return a report of the memory used by the tile data of this store.
+	 *
+	 * @return	| result == ( new TerrainMemoryReport(getBytesPerChunk(), getNbResidentChunks(), getNbChunks()) )
+	 */
+	public TerrainMemoryReport getMemoryReport(){
+		return new TerrainMemoryReport(getBytesPerChunk(), this.getNbResidentChunks(), this.getNbChunks());
+	}
+
+	/**
+	 * Array registering all chunks of this store in row-major order. Chunks consisting of air only refer to
+	 * the shared AIR_CHUNK.
+	 */
+	private final byte[][] chunks;
+
+	/**
+	 * Array registering the number of tiles that do not consist of air for every chunk of this store.
+	 */
+	private final short[] nbNonAirTiles;
+
+	/****************************************************** TERRAIN ****************************************************/
+
+	/**
+	 * Return the ID of the Terrain type of the given tile.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @return	The ID of the Terrain type of the given tile, or the ID of Terrain.AIR if the tile lies
+	 * 			outside of this store.
+	 * @note	This method runs in constant time and does not allocate any objects.
+	 */
+	@Raw
+	public int getTerrainId(int tileX, int tileY){
+		if(!isValidTilePosition(tileX, tileY))
+			return AIR_ID;
+		return this.chunks[getChunkIndex(tileX, tileY)][getIndexInChunk(tileX, tileY)];
+	}
+
+	/**
+	 * Return the Terrain type of the given tile.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @return	| result == ( Terrain.idToType(getTerrainId(tileX, tileY)) )
+	 */
+	@Raw
+	public Terrain getTerrain(int tileX, int tileY){
+		return Terrain.idToType(getTerrainId(tileX, tileY));
+	}
+
+	/**
+	 * Set the Terrain type of the given tile to the given type.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @param 	terrain
+	 * 				The new Terrain type of the tile.
+	 * @pre		| isValidTilePosition(tileX, tileY)
+	 * @pre		| terrain != null
+	 * @post	| new.getTerrain(tileX, tileY) == terrain
+	 * @return	The Terrain type the given tile had before.
+	 */
+	public Terrain setTerrain(int tileX, int tileY, Terrain terrain){
+		assert isValidTilePosition(tileX, tileY);
+		assert terrain != null;
+
+		int chunkIndex = getChunkIndex(tileX, tileY);
+		int indexInChunk = getIndexInChunk(tileX, tileY);
+		byte[] chunk = this.chunks[chunkIndex];
+		int oldId = chunk[indexInChunk];
+		int newId = terrain.getId();
+
+		if(oldId == newId)
+			return terrain;
+
+		if(chunk == AIR_CHUNK){
+			chunk = new byte[AIR_CHUNK.length];
+			this.chunks[chunkIndex] = chunk;
+			this.nbResidentChunks++;
+		}
+		chunk[indexInChunk] = (byte) newId;
+
+		if(oldId == AIR_ID){
+			this.nbNonAirTiles[chunkIndex]++;
+		}else if(newId == AIR_ID && --this.nbNonAirTiles[chunkIndex] == 0){
+			this.chunks[chunkIndex] = AIR_CHUNK;
+			this.nbResidentChunks--;
+		}
+		return Terrain.idToType(oldId);
+	}
+
+	/**
+	 * The ID of Terrain.AIR, the Terrain type of all tiles that have not been set.
+	 */
+	private static final int AIR_ID = Terrain.AIR.getId();
+
+	/**
+	 * Return the index of the chunk containing the given tile.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @return	| result == ( (tileY / CHUNK_SIZE) * getNbChunksX() + (tileX / CHUNK_SIZE) )
+	 */
+	@Model
+	private int getChunkIndex(int tileX, int tileY){
+		return ( tileY >> CHUNK_SHIFT ) * this.getNbChunksX() + ( tileX >> CHUNK_SHIFT );
+	}
+
+	/**
+	 * Return the index of the given tile within its chunk.
+	 *
+	 * @param 	tileX
+	 * 				The horizontal tile position.
+	 * @param 	tileY
+	 * 				The vertical tile position.
+	 * @return	| result == ( (tileY % CHUNK_SIZE) * CHUNK_SIZE + (tileX % CHUNK_SIZE) )
+	 */
+	@Model
+	private static int getIndexInChunk(int tileX, int tileY){
+		return ( ( tileY & CHUNK_MASK ) << CHUNK_SHIFT ) | ( tileX & CHUNK_MASK );
+	}
+
+}
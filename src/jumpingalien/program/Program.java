@@ -1,7 +1,11 @@
 package jumpingalien.program;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
@@ -67,6 +71,20 @@ public class Program {
 
 	private GameObject gameObject;
 	
+	/**
+	 * Return the source of random numbers of this Program.
+	 * 
+	 * @return	The source of random numbers of the Game object of this Program, or a thread-local source if this
+	 * 			Program has no Game object yet.
+	 * 			| if(getGameObject() != null)
+	 * 			|	then result == getGameObject().getRandom()
+	 */
+	public Random getRandom(){
+		if(this.getGameObject() == null)
+			return ThreadLocalRandom.current();
+		return this.getGameObject().getRandom();
+	}
+	
 	/* Main statement */
 	
 	@Basic @Immutable
@@ -94,6 +112,41 @@ public class Program {
 		}		
 	}
 	
+	/* Deferred actions */
+	
+	/**
+	 * Perform the given action of this Program, or keep it until applyDeferredActions if the World of the Game 
+	 * object of this Program is planning a fixed time step.
+	 */
+	public void perform(Runnable action){
+		if(this.isDeferringActions())
+			this.deferredActions.add(action);
+		else
+			action.run();
+	}
+	
+	/**
+	 * Perform the actions this Program has kept, in the order in which they were executed.
+	 */
+	public void applyDeferredActions(){
+		try{
+			for(Runnable action : this.deferredActions)
+				action.run();
+		} catch (ProgramRuntimeException | ClassCastException e) {
+			setHasError(true);
+			System.err.println("Error in program!");
+		} finally {
+			this.deferredActions.clear();
+		}
+	}
+	
+	private boolean isDeferringActions(){
+		return this.getGameObject() != null && this.getGameObject().hasWorld() 
+				&& this.getGameObject().getWorld().isPlanningLockstep();
+	}
+	
+	private final List<Runnable> deferredActions = new ArrayList<>();
+	
 	@Basic
 	private void restart(){
 		this.getMainStatement().resetIterator();
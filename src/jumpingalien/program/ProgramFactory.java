@@ -107,8 +107,7 @@ public class ProgramFactory<E,S,T,P> implements IProgramFactory<Expression<?>, S
 	@Override
 	public Expression<DoubleType> createRandom(Expression<?> maxValue,
 			SourceLocation sourceLocation) {
-		return new UnaryOperator<DoubleType, DoubleType>( Expression.cast(maxValue),
-				x ->  new DoubleType( Math.random()*x.getValue()), sourceLocation);
+		return new RandomNumber( Expression.cast(maxValue), sourceLocation);
 	}
 
 	@Override
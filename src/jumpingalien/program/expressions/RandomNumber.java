@@ -0,0 +1,46 @@
+package jumpingalien.program.expressions;
+
+import be.kuleuven.cs.som.annotate.*;
+import jumpingalien.part3.programs.SourceLocation;
+import jumpingalien.program.Program;
+import jumpingalien.program.types.DoubleType;
+
+/**
+ * A class of Random Numbers as defined in a Program.
+ * 
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ * 
+ */
+public class RandomNumber extends Expression<DoubleType>{
+	
+	/* Constructor */
+	
+	public RandomNumber(final Expression<DoubleType> maxValue, final SourceLocation sourceLocation){
+		super(sourceLocation);
+		
+		this.maxValue = maxValue;
+	}
+	
+	/* Maximal value */
+	
+	@Basic @Immutable
+	public Expression<DoubleType> getMaxValue() {
+		return this.maxValue;
+	}
+
+	private final Expression<DoubleType> maxValue;
+
+	/* Execution */
+	
+	/**
+	 * Return a random number between zero and the maximal value, drawn from the source of random numbers of the 
+	 * given Program.
+	 */
+	@Override
+	public DoubleType execute(final Program program) {
+		return new DoubleType( program.getRandom().nextDouble() * getMaxValue().execute(program).getValue() );
+	}	
+	
+}
@@ -1,15 +1,13 @@
 package jumpingalien.program.expressions;
 
-import java.util.Optional;
-import java.util.stream.Stream;
-
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
+import jumpingalien.model.GameObject;
+import jumpingalien.model.RayCaster;
 import jumpingalien.model.helper.Collision;
 import jumpingalien.model.helper.Orientation;
 import jumpingalien.model.interfaces.IKind;
 import jumpingalien.part3.programs.SourceLocation;
-import jumpingalien.part3.programs.IProgramFactory.Kind;
 import jumpingalien.program.Program;
 import jumpingalien.program.types.DirectionType;
 import jumpingalien.program.types.ObjectType;
@@ -77,48 +75,21 @@ public class SearchObject extends Expression<ObjectType>{
 	}
 	
 	public int getDistance(IKind object, Program program){
-		Orientation direction = getDirection().execute(program).getValue();
-		IKind searcher = program.getGameObject();
-
-		switch(direction){
-		case LEFT:
-			return searcher.getRoundedPositionX() - ( object.getRoundedPositionX() + object.getWidth() );
-		case RIGHT:
-			return object.getRoundedPositionX() - searcher.getRoundedPositionX();
-		case TOP:
-			return object.getRoundedPositionY() - searcher.getRoundedPositionY();
-		case BOTTOM:
-			return searcher.getRoundedPositionY() - ( object.getRoundedPositionY() + object.getHeight() );
-		default:
-			throw new IllegalArgumentException();
-		}
+		return RayCaster.getDistance(program.getGameObject(), object, getDirection().execute(program).getValue());
 	}
 	
 	/* Execution */
 	
 	@Override
 	public ObjectType execute(Program program) throws IllegalStateException{
-		Stream.Builder<IKind> builder = Stream.builder();
-		
-		for (IKind object: ObjectType.getObjects(Kind.ANY, program)){
-			builder.accept(object);
-		}
-		
-		Stream<IKind> stream = builder.build();
-		Optional<IKind> result = stream
-			.filter( // Filter items not in right direction
-				o -> { return objectInRightDirection(o, program); }
-			).filter( // Filter items not in direct line of sight
-				o -> { return objectInLineOfSight(o, program); }
-			).reduce( // Find closest object
-					(closestObject, o) -> { return (getDistance(o, program) < getDistance(closestObject, program)) ? o : closestObject; }
-			);
+		GameObject searcher = program.getGameObject();
+		IKind result = searcher.getWorld().searchObject(searcher, getDirection().execute(program).getValue());
 		
-		if(! result.isPresent()){
+		if(result == null){
 			throw new IllegalStateException("No object found in given direction, but assumed Game world would have solid tiles as borders!");
 		}
 		
-		return new ObjectType(result.get());
+		return new ObjectType(result);
 	}
 	
 }
@@ -53,11 +53,14 @@ public class Action extends Statement {
 	@Override
 	public void execute(Program program) throws ProgramRuntimeException{
 		if(this.iterator().hasNext()){
-			try {
-				getOperator().accept( this.getGameObject().execute(program).getValue(), program);
-			} catch (IllegalEndJumpException | IllegalEndDuckException exc) {
-				
-			}
+			Object target = this.getGameObject().execute(program).getValue();
+			program.perform(() -> {
+				try {
+					getOperator().accept(target, program);
+				} catch (IllegalEndJumpException | IllegalEndDuckException exc) {
+					
+				}
+			});
 			setStatementUsed(true);
 		}else{
 			throw new ProgramRuntimeException("Statement executed while not having next useful statement!");
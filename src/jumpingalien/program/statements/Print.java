@@ -38,7 +38,8 @@ public class Print extends Statement {
 	@Override
 	public void execute(Program program) throws ProgramRuntimeException{
 		if(this.iterator().hasNext()){
-			System.out.println(this.getExpression().execute(program));
+			String text = String.valueOf(this.getExpression().execute(program));
+			program.perform(() -> System.out.println(text));
 			setStatementUsed(true);
 		}else{
 			throw new ProgramRuntimeException("Statement executed while not having next useful statement!");
@@ -1,6 +1,10 @@
 package jumpingalien.program.types;
 
+import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import be.kuleuven.cs.som.annotate.Basic;
@@ -94,23 +98,71 @@ public class ObjectType extends Type {
 			mazubSet.add(Mazub.getInWorld(program.getGameObject().getWorld()));
 			return mazubSet;
 		case BUZAM:
-			return new HashSet<IKind> (Buzam.getAllInWorld(program.getGameObject().getWorld()));
+			return Collections.unmodifiableSet(Buzam.getAllInWorld(program.getGameObject().getWorld()));
 		case SLIME:
-			return new HashSet<IKind> (Slime.getAllInWorld(program.getGameObject().getWorld()));
+			return Collections.unmodifiableSet(Slime.getAllInWorld(program.getGameObject().getWorld()));
 		case SHARK:
-			return new HashSet<IKind> (Shark.getAllInWorld(program.getGameObject().getWorld()));
+			return Collections.unmodifiableSet(Shark.getAllInWorld(program.getGameObject().getWorld()));
 		case PLANT:
-			return new HashSet<IKind> (Plant.getAllInWorld(program.getGameObject().getWorld()));
+			return Collections.unmodifiableSet(Plant.getAllInWorld(program.getGameObject().getWorld()));
 		case TERRAIN:
-			return new HashSet<IKind> (program.getGameObject().getWorld().getAllTiles());
+			return Collections.unmodifiableSet(program.getGameObject().getWorld().getAllTiles());
 		case ANY:
-			HashSet<IKind> anySet= new HashSet<IKind>();
-			anySet.addAll(program.getGameObject().getWorld().getAllGameObjects());
-			anySet.addAll(program.getGameObject().getWorld().getAllTiles());
-			return anySet;
+			return union(program.getGameObject().getWorld().getAllGameObjects(),
+						 program.getGameObject().getWorld().getAllTiles());
 		default:
 			throw new IllegalArgumentException();
 		}
 	}
 	
+	/**
+	 * Return an unmodifiable view on the union of the two given disjoint sets, without copying their elements.
+	 * 
+	 * @param 	first
+	 * 				The first set of the union.
+	 * @param 	second
+	 * 				The second set of the union, which has no elements in common with the first set.
+	 * @return	A set view that contains exactly the elements of both given sets.
+	 */
+	private static Set<IKind> union(Set<? extends IKind> first, Set<? extends IKind> second){
+		return new AbstractSet<IKind>(){
+			
+			@Override
+			public Iterator<IKind> iterator() {
+				return new Iterator<IKind>(){
+					
+					private Iterator<? extends IKind> current = first.iterator();
+					
+					private boolean inSecond = false;
+
+					@Override
+					public boolean hasNext() {
+						if(!current.hasNext() && !inSecond){
+							current = second.iterator();
+							inSecond = true;
+						}
+						return current.hasNext();
+					}
+
+					@Override
+					public IKind next() {
+						if(!hasNext())
+							throw new NoSuchElementException();
+						return current.next();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return first.size() + second.size();
+			}
+			
+			@Override
+			public boolean contains(Object object) {
+				return first.contains(object) || second.contains(object);
+			}
+		};
+	}
+	
 }
@@ -0,0 +1,123 @@
+package jumpingalien.benchmark;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.Plant;
+import jumpingalien.model.School;
+import jumpingalien.model.Shark;
+import jumpingalien.model.Slime;
+import jumpingalien.model.World;
+import jumpingalien.model.helper.BruteForceBroadPhase;
+import jumpingalien.model.helper.DynamicAABBTree;
+import jumpingalien.model.helper.SpatialHash;
+import jumpingalien.model.helper.SweepAndPruneBroadPhase;
+import jumpingalien.model.interfaces.IBroadPhase;
+import jumpingalien.model.terrain.Terrain;
+import jumpingalien.util.Sprite;
+
+/**
+ * A benchmark comparing the broadphases a World can use, on a long horizontal level and on a dense arena with
+ * the same number of Game objects.
+ *
+ * In the long level, all Game objects stand on one floor along the x axis. In the arena, they stand on stacked
+ * floors of a square World, close to each other.
+ *
+ * Run it as a plain Java application, optionally passing the number of Game objects as argument.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+public class BroadPhaseBenchmark {
+
+	private static final int TILE_LENGTH = 50;
+
+	private static final double TIME_STEP = 0.02;
+
+	private static final long MIN_DURATION_NANOS = 1_000_000_000L;
+
+	public static void main(String[] args) {
+		int population = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+
+		System.out.printf("%-8s %-16s %12s %12s%n", "level", "broadphase", "ticks/s", "ms/tick");
+		for(boolean longLevel : new boolean[]{ true, false }){
+			measure(longLevel, population, "brute force", () -> new BruteForceBroadPhase<GameObject>());
+			measure(longLevel, population, "sweep and prune", () -> new SweepAndPruneBroadPhase<GameObject>());
+			measure(longLevel, population, "spatial hash", () -> new SpatialHash<GameObject>(TILE_LENGTH));
+			measure(longLevel, population, "aabb tree", () -> new DynamicAABBTree<GameObject>());
+		}
+	}
+
+	private static void measure(boolean longLevel, int population, String name, Supplier<IBroadPhase<GameObject>> broadPhase){
+		World world = longLevel ? createLongLevel(population) : createArena(population);
+		world.setBroadPhase(broadPhase.get());
+		world.start();
+
+		// Warm up before measuring
+		for(int i = 0; i < 5; i++)
+			world.advanceTime(TIME_STEP);
+
+		long start = System.nanoTime();
+		int nbTicks = 0;
+		while(System.nanoTime() - start < MIN_DURATION_NANOS || nbTicks < 3){
+			world.advanceTime(TIME_STEP);
+			nbTicks++;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%-8s %-16s %12.1f %12.3f%n", longLevel ? "long" : "arena", name, nbTicks / seconds,
+						  1000 * seconds / nbTicks);
+	}
+
+	private static World createLongLevel(int population){
+		int nbTilesX = 2 * population + 4;
+		World world = createWorld(nbTilesX, 4);
+		world.setGeologicalFeatures(0, 0, nbTilesX - 1, 0, Terrain.SOLID);
+		populate(world, population, nbTilesX - 4, 1, 2);
+		return world;
+	}
+
+	private static World createArena(int population){
+		int side = 4 + (int) Math.ceil(Math.sqrt(2 * population));
+		World world = createWorld(side, 2 * side);
+		for(int floor = 0; floor < 2 * side; floor += 2)
+			world.setGeologicalFeatures(0, floor, side - 1, floor, Terrain.SOLID);
+		populate(world, population, side - 2, 2, 1);
+		return world;
+	}
+
+	private static World createWorld(int nbTilesX, int nbTilesY){
+		World world = new World(TILE_LENGTH, nbTilesX, nbTilesY, 1000, 800, nbTilesX - 1, nbTilesY - 1);
+		world.setLargeWorld(true);
+		new Mazub(TILE_LENGTH, TILE_LENGTH, spriteArrayForSize(30, 40)).setWorldTo(world);
+		return world;
+	}
+
+	private static void populate(World world, int population, int objectsPerFloor, int floorDistance, int objectDistance){
+		Random random = new Random(population);
+		School[] schools = new School[100];
+		for(int i = 0; i < schools.length; i++)
+			schools[i] = new School();
+
+		Sprite[] sprites = spriteArrayForSize(30, 20, 2);
+		for(int i = 0; i < population; i++){
+			int pixelX = (2 + (i % objectsPerFloor) * objectDistance) * TILE_LENGTH;
+			int pixelY = ((i / objectsPerFloor) * floorDistance + 1) * TILE_LENGTH;
+			switch(random.nextInt(3)){
+				case 0:
+					new Plant(pixelX, pixelY, sprites).setWorldTo(world);
+					break;
+				case 1:
+					new Shark(pixelX, pixelY, sprites).setWorldTo(world);
+					break;
+				default:
+					new Slime(pixelX, pixelY, sprites, schools[random.nextInt(schools.length)]).setWorldTo(world);
+			}
+		}
+	}
+}
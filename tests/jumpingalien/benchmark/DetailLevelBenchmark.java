@@ -0,0 +1,61 @@
+package jumpingalien.benchmark;
+
+import java.util.Random;
+
+import jumpingalien.model.World;
+import jumpingalien.model.helper.DetailLevel;
+
+/**
+ * A benchmark measuring the cost of a tick of a large World for every level of detail on its own.
+ *
+ * The same World is built for every level of detail, after which the distances of its level of detail policy are
+ * chosen such that all enemies outside the visible window are simulated at that level. Every level of detail
+ * simulates the same number of ticks, so the Game objects live through the same in-game time.
+ *
+ * Run it as a plain Java application, optionally passing the population to measure as an argument.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+public class DetailLevelBenchmark {
+
+	private static final double TIME_STEP = 0.02;
+
+	private static final int NB_TICKS = 100;
+
+	public static void main(String[] args) {
+		int population = 5_000;
+		if(args.length > 0)
+			population = Integer.parseInt(args[0]);
+
+		System.out.printf("%10s %10s %10s %10s %12s%n", "level", "near", "mid", "far", "ms/tick");
+		for(DetailLevel level : DetailLevel.values()){
+			World world = LargeWorldBenchmark.createWorld(population, new Random(population));
+			switch(level){
+				case NEAR:
+					world.setLevelOfDetail(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+					break;
+				case MID:
+					world.setLevelOfDetail(0, Double.POSITIVE_INFINITY);
+					break;
+				default:
+					world.setLevelOfDetail(0, 0);
+			}
+
+			// Warm up before measuring
+			for(int i = 0; i < 5; i++)
+				world.advanceTime(TIME_STEP);
+
+			long start = System.nanoTime();
+			for(int i = 0; i < NB_TICKS; i++)
+				world.advanceTime(TIME_STEP);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("%10s %10d %10d %10d %12.3f%n", level, world.getNbGameObjectsAt(DetailLevel.NEAR),
+							  world.getNbGameObjectsAt(DetailLevel.MID), world.getNbGameObjectsAt(DetailLevel.FAR),
+							  1000 * seconds / NB_TICKS);
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+package jumpingalien.benchmark;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+
+import java.util.Random;
+
+import jumpingalien.model.Mazub;
+import jumpingalien.model.Plant;
+import jumpingalien.model.School;
+import jumpingalien.model.Shark;
+import jumpingalien.model.Slime;
+import jumpingalien.model.World;
+import jumpingalien.model.terrain.Terrain;
+import jumpingalien.util.Sprite;
+
+/**
+ * A benchmark measuring how the number of ticks per second of a large World scales with its number of
+ * Game objects.
+ *
+ * Every World is laid out as stacked floors of solid tiles, with the Game objects standing on the floors at
+ * a fixed distance from each other, so the density of Game objects is the same for every population.
+ * 
+ * Every population is measured twice: once with every enemy simulated in full detail, where the cost per Game 
+ * object should stay the same for every population, and once with a level of detail, where only the enemies 
+ * around the visible window are simulated and the cost per tick should grow much slower than the population.
+ *
+ * Run it as a plain Java application, optionally passing the populations to measure as arguments.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+public class LargeWorldBenchmark {
+
+	private static final int TILE_LENGTH = 50;
+
+	private static final int NB_TILES_X = 400;
+
+	private static final int FLOOR_DISTANCE = 4;
+
+	private static final int OBJECT_DISTANCE = 2;
+
+	private static final int NB_SCHOOLS = 1000;
+
+	private static final double TIME_STEP = 0.02;
+
+	private static final double NEAR_DISTANCE = 200;
+
+	private static final double FAR_DISTANCE = 800;
+
+	private static final long MIN_DURATION_NANOS = 2_000_000_000L;
+
+	public static void main(String[] args) {
+		int[] populations = { 100, 1_000, 10_000, 100_000 };
+		if(args.length > 0){
+			populations = new int[args.length];
+			for(int i = 0; i < args.length; i++)
+				populations[i] = Integer.parseInt(args[i]);
+		}
+
+		System.out.printf("%10s %8s %12s %12s %12s %12s%n", "objects", "detail", "ticks/s", "ms/tick", "us/object", 
+						  "cache hits");
+		for(int population : populations)
+			for(boolean levelOfDetail : new boolean[]{ false, true })
+				measure(population, levelOfDetail);
+	}
+
+	private static void measure(int population, boolean levelOfDetail){
+		World world = createWorld(population, new Random(population));
+		if(levelOfDetail)
+			world.setLevelOfDetail(NEAR_DISTANCE, FAR_DISTANCE);
+
+		// Warm up before measuring
+		runTicks(world, 5);
+
+		long start = System.nanoTime();
+		int nbTicks = 0;
+		while(System.nanoTime() - start < MIN_DURATION_NANOS || nbTicks < 3){
+			runTicks(world, 1);
+			nbTicks++;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		double hitRatio = (double) world.getNbContactCacheHits() /
+						  ( world.getNbContactCacheHits() + world.getNbContactCacheMisses() );
+		System.out.printf("%10d %8s %12.1f %12.3f %12.3f %11.1f%%%n", population, levelOfDetail ? "lod" : "full",
+						  nbTicks / seconds, 1000 * seconds / nbTicks, 1e6 * seconds / nbTicks / population, 
+						  100 * hitRatio);
+	}
+
+	private static void runTicks(World world, int nbTicks){
+		for(int i = 0; i < nbTicks; i++)
+			world.advanceTime(TIME_STEP);
+	}
+
+	static World createWorld(int population, Random random){
+		int objectsPerFloor = NB_TILES_X / OBJECT_DISTANCE - 1;
+		int nbFloors = (population + objectsPerFloor - 1) / objectsPerFloor;
+		int nbTilesY = nbFloors * FLOOR_DISTANCE + 2;
+
+		World world = new World(TILE_LENGTH, NB_TILES_X, nbTilesY, 1000, 800, NB_TILES_X - 1, nbTilesY - 1);
+		world.setLargeWorld(true);
+		world.setRandomSeed(random.nextLong());
+		for(int floor = 0; floor <= nbFloors; floor++)
+			world.setGeologicalFeatures(0, floor * FLOOR_DISTANCE, NB_TILES_X - 1, floor * FLOOR_DISTANCE, Terrain.SOLID);
+
+		Mazub alien = new Mazub(TILE_LENGTH, TILE_LENGTH, spriteArrayForSize(30, 40));
+		alien.setWorldTo(world);
+
+		School[] schools = new School[NB_SCHOOLS];
+		for(int i = 0; i < schools.length; i++)
+			schools[i] = new School();
+
+		Sprite[] sprites = spriteArrayForSize(30, 20, 2);
+		for(int i = 0; i < population; i++){
+			int pixelX = (2 + (i % objectsPerFloor) * OBJECT_DISTANCE) * TILE_LENGTH;
+			int pixelY = ((i / objectsPerFloor) * FLOOR_DISTANCE + 1) * TILE_LENGTH;
+			switch(random.nextInt(3)){
+				case 0:
+					new Plant(pixelX, pixelY, sprites).setWorldTo(world);
+					break;
+				case 1:
+					new Shark(pixelX, pixelY, sprites).setWorldTo(world);
+					break;
+				default:
+					new Slime(pixelX, pixelY, sprites, schools[random.nextInt(schools.length)]).setWorldTo(world);
+			}
+		}
+
+		world.start();
+		return world;
+	}
+}
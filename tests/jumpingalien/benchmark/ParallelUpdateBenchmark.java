@@ -0,0 +1,82 @@
+package jumpingalien.benchmark;
+
+import java.util.Random;
+
+import jumpingalien.model.GameObject;
+import jumpingalien.model.World;
+
+/**
+ * A benchmark measuring how the time a large World takes to advance in a fixed time step scales with the number 
+ * of threads it uses.
+ *
+ * For every number of threads, the same World is generated from the same seed and advanced by the same number of
+ * ticks. The final state of its Game objects is summarized in a checksum, which has to be the same for every 
+ * number of threads.
+ *
+ * Run it as a plain Java application, optionally passing the population and the largest number of threads as 
+ * arguments.
+ *
+ * @author 	Thomas Verelst, Hans Cauwenbergh
+ * @note	See the class Mazub for further information about our project.
+ * @version 1.0
+ *
+ */
+public class ParallelUpdateBenchmark {
+
+	private static final long SEED = 24;
+
+	private static final double TIME_STEP = 0.02;
+
+	private static final int NB_WARM_UP_TICKS = 5;
+
+	private static final int NB_TICKS = 20;
+
+	public static void main(String[] args) {
+		int population = ( args.length > 0 ) ? Integer.parseInt(args[0]) : 20_000;
+		int maxNbThreads = ( args.length > 1 ) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+		int nbProcessors = Runtime.getRuntime().availableProcessors();
+		if(maxNbThreads > nbProcessors)
+			System.out.printf("Only %d processors are available, so more threads than that cannot speed up a tick.%n", nbProcessors);
+		System.out.printf("%10s %12s %12s %10s %20s%n", "threads", "ms/tick", "speedup", "same", "checksum");
+		double serialMillis = 0;
+		long serialChecksum = 0;
+		for(int nbThreads = 1; nbThreads <= maxNbThreads; nbThreads++){
+			World world = LargeWorldBenchmark.createWorld(population, new Random(SEED));
+			world.setFixedTimeStep(World.DEFAULT_FIXED_TIME_STEP);
+			world.setNbThreads(nbThreads);
+
+			runTicks(world, NB_WARM_UP_TICKS);
+
+			long start = System.nanoTime();
+			runTicks(world, NB_TICKS);
+			double millis = (System.nanoTime() - start) / 1e6 / NB_TICKS;
+
+			long checksum = getChecksum(world);
+			if(nbThreads == 1){
+				serialMillis = millis;
+				serialChecksum = checksum;
+			}
+			System.out.printf("%10d %12.3f %11.2fx %10s %20d%n", nbThreads, millis, serialMillis / millis,
+							  checksum == serialChecksum ? "yes" : "NO", checksum);
+			world.setNbThreads(1);
+		}
+	}
+
+	private static void runTicks(World world, int nbTicks){
+		for(int i = 0; i < nbTicks; i++)
+			world.advanceTime(TIME_STEP);
+	}
+
+	private static long getChecksum(World world){
+		long checksum = 17;
+		for(GameObject gameObject : world.getImpassableGameObjects(World.ALL_KINDS_MASK)){
+			checksum = 31 * checksum + Double.doubleToLongBits(gameObject.getPositionX());
+			checksum = 31 * checksum + Double.doubleToLongBits(gameObject.getPositionY());
+			checksum = 31 * checksum + Double.doubleToLongBits(gameObject.getVelocityX());
+			checksum = 31 * checksum + Double.doubleToLongBits(gameObject.getVelocityY());
+			checksum = 31 * checksum + gameObject.getNbHitPoints();
+		}
+		return checksum;
+	}
+}
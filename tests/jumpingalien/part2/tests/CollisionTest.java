@@ -1,9 +1,28 @@
 package jumpingalien.part2.tests;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.model.helper.BruteForceBroadPhase;
 import jumpingalien.model.helper.Collision;
+import jumpingalien.model.helper.CollisionMask;
+import jumpingalien.model.helper.DynamicAABBTree;
 import jumpingalien.model.helper.Orientation;
+import jumpingalien.model.helper.SpatialHash;
+import jumpingalien.model.helper.SweepAndPruneBroadPhase;
+import jumpingalien.model.interfaces.IBroadPhase;
+import jumpingalien.util.Sprite;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -193,5 +212,288 @@ public class CollisionTest {
 		 assertFalse(Collision.doRegionsOverlap(0, 0, 20, 20, 0, 20, 20, 20, Orientation.TOP));
 		 assertTrue(Collision.doRegionsOverlap(0, 0, 20, 20, 0, 19, 20, 20, Orientation.TOP));
 	 }
+	 
+	 /* Batches */
+	 @Test
+	 public void testFindOverlappingRegions(){
+		 int[] xs = { 0, 20, 19, 10 }, ys = { 0, 0, 0, 30 }, widths = { 20, 20, 20, 5 }, heights = { 20, 20, 20, 5 };
+		 int[] hits = new int[4];
+		 
+		 assertEquals(2, Collision.findOverlappingRegions(0, 0, 20, 20, Orientation.ALL, xs, ys, widths, heights, 4, hits));
+		 assertEquals(0, hits[0]);
+		 assertEquals(2, hits[1]);
+		 assertEquals(1, Collision.findOverlappingRegions(0, 0, 20, 20, Orientation.LEFT, xs, ys, widths, heights, 4, hits));
+		 assertEquals(0, hits[0]);
+		 assertEquals(0, Collision.findOverlappingRegions(0, 0, 20, 20, Orientation.ALL, xs, ys, widths, heights, 0, hits));
+	 }
+	 
+	 @Test
+	 public void testFindOverlappingRegions_random(){
+		 Random random = new Random(20);
+		 int nbRegions = 200;
+		 int[] xs = new int[nbRegions], ys = new int[nbRegions], widths = new int[nbRegions], heights = new int[nbRegions];
+		 int[] hits = new int[nbRegions];
+		 
+		 for(int i = 0; i < nbRegions; i++){
+			 xs[i] = random.nextInt(100);
+			 ys[i] = random.nextInt(100);
+			 widths[i] = 1 + random.nextInt(30);
+			 heights[i] = 1 + random.nextInt(30);
+		 }
+		 for(int query = 0; query < 100; query++){
+			 int x = random.nextInt(100), y = random.nextInt(100);
+			 int width = random.nextInt(30) - 2, height = random.nextInt(30) - 2;
+			 for(Orientation orientation : Orientation.values()){
+				 int nbHits = Collision.findOverlappingRegions(x, y, width, height, orientation, xs, ys, widths, heights,
+						 									   nbRegions, hits);
+				 int expected = 0;
+				 for(int i = 0; i < nbRegions; i++)
+					 if(Collision.doRegionsOverlap(x, y, width, height, xs[i], ys[i], widths[i], heights[i], orientation))
+						 assertEquals(i, hits[expected++]);
+				 assertEquals(expected, nbHits);
+			 }
+		 }
+	 }
+	 
+	/**************************************************** COLLISION MASKS **********************************************/
+	 
+	 private static BufferedImage randomImage(Random random, int width, int height){
+		 BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		 for(int x = 0; x < width; x++)
+			 for(int y = 0; y < height; y++)
+				 image.setRGB(x, y, random.nextInt(4) == 0 ? 0xFF00FF00 : 0x2000FF00);
+		 return image;
+	 }
+	 
+	 @Test
+	 public void testCollisionMask_fromImage(){
+		 BufferedImage image = new BufferedImage(70, 2, BufferedImage.TYPE_INT_ARGB);
+		 image.setRGB(0, 0, 0xFF000000);
+		 image.setRGB(65, 1, 0x80000000);
+		 image.setRGB(66, 1, 0x7F000000);
+		 CollisionMask mask = new CollisionMask(image);
+		 
+		 assertEquals(70, mask.getWidth());
+		 assertEquals(2, mask.getHeight());
+		 assertTrue(mask.isOpaque(0, 1));
+		 assertFalse(mask.isOpaque(0, 0));
+		 assertTrue(mask.isOpaque(65, 0));
+		 assertFalse(mask.isOpaque(66, 0));
+		 assertFalse(mask.isOpaque(69, 1));
+	 }
+	 
+	 @Test
+	 public void testCollisionMask_overlapsWith_random(){
+		 Random random = new Random(22);
+		 for(int test = 0; test < 200; test++){
+			 CollisionMask first = new CollisionMask(randomImage(random, 1 + random.nextInt(150), 1 + random.nextInt(10)));
+			 CollisionMask second = new CollisionMask(randomImage(random, 1 + random.nextInt(150), 1 + random.nextInt(10)));
+			 int x = random.nextInt(100), y = random.nextInt(10), otherX = random.nextInt(100), otherY = random.nextInt(10);
+			 
+			 boolean expected = false;
+			 for(int column = 0; column < first.getWidth(); column++)
+				 for(int row = 0; row < first.getHeight(); row++){
+					 int otherColumn = x + column - otherX, otherRow = y + row - otherY;
+					 if(otherColumn >= 0 && otherColumn < second.getWidth() && otherRow >= 0 && otherRow < second.getHeight())
+						 expected |= first.isOpaque(column, row) && second.isOpaque(otherColumn, otherRow);
+				 }
+			 assertEquals(expected, first.overlapsWith(x, y, second, otherX, otherY));
+			 assertEquals(expected, second.overlapsWith(otherX, otherY, first, x, y));
+		 }
+	 }
+	 
+	 @Test
+	 public void testCollisionMask_getMask(){
+		 BufferedImage image = new BufferedImage(3, 1, BufferedImage.TYPE_INT_ARGB);
+		 image.setRGB(0, 0, 0xFF000000);
+		 BufferedImage flippedImage = new BufferedImage(3, 1, BufferedImage.TYPE_INT_ARGB);
+		 flippedImage.setRGB(2, 0, 0xFF000000);
+		 
+		 CollisionMask mask = CollisionMask.getMask(ImageSprite.createSprite("mask", image));
+		 assertSame(mask, CollisionMask.getMask(ImageSprite.createSprite("mask", image)));
+		 CollisionMask flippedMask = CollisionMask.getMask(ImageSprite.createSprite("mask", flippedImage));
+		 assertTrue(flippedMask.isOpaque(2, 0));
+		 assertFalse(flippedMask.isOpaque(0, 0));
+		 
+		 assertEquals(new CollisionMask(4, 5), CollisionMask.getMask(new Sprite("mask", 4, 5)));
+	 }
+	 
+	/****************************************************** BROADPHASES ************************************************/
+	 
+	 private static List<IBroadPhase<String>> createBroadPhases(){
+		 return Arrays.<IBroadPhase<String>>asList(new SpatialHash<String>(50), new BruteForceBroadPhase<String>(),
+				 								   new SweepAndPruneBroadPhase<String>(), new DynamicAABBTree<String>());
+	 }
+	 
+	 private static int[] query(IBroadPhase<String> broadPhase, int left, int bottom, int right, int top){
+		 List<Integer> found = new ArrayList<Integer>();
+		 broadPhase.query(left, bottom, right, top, id -> { found.add(id); return false; });
+		 return found.stream().mapToInt(Integer::intValue).sorted().toArray();
+	 }
+	 
+	 @Test
+	 public void testBroadPhase_query(){
+		 for(IBroadPhase<String> broadPhase : createBroadPhases()){
+			 broadPhase.insert(0, "near", 10, 10, 59, 59);
+			 broadPhase.insert(1, "far", 500, 500, 519, 519);
+			 broadPhase.insert(2, "negative", -30, -30, -1, -1);
+			 
+			 assertArrayEquals(new int[]{ 0 }, query(broadPhase, 0, 0, 20, 20));
+			 assertArrayEquals(new int[]{}, query(broadPhase, 60, 60, 100, 100));
+			 assertArrayEquals(new int[]{ 2 }, query(broadPhase, -5, -5, 0, 0));
+			 assertArrayEquals(new int[]{ 0, 1, 2 }, query(broadPhase, -100, -100, 1000, 1000));
+			 assertTrue(broadPhase.query(-100, -100, 1000, 1000, id -> true));
+		 }
+	 }
+	 
+	 @Test
+	 public void testBroadPhase_updateAndRemove(){
+		 for(IBroadPhase<String> broadPhase : createBroadPhases()){
+			 for(int id = 0; id < 200; id++)
+				 broadPhase.insert(id, "object", 20 * id, 0, 20 * id + 29, 29);
+			 
+			 broadPhase.update(7, 5000, 5000, 5029, 5029);
+			 broadPhase.update(3, 125, 0, 125, 0);
+			 assertArrayEquals(new int[]{ 7 }, query(broadPhase, 5000, 5000, 5000, 5000));
+			 assertArrayEquals(new int[]{ 3, 5, 6 }, query(broadPhase, 125, 0, 125, 0));
+			 
+			 broadPhase.remove(7);
+			 assertFalse(broadPhase.contains(7));
+			 assertEquals(199, broadPhase.getNbElements());
+			 assertArrayEquals(new int[]{}, query(broadPhase, 5000, 5000, 5000, 5000));
+			 assertNull(broadPhase.getElement(7));
+			 assertArrayEquals(new int[]{ 199 }, query(broadPhase, 3999, 29, 4000, 40));
+		 }
+	 }
+
+	 @Test
+	 public void testBroadPhase_removeMostAndReinsert(){
+		 for(IBroadPhase<String> broadPhase : createBroadPhases()){
+			 for(int id = 0; id < 100; id++)
+				 broadPhase.insert(id, "object", 20 * id, 0, 20 * id + 9, 9);
+			 for(int id = 0; id < 100; id++)
+				 if(id % 10 != 0)
+					 broadPhase.remove(id);
+			 assertEquals(10, broadPhase.getNbElements());
+			 assertArrayEquals(new int[]{ 10, 20 }, query(broadPhase, 195, 0, 400, 9));
+			 
+			 broadPhase.insert(15, "again", 305, 0, 314, 9);
+			 broadPhase.update(20, 1000, 0, 1009, 9);
+			 assertArrayEquals(new int[]{ 10, 15 }, query(broadPhase, 195, 0, 400, 9));
+			 assertArrayEquals(new int[]{ 20, 50 }, query(broadPhase, 1000, 0, 1005, 9));
+			 assertEquals("again", broadPhase.getElement(15));
+		 }
+	 }
+	 
+	 @Test
+	 public void testBroadPhase_concurrentQueries() throws InterruptedException{
+		 for(IBroadPhase<String> broadPhase : createBroadPhases()){
+			 Random random = new Random(5);
+			 int[][] boxes = new int[500][];
+			 for(int id = 0; id < boxes.length; id++){
+				 int left = random.nextInt(2000), bottom = random.nextInt(2000);
+				 boxes[id] = new int[]{ left, bottom, left + random.nextInt(150), bottom + random.nextInt(150) };
+				 broadPhase.insert(id, "object", boxes[id][0], boxes[id][1], boxes[id][2], boxes[id][3]);
+			 }
+			 int[][] regions = new int[200][];
+			 int[][] expected = new int[regions.length][];
+			 for(int i = 0; i < regions.length; i++){
+				 int left = random.nextInt(2000), bottom = random.nextInt(2000);
+				 int[] region = new int[]{ left, bottom, left + random.nextInt(300), bottom + random.nextInt(300) };
+				 regions[i] = region;
+				 expected[i] = Arrays.stream(boxes).filter(box -> box[0] <= region[2] && box[2] >= region[0] && 
+						 										  box[1] <= region[3] && box[3] >= region[1])
+						 		 .mapToInt(box -> Arrays.asList(boxes).indexOf(box)).toArray();
+			 }
+			 
+			 // Every element is found once, also when several threads query at the same time
+			 int[][][] found = new int[4][regions.length][];
+			 Thread[] threads = new Thread[found.length];
+			 for(int t = 0; t < threads.length; t++){
+				 int[][] result = found[t];
+				 threads[t] = new Thread(() -> {
+					 for(int i = 0; i < regions.length; i++)
+						 result[i] = query(broadPhase, regions[i][0], regions[i][1], regions[i][2], regions[i][3]);
+				 });
+				 threads[t].start();
+			 }
+			 for(Thread thread : threads)
+				 thread.join();
+			 for(int[][] result : found)
+				 for(int i = 0; i < regions.length; i++)
+					 assertArrayEquals(expected[i], result[i]);
+		 }
+	 }
+	 
+	 @Test
+	 public void testDynamicAABBTree_balanced(){
+		 DynamicAABBTree<String> tree = new DynamicAABBTree<String>(0);
+		 for(int id = 0; id < 1024; id++)
+			 tree.insert(id, "object", 20 * id, 0, 20 * id + 9, 9);
+		 assertTrue(tree.getHeight() <= 20);
+		 
+		 for(int id = 0; id < 1024; id += 2)
+			 tree.remove(id);
+		 assertEquals(512, tree.getNbElements());
+		 assertTrue(tree.getHeight() <= 18);
+		 assertArrayEquals(new int[]{ 1, 3 }, query(tree, 0, 0, 79, 9));
+	 }
+	 
+	 @Test
+	 public void testDynamicAABBTree_fattenedUpdate(){
+		 DynamicAABBTree<String> tree = new DynamicAABBTree<String>(10);
+		 tree.insert(0, "object", 0, 0, 9, 9);
+		 tree.update(0, 5, 5, 14, 14);
+		 assertArrayEquals(new int[]{}, query(tree, 0, 0, 4, 4));
+		 assertArrayEquals(new int[]{ 0 }, query(tree, 14, 14, 20, 20));
+		 tree.update(0, 100, 100, 109, 109);
+		 assertArrayEquals(new int[]{ 0 }, query(tree, 105, 105, 105, 105));
+	 }
+	 
+	 @Test
+	 public void testDynamicAABBTree_queryNearest(){
+		 Random random = new Random(3);
+		 DynamicAABBTree<String> tree = new DynamicAABBTree<String>();
+		 int[][] boxes = new int[300][];
+		 for(int id = 0; id < boxes.length; id++){
+			 int left = random.nextInt(2000), bottom = random.nextInt(2000);
+			 boxes[id] = new int[]{ left, bottom, left + random.nextInt(100), bottom + random.nextInt(100) };
+			 tree.insert(id, "object", boxes[id][0], boxes[id][1], boxes[id][2], boxes[id][3]);
+		 }
+		 
+		 for(int from = 0; from < boxes.length; from++){
+			 int[] box = boxes[from];
+			 for(Orientation direction : new Orientation[]{ Orientation.LEFT, Orientation.RIGHT, Orientation.TOP, Orientation.BOTTOM }){
+				 int expected = -1;
+				 long expectedDistance = Long.MAX_VALUE;
+				 for(int id = 0; id < boxes.length; id++){
+					 int[] other = boxes[id];
+					 boolean horizontal = ( direction == Orientation.LEFT || direction == Orientation.RIGHT );
+					 boolean inSight = horizontal ? other[1] <= box[3] && other[3] >= box[1] : other[0] <= box[2] && other[2] >= box[0];
+					 long distance;
+					 switch(direction){
+					 case RIGHT:
+						 distance = ( other[0] > box[0] ) ? other[0] - box[0] : -1;
+						 break;
+					 case LEFT:
+						 distance = ( other[0] < box[0] ) ? box[0] - other[2] - 1 : -1;
+						 break;
+					 case TOP:
+						 distance = ( other[1] > box[1] ) ? other[1] - box[1] : -1;
+						 break;
+					 default:
+						 distance = ( other[1] < box[1] ) ? box[1] - other[3] - 1 : -1;
+					 }
+					 boolean inDirection = ( direction == Orientation.RIGHT || direction == Orientation.TOP ) ? distance > 0 :
+						 				   ( direction == Orientation.LEFT ? other[0] < box[0] : other[1] < box[1] );
+					 if(inSight && inDirection && distance < expectedDistance){
+						 expected = id;
+						 expectedDistance = distance;
+					 }
+				 }
+				 assertEquals(expected, tree.queryNearest(direction, box[0], box[1], box[2], box[3]));
+			 }
+		 }
+	 }
 
 }
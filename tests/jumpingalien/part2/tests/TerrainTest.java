@@ -1,8 +1,13 @@
 package jumpingalien.part2.tests;
 
 import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import jumpingalien.model.terrain.ImpassableTileSet;
 import jumpingalien.model.terrain.Terrain;
 import jumpingalien.model.terrain.TerrainProperties;
+import jumpingalien.model.terrain.TerrainStore;
 import jumpingalien.util.Util;
 
 import org.junit.Test;
@@ -37,4 +42,143 @@ public class TerrainTest {
 		assertEquals(terrainProperties.getDamageTime(), 0.3, Util.DEFAULT_EPSILON);
 		assertEquals(terrainProperties.isInstantDamage(), false);
 	}
+	
+	@Test
+	public void terrainStore_initiallyAir(){
+		TerrainStore store = new TerrainStore(1000, 1000);
+		
+		assertEquals(Terrain.AIR, store.getTerrain(0, 0));
+		assertEquals(Terrain.AIR, store.getTerrain(999, 999));
+		assertEquals(0, store.getNbResidentChunks());
+		assertEquals(16 * 16, store.getNbChunks());
+	}
+	
+	@Test
+	public void terrainStore_lazyChunks(){
+		TerrainStore store = new TerrainStore(1000, 1000);
+		
+		store.setTerrain(70, 130, Terrain.WATER);
+		store.setTerrain(71, 130, Terrain.MAGMA);
+		assertEquals(Terrain.WATER, store.getTerrain(70, 130));
+		assertEquals(Terrain.MAGMA, store.getTerrain(71, 130));
+		assertEquals(1, store.getNbResidentChunks());
+		assertTrue(store.isResidentChunk(1, 2));
+		
+		store.setTerrain(999, 999, Terrain.SOLID);
+		assertEquals(2, store.getMemoryReport().getNbResidentChunks());
+		assertEquals(2L * TerrainStore.getBytesPerChunk(), store.getMemoryReport().getResidentBytes());
+	}
+	
+	@Test
+	public void terrainStore_releaseAirChunk(){
+		TerrainStore store = new TerrainStore(100, 100);
+		
+		store.setTerrain(5, 5, Terrain.SOLID);
+		store.setTerrain(6, 5, Terrain.SOLID);
+		store.setTerrain(5, 5, Terrain.AIR);
+		assertEquals(1, store.getNbResidentChunks());
+		store.setTerrain(6, 5, Terrain.AIR);
+		assertEquals(0, store.getNbResidentChunks());
+		assertEquals(Terrain.AIR, store.getTerrain(6, 5));
+		
+		store.setTerrain(7, 7, Terrain.AIR);
+		assertEquals(0, store.getNbResidentChunks());
+	}
+	
+	@Test
+	public void terrainStore_outsideStore(){
+		TerrainStore store = new TerrainStore(10, 10);
+		
+		assertEquals(Terrain.AIR, store.getTerrain(-1, 3));
+		assertEquals(Terrain.AIR, store.getTerrain(3, 10));
+	}
+	
+	@Test
+	public void impassableTileSet_wordBoundaries(){
+		TerrainStore store = new TerrainStore(200, 10);
+		store.setTerrain(63, 2, Terrain.SOLID);
+		store.setTerrain(64, 5, Terrain.WATER);
+		ImpassableTileSet solid = new ImpassableTileSet(store, 1 << Terrain.SOLID.getId());
+		
+		assertTrue(solid.isImpassable(63, 2));
+		assertFalse(solid.isImpassable(64, 5));
+		assertTrue(solid.containsAnyIn(0, 0, 63, 2));
+		assertTrue(solid.containsAnyIn(63, 2, 130, 9));
+		assertFalse(solid.containsAnyIn(0, 0, 62, 9));
+		assertFalse(solid.containsAnyIn(64, 0, 199, 9));
+		assertFalse(solid.containsAnyIn(0, 3, 199, 9));
+	}
+	
+	@Test
+	public void impassableTileSet_update(){
+		TerrainStore store = new TerrainStore(200, 10);
+		ImpassableTileSet set = new ImpassableTileSet(store, (1 << Terrain.SOLID.getId()) | (1 << Terrain.MAGMA.getId()));
+		
+		assertFalse(set.containsAnyIn(-5, -5, 500, 500));
+		set.update(150, 9, Terrain.MAGMA);
+		assertTrue(set.containsAnyIn(-5, -5, 500, 500));
+		assertTrue(set.containsAnyIn(129, 9, 191, 9));
+		set.update(150, 9, Terrain.WATER);
+		assertFalse(set.containsAnyIn(0, 0, 199, 9));
+	}
+	
+	@Test
+	public void impassableTileSet_count(){
+		TerrainStore store = new TerrainStore(100, 20);
+		ImpassableTileSet set = new ImpassableTileSet(store, 1 << Terrain.SOLID.getId());
+		for(int tileX = 10; tileX < 20; tileX++)
+			set.update(tileX, 4, Terrain.SOLID);
+		set.update(70, 19, Terrain.SOLID);
+		
+		assertEquals(11, set.countIn(0, 0, 99, 19));
+		assertEquals(3, set.countIn(12, 0, 14, 4));
+		assertEquals(0, set.countIn(12, 5, 99, 18));
+		assertEquals(1, set.countIn(60, 10, 500, 500));
+		
+		set.update(12, 4, Terrain.AIR);
+		assertEquals(2, set.countIn(12, 0, 14, 4));
+	}
+	
+	@Test
+	public void impassableTileSet_countAfterChanges(){
+		TerrainStore store = new TerrainStore(100, 20);
+		ImpassableTileSet set = new ImpassableTileSet(store, 1 << Terrain.SOLID.getId());
+		assertEquals(0, set.countIn(0, 0, 99, 19));
+		
+		for(int i = 0; i < 80; i++){
+			set.update(i, i % 20, Terrain.SOLID);
+			assertEquals(i + 1, set.countIn(0, 0, 99, 19));
+			assertEquals(1, set.countIn(i, 0, i, 19));
+			assertEquals(0, set.countIn(i + 1, 0, 99, 19));
+		}
+		for(int i = 0; i < 80; i += 2)
+			set.update(i, i % 20, Terrain.AIR);
+		assertEquals(40, set.countIn(0, 0, 99, 19));
+		assertEquals(0, set.countIn(0, 0, 0, 19));
+		assertEquals(1, set.countIn(0, 0, 1, 19));
+	}
+	
+	@Test
+	public void impassableTileSet_countAcrossChunks(){
+		TerrainStore store = new TerrainStore(300, 150);
+		ImpassableTileSet set = new ImpassableTileSet(store, 1 << Terrain.SOLID.getId());
+		boolean[][] solid = new boolean[300][150];
+		Random random = new Random(8);
+		for(int i = 0; i < 2000; i++){
+			int tileX = random.nextInt(300), tileY = random.nextInt(150);
+			solid[tileX][tileY] = random.nextBoolean();
+			set.update(tileX, tileY, solid[tileX][tileY] ? Terrain.SOLID : Terrain.AIR);
+			if(i % 100 == 0)
+				set.prepareCounting();
+			
+			int minTileX = random.nextInt(300), minTileY = random.nextInt(150);
+			int maxTileX = minTileX + random.nextInt(200), maxTileY = minTileY + random.nextInt(100);
+			int expected = 0;
+			for(int x = minTileX; x <= Math.min(maxTileX, 299); x++)
+				for(int y = minTileY; y <= Math.min(maxTileY, 149); y++)
+					if(solid[x][y])
+						expected++;
+			assertEquals(expected, set.countIn(minTileX, minTileY, maxTileX, maxTileY));
+		}
+	}
 }
@@ -4,9 +4,30 @@ import static jumpingalien.tests.util.TestUtils.intArray;
 import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Set;
+
+import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.model.GameObject;
 import jumpingalien.model.Mazub;
+import jumpingalien.model.Plant;
+import jumpingalien.model.School;
+import jumpingalien.model.Slime;
+import jumpingalien.model.Tile;
 import jumpingalien.model.World;
 import jumpingalien.model.exceptions.IllegalPositionXException;
+import jumpingalien.model.helper.BruteForceBroadPhase;
+import jumpingalien.model.helper.DetailLevel;
+import jumpingalien.model.helper.SweepAndPruneBroadPhase;
+import jumpingalien.model.helper.Vector;
 import jumpingalien.model.terrain.Terrain;
 import jumpingalien.part2.facade.Facade;
 import jumpingalien.part2.facade.IFacadePart2;
@@ -254,6 +275,34 @@ public class WorldTest {
 		assertArrayEquals(expectedTiles, actualTiles);
 	}	
 	
+	@Test
+	public void testForEachTileIn_order(){
+		World world = new World(50, 3, 3, 1, 1, 1, 1);
+		List<int[]> visited = new ArrayList<int[]>();
+		
+		boolean stopped = world.forEachTileIn(20, 20, 105, 60, (tileX, tileY, terrain) -> {
+			visited.add(new int[]{ tileX, tileY });
+			return false;
+		});
+		
+		assertFalse(stopped);
+		assertArrayEquals(world.getTilePositionsIn(20, 20, 105, 60), visited.toArray(new int[0][]));
+	}
+	
+	@Test
+	public void testForEachTileIn_earlyExit(){
+		world.setGeologicalFeature(2, 1, Terrain.WATER);
+		int[] nbVisited = { 0 };
+		
+		boolean stopped = world.forEachTileIn(0, 50, 250, 100, (tileX, tileY, terrain) -> {
+			nbVisited[0]++;
+			return terrain == Terrain.WATER;
+		});
+		
+		assertTrue(stopped);
+		assertEquals(3, nbVisited[0]);
+	}
+	
 	/************************************************** GEOLOGICAL FEATURE *********************************************/
 	
 	@Test
@@ -273,11 +322,604 @@ public class WorldTest {
 				  world.getPositionYOfTile(2)));
 	}
 	
+	@Test
+	public void testGeologicalFeature_overwrite(){
+		world.setGeologicalFeature(3, 4, Terrain.WATER);
+		world.setGeologicalFeature(3, 4, Terrain.MAGMA);
+		assertEquals(Terrain.MAGMA, world.getGeologicalFeatureOfTile(3, 4));
+		world.setGeologicalFeature(3, 4, Terrain.AIR);
+		assertEquals(Terrain.AIR, world.getGeologicalFeatureOfTile(3, 4));
+	}
+	
+	@Test
+	public void testGeologicalFeature_outsideWorld(){
+		assertEquals(Terrain.AIR, world.getGeologicalFeatureOfTile(-1, 0));
+		assertEquals(Terrain.AIR, world.getGeologicalFeatureOfTile(20, 0));
+		assertEquals(Terrain.AIR, world.getGeologicalFeatureOfTile(0, 15));
+	}
+	
+	@Test
+	public void testAllTiles(){
+		world.setGeologicalFeature(2, 3, Terrain.WATER);
+		assertEquals(21, world.getAllTiles().size());
+		boolean found = false;
+		for(Tile tile : world.getAllTiles()){
+			if(tile.getTerrainType() == Terrain.WATER){
+				assertEquals(100, tile.getRoundedPositionX());
+				assertEquals(150, tile.getRoundedPositionY());
+				found = true;
+			}
+		}
+		assertTrue(found);
+	}
+	
+	@Test
+	public void testAllTiles_air(){
+		world.setGeologicalFeature(2, 3, Terrain.AIR);
+		assertEquals(21, world.getAllTiles().size());
+		assertTrue(world.getAllTiles().contains(world.getTile(100, 150)));
+		assertEquals(Terrain.AIR, world.getAllGeologicalFeatures().get(new Vector<Integer>(2, 3)));
+		assertEquals(null, world.getAllGeologicalFeatures().get(new Vector<Integer>(2, 4)));
+	}
+	
+	@Test
+	public void testTile_cached(){
+		Tile tile = world.getTile(120, 10);
+		
+		assertSame(tile, world.getTile(100, 0));
+		assertEquals(100, tile.getRoundedPositionX());
+		assertEquals(0, tile.getRoundedPositionY());
+		assertEquals(Terrain.SOLID, tile.getTerrainType());
+		assertSame(world.getAllTiles(), world.getAllTiles());
+		assertTrue(world.getAllTiles().contains(tile));
+	}
+	
+	@Test
+	public void testTile_changedFeature(){
+		Tile tile = world.getTile(100, 0);
+		Set<Tile> tiles = world.getAllTiles();
+		
+		world.setGeologicalFeature(2, 0, Terrain.WATER);
+		assertNotSame(tile, world.getTile(100, 0));
+		assertEquals(Terrain.WATER, world.getTile(100, 0).getTerrainType());
+		assertNotSame(tiles, world.getAllTiles());
+		assertTrue(tiles.contains(tile));
+		assertFalse(tiles.contains(world.getTile(100, 0)));
+		assertTrue(world.getAllTiles().contains(world.getTile(100, 0)));
+		assertFalse(world.getAllTiles().contains(tile));
+		
+		// A tile that is set to air is still one of the tiles of the World
+		tiles = world.getAllTiles();
+		Tile waterTile = world.getTile(100, 0);
+		world.setGeologicalFeature(2, 0, Terrain.AIR);
+		assertEquals(20, world.getAllTiles().size());
+		assertTrue(world.getAllTiles().contains(world.getTile(100, 0)));
+		assertTrue(tiles.contains(waterTile));
+	}
+	
+	@Test
+	public void testGeologicalFeature_afterStart(){
+		facade.startGame(world);
+		world.setGeologicalFeature(5, 3, Terrain.SOLID);
+		assertEquals(Terrain.SOLID, world.getGeologicalFeatureOfTile(5, 3));
+		
+		// Mazub overlaps tile (2, 1), but water is not impassable
+		world.setGeologicalFeature(2, 1, Terrain.WATER);
+		assertEquals(Terrain.WATER, world.getGeologicalFeatureOfTile(2, 1));
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void testGeologicalFeature_afterStartOccupied(){
+		facade.startGame(world);
+		world.setGeologicalFeature(2, 1, Terrain.SOLID);
+	}
+	
+	@Test
+	public void testGeologicalFeature_listener(){
+		List<int[]> regions = new ArrayList<int[]>();
+		world.addTerrainListener((minTileX, minTileY, maxTileX, maxTileY) -> 
+									regions.add(new int[]{minTileX, minTileY, maxTileX, maxTileY}));
+		
+		world.setGeologicalFeature(4, 4, Terrain.MAGMA);
+		world.setGeologicalFeature(4, 4, Terrain.MAGMA);
+		world.setGeologicalFeatures(6, 2, 9, 3, Terrain.WATER);
+		
+		assertEquals(2, regions.size());
+		assertArrayEquals(new int[]{4, 4, 4, 4}, regions.get(0));
+		assertArrayEquals(new int[]{6, 2, 9, 3}, regions.get(1));
+		assertEquals(Terrain.WATER, world.getGeologicalFeatureOfTile(9, 3));
+	}
+	
 	@Test(expected=IllegalPositionXException.class)
 	public void testGeologicalFeature_illegalPositionX(){
 		world.setGeologicalFeature(-1, 2, Terrain.SOLID);
 	}
 	
+	/***************************************************** GAME OBJECTS ************************************************/
+	
+	@Test
+	public void testGameObjects_liveViews(){
+		Sprite[] plantSprites = spriteArrayForSize(10, 10, 2);
+		Plant first = facade.createPlant(300, 100, plantSprites);
+		Plant deadPlant = new Plant(500, 100, 0.5, 0, 0.5, 0, plantSprites, 0, 1);
+		Plant last = facade.createPlant(700, 100, plantSprites);
+		
+		Set<Plant> plants = Plant.getAllInWorld(world);
+		Set<GameObject> gameObjects = world.getAllGameObjects();
+		facade.addPlant(world, first);
+		facade.addPlant(world, deadPlant);
+		facade.addPlant(world, last);
+		
+		assertSame(plants, Plant.getAllInWorld(world));
+		assertEquals(3, plants.size());
+		assertEquals(4, gameObjects.size());
+		assertEquals(4, world.getNbGameObjects());
+		assertTrue(gameObjects.contains(alien));
+		assertTrue(world.getAllEnemies().contains(deadPlant));
+		assertFalse(world.getAllEnemies().contains(alien));
+		
+		facade.startGame(world);
+		for (int i=0; i<4; i += 1)
+			facade.advanceTime(world, 0.2);
+		
+		assertTrue(deadPlant.isTerminated());
+		assertEquals(2, Plant.getNbInWorld(world));
+		assertEquals(3, world.getNbGameObjects());
+		assertFalse(plants.contains(deadPlant));
+		assertFalse(gameObjects.contains(deadPlant));
+		assertTrue(plants.contains(first));
+		assertTrue(plants.contains(last));
+		
+		int nbIterated = 0;
+		for(GameObject object : gameObjects){
+			assertTrue(object == alien || plants.contains(object));
+			nbIterated++;
+		}
+		assertEquals(3, nbIterated);
+	}
+	
+	@Test
+	public void testGameObjects_impassableArrays(){
+		Plant plant = facade.createPlant(300, 100, spriteArrayForSize(10, 10, 2));
+		GameObject[] forMazub = world.getImpassableGameObjects(alien.getImpassableGameObjectMask());
+		assertArrayEquals(new GameObject[]{ alien }, forMazub);
+		assertSame(forMazub, world.getImpassableGameObjects(alien.getImpassableGameObjectMask()));
+		
+		facade.addPlant(world, plant);
+		assertNotSame(forMazub, world.getImpassableGameObjects(alien.getImpassableGameObjectMask()));
+		assertEquals(2, world.getImpassableGameObjects(alien.getImpassableGameObjectMask()).length);
+		assertArrayEquals(new GameObject[]{ alien, plant }, world.getImpassableGameObjects(plant.getImpassableGameObjectMask()));
+		assertEquals(1, world.getImpassableGameObjects(World.SLIME_BIT | World.SHARK_BIT | World.MAZUB_BIT).length);
+	}
+	
+	@Test
+	public void testGameObjects_impassableSets(){
+		Plant plant = facade.createPlant(300, 100, spriteArrayForSize(10, 10, 2));
+		Set<GameObject> forMazub = alien.getAllImpassableGameObjects();
+		assertEquals(1, forMazub.size());
+		assertTrue(forMazub.contains(alien));
+		
+		facade.addPlant(world, plant);
+		assertEquals(2, forMazub.size());
+		assertTrue(forMazub.contains(plant));
+		assertTrue(plant.getAllImpassableGameObjects().contains(alien));
+		assertFalse(world.getImpassableGameObjectSet(World.SLIME_BIT | World.SHARK_BIT).contains(alien));
+	}
+	
+	@Test
+	public void testGameObjects_schoolLimit(){
+		Sprite[] slimeSprites = spriteArrayForSize(10, 10, 2);
+		for(int i = 0; i < 10; i++)
+			facade.addSlime(world, facade.createSlime(60 * i, 60, slimeSprites, facade.createSchool()));
+		
+		assertEquals(10, world.getNbSchools());
+		assertFalse(world.canHaveAsGameObject(facade.createSlime(700, 60, slimeSprites, facade.createSchool())));
+	}
+	
+	@Test
+	public void testGameObjects_schoolRegistry(){
+		Sprite[] slimeSprites = spriteArrayForSize(10, 10, 2);
+		School first = facade.createSchool(), second = facade.createSchool();
+		Slime slime = facade.createSlime(60, 60, slimeSprites, first);
+		facade.addSlime(world, slime);
+		facade.addSlime(world, facade.createSlime(120, 60, slimeSprites, second));
+		Set<School> schools = world.getAllSchools();
+		Set<Slime> members = second.getAllSlimes();
+		assertEquals(2, schools.size());
+		
+		slime.switchSchool(second);
+		
+		assertEquals(1, world.getNbSchools());
+		assertFalse(schools.contains(first));
+		assertTrue(schools.contains(second));
+		assertEquals(0, first.getNbSlimes());
+		assertEquals(2, members.size());
+		assertTrue(members.contains(slime));
+	}
+	
+	@Test
+	public void testGameObjects_broadPhase(){
+		Plant plant = facade.createPlant(300, 100, spriteArrayForSize(10, 10, 2));
+		facade.addPlant(world, plant);
+		SweepAndPruneBroadPhase<GameObject> broadPhase = new SweepAndPruneBroadPhase<GameObject>();
+		
+		world.setBroadPhase(broadPhase);
+		
+		assertSame(broadPhase, world.getBroadPhase());
+		assertEquals(2, broadPhase.getNbElements());
+		facade.startGame(world);
+		facade.advanceTime(world, 0.2);
+		assertEquals(2, broadPhase.getNbElements());
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testGameObjects_broadPhaseInUse(){
+		BruteForceBroadPhase<GameObject> broadPhase = new BruteForceBroadPhase<GameObject>();
+		broadPhase.insert(0, alien, 0, 0, 1, 1);
+		world.setBroadPhase(broadPhase);
+	}
+	
+	@Test
+	public void testGameObjects_largeWorld(){
+		World largeWorld = facade.createWorld(50, 200, 15, 200, 150, 4, 1);
+		largeWorld.setLargeWorld(true);
+		facade.setMazub(largeWorld, facade.createMazub(0, 50, sprites));
+		
+		Sprite[] slimeSprites = spriteArrayForSize(10, 10, 2);
+		for(int i = 0; i < 150; i++)
+			facade.addSlime(largeWorld, facade.createSlime(60 * i, 60, slimeSprites, facade.createSchool()));
+		
+		assertEquals(150, largeWorld.getNbSchools());
+		assertEquals(151, largeWorld.getNbGameObjects());
+		assertTrue(largeWorld.hasProperGameObjects());
+	}
+	
+	@Test
+	public void testGameObjects_physicalStateKept(){
+		Plant plant = facade.createPlant(300, 100, spriteArrayForSize(10, 10, 2));
+		double velocityX = plant.getVelocityX();
+		facade.addPlant(world, plant);
+		
+		assertEquals(300, plant.getPositionX(), 1e-9);
+		assertEquals(100, plant.getPositionY(), 1e-9);
+		assertEquals(velocityX, plant.getVelocityX(), 1e-9);
+		assertEquals(100, alien.getPositionX(), 1e-9);
+	}
+	
+	@Test
+	public void testGameObjects_deferredTermination(){
+		Plant deadPlant = new Plant(500, 100, 0.5, 0, 0.5, 0, spriteArrayForSize(10, 10, 2), 0, 1);
+		facade.addPlant(world, deadPlant);
+		facade.startGame(world);
+		
+		assertFalse(world.isDeferringStructuralChanges());
+		for (int i=0; i<4; i += 1)
+			facade.advanceTime(world, 0.2);
+		
+		assertFalse(world.isDeferringStructuralChanges());
+		assertTrue(deadPlant.isTerminated());
+		assertFalse(world.getAllGameObjects().contains(deadPlant));
+	}
+	
+	@Test(expected=ConcurrentModificationException.class)
+	public void testGameObjects_iterationFailsFast(){
+		Sprite[] plantSprites = spriteArrayForSize(10, 10, 2);
+		facade.addPlant(world, facade.createPlant(300, 100, plantSprites));
+		
+		for(@SuppressWarnings("unused") GameObject object : world.getAllGameObjects())
+			facade.addPlant(world, facade.createPlant(500, 100, plantSprites));
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void testGameObjects_largeWorldAfterStart(){
+		facade.startGame(world);
+		world.setLargeWorld(true);
+	}
+	
+	@Test
+	public void testGameObjects_continuousCollisionDetection(){
+		assertFalse(world.hasContinuousCollisionDetection());
+		
+		for(boolean continuous : new boolean[]{ true, false }){
+			World fallWorld = facade.createWorld(50, 20, 15, 200, 150, 4, 1);
+			for(int i = 0; i < 20; i++)
+				facade.setGeologicalFeature(fallWorld, i, 0, FEATURE_SOLID);
+			Mazub fallingAlien = facade.createMazub(100, 600, sprites);
+			facade.setMazub(fallWorld, fallingAlien);
+			fallWorld.setContinuousCollisionDetection(continuous);
+			facade.startGame(fallWorld);
+			
+			for(int i = 0; i < 10; i++)
+				facade.advanceTime(fallWorld, 0.2);
+			
+			assertTrue(fallingAlien.isOnGround());
+			assertArrayEquals(intArray(100, 49), facade.getLocation(fallingAlien));
+			assertEquals(0, fallingAlien.getVelocityY(), 1e-9);
+		}
+	}
+	
+	@Test
+	public void testGameObjects_fixedTimeStep(){
+		assertFalse(world.hasFixedTimeStep());
+		
+		World fallWorld = facade.createWorld(50, 20, 15, 200, 150, 4, 1);
+		for(int i = 0; i < 20; i++)
+			facade.setGeologicalFeature(fallWorld, i, 0, FEATURE_SOLID);
+		Mazub fallingAlien = facade.createMazub(100, 600, sprites);
+		facade.setMazub(fallWorld, fallingAlien);
+		Plant plant = facade.createPlant(102, 49, spriteArrayForSize(10, 10, 2));
+		facade.addPlant(fallWorld, plant);
+		fallWorld.setFixedTimeStep(World.DEFAULT_FIXED_TIME_STEP);
+		facade.startGame(fallWorld);
+		
+		// Half a step is accumulated, without moving Mazub
+		facade.advanceTime(fallWorld, 0.0005);
+		assertEquals(0.0005, fallWorld.getAccumulatedTime(), 1e-9);
+		assertEquals(0.5, fallWorld.getInterpolationFactor(), 1e-6);
+		assertArrayEquals(intArray(100, 600), facade.getLocation(fallingAlien));
+		
+		facade.advanceTime(fallWorld, 0.0005);
+		assertEquals(0, fallWorld.getAccumulatedTime(), 1e-9);
+		assertTrue(fallingAlien.getVelocityY() < 0);
+		
+		for(int i = 0; i < 10; i++)
+			facade.advanceTime(fallWorld, 0.2);
+		
+		assertTrue(fallingAlien.isOnGround());
+		assertArrayEquals(intArray(100, 49), facade.getLocation(fallingAlien));
+		assertTrue(plant.isTerminated());
+		assertEquals(150, facade.getNbHitPoints(fallingAlien));
+	}
+	
+	@Test
+	public void testGameObjects_fixedTimeStepLong(){
+		// Mazub falls from high above onto a platform of one tile, whatever the length of the fixed time step
+		for(double fixedTimeStep : new double[]{ 0, World.DEFAULT_FIXED_TIME_STEP, 0.05, 0.2 }){
+			World fallWorld = facade.createWorld(50, 20, 40, 200, 150, 4, 1);
+			facade.setGeologicalFeature(fallWorld, 2, 5, FEATURE_SOLID);
+			Mazub fallingAlien = facade.createMazub(100, 1500, sprites);
+			facade.setMazub(fallWorld, fallingAlien);
+			fallWorld.setFixedTimeStep(fixedTimeStep);
+			facade.startGame(fallWorld);
+			
+			for(int i = 0; i < 20; i++)
+				facade.advanceTime(fallWorld, 0.2);
+			
+			assertTrue(fallingAlien.isOnGround());
+			assertArrayEquals(intArray(100, 299), facade.getLocation(fallingAlien));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testGameObjects_fixedTimeStepIllegal(){
+		world.setFixedTimeStep(-0.001);
+	}
+	
+	private World createCrowdedWorld(int nbThreads){
+		World crowdedWorld = facade.createWorld(50, 40, 15, 200, 150, 39, 14);
+		crowdedWorld.setRandomSeed(24);
+		for(int i = 0; i < 40; i++)
+			facade.setGeologicalFeature(crowdedWorld, i, 0, FEATURE_SOLID);
+		for(int i = 10; i < 30; i++)
+			for(int j = 1; j < 4; j++)
+				facade.setGeologicalFeature(crowdedWorld, i, j, FEATURE_WATER);
+		for(int j = 1; j < 4; j++)
+			facade.setGeologicalFeature(crowdedWorld, 5, j, FEATURE_SOLID);
+		facade.setMazub(crowdedWorld, facade.createMazub(100, 49, sprites));
+		School school = facade.createSchool();
+		for(int i = 0; i < 12; i++){
+			facade.addSlime(crowdedWorld, facade.createSlime(310 + 150 * i, 49, spriteArrayForSize(10, 10, 2), school));
+			facade.addShark(crowdedWorld, facade.createShark(520 + 80 * i, 60, spriteArrayForSize(10, 10, 2)));
+			facade.addPlant(crowdedWorld, facade.createPlant(350 + 150 * i, 49, spriteArrayForSize(10, 10, 2)));
+		}
+		crowdedWorld.setFixedTimeStep(World.DEFAULT_FIXED_TIME_STEP);
+		crowdedWorld.setNbThreads(nbThreads);
+		facade.startGame(crowdedWorld);
+		return crowdedWorld;
+	}
+	
+	@Test
+	public void testGameObjects_parallelUpdate(){
+		assertEquals(1, world.getNbThreads());
+		
+		World serialWorld = this.createCrowdedWorld(1);
+		World parallelWorld = this.createCrowdedWorld(4);
+		for(int i = 0; i < 20; i++){
+			facade.advanceTime(serialWorld, 0.1);
+			facade.advanceTime(parallelWorld, 0.1);
+		}
+		GameObject[] serialObjects = serialWorld.getImpassableGameObjects(World.ALL_KINDS_MASK);
+		GameObject[] parallelObjects = parallelWorld.getImpassableGameObjects(World.ALL_KINDS_MASK);
+		parallelWorld.setNbThreads(1);
+		
+		assertEquals(serialObjects.length, parallelObjects.length);
+		for(int i = 0; i < serialObjects.length; i++){
+			assertEquals(serialObjects[i].getPositionX(), parallelObjects[i].getPositionX(), 0);
+			assertEquals(serialObjects[i].getPositionY(), parallelObjects[i].getPositionY(), 0);
+			assertEquals(serialObjects[i].getNbHitPoints(), parallelObjects[i].getNbHitPoints());
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testGameObjects_parallelUpdateIllegal(){
+		world.setNbThreads(0);
+	}
+	
+	@Test
+	public void testGameObjects_levelOfDetail(){
+		Plant nearPlant = facade.createPlant(300, 50, spriteArrayForSize(3, 3, 2));
+		Plant midPlant = facade.createPlant(500, 50, spriteArrayForSize(3, 3, 2));
+		Plant farPlant = facade.createPlant(900, 50, spriteArrayForSize(3, 3, 2));
+		facade.addPlant(world, nearPlant);
+		facade.addPlant(world, midPlant);
+		facade.addPlant(world, farPlant);
+		facade.startGame(world);
+		assertFalse(world.hasLevelOfDetail());
+		
+		facade.advanceTime(world, 0.1);
+		assertEquals(4, world.getNbGameObjectsAt(DetailLevel.NEAR));
+		double sinceLastPeriod = farPlant.getTimer().getSinceLastPeriod();
+		
+		world.setLevelOfDetail(150, 400);
+		assertTrue(world.hasLevelOfDetail());
+		
+		// The mid-range Plant only advances once it has waited for a coarse time step
+		double midPositionX = midPlant.getPositionX(), farPositionX = farPlant.getPositionX();
+		facade.advanceTime(world, 0.02);
+		assertEquals(2, world.getNbGameObjectsAt(DetailLevel.NEAR));
+		assertEquals(1, world.getNbGameObjectsAt(DetailLevel.MID));
+		assertEquals(1, world.getNbGameObjectsAt(DetailLevel.FAR));
+		assertSame(DetailLevel.NEAR, nearPlant.getDetailLevel());
+		assertSame(DetailLevel.MID, midPlant.getDetailLevel());
+		assertSame(DetailLevel.FAR, farPlant.getDetailLevel());
+		assertEquals(midPositionX, midPlant.getPositionX(), 0);
+		facade.advanceTime(world, 0.04);
+		assertTrue(midPositionX != midPlant.getPositionX());
+		
+		// The far Plant is frozen, but catches up with the time it was frozen once it comes back into range
+		facade.advanceTime(world, 0.14);
+		assertEquals(farPositionX, farPlant.getPositionX(), 0);
+		assertEquals(sinceLastPeriod, farPlant.getTimer().getSinceLastPeriod(), 0);
+		assertEquals(0.2, farPlant.getFrozenTime(), 1e-9);
+		
+		world.setLevelOfDetail(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+		facade.advanceTime(world, 0);
+		assertSame(DetailLevel.NEAR, farPlant.getDetailLevel());
+		assertEquals(0, farPlant.getFrozenTime(), 0);
+		assertEquals(sinceLastPeriod + 0.2, farPlant.getTimer().getSinceLastPeriod(), 1e-9);
+	}
+	
+	@Test
+	public void testGameObjects_levelOfDetailCoarseSubsteps(){
+		for(boolean continuous : new boolean[]{ true, false }){
+			World slimeWorld = facade.createWorld(50, 20, 15, 200, 150, 4, 1);
+			slimeWorld.setRandomSeed(25);
+			for(int i = 0; i < 20; i++)
+				facade.setGeologicalFeature(slimeWorld, i, 0, FEATURE_SOLID);
+			facade.setGeologicalFeature(slimeWorld, 14, 1, FEATURE_SOLID);
+			facade.setGeologicalFeature(slimeWorld, 18, 1, FEATURE_SOLID);
+			facade.setMazub(slimeWorld, facade.createMazub(100, 49, sprites));
+			Slime slime = facade.createSlime(800, 49, spriteArrayForSize(10, 10, 2), facade.createSchool());
+			facade.addSlime(slimeWorld, slime);
+			slimeWorld.setContinuousCollisionDetection(continuous);
+			slimeWorld.setLevelOfDetail(100, 10000);
+			facade.startGame(slimeWorld);
+			
+			// The mid-range Slime moves several pixels per substep, but never through the walls around it
+			double minPositionX = slime.getPositionX(), maxPositionX = slime.getPositionX();
+			for(int i = 0; i < 100; i++){
+				facade.advanceTime(slimeWorld, 0.05);
+				assertSame(DetailLevel.MID, slime.getDetailLevel());
+				minPositionX = Math.min(minPositionX, slime.getPositionX());
+				maxPositionX = Math.max(maxPositionX, slime.getPositionX());
+				assertEquals(49, slime.getPositionY(), 1e-9);
+			}
+			// Like on the floor, the Slime may overlap the outer pixels of the walls
+			assertTrue(minPositionX >= 749 && maxPositionX < 892);
+			assertTrue(minPositionX < 800 || maxPositionX > 800);
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testGameObjects_levelOfDetailIllegal(){
+		world.setLevelOfDetail(100, 50);
+	}
+	
+	@Test
+	public void testGameObjects_batchedOverlapProcessing(){
+		assertFalse(world.hasBatchedOverlapProcessing());
+		
+		for(boolean batched : new boolean[]{ true, false }){
+			World plantWorld = facade.createWorld(50, 20, 15, 200, 150, 4, 1);
+			for(int i = 0; i < 20; i++)
+				facade.setGeologicalFeature(plantWorld, i, 0, FEATURE_SOLID);
+			Mazub hungryAlien = facade.createMazub(100, 49, sprites);
+			facade.setMazub(plantWorld, hungryAlien);
+			Plant plant = facade.createPlant(102, 49, spriteArrayForSize(10, 10, 2));
+			facade.addPlant(plantWorld, plant);
+			plantWorld.setBatchedOverlapProcessing(batched);
+			facade.startGame(plantWorld);
+			
+			facade.advanceTime(plantWorld, 0.01);
+			
+			assertTrue(plant.isKilled());
+			assertEquals(150, facade.getNbHitPoints(hungryAlien));
+		}
+	}
+	
+	@Test
+	public void testGameObjects_pixelPerfectCollision(){
+		assertFalse(world.hasPixelPerfectCollision(World.PLANT_BIT));
+		
+		// The three leftmost columns of the Plant are transparent
+		BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+		for(int x = 3; x < 10; x++)
+			for(int y = 0; y < 10; y++)
+				image.setRGB(x, y, 0xFF00FF00);
+		Sprite[] plantSprites = new Sprite[]{ ImageSprite.createSprite("plant", image), ImageSprite.createSprite("plant", image) };
+		
+		for(boolean pixelPerfect : new boolean[]{ true, false }){
+			for(boolean batched : new boolean[]{ true, false }){
+				World plantWorld = facade.createWorld(50, 20, 15, 200, 150, 4, 1);
+				for(int i = 0; i < 20; i++)
+					facade.setGeologicalFeature(plantWorld, i, 0, FEATURE_SOLID);
+				Mazub hungryAlien = facade.createMazub(100, 49, sprites);
+				facade.setMazub(plantWorld, hungryAlien);
+				Plant plant = facade.createPlant(102, 49, plantSprites);
+				facade.addPlant(plantWorld, plant);
+				plantWorld.setBatchedOverlapProcessing(batched);
+				plantWorld.setPixelPerfectCollision(World.PLANT_BIT, pixelPerfect);
+				facade.startGame(plantWorld);
+				
+				facade.advanceTime(plantWorld, 0.01);
+				
+				assertEquals(!pixelPerfect, plant.isKilled());
+				assertEquals(pixelPerfect ? 100 : 150, facade.getNbHitPoints(hungryAlien));
+			}
+		}
+	}
+	
+	@Test
+	public void testGameObjects_contactCacheTerrain(){
+		assertFalse(alien.isOnGround());
+		long nbHits = world.getNbContactCacheHits();
+		assertFalse(alien.isOnGround());
+		assertTrue(world.getNbContactCacheHits() > nbHits);
+		
+		facade.setGeologicalFeature(world, 2, 1, FEATURE_SOLID);
+		assertTrue(alien.isOnGround());
+	}
+	
+	@Test
+	public void testGameObjects_contactCacheGameObjects(){
+		Mazub flyingAlien = facade.createMazub(100, 200, sprites);
+		World otherWorld = facade.createWorld(50, 20, 15, 200, 150, 4, 1);
+		facade.setMazub(otherWorld, flyingAlien);
+		assertFalse(flyingAlien.isOnGround());
+		long nbMisses = otherWorld.getNbContactCacheMisses();
+		assertFalse(flyingAlien.isOnGround());
+		assertEquals(nbMisses, otherWorld.getNbContactCacheMisses());
+		
+		facade.addSlime(otherWorld, facade.createSlime(95, 191, spriteArrayForSize(10, 10, 2), facade.createSchool()));
+		assertTrue(flyingAlien.isOnGround());
+		assertTrue(otherWorld.getNbContactCacheMisses() > nbMisses);
+	}
+	
+	@Test
+	public void testGameObjects_contactCacheDistantChange(){
+		Mazub flyingAlien = facade.createMazub(100, 200, sprites);
+		World otherWorld = facade.createWorld(50, 20, 15, 200, 150, 4, 1);
+		facade.setMazub(otherWorld, flyingAlien);
+		assertFalse(flyingAlien.isOnGround());
+		
+		facade.addSlime(otherWorld, facade.createSlime(800, 600, spriteArrayForSize(10, 10, 2), facade.createSchool()));
+		long nbHits = otherWorld.getNbContactCacheHits();
+		long nbMisses = otherWorld.getNbContactCacheMisses();
+		assertFalse(flyingAlien.isOnGround());
+		assertEquals(nbMisses, otherWorld.getNbContactCacheMisses());
+		assertTrue(otherWorld.getNbContactCacheHits() > nbHits);
+	}
+	
 	/******************************************************* VISIBLE WINDOW ******************************************/
 	
 	@Test
@@ -124,4 +124,38 @@ public class BuzamTest {
 
 	}
 	
+	/**
+	 * Check if a Buzam with a Program lands on the ground at the same position, whether or not its World sweeps it
+	 * to its first contact with terrain.
+	 */
+	@Test
+	public void buzamWithProgramContinuousCollisionDetection(){
+		Facade facade = new Facade();
+		
+		for(double fixedTimeStep : new double[]{ -1, 0, World.DEFAULT_FIXED_TIME_STEP, 0.05 }){
+			ParseOutcome<?> parseOutcome = facade.parse("wait 0.5; start_run right; wait 0.1; stop_run right;");
+			assertTrue(parseOutcome.isSuccess());
+			
+			World fallWorld = facade.createWorld(50, 20, 15, 400, 400, 4, 1);
+			for(int i = 0; i < 20; i++)
+				facade.setGeologicalFeature(fallWorld, i, 0, FEATURE_SOLID);
+			facade.setMazub(fallWorld, facade.createMazub(800, 49, spriteArrayForSize(20, 20)));
+			Buzam fallingBuzam = facade.createBuzamWithProgram(180, 600, sprites, (Program) parseOutcome.getResult());
+			facade.addBuzam(fallWorld, fallingBuzam);
+			fallWorld.setContinuousCollisionDetection(fixedTimeStep >= 0);
+			if(fixedTimeStep > 0)
+				fallWorld.setFixedTimeStep(fixedTimeStep);
+			facade.startGame(fallWorld);
+			
+			for(int i = 0; i < 10; i++)
+				facade.advanceTime(fallWorld, 0.2);
+			
+			assertTrue(fallingBuzam.isOnGround());
+			assertEquals(49, facade.getLocation(fallingBuzam)[1]);
+			assertEquals(0, fallingBuzam.getVelocityY(), 1e-9);
+			assertFalse(fallingBuzam.isMoving(Orientation.RIGHT));
+			assertTrue(facade.getLocation(fallingBuzam)[0] > 180);
+		}
+	}
+	
 }
@@ -77,6 +77,31 @@ public class TestProgramStatements {
 	
 	/* Foreach */
 	
+	@Test 
+	public void testForeach_airTiles(){
+		String test = 
+				"double a; object x; a := 0;"
+				+"foreach(terrain, x) where (isair x) do a := a + 1 ; done "
+				+"while true do skip; done ";
+		
+		ParseOutcome<?> parseOutcome = facade.parse(test);
+		
+		if(!parseOutcome.isSuccess()){
+			throw new IllegalArgumentException("Program parsing failed");
+		}
+		
+		// Tiles that are explicitly set to air are visited, other tiles of air are not
+		facade.setGeologicalFeature(world, 10, 1, Terrain.AIR.getId());
+		facade.setGeologicalFeature(world, 11, 1, Terrain.AIR.getId());
+		
+		Program program = (Program) parseOutcome.getResult();
+		Plant plant = facade.createPlantWithProgram(180, 50, plantSprites, program);
+		facade.addPlant(world, plant);
+		for(int i = 0; i < 10; i++)
+			world.advanceTime(0.1);
+		assertEquals(2, ((DoubleType) program.getVariable("a")).getValue(), Util.DEFAULT_EPSILON);
+	}
+	
 	@Test 
 	public void testForeach(){
 		String test = 
@@ -3,11 +3,19 @@ package jumpingalien.part3.tests;
 import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
 
 import jumpingalien.model.Mazub;
 import jumpingalien.model.Plant;
+import jumpingalien.model.RayCaster;
+import jumpingalien.model.Tile;
 import jumpingalien.model.World;
+import jumpingalien.model.helper.Collision;
+import jumpingalien.model.helper.Orientation;
+import jumpingalien.model.interfaces.IKind;
 import jumpingalien.model.terrain.Terrain;
 import jumpingalien.part3.facade.Facade;
 import jumpingalien.part3.programs.ParseOutcome;
@@ -201,4 +209,97 @@ public class TestSearchObject {
 		assertEquals(alien, ((ObjectType) program.getVariable("x")).getValue());
 	}
 	
+	@Test
+	public void testSearchObjMatchesBruteForce(){
+		Random random = new Random(42);
+		World world = facade.createWorld(50, 40, 20, 200, 150, 39, 19);
+		for(int tileX = 0; tileX < 40; tileX++)
+			for(int tileY = 0; tileY < 20; tileY++)
+				if(random.nextInt(10) == 0)
+					world.setGeologicalFeature(tileX, tileY, random.nextBoolean() ? Terrain.SOLID : Terrain.WATER);
+		
+		List<Plant> plants = new ArrayList<Plant>();
+		for(int i = 0; i < 60; i++){
+			Plant plant = facade.createPlant(random.nextInt(1900), random.nextInt(900), spriteArrayForSize(1 + random.nextInt(80), 1 + random.nextInt(80), 2));
+			facade.addPlant(world, plant);
+			plants.add(plant);
+		}
+		
+		assertSearchMatchesBruteForce(world, plants);
+	}
+	
+	@Test
+	public void testSearchObjMatchesBruteForce_afterTerrainChanges(){
+		Random random = new Random(7);
+		World world = facade.createWorld(50, 40, 20, 200, 150, 39, 19);
+		for(int tileX = 0; tileX < 40; tileX++)
+			for(int tileY = 0; tileY < 20; tileY++)
+				if(random.nextInt(6) == 0)
+					world.setGeologicalFeature(tileX, tileY, Terrain.SOLID);
+		
+		List<Plant> plants = new ArrayList<Plant>();
+		for(int i = 0; i < 30; i++){
+			Plant plant = facade.createPlant(random.nextInt(1900), random.nextInt(900), spriteArrayForSize(1 + random.nextInt(80), 1 + random.nextInt(80), 2));
+			facade.addPlant(world, plant);
+			plants.add(plant);
+		}
+		assertSearchMatchesBruteForce(world, plants);
+		
+		for(int i = 0; i < 200; i++)
+			world.setGeologicalFeature(random.nextInt(40), random.nextInt(20), random.nextBoolean() ? Terrain.AIR : Terrain.WATER);
+		assertSearchMatchesBruteForce(world, plants);
+	}
+	
+	private static void assertSearchMatchesBruteForce(World world, List<Plant> plants){
+		for(Plant searcher : plants){
+			for(Orientation direction : new Orientation[]{ Orientation.LEFT, Orientation.RIGHT, Orientation.TOP, Orientation.BOTTOM }){
+				IKind expected = bruteForceSearch(world, searcher, direction);
+				IKind actual = world.searchObject(searcher, direction);
+				
+				if(expected == null){
+					assertNull(actual);
+				}else{
+					assertNotNull(actual);
+					assertEquals(RayCaster.getDistance(searcher, expected, direction), RayCaster.getDistance(searcher, actual, direction));
+					assertEquals(expected instanceof Tile, actual instanceof Tile);
+				}
+			}
+		}
+	}
+	
+	private static IKind bruteForceSearch(World world, IKind searcher, Orientation direction){
+		List<IKind> candidates = new ArrayList<IKind>(world.getAllGameObjects());
+		for(Tile tile : world.getAllTiles())
+			if(tile.getTerrainType() != Terrain.AIR)
+				candidates.add(tile);
+		candidates.remove(null);
+		
+		IKind closest = null;
+		for(IKind object : candidates){
+			boolean inDirection, inSight;
+			switch(direction){
+			case LEFT:
+				inDirection = object.getRoundedPositionX() < searcher.getRoundedPositionX();
+				break;
+			case RIGHT:
+				inDirection = object.getRoundedPositionX() > searcher.getRoundedPositionX();
+				break;
+			case TOP:
+				inDirection = object.getRoundedPositionY() > searcher.getRoundedPositionY();
+				break;
+			default:
+				inDirection = object.getRoundedPositionY() < searcher.getRoundedPositionY();
+			}
+			if(direction == Orientation.LEFT || direction == Orientation.RIGHT)
+				inSight = Collision.doPixelsOverlap(object.getRoundedPositionY(), object.getHeight(), searcher.getRoundedPositionY(), searcher.getHeight());
+			else
+				inSight = Collision.doPixelsOverlap(object.getRoundedPositionX(), object.getWidth(), searcher.getRoundedPositionX(), searcher.getWidth());
+			
+			if(inDirection && inSight && (closest == null || 
+					RayCaster.getDistance(searcher, object, direction) < RayCaster.getDistance(searcher, closest, direction)))
+				closest = object;
+		}
+		return closest;
+	}
+	
 }